@@ -0,0 +1,84 @@
+package database;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.socialclub.socialclub.util.PerfilBaseDatos;
+
+import java.sql.Statement;
+
+/**
+ * Base de datos H2 en memoria, en modo MySQL, con el esquema generado a partir de las entidades y las estadísticas
+ * de Hibernate activadas, para comprobar cuántas sentencias SQL ejecuta cada llamada a un DAO.
+ * Parte del perfil {@link PerfilBaseDatos#EMBEBIDA}, de modo que nunca se conecta al servidor de "hibernate.cfg.xml",
+ * pero usa una base de datos propia y sin los datos de ejemplo: cada prueba inserta los suyos.
+ * La caché de segundo nivel se desactiva para que el número de sentencias no dependa de las pruebas anteriores.
+ */
+final class ContadorSentencias implements AutoCloseable {
+
+    private final SessionFactory sessionFactory;
+
+    /**
+     * Crea la base de datos y la factoría de sesiones a partir de "hibernate.cfg.xml" con el perfil embebido.
+     */
+    ContadorSentencias() {
+        Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+        PerfilBaseDatos.EMBEBIDA.aplicar(configuration);
+        configuration.setProperty(AvailableSettings.URL,
+                "jdbc:h2:mem:sentencias;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS clubsocial");
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        configuration.getProperties().remove(AvailableSettings.HBM2DDL_IMPORT_FILES);
+        configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        configuration.setProperty(AvailableSettings.USE_QUERY_CACHE, "false");
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    /**
+     * Obtiene la factoría de sesiones de la base de datos de prueba.
+     *
+     * @return la factoría de sesiones.
+     */
+    SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    /**
+     * Ejecuta sentencias SQL nativas en una transacción, por ejemplo para insertar los datos de prueba.
+     *
+     * @param sentencias las sentencias a ejecutar.
+     */
+    void ejecutarSql(String... sentencias) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            session.doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String sentencia : sentencias) {
+                        statement.executeUpdate(sentencia);
+                    }
+                }
+            });
+            session.getTransaction().commit();
+        }
+    }
+
+    /**
+     * Ejecuta la operación y devuelve el número de sentencias SQL que se han preparado durante la misma.
+     *
+     * @param operacion la operación, normalmente una llamada a un DAO.
+     * @return el número de sentencias ejecutadas.
+     */
+    long contar(Runnable operacion) {
+        Statistics estadisticas = sessionFactory.getStatistics();
+        estadisticas.clear();
+        operacion.run();
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    @Override
+    public void close() {
+        sessionFactory.close();
+    }
+}
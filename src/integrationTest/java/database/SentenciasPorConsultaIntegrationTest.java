@@ -0,0 +1,152 @@
+package database;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.socialclub.socialclub.database.RegistroEntradaDAO;
+import org.socialclub.socialclub.database.ReservaDAO;
+import org.socialclub.socialclub.model.RegistroEntrada;
+import org.socialclub.socialclub.model.Reserva;
+import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.util.HibernateUtil;
+import org.socialclub.socialclub.util.PerfilBaseDatos;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Comprueba, con las estadísticas de Hibernate sobre una base de datos H2, que los listados de registros de entrada,
+ * reservas y socios se obtienen con una única sentencia SQL, sin una consulta adicional por cada fila (N+1).
+ * Si una consulta deja de cargar sus asociaciones en la misma sentencia, la prueba falla.
+ * Se ejecuta con el perfil embebido ({@value PerfilBaseDatos#PROPIEDAD}=embebida), sin conexión con el servidor MySQL.
+ */
+class SentenciasPorConsultaIntegrationTest {
+
+    private static final String HOY = "CURRENT_DATE";
+
+    private static ContadorSentencias contador;
+    private static String perfilOriginal;
+
+    private MockedStatic<HibernateUtil> mockedHibernateUtil;
+    private RegistroEntradaDAO registroEntradaDAO;
+    private ReservaDAO reservaDAO;
+
+    /**
+     * Crea la base de datos con tres socios de dos familias, sus registros de entrada y sus reservas.
+     */
+    @BeforeAll
+    static void crearBaseDatos() {
+        // Cualquier SessionFactory que se cree durante la prueba usa la base de datos embebida
+        perfilOriginal = System.setProperty(PerfilBaseDatos.PROPIEDAD, PerfilBaseDatos.EMBEBIDA.getCodigo());
+        contador = new ContadorSentencias();
+        List<String> sentencias = new ArrayList<>(List.of(
+                "INSERT INTO clubsocial.rol (id, nombre_rol) VALUES (1, 'ADMIN')",
+                "INSERT INTO clubsocial.empleado (id, nombre, apellidos, dni, telefono, domicilio, fecha_nacimiento, email, rol) "
+                        + "VALUES (1, 'Empleado', 'Prueba', '00000000T', '600000000', 'Club', DATE '1980-01-01', 'empleado@club.local', 1)",
+                "INSERT INTO clubsocial.familia (num_familia, nombre_titular, apellidos_titular, id_empleado, numero_miembros) "
+                        + "VALUES (1, 'Familia', 'Uno', 1, 2)",
+                "INSERT INTO clubsocial.familia (num_familia, nombre_titular, apellidos_titular, id_empleado, numero_miembros) "
+                        + "VALUES (2, 'Familia', 'Dos', 1, 1)",
+                "INSERT INTO clubsocial.instalacion (id, tipo, nombre, capacidad, precio_alquiler, duracion, hora_ini, hora_fin, disponibilidad, id_empleado) "
+                        + "VALUES (1, 'Pista', 'Pádel 1', 4, 10.00, 60, TIME '09:00:00', TIME '21:00:00', 1, 1)",
+                "INSERT INTO clubsocial.instalacion (id, tipo, nombre, capacidad, precio_alquiler, duracion, hora_ini, hora_fin, disponibilidad, id_empleado) "
+                        + "VALUES (2, 'Pista', 'Tenis 1', 4, 12.00, 60, TIME '09:00:00', TIME '21:00:00', 1, 1)"));
+        for (int i = 1; i <= 3; i++) {
+            String numero = "'S" + i + "'";
+            sentencias.add("INSERT INTO clubsocial.socio (numero_socio, id_socio, num_familia, nombre, apellidos, telefono, fecha_nacimiento, "
+                    + "dentro_instalacion, fecha_alta, id_empleado, titularidad) VALUES (" + numero + ", " + i + ", " + (i == 3 ? 2 : 1)
+                    + ", 'Socio', 'Prueba " + i + "', '600000000', DATE '1990-01-01', 0, " + HOY + ", 1, 'NORMAL')");
+            // Un registro cerrado y otro abierto por socio
+            sentencias.add("INSERT INTO clubsocial.registro_entrada (fecha, numero_socio, hora_entrada, hora_salida, id_empleado) "
+                    + "VALUES (" + HOY + ", " + numero + ", TIME '0" + i + ":00:00', TIME '0" + i + ":30:00', 1)");
+            sentencias.add("INSERT INTO clubsocial.registro_entrada (fecha, numero_socio, hora_entrada, hora_salida, id_empleado) "
+                    + "VALUES (" + HOY + ", " + numero + ", TIME '1" + i + ":00:00', NULL, 1)");
+            sentencias.add("INSERT INTO clubsocial.reserva (fecha, hora, id_instalacion, numero_socio) "
+                    + "VALUES (" + HOY + ", TIME '1" + i + ":00:00', " + (i % 2 + 1) + ", " + numero + ")");
+        }
+        contador.ejecutarSql(sentencias.toArray(String[]::new));
+    }
+
+    /**
+     * Cierra la base de datos de prueba.
+     */
+    @AfterAll
+    static void cerrarBaseDatos() {
+        contador.close();
+        if (perfilOriginal == null) {
+            System.clearProperty(PerfilBaseDatos.PROPIEDAD);
+        } else {
+            System.setProperty(PerfilBaseDatos.PROPIEDAD, perfilOriginal);
+        }
+    }
+
+    /**
+     * Hace que los DAO usen la base de datos de prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        mockedHibernateUtil = mockStatic(HibernateUtil.class);
+        mockedHibernateUtil.when(HibernateUtil::getSessionFactory).thenReturn(contador.getSessionFactory());
+        registroEntradaDAO = new RegistroEntradaDAO();
+        reservaDAO = new ReservaDAO();
+        RegistroEntradaDAO.invalidarOcupacion();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedHibernateUtil.close();
+    }
+
+    @Test
+    void testRegistrosPorFechaEnUnaSentencia() {
+        List<RegistroEntrada> registros = new ArrayList<>();
+
+        long sentencias = contador.contar(() -> registros.addAll(registroEntradaDAO.obtenerRegistrosEntradaPorFecha(LocalDate.now())));
+
+        assertEquals(6, registros.size());
+        assertEquals(1, sentencias, "Los socios y sus familias deben cargarse en la misma sentencia que los registros");
+        // Las asociaciones ya están cargadas: leerlas fuera de la sesión no ejecuta más sentencias
+        assertEquals(0, contador.contar(() -> registros.forEach(r -> r.getNumeroSocio().getNumFamilia().getNombreTitular())));
+    }
+
+    @Test
+    void testUltimaEntradaYSalidaEnUnaSentencia() {
+        assertEquals(1, contador.contar(registroEntradaDAO::obtenerUltimaEntrada));
+        assertEquals(1, contador.contar(registroEntradaDAO::obtenerUltimaSalida));
+    }
+
+    @Test
+    void testSociosDentroYFueraEnUnaSentencia() {
+        List<Socio> dentro = new ArrayList<>();
+
+        assertEquals(1, contador.contar(() -> dentro.addAll(registroEntradaDAO.obtenerSociosDentro())));
+        assertEquals(3, dentro.size());
+        assertEquals(1, contador.contar(registroEntradaDAO::obtenerSociosFuera));
+    }
+
+    @Test
+    void testOcupacionEnUnaSentencia() {
+        long sentencias = contador.contar(registroEntradaDAO::obtenerOcupacion);
+
+        assertEquals(1, sentencias);
+        assertEquals(3, registroEntradaDAO.obtenerOcupacion().getSociosDentro());
+    }
+
+    @Test
+    void testListadosDeReservasEnUnaSentencia() {
+        List<Reserva> reservas = new ArrayList<>();
+
+        assertEquals(1, contador.contar(() -> reservas.addAll(reservaDAO.obtenerReservas())));
+        assertEquals(3, reservas.size());
+        assertEquals(0, contador.contar(() -> reservas.forEach(r -> r.getIdInstalacion().getNombre())));
+        assertEquals(1, contador.contar(() -> reservaDAO.obtenerPaginaReservas(null, null, null, 2)));
+        assertEquals(1, contador.contar(() -> reservaDAO.obtenerReservasPorFecha(LocalDate.now())));
+    }
+}
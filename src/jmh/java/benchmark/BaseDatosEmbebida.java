@@ -0,0 +1,115 @@
+package benchmark;
+
+import org.hibernate.Session;
+import org.socialclub.socialclub.huella.SyntheticTemplateGenerator;
+import org.socialclub.socialclub.util.HibernateUtil;
+import org.socialclub.socialclub.util.PerfilBaseDatos;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Prepara una base de datos H2 en memoria, en modo MySQL, con socios y registros de entrada sintéticos
+ * para los benchmarks. Debe llamarse a {@link #iniciar()} antes de que se cargue {@link HibernateUtil},
+ * ya que el perfil embebido ({@link PerfilBaseDatos#EMBEBIDA}) se selecciona mediante una propiedad del sistema.
+ */
+final class BaseDatosEmbebida {
+
+    /**
+     * Semilla de las plantillas sintéticas, común a todos los benchmarks.
+     */
+    static final long SEMILLA = 20240601L;
+
+    private static final int TAMANIO_LOTE = 1_000;
+
+    private BaseDatosEmbebida() {
+        throw new UnsupportedOperationException("Clase de utilidad");
+    }
+
+    /**
+     * Configura Hibernate para usar la base de datos embebida y crea el esquema a partir de las entidades.
+     */
+    static void iniciar() {
+        System.setProperty(PerfilBaseDatos.PROPIEDAD, PerfilBaseDatos.EMBEBIDA.getCodigo());
+        HibernateUtil.getSessionFactory();
+    }
+
+    /**
+     * Inserta los socios sintéticos y su historial de registros de entrada.
+     * Los socios se insertan con SQL nativo porque su número e identificador los genera la base de datos
+     * y no se pueden asignar desde Hibernate.
+     *
+     * @param socios            el número de socios a generar.
+     * @param registrosPorSocio el número de registros de entrada cerrados de cada socio.
+     * @param porcentajeDentro  el porcentaje de socios que tienen un registro abierto (están dentro).
+     */
+    static void sembrar(int socios, int registrosPorSocio, int porcentajeDentro) {
+        SyntheticTemplateGenerator generador = new SyntheticTemplateGenerator(SEMILLA);
+        LocalDate hoy = LocalDate.now();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    // Sustituye los datos de ejemplo del perfil embebido por los sintéticos
+                    statement.executeUpdate("DELETE FROM clubsocial.reserva");
+                    statement.executeUpdate("DELETE FROM clubsocial.horarios");
+                    statement.executeUpdate("DELETE FROM clubsocial.instalacion");
+                    statement.executeUpdate("DELETE FROM clubsocial.registro_entrada");
+                    statement.executeUpdate("DELETE FROM clubsocial.socio");
+                    statement.executeUpdate("DELETE FROM clubsocial.familia");
+                    statement.executeUpdate("DELETE FROM clubsocial.empleado");
+                    statement.executeUpdate("DELETE FROM clubsocial.rol");
+                    statement.executeUpdate("INSERT INTO clubsocial.rol (id, nombre_rol) VALUES (1, 'ADMIN')");
+                    statement.executeUpdate("INSERT INTO clubsocial.empleado (id, nombre, apellidos, dni, telefono, domicilio, fecha_nacimiento, email, rol) "
+                            + "VALUES (1, 'Empleado', 'Benchmark', '00000000T', '600000000', 'Club', DATE '1980-01-01', 'empleado@club.local', 1)");
+                    statement.executeUpdate("INSERT INTO clubsocial.familia (num_familia, nombre_titular, apellidos_titular, id_empleado, numero_miembros) "
+                            + "VALUES (1, 'Familia', 'Benchmark', 1, 0)");
+                }
+                try (PreparedStatement socio = connection.prepareStatement(
+                        "INSERT INTO clubsocial.socio (numero_socio, id_socio, num_familia, nombre, apellidos, telefono, fecha_nacimiento, "
+                                + "huella, dentro_instalacion, fecha_alta, id_empleado, titularidad) VALUES (?, ?, 1, ?, ?, '600000000', ?, ?, ?, ?, 1, 'NORMAL')");
+                     PreparedStatement registro = connection.prepareStatement(
+                             "INSERT INTO clubsocial.registro_entrada (fecha, numero_socio, hora_entrada, hora_salida, id_empleado) VALUES (?, ?, ?, ?, 1)")) {
+                    for (int i = 0; i < socios; i++) {
+                        boolean dentro = i % 100 < porcentajeDentro;
+                        socio.setString(1, generador.numeroSocio(i));
+                        socio.setInt(2, i + 1);
+                        socio.setString(3, "Socio");
+                        socio.setString(4, "Sintético " + i);
+                        socio.setDate(5, Date.valueOf(hoy.minusYears(18 + i % 60).minusDays(i % 365)));
+                        socio.setBytes(6, generador.plantilla(i));
+                        socio.setByte(7, (byte) (dentro ? 1 : 0));
+                        socio.setDate(8, Date.valueOf(hoy.minusDays(i % 1_000)));
+                        socio.addBatch();
+
+                        for (int r = 0; r < registrosPorSocio; r++) {
+                            registro.setDate(1, Date.valueOf(hoy.minusDays(1 + (i + r) % 90)));
+                            registro.setString(2, generador.numeroSocio(i));
+                            registro.setTime(3, Time.valueOf(LocalTime.of(9 + r % 10, i % 60)));
+                            registro.setTime(4, Time.valueOf(LocalTime.of(20, i % 60)));
+                            registro.addBatch();
+                        }
+                        if (dentro) {
+                            registro.setDate(1, Date.valueOf(hoy));
+                            registro.setString(2, generador.numeroSocio(i));
+                            registro.setTime(3, Time.valueOf(LocalTime.of(8, i % 60)));
+                            registro.setTime(4, null);
+                            registro.addBatch();
+                        }
+                        if ((i + 1) % TAMANIO_LOTE == 0) {
+                            socio.executeBatch();
+                            registro.executeBatch();
+                        }
+                    }
+                    socio.executeBatch();
+                    registro.executeBatch();
+                }
+            });
+            session.getTransaction().commit();
+        }
+    }
+}
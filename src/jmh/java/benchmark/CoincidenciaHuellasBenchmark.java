@@ -0,0 +1,92 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.socialclub.socialclub.huella.IndiceHuellas;
+import org.socialclub.socialclub.huella.MotorCoincidencias;
+import org.socialclub.socialclub.huella.ResultadoCoincidencia;
+import org.socialclub.socialclub.huella.SyntheticMatcher;
+import org.socialclub.socialclub.huella.SyntheticTemplateGenerator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la identificación de una huella contra el índice en memoria, tal y como se hace en cada escaneo
+ * de la pantalla principal, con plantillas sintéticas en lugar del lector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoincidenciaHuellasBenchmark {
+
+    private static final int NUM_MUESTRAS = 64;
+
+    @Param({"1000", "10000", "50000"})
+    private int socios;
+
+    /**
+     * Número de hilos de verificación; 0 utiliza todos los procesadores disponibles.
+     */
+    @Param({"1", "0"})
+    private int paralelismo;
+
+    private MotorCoincidencias<long[], long[]> motor;
+    private long[][] muestras;
+    private long[] muestraDesconocida;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        SyntheticTemplateGenerator generador = new SyntheticTemplateGenerator(BaseDatosEmbebida.SEMILLA);
+        SyntheticMatcher matcher = new SyntheticMatcher();
+        generador.sembrar(IndiceHuellas.getInstance(), socios);
+        motor = new MotorCoincidencias<>(matcher, paralelismo, 0);
+
+        SplittableRandom random = new SplittableRandom(BaseDatosEmbebida.SEMILLA);
+        muestras = new long[NUM_MUESTRAS][];
+        for (int i = 0; i < NUM_MUESTRAS; i++) {
+            muestras[i] = matcher.extraerCaracteristicas(generador.muestra(random.nextInt(socios)));
+        }
+        muestraDesconocida = matcher.extraerCaracteristicas(generador.muestraDesconocida());
+
+        // Se preparan todas las plantillas para no medir el llenado de la caché
+        motor.buscar(muestraDesconocida, IndiceHuellas.getInstance().obtenerHuellas());
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        motor.cerrar();
+    }
+
+    /**
+     * Identifica a un socio registrado elegido al azar.
+     */
+    @Benchmark
+    public ResultadoCoincidencia identificarSocio() {
+        long[] muestra = muestras[siguiente++ % NUM_MUESTRAS];
+        return motor.buscar(muestra, IndiceHuellas.getInstance().obtenerHuellas());
+    }
+
+    /**
+     * Busca una huella que no pertenece a ningún socio, el peor caso: se comparan todas las plantillas.
+     */
+    @Benchmark
+    public ResultadoCoincidencia huellaDesconocida() {
+        return motor.buscar(muestraDesconocida, IndiceHuellas.getInstance().obtenerHuellas());
+    }
+}
@@ -0,0 +1,199 @@
+package benchmark;
+
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.socialclub.socialclub.database.RegistroEntradaDAO;
+import org.socialclub.socialclub.huella.IndiceHuellas;
+import org.socialclub.socialclub.huella.MotorCoincidencias;
+import org.socialclub.socialclub.huella.ResultadoCoincidencia;
+import org.socialclub.socialclub.huella.SyntheticMatcher;
+import org.socialclub.socialclub.huella.SyntheticTemplateGenerator;
+import org.socialclub.socialclub.model.RegistroEntrada;
+import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.util.HibernateUtil;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el camino completo de control de acceso contra una base de datos embebida:
+ * identificación de la huella, búsqueda del registro abierto, alta de la entrada, cierre de la salida
+ * y los recuentos que refresca el Dashboard.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistroEntradaBenchmark {
+
+    private static final int NUM_SOCIOS_MUESTRA = 64;
+    private static final int PORCENTAJE_DENTRO = 10;
+
+    /**
+     * Fecha con la que se crean los registros durante la medición, para poder borrarlos entre iteraciones
+     * sin tocar el historial sembrado.
+     */
+    private static final LocalDate FECHA_MEDICION = LocalDate.now().plusDays(1);
+
+    @Param({"1000", "10000"})
+    private int socios;
+
+    @Param({"20"})
+    private int registrosPorSocio;
+
+    private RegistroEntradaDAO registroEntradaDAO;
+    private MotorCoincidencias<long[], long[]> motor;
+    private SyntheticMatcher matcher;
+    private final List<Socio> sociosFuera = new ArrayList<>();
+    private final List<RegistroEntrada> registrosAbiertos = new ArrayList<>();
+    private long[][] muestras;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        BaseDatosEmbebida.iniciar();
+        BaseDatosEmbebida.sembrar(socios, registrosPorSocio, PORCENTAJE_DENTRO);
+        registroEntradaDAO = new RegistroEntradaDAO();
+
+        SyntheticTemplateGenerator generador = new SyntheticTemplateGenerator(BaseDatosEmbebida.SEMILLA);
+        matcher = new SyntheticMatcher();
+        motor = new MotorCoincidencias<>(matcher, 0, 0);
+        IndiceHuellas.getInstance().cargar();
+
+        SplittableRandom random = new SplittableRandom(BaseDatosEmbebida.SEMILLA);
+        muestras = new long[NUM_SOCIOS_MUESTRA][];
+        for (int i = 0; i < NUM_SOCIOS_MUESTRA; i++) {
+            int indice = random.nextInt(socios);
+            muestras[i] = matcher.extraerCaracteristicas(generador.muestra(indice));
+
+            // Los socios con índice % 100 < PORCENTAJE_DENTRO se sembraron con un registro abierto
+            int dentro = random.nextInt(socios / 100) * 100 + random.nextInt(PORCENTAJE_DENTRO);
+            registrosAbiertos.add(registroEntradaDAO.obtenerRegistroEntradaSinSalida(
+                    registroEntradaDAO.obtenerSocioPorNumero(generador.numeroSocio(dentro))));
+            int fuera = random.nextInt(socios / 100) * 100 + PORCENTAJE_DENTRO + random.nextInt(100 - PORCENTAJE_DENTRO);
+            sociosFuera.add(registroEntradaDAO.obtenerSocioPorNumero(generador.numeroSocio(fuera)));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void borrarRegistrosMedicion() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createMutationQuery("DELETE FROM RegistroEntrada r WHERE r.fecha = :fecha")
+                    .setParameter("fecha", FECHA_MEDICION)
+                    .executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        motor.cerrar();
+        HibernateUtil.shutdown();
+    }
+
+    /**
+     * Busca el registro abierto de un socio que está dentro de las instalaciones.
+     */
+    @Benchmark
+    public RegistroEntrada obtenerRegistroAbierto() {
+        return registroEntradaDAO.obtenerRegistroEntradaSinSalida(registrosAbiertos.get(siguiente++ % NUM_SOCIOS_MUESTRA).getNumeroSocio());
+    }
+
+    /**
+     * Busca el registro abierto de un socio que está fuera: la consulta no encuentra ninguno.
+     */
+    @Benchmark
+    public RegistroEntrada obtenerRegistroAbiertoSocioFuera() {
+        return registroEntradaDAO.obtenerRegistroEntradaSinSalida(sociosFuera.get(siguiente++ % NUM_SOCIOS_MUESTRA));
+    }
+
+    /**
+     * Registra la entrada de un socio.
+     */
+    @Benchmark
+    public RegistroEntrada crearRegistroEntrada() {
+        RegistroEntrada registroEntrada = nuevoRegistro(sociosFuera.get(siguiente++ % NUM_SOCIOS_MUESTRA));
+        registroEntradaDAO.crearRegistroEntrada(registroEntrada);
+        return registroEntrada;
+    }
+
+    /**
+     * Registra la salida de un socio que está dentro. La salida se deshace en la siguiente llamada
+     * sobre el mismo registro para que el número de registros abiertos no cambie durante la medición.
+     */
+    @Benchmark
+    public RegistroEntrada actualizarRegistroEntrada() {
+        RegistroEntrada registroEntrada = registrosAbiertos.get(siguiente++ % NUM_SOCIOS_MUESTRA);
+        registroEntrada.setHoraSalida(registroEntrada.getHoraSalida() == null ? LocalTime.now() : null);
+        registroEntradaDAO.actualizarRegistroEntrada(registroEntrada);
+        return registroEntrada;
+    }
+
+    /**
+     * Recuento total de socios que muestra el Dashboard.
+     */
+    @Benchmark
+    public int obtenerTotalSocios() {
+        return registroEntradaDAO.obtenerTotalSocios();
+    }
+
+    /**
+     * Recuento de socios dentro de las instalaciones que muestra el Dashboard.
+     */
+    @Benchmark
+    public int obtenerTotalSociosDentro() {
+        return registroEntradaDAO.obtenerTotalSociosDentro();
+    }
+
+    /**
+     * Escaneo completo, como en la pantalla principal: identificación de la huella, carga del socio,
+     * búsqueda del registro abierto y alta de la entrada o cierre de la salida.
+     */
+    @Benchmark
+    public RegistroEntrada escaneoCompleto() {
+        ResultadoCoincidencia resultado = motor.buscar(muestras[siguiente++ % NUM_SOCIOS_MUESTRA], IndiceHuellas.getInstance().obtenerHuellas());
+        Socio socio = registroEntradaDAO.obtenerSocioPorNumero(resultado.getHuella().getNumeroSocio());
+        RegistroEntrada registroEntrada = registroEntradaDAO.obtenerRegistroEntradaSinSalida(socio);
+        if (registroEntrada == null) {
+            registroEntrada = nuevoRegistro(socio);
+            registroEntradaDAO.crearRegistroEntrada(registroEntrada);
+        } else {
+            registroEntrada.setHoraSalida(LocalTime.now());
+            registroEntradaDAO.actualizarRegistroEntrada(registroEntrada);
+        }
+        return registroEntrada;
+    }
+
+    /**
+     * Crea un registro de entrada con la fecha de medición.
+     *
+     * @param socio el socio que entra.
+     * @return el registro de entrada sin persistir.
+     */
+    private RegistroEntrada nuevoRegistro(Socio socio) {
+        RegistroEntrada registroEntrada = new RegistroEntrada();
+        registroEntrada.setNumeroSocio(socio);
+        registroEntrada.setFecha(FECHA_MEDICION);
+        registroEntrada.setHoraEntrada(LocalTime.now());
+        return registroEntrada;
+    }
+}
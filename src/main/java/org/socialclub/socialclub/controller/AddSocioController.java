@@ -4,6 +4,7 @@ import io.github.palexdev.materialfx.controls.*;
 import io.github.palexdev.materialfx.utils.SwingFXUtils;
 import io.github.palexdev.mfxcomponents.controls.buttons.MFXIconButton;
 import io.github.palexdev.mfxresources.fonts.MFXFontIcon;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -27,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.socialclub.socialclub.database.EmpleadoDAO;
 import org.socialclub.socialclub.database.SocioDAO;
+import org.socialclub.socialclub.huella.EscrituraHuellas;
 import org.socialclub.socialclub.model.Familia;
 import org.socialclub.socialclub.model.Socio;
 import org.socialclub.socialclub.util.*;
@@ -36,14 +38,9 @@ import javax.sql.rowset.serial.SerialBlob;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 
 import static java.lang.Integer.parseInt;
@@ -129,6 +126,8 @@ public class AddSocioController {
     private MFXButton btnGuardar;
 
     private static final Logger logger = LoggerFactory.getLogger(AddSocioController.class);
+    private byte[] plantillaHuella;
+    private TablaPaginada<Socio> sociosPaginados;
     private double xOffset = 0;
     private double yOffset = 0;
 
@@ -263,15 +262,15 @@ public class AddSocioController {
 
     /**
      * Carga los datos de la tabla de socios.
+     * Solo se carga la primera página; las siguientes se cargan al desplazarse por la tabla.
      */
     private void cargarDatosTabla() {
-        SocioDAO socioDAO = new SocioDAO();
-        List<Socio> sociosList = socioDAO.obtenerTodosSocios();
-        if (sociosList == null) {
-            sociosList = new ArrayList<>();
+        if (sociosPaginados == null) {
+            SocioDAO socioDAO = new SocioDAO();
+            sociosPaginados = new TablaPaginada<>(tablaSocio, TablaPaginada.TAMANO_PAGINA_DEFECTO, (ultimo, tamano) ->
+                    socioDAO.obtenerPaginaSocios(ultimo != null ? ultimo.getIdSocio() : 0, tamano));
         }
-        ObservableList<Socio> socios = FXCollections.observableArrayList(sociosList);
-        tablaSocio.setItems(socios);
+        sociosPaginados.recargar();
     }
 
     /**
@@ -299,7 +298,7 @@ public class AddSocioController {
         if (!validarImagenYHuella()) return;
 
         SerialBlob imagen = obtenerImagen();
-        SerialBlob huella = obtenerHuella();
+        byte[] huella = plantillaHuella;
 
         DialogoController.showConfirmDialog(
                 (Stage) tablaSocio.getScene().getWindow(),
@@ -400,7 +399,7 @@ public class AddSocioController {
             valid = false;
         }
 
-        if (imgHuella.getImage() == null) {
+        if (imgHuella.getImage() == null || plantillaHuella == null) {
             lblHuellaError.setText("Debe capturar una huella");
             valid = false;
         }
@@ -425,30 +424,6 @@ public class AddSocioController {
     }
 
 
- /**
-           * Obtiene la huella desde un archivo y la convierte en un `SerialBlob`.
-           * Si el archivo existe, lee su contenido, intenta eliminar el archivo y retorna un `SerialBlob` con los datos leídos.
-           * Si el archivo no existe, retorna `null`.
-           *
-           * @return Un `SerialBlob` con los datos de la huella si el archivo existe, o `null` si no existe.
-           * @throws IOException Si ocurre un error al leer el archivo o al convertir los datos a `SerialBlob`.
-           * @throws SQLException Si ocurre un error al crear el `SerialBlob`.
-           */
-          private SerialBlob obtenerHuella() throws IOException, SQLException {
-              Path huellaPath = Paths.get("huellaTemplate.dat");
-              if (Files.exists(huellaPath)) {
-                  byte[] huellaBytes = Files.readAllBytes(huellaPath);
-                  try {
-                      Files.delete(huellaPath); // Intentar borrar el archivo
-                  } catch (IOException e) {
-                      logger.error("No se pudo eliminar el archivo de huella: {}", huellaPath.toAbsolutePath(), e);
-                  }
-                  return new SerialBlob(huellaBytes);
-              } else {
-                  return null; // Retornar null si el archivo de huella no existe
-              }
-          }
-
     /**
      * Guarda un socio en la base de datos.
      *
@@ -462,13 +437,30 @@ public class AddSocioController {
      * @param email           El email del socio.
      * @param titularidad     La titularidad del socio.
      * @param imagen          La imagen del socio.
-     * @param huella          La huella del socio.
+     * @param huella          La plantilla de huella inscrita, que se guarda en segundo plano tras dar de alta al socio;
+     *                        si no se consigue guardar, se muestra un aviso.
      */
-    private void guardarSocioEnBaseDeDatos(EmpleadoDAO empleadoDAO, Familia numFamilia, String nombre, String apellidos, String dni, String telefono, LocalDate fechaNacimiento, String email, String titularidad, SerialBlob imagen, SerialBlob huella) {
+    private void guardarSocioEnBaseDeDatos(EmpleadoDAO empleadoDAO, Familia numFamilia, String nombre, String apellidos, String dni, String telefono, LocalDate fechaNacimiento, String email, String titularidad, SerialBlob imagen, byte[] huella) {
         try {
             SocioDAO socioDAO = new SocioDAO();
             String password = PasswordGenerator.generateRandomPassword();
-            socioDAO.guardarSocio(numFamilia, nombre, apellidos, telefono, dni, email, fechaNacimiento.toString(), imagen, huella, Socio.Titularidad.valueOf(titularidad), (byte) 0, LocalDate.now().toString(), empleadoDAO.obtenerEmpleadoPorId(1), EncriptadorUtil.hashPassword(password));
+            String numeroSocio = socioDAO.guardarSocio(numFamilia, nombre, apellidos, telefono, dni, email, fechaNacimiento.toString(), imagen, null, Socio.Titularidad.valueOf(titularidad), (byte) 0, LocalDate.now().toString(), empleadoDAO.obtenerEmpleadoPorId(1), EncriptadorUtil.hashPassword(password));
+            if (numeroSocio == null) {
+                // Sin alta no se programa la huella: se guardaría en otro socio
+                DialogoController.showInfoDialog((Stage) tablaSocio.getScene().getWindow(), "No se ha podido guardar el socio.", event -> {
+                });
+                return;
+            }
+            // La huella se guarda en segundo plano: si se agotan los reintentos, se avisa para volver a inscribirla
+            Stage ventana = (Stage) tablaSocio.getScene().getWindow();
+            EscrituraHuellas.getInstance().programar(numeroSocio, huella).whenComplete((guardada, error) -> {
+                if (error != null || !Boolean.TRUE.equals(guardada)) {
+                    Platform.runLater(() -> DialogoController.showInfoDialog(ventana,
+                            "El socio " + nombre + " " + apellidos + " (n.º " + numeroSocio + ") se ha dado de alta, " +
+                                    "pero no se ha podido guardar su huella. Vuelva a inscribirla.", event -> {
+                            }));
+                }
+            });
             EmailUtils.sendEmail(email, password);
             cargarDatosTabla();
             reiniciarInputs();
@@ -484,14 +476,21 @@ public class AddSocioController {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/View/huella.fxml"));
             Parent root = loader.load();
+            HuellaController huellaController = loader.getController();
 
             Stage stage = new Stage();
             stage.setTitle("Huella");
             stage.setScene(new Scene(root));
-            stage.showAndWait();
+            try {
+                stage.showAndWait();
+            } finally {
+                huellaController.cerrar();
+            }
 
+            byte[] plantilla = huellaController.getPlantilla().getNow(null);
             Image huellaImage = HuellaController.getHuellaImage();
-            if (huellaImage != null) {
+            if (plantilla != null && huellaImage != null) {
+                plantillaHuella = plantilla;
                 imgHuella.setImage(huellaImage);
             }
         } catch (IOException ex) {
@@ -553,6 +552,7 @@ public class AddSocioController {
         cmbTitularidad.setValue(null);
         imgPhoto.setImage(new Image(Objects.requireNonNull(getClass().getResource("/images/noimage.jpg")).toString()));
         imgHuella.setImage(new Image(Objects.requireNonNull(getClass().getResource("/images/nohuella.jpg")).toString()));
+        plantillaHuella = null;
         lblNombreError.setText("");
         lblApellidosError.setText("");
         lblDniError.setText("");
@@ -23,11 +23,17 @@ import javafx.scene.paint.Color;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import org.socialclub.socialclub.database.AccesoAsincrono;
 import org.socialclub.socialclub.database.RegistroEntradaDAO;
 import org.socialclub.socialclub.database.ReservaDAO;
+import org.socialclub.socialclub.database.SocioDAO;
+import org.socialclub.socialclub.database.TransactionTemplate;
+import org.socialclub.socialclub.model.OcupacionSnapshot;
 import org.socialclub.socialclub.model.RegistroEntrada;
 import org.socialclub.socialclub.model.Reserva;
 import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.model.SocioResumen;
+import org.socialclub.socialclub.util.ImageUtils;
 import org.socialclub.socialclub.util.WeatherService;
 
 import java.awt.image.BufferedImage;
@@ -38,9 +44,14 @@ import java.time.LocalTime;
 import java.time.Period;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import static javafx.animation.Animation.INDEFINITE;
@@ -109,17 +120,34 @@ public class DashboardController {
     public Label lblNoHaySalidas;
     @FXML
     public MFXIconButton helpIcon;
-    private List<Socio> sociosDentroCache;
-    private List<Socio> sociosFueraCache;
+    private List<SocioResumen> sociosDentroCache;
+    private List<SocioResumen> sociosFueraCache;
     private LocalDateTime ultimaActualizacionSocios = LocalDateTime.MIN;
     private static final Duration CACHE_DURATION = Duration.seconds(10);
     private RegistroEntrada ultimaEntradaCache;
     private RegistroEntrada ultimaSalidaCache;
-    private LocalDateTime ultimaActualizacionRegistros = LocalDateTime.MIN;
+    // Refrescos periódicos pendientes: si la base de datos tarda más que el intervalo, no se acumulan consultas
+    // ni se muestran resultados antiguos después de otros más recientes
+    private final AtomicBoolean aforoEnCurso = new AtomicBoolean();
+    private final AtomicBoolean panelesEnCurso = new AtomicBoolean();
+    // Última salida de la ocupación con la que se cargaron los paneles. Una salida no cambia el identificador de la
+    // última entrada, pero sí su registro, así que si cambia se vuelven a cargar los dos paneles.
+    // Solo la usa el refresco en curso (panelesEnCurso)
+    private volatile Integer idSalidaPaneles;
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.forLanguageTag(LOCALE_ES));
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss", Locale.forLanguageTag(LOCALE_ES));
     private final RegistroEntradaDAO registroEntradaDAO = new RegistroEntradaDAO();
+    private final SocioDAO socioDAO = new SocioDAO();
+    private static final int MAX_FOTOS_CACHE = 16;
+    // Fotos de los últimos socios mostrados, para no volver a descargarlas en cada refresco.
+    // Sincronizado porque las fotos también se cargan desde las consultas en segundo plano
+    private final Map<String, Image> fotosSocios = Collections.synchronizedMap(new LinkedHashMap<String, Image>(MAX_FOTOS_CACHE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > MAX_FOTOS_CACHE;
+        }
+    });
     private final WeatherService weatherService = new WeatherService();
     private static final int AFORO_MAXIMO = 225;
     private static final String LOCALE_ES = "es-ES";
@@ -132,7 +160,7 @@ public class DashboardController {
     public void initialize() {
         mostrarFechaActual();
         configurarHora();
-        configurarAforo();
+        configurarAforo(registroEntradaDAO.obtenerOcupacion().getSociosDentro());
         weatherService.obtenerClima(climaPorHorasContainer, lblClima);
         inicializarComboBox();
         btnEntrada.setOnAction(event -> registrarEntrada());
@@ -300,6 +328,23 @@ public class DashboardController {
         inicializarComboBox();
     }
 
+    /**
+     * Vuelve a leer en segundo plano los socios dentro y fuera del club y actualiza con ellos los ComboBox
+     * de entrada y salida.
+     */
+    private void recargarComboBox() {
+        AccesoAsincrono.consultarYMostrar(
+                () -> TransactionTemplate.enLectura(() -> List.of(
+                        registroEntradaDAO.obtenerResumenSociosDentro(),
+                        registroEntradaDAO.obtenerResumenSociosFuera())),
+                listas -> {
+                    sociosDentroCache = listas.get(0);
+                    sociosFueraCache = listas.get(1);
+                    ultimaActualizacionSocios = LocalDateTime.now();
+                    limpiarYActualizarComboBox();
+                });
+    }
+
     /**
      * Inicializa los ComboBox de entrada y salida con la información de los socios.
      */
@@ -310,20 +355,21 @@ public class DashboardController {
 
         // Refrescar el caché si ha pasado el tiempo establecido
         if (ChronoUnit.SECONDS.between(ultimaActualizacionSocios, ahora) > CACHE_DURATION.toSeconds()) {
-            sociosDentroCache = registroEntradaDAO.obtenerSociosDentro();
-            sociosFueraCache = registroEntradaDAO.obtenerSociosFuera();
+            // Ambas listas se leen en la misma sesión de solo lectura
+            TransactionTemplate.enLectura(() -> {
+                sociosDentroCache = registroEntradaDAO.obtenerResumenSociosDentro();
+                sociosFueraCache = registroEntradaDAO.obtenerResumenSociosFuera();
+            });
             ultimaActualizacionSocios = ahora;
         }
 
         // Usar datos en caché
-        for (Socio socio : sociosFueraCache) {
-            String socioInfo = socio.getNumeroSocio() + " - " + socio.getNombre() + " " + socio.getApellidos();
-            cmbEntrada.getItems().add(socioInfo);
+        for (SocioResumen socio : sociosFueraCache) {
+            cmbEntrada.getItems().add(socio.getEtiqueta());
         }
 
-        for (Socio socio : sociosDentroCache) {
-            String socioInfo = socio.getNumeroSocio() + " - " + socio.getNombre() + " " + socio.getApellidos();
-            cmbSalida.getItems().add(socioInfo);
+        for (SocioResumen socio : sociosDentroCache) {
+            cmbSalida.getItems().add(socio.getEtiqueta());
         }
     }
 
@@ -365,36 +411,74 @@ public class DashboardController {
             }
         }
 
+        // Las consultas se hacen en segundo plano para que el reloj no se detenga si la base de datos tarda en responder
         private void actualizarDatosAforo() {
-            actualizarAforo();
-            int sociosDentroActual = registroEntradaDAO.obtenerTotalSociosDentro();
-            int sociosFueraActual = registroEntradaDAO.obtenerTotalSocios() - sociosDentroActual;
-
-            // Solo actualizar ComboBox si los datos han cambiado
-            if (cmbEntrada.getItems().size() != sociosFueraActual || cmbSalida.getItems().size() != sociosDentroActual) {
-                cmbEntrada.getItems().clear();
-                cmbSalida.getItems().clear();
-                inicializarComboBox();
+            if (!aforoEnCurso.compareAndSet(false, true)) {
+                return; // El refresco anterior todavía no ha terminado
             }
+            AccesoAsincrono.consultarYMostrar(registroEntradaDAO::obtenerOcupacion, ocupacion -> {
+                int sociosDentroActual = ocupacion.getSociosDentro();
+                int sociosFueraActual = ocupacion.getSociosFuera();
+                actualizarAforo(sociosDentroActual);
+
+                // Solo actualizar ComboBox si los datos han cambiado
+                if (cmbEntrada.getItems().size() != sociosFueraActual || cmbSalida.getItems().size() != sociosDentroActual) {
+                    recargarComboBox();
+                }
+            }).whenComplete((resultado, error) -> aforoEnCurso.set(false));
         }
 
         private void actualizarPanelesEntradaSalida() {
-            actualizarUltimaEntrada();
-            actualizarUltimaSalida();
+            if (!panelesEnCurso.compareAndSet(false, true)) {
+                return; // El refresco anterior todavía no ha terminado
+            }
+            RegistroEntrada entradaMostradaAntes = ultimaEntradaCache;
+            RegistroEntrada salidaMostrada = ultimaSalidaCache;
+            AccesoAsincrono.consultarYMostrar(() -> {
+                OcupacionSnapshot ocupacion = registroEntradaDAO.obtenerOcupacion();
+                boolean mismaSalida = Objects.equals(idSalidaPaneles, ocupacion.getIdUltimaSalida());
+                idSalidaPaneles = ocupacion.getIdUltimaSalida();
+                RegistroEntrada entradaMostrada = mismaSalida ? entradaMostradaAntes : null;
+                return new RegistroEntrada[]{
+                        cargarSiHaCambiado(ocupacion.getIdUltimaEntrada(), entradaMostrada),
+                        cargarSiHaCambiado(ocupacion.getIdUltimaSalida(), salidaMostrada)
+                };
+            }, registros -> {
+                actualizarUltimaEntrada(registros[0]);
+                actualizarUltimaSalida(registros[1]);
+            }).whenComplete((resultado, error) -> panelesEnCurso.set(false));
         }
 
     /**
-     * Actualiza la información de la última entrada en el panel correspondiente.
+     * Carga el registro indicado y la foto de su socio, salvo que sea el que ya se está mostrando.
+     * Se ejecuta fuera del hilo de JavaFX.
+     *
+     * @param id        El identificador del registro, o {@code null} si no hay ninguno.
+     * @param mostrado  El registro que se está mostrando.
+     * @return El registro que se debe mostrar, o {@code null} si no hay ninguno.
      */
-    private void actualizarUltimaEntrada() {
-        LocalDateTime ahora = LocalDateTime.now();
-
-        // Actualizar caché si ha pasado el tiempo o es nulo
-        if (ultimaEntradaCache == null ||
-                ChronoUnit.SECONDS.between(ultimaActualizacionRegistros, ahora) > CACHE_DURATION.toSeconds()) {
-            ultimaEntradaCache = registroEntradaDAO.obtenerUltimaEntrada();
-            ultimaActualizacionRegistros = ahora;
+    private RegistroEntrada cargarSiHaCambiado(Integer id, RegistroEntrada mostrado) {
+        if (id == null) {
+            return null;
         }
+        if (mostrado != null && id.equals(mostrado.getId())) {
+            return mostrado;
+        }
+        RegistroEntrada registro = registroEntradaDAO.obtenerRegistroEntrada(id);
+        if (registro != null) {
+            // Deja la foto en la caché para no descargarla en el hilo de JavaFX
+            obtenerImagenSocio(registro.getNumeroSocio());
+        }
+        return registro;
+    }
+
+    /**
+     * Muestra la información de la última entrada en el panel correspondiente.
+     *
+     * @param ultimaEntrada El registro de entrada más reciente, o {@code null} si no hay ninguno.
+     */
+    private void actualizarUltimaEntrada(RegistroEntrada ultimaEntrada) {
+        ultimaEntradaCache = ultimaEntrada;
 
         if (ultimaEntradaCache != null) {
             Socio socio = ultimaEntradaCache.getNumeroSocio();
@@ -416,17 +500,12 @@ public class DashboardController {
         }
     }
     /**
-     * Actualiza la información de la última salida en el panel correspondiente.
+     * Muestra la información de la última salida en el panel correspondiente.
+     *
+     * @param ultimaSalida El registro con la salida más reciente, o {@code null} si no hay ninguno.
      */
-private void actualizarUltimaSalida() {
-    LocalDateTime ahora = LocalDateTime.now();
-
-    // Actualizar caché si ha pasado el tiempo o es nulo
-    if (ultimaSalidaCache == null ||
-            ChronoUnit.SECONDS.between(ultimaActualizacionRegistros, ahora) > CACHE_DURATION.toSeconds()) {
-        ultimaSalidaCache = registroEntradaDAO.obtenerUltimaSalida();
-        // No actualizamos el timestamp aquí porque ya se hace en actualizarUltimaEntrada()
-    }
+private void actualizarUltimaSalida(RegistroEntrada ultimaSalida) {
+    ultimaSalidaCache = ultimaSalida;
 
     if (ultimaSalidaCache != null) {
         Socio socio = ultimaSalidaCache.getNumeroSocio();
@@ -485,15 +564,21 @@ private void actualizarUltimaSalida() {
     }
 
     /**
-     * Obtiene la imagen de un socio.
+     * Obtiene la imagen de un socio. La foto se carga bajo demanda y se guarda para los siguientes refrescos.
      *
      * @param socio El socio.
      * @return La imagen del socio.
      */
     private Image obtenerImagenSocio(Socio socio) {
+        Image imagen = fotosSocios.get(socio.getNumeroSocio());
+        if (imagen != null) {
+            return imagen;
+        }
         try {
-            BufferedImage imagenBuffered = socio.getFotoImagen();
-            return SwingFXUtils.toFXImage(imagenBuffered, null);
+            BufferedImage imagenBuffered = ImageUtils.convertBytesToImage(socioDAO.obtenerFoto(socio.getNumeroSocio()));
+            imagen = SwingFXUtils.toFXImage(imagenBuffered, null);
+            fotosSocios.put(socio.getNumeroSocio(), imagen);
+            return imagen;
         } catch (Exception e) {
             LOGGER.severe("Error al obtener la imagen del socio: " + e.getMessage());
             return new Image("resources/images/noimage.jpg");
@@ -502,9 +587,10 @@ private void actualizarUltimaSalida() {
 
     /**
      * Configura el gráfico de aforo.
+     *
+     * @param sociosDentro El número de socios que están dentro del club.
      */
-    private void configurarAforo() {
-        int sociosDentro = registroEntradaDAO.obtenerTotalSociosDentro();
+    private void configurarAforo(int sociosDentro) {
         PieChart.Data aforoDisponibleData = new PieChart.Data("Aforo Máximo: " + AFORO_MAXIMO, AFORO_MAXIMO);
         PieChart.Data aforoActual = new PieChart.Data("Aforo Actual: " + sociosDentro, sociosDentro);
         aforo.getData().addAll(aforoActual, aforoDisponibleData);
@@ -514,8 +600,17 @@ private void actualizarUltimaSalida() {
      * Actualiza el gráfico de aforo.
      */
     public void actualizarAforo() {
+        actualizarAforo(registroEntradaDAO.obtenerOcupacion().getSociosDentro());
+    }
+
+    /**
+     * Actualiza el gráfico de aforo con un número de socios dentro ya consultado.
+     *
+     * @param sociosDentro El número de socios que están dentro del club.
+     */
+    private void actualizarAforo(int sociosDentro) {
         aforo.getData().clear();
-        configurarAforo();
+        configurarAforo(sociosDentro);
     }
 
     /**
@@ -0,0 +1,206 @@
+package org.socialclub.socialclub.controller;
+
+import io.github.palexdev.mfxcomponents.controls.buttons.MFXButton;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
+import org.hibernate.stat.Statistics;
+import org.socialclub.socialclub.util.HibernateUtil;
+import org.socialclub.socialclub.util.MetricasConsultas;
+import org.socialclub.socialclub.util.MigradorEsquema;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controlador de la vista de diagnóstico de la base de datos.
+ * Muestra los contadores de las estadísticas de Hibernate, el tiempo de cada método de los DAO, las consultas
+ * lentas recientes y los planes de ejecución verificados al arrancar ({@link MigradorEsquema#getPlanes()}),
+ * los refresca periódicamente mientras la vista está abierta y permite guardarlos en un archivo.
+ */
+public class DiagnosticoConsultasController {
+    private static final Logger LOGGER = Logger.getLogger(DiagnosticoConsultasController.class.getName());
+
+    private static final Duration INTERVALO_REFRESCO = Duration.seconds(2);
+
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    @FXML
+    private Label lblSentencias;
+    @FXML
+    private Label lblConsultas;
+    @FXML
+    private Label lblCache;
+    @FXML
+    private Label lblConsultasLentas;
+    @FXML
+    private Label lblArchivo;
+    @FXML
+    private TableView<MetricasConsultas.ResumenMetodo> tablaMetodos;
+    @FXML
+    private TableColumn<MetricasConsultas.ResumenMetodo, String> colMetodo;
+    @FXML
+    private TableColumn<MetricasConsultas.ResumenMetodo, Long> colLlamadas;
+    @FXML
+    private TableColumn<MetricasConsultas.ResumenMetodo, Double> colMedia;
+    @FXML
+    private TableColumn<MetricasConsultas.ResumenMetodo, Double> colP95;
+    @FXML
+    private TableColumn<MetricasConsultas.ResumenMetodo, Double> colMaximo;
+    @FXML
+    private TableColumn<MetricasConsultas.ResumenMetodo, Double> colTotal;
+    @FXML
+    private TableView<MetricasConsultas.ConsultaLenta> tablaLentas;
+    @FXML
+    private TableColumn<MetricasConsultas.ConsultaLenta, LocalDateTime> colMomento;
+    @FXML
+    private TableColumn<MetricasConsultas.ConsultaLenta, String> colMetodoLenta;
+    @FXML
+    private TableColumn<MetricasConsultas.ConsultaLenta, Long> colMilisegundos;
+    @FXML
+    private TableColumn<MetricasConsultas.ConsultaLenta, Integer> colFilas;
+    @FXML
+    private TableColumn<MetricasConsultas.ConsultaLenta, String> colHql;
+    @FXML
+    private TableColumn<MetricasConsultas.ConsultaLenta, String> colParametros;
+    @FXML
+    private TableView<MigradorEsquema.PlanConsulta> tablaPlanes;
+    @FXML
+    private TableColumn<MigradorEsquema.PlanConsulta, String> colConsultaPlan;
+    @FXML
+    private TableColumn<MigradorEsquema.PlanConsulta, String> colIndicePlan;
+    @FXML
+    private TableColumn<MigradorEsquema.PlanConsulta, String> colPlan;
+    @FXML
+    private MFXButton btnGuardar;
+    @FXML
+    private MFXButton btnReiniciar;
+
+    private final Timeline refresco = new Timeline(new KeyFrame(INTERVALO_REFRESCO, event -> actualizar()));
+
+    @FXML
+    private void initialize() {
+        colMetodo.setCellValueFactory(new PropertyValueFactory<>("metodo"));
+        colLlamadas.setCellValueFactory(new PropertyValueFactory<>("llamadas"));
+        configurarColumnaValor(colMedia, "media");
+        configurarColumnaValor(colP95, "p95");
+        configurarColumnaValor(colMaximo, "maximo");
+        configurarColumnaValor(colTotal, "total");
+        tablaMetodos.setEditable(false);
+
+        colMomento.setCellValueFactory(new PropertyValueFactory<>("momento"));
+        colMomento.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(LocalDateTime momento, boolean vacia) {
+                super.updateItem(momento, vacia);
+                setText(vacia || momento == null ? null : momento.format(FORMATO_HORA));
+            }
+        });
+        colMetodoLenta.setCellValueFactory(new PropertyValueFactory<>("metodo"));
+        colMilisegundos.setCellValueFactory(new PropertyValueFactory<>("milisegundos"));
+        colFilas.setCellValueFactory(new PropertyValueFactory<>("filas"));
+        colHql.setCellValueFactory(new PropertyValueFactory<>("hql"));
+        colParametros.setCellValueFactory(new PropertyValueFactory<>("parametros"));
+        tablaLentas.setEditable(false);
+
+        colConsultaPlan.setCellValueFactory(new PropertyValueFactory<>("descripcion"));
+        colIndicePlan.setCellValueFactory(new PropertyValueFactory<>("indiceUsado"));
+        colIndicePlan.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(String indice, boolean vacia) {
+                super.updateItem(indice, vacia);
+                setText(vacia ? null : indice == null ? "Ninguno" : indice);
+            }
+        });
+        colPlan.setCellValueFactory(new PropertyValueFactory<>("plan"));
+        tablaPlanes.setEditable(false);
+
+        actualizar();
+        refresco.setCycleCount(Animation.INDEFINITE);
+        refresco.play();
+        // Se deja de refrescar cuando la vista se reemplaza en el panel
+        tablaMetodos.sceneProperty().addListener((obs, anterior, nueva) -> {
+            if (nueva == null) {
+                refresco.stop();
+            }
+        });
+    }
+
+    /**
+     * Configura una columna numérica para mostrar el valor con dos decimales.
+     *
+     * @param columna la columna a configurar.
+     * @param campo   el nombre de la propiedad del resumen.
+     */
+    private void configurarColumnaValor(TableColumn<MetricasConsultas.ResumenMetodo, Double> columna, String campo) {
+        columna.setCellValueFactory(new PropertyValueFactory<>(campo));
+        columna.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Double valor, boolean vacia) {
+                super.updateItem(valor, vacia);
+                setText(vacia || valor == null ? null : String.format(Locale.ROOT, "%.2f", valor));
+            }
+        });
+    }
+
+    /**
+     * Actualiza los contadores y las tablas con las métricas actuales.
+     */
+    private void actualizar() {
+        MetricasConsultas metricas = MetricasConsultas.getInstance();
+        Statistics estadisticas = HibernateUtil.getSessionFactory().getStatistics();
+        if (estadisticas.isStatisticsEnabled()) {
+            lblSentencias.setText(String.valueOf(estadisticas.getPrepareStatementCount()));
+            lblConsultas.setText(String.valueOf(estadisticas.getQueryExecutionCount()));
+            long aciertos = estadisticas.getSecondLevelCacheHitCount();
+            long total = aciertos + estadisticas.getSecondLevelCacheMissCount();
+            lblCache.setText(total == 0 ? "-" : String.format(Locale.ROOT, "%.0f %%", 100.0 * aciertos / total));
+        } else {
+            lblSentencias.setText("-");
+            lblConsultas.setText("-");
+            lblCache.setText("-");
+        }
+        lblConsultasLentas.setText(metricas.getTotalConsultasLentas() + " (≥ " + metricas.getUmbralMs() + " ms)");
+        tablaMetodos.setItems(FXCollections.observableArrayList(metricas.resumenesPorMetodo()));
+        tablaLentas.setItems(FXCollections.observableArrayList(metricas.getConsultasLentas()));
+        // Vacía hasta que termina la verificación al arrancar
+        tablaPlanes.setItems(FXCollections.observableArrayList(MigradorEsquema.getInstance().getPlanes()));
+    }
+
+    /**
+     * Gestiona la acción de guardar las métricas en el archivo definido en la configuración.
+     */
+    @FXML
+    private void handleGuardar() {
+        Path archivo = MetricasConsultas.archivoDesdeConfiguracion();
+        try {
+            MetricasConsultas.getInstance().escribir(archivo);
+            lblArchivo.setText("Métricas guardadas en " + archivo.toAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo escribir el archivo de métricas de base de datos", e);
+            lblArchivo.setText("No se pudieron guardar las métricas en " + archivo.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Gestiona la acción de reiniciar las métricas y las estadísticas de Hibernate.
+     */
+    @FXML
+    private void handleReiniciar() {
+        MetricasConsultas.getInstance().reiniciar();
+        actualizar();
+    }
+}
@@ -0,0 +1,122 @@
+package org.socialclub.socialclub.controller;
+
+import io.github.palexdev.mfxcomponents.controls.buttons.MFXButton;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
+import org.socialclub.socialclub.huella.MetricasHuellas;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Controlador de la vista de diagnóstico.
+ * Muestra las métricas de la lectura de huellas (percentiles del tiempo de búsqueda, de las plantillas
+ * comparadas y del tiempo de base de datos, y los contadores de huellas no encontradas y fallos de calidad)
+ * y las refresca periódicamente mientras la vista está abierta.
+ */
+public class DiagnosticoController {
+
+    private static final Duration INTERVALO_REFRESCO = Duration.seconds(2);
+
+    @FXML
+    private Label lblBusquedas;
+    @FXML
+    private Label lblSinCoincidencia;
+    @FXML
+    private Label lblIncompletas;
+    @FXML
+    private Label lblFallosCalidad;
+    @FXML
+    private Label lblArchivo;
+    @FXML
+    private TableView<MetricasHuellas.Resumen> tabla;
+    @FXML
+    private TableColumn<MetricasHuellas.Resumen, String> colMetrica;
+    @FXML
+    private TableColumn<MetricasHuellas.Resumen, Long> colMuestras;
+    @FXML
+    private TableColumn<MetricasHuellas.Resumen, Double> colP50;
+    @FXML
+    private TableColumn<MetricasHuellas.Resumen, Double> colP95;
+    @FXML
+    private TableColumn<MetricasHuellas.Resumen, Double> colP99;
+    @FXML
+    private TableColumn<MetricasHuellas.Resumen, Double> colMaximo;
+    @FXML
+    private MFXButton btnReiniciar;
+
+    private final Timeline refresco = new Timeline(new KeyFrame(INTERVALO_REFRESCO, event -> actualizar()));
+
+    @FXML
+    private void initialize() {
+        colMetrica.setCellValueFactory(new PropertyValueFactory<>("nombre"));
+        colMuestras.setCellValueFactory(new PropertyValueFactory<>("muestras"));
+        configurarColumnaValor(colP50, "p50");
+        configurarColumnaValor(colP95, "p95");
+        configurarColumnaValor(colP99, "p99");
+        configurarColumnaValor(colMaximo, "maximo");
+        tabla.setEditable(false);
+
+        actualizar();
+        refresco.setCycleCount(Animation.INDEFINITE);
+        refresco.play();
+        // Se deja de refrescar cuando la vista se reemplaza en el panel
+        tabla.sceneProperty().addListener((obs, anterior, nueva) -> {
+            if (nueva == null) {
+                refresco.stop();
+            }
+        });
+    }
+
+    /**
+     * Configura una columna numérica para mostrar el valor con dos decimales.
+     *
+     * @param columna la columna a configurar.
+     * @param campo   el nombre de la propiedad del resumen.
+     */
+    private void configurarColumnaValor(TableColumn<MetricasHuellas.Resumen, Double> columna, String campo) {
+        columna.setCellValueFactory(new PropertyValueFactory<>(campo));
+        columna.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Double valor, boolean vacia) {
+                super.updateItem(valor, vacia);
+                setText(vacia || valor == null ? null : String.format(Locale.ROOT, "%.2f", valor));
+            }
+        });
+    }
+
+    /**
+     * Actualiza los contadores y la tabla con las métricas actuales.
+     */
+    private void actualizar() {
+        MetricasHuellas metricas = MetricasHuellas.getInstance();
+        lblBusquedas.setText(String.valueOf(metricas.getBusquedas()));
+        lblSinCoincidencia.setText(String.valueOf(metricas.getSinCoincidencia()));
+        lblIncompletas.setText(String.valueOf(metricas.getBusquedasIncompletas()));
+        lblFallosCalidad.setText(String.valueOf(metricas.getFallosCalidad()));
+        tabla.setItems(FXCollections.observableArrayList(metricas.resumenes()));
+
+        Path archivo = metricas.getArchivoVolcado();
+        lblArchivo.setText(archivo != null
+                ? "Las métricas se guardan periódicamente en " + archivo.toAbsolutePath()
+                : "El volcado de métricas a archivo está desactivado");
+    }
+
+    /**
+     * Gestiona la acción de reiniciar las métricas.
+     */
+    @FXML
+    private void handleReiniciar() {
+        MetricasHuellas.getInstance().reiniciar();
+        actualizar();
+    }
+}
@@ -7,8 +7,6 @@ import io.github.palexdev.materialfx.controls.MFXTextField;
 import io.github.palexdev.materialfx.utils.SwingFXUtils;
 import io.github.palexdev.mfxcomponents.controls.buttons.MFXIconButton;
 import io.github.palexdev.mfxresources.fonts.MFXFontIcon;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
@@ -31,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import org.socialclub.socialclub.database.EventoDAO;
 import org.socialclub.socialclub.model.Evento;
 import org.socialclub.socialclub.util.ImageUtils;
+import org.socialclub.socialclub.util.TablaPaginada;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
@@ -38,7 +37,6 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.List;
 
 import static org.socialclub.socialclub.util.ConfigLoader.LOGGER;
 
@@ -69,6 +67,8 @@ public class EventoController {
     @FXML
     public MFXIconButton helpIcon;
 
+    private TablaPaginada<Evento> eventosPaginados;
+
     /**
      * Método que se ejecuta cuando se inicializa la pantalla.
      */
@@ -307,12 +307,15 @@ public class EventoController {
 
     /**
      * Método que carga los datos de eventos de la base de datos en la tabla.
+     * Solo se carga la primera página; las siguientes se cargan al desplazarse por la tabla.
      */
     private void cargarDatosTabla() {
-        EventoDAO eventoDAO = new EventoDAO();
-        List<Evento> eventos = eventoDAO.obtenerTodosEventos();
-        ObservableList<Evento> observableList = FXCollections.observableArrayList(eventos);
-        tableEventos.setItems(observableList);
+        if (eventosPaginados == null) {
+            EventoDAO eventoDAO = new EventoDAO();
+            eventosPaginados = new TablaPaginada<>(tableEventos, TablaPaginada.TAMANO_PAGINA_DEFECTO, (ultimo, tamano) ->
+                    eventoDAO.obtenerPaginaEventos(ultimo != null ? ultimo.getId() : null, tamano));
+        }
+        eventosPaginados.recargar();
     }
 
     /**
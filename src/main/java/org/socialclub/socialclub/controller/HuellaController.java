@@ -11,20 +11,26 @@ import com.digitalpersona.onetouch.processing.DPFPTemplateStatus;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.TextArea;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
+import org.socialclub.socialclub.huella.IndiceHuellas;
+import org.socialclub.socialclub.huella.ResultadoCoincidencia;
+import org.socialclub.socialclub.model.HuellaSocio;
+import org.socialclub.socialclub.util.ConfigLoader;
 import org.socialclub.socialclub.util.TextAreaHandler;
 
 import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Controlador para la funcionalidad de huellas dactilares.
  * Procesa la captura de huellas, extrae características,
- * y realiza la inscripción de la huella en la plantilla.
+ * y realiza la inscripción de la huella en la plantilla, que se entrega en memoria mediante {@link #getPlantilla()}.
  */
 public class HuellaController {
 
@@ -36,6 +42,10 @@ public class HuellaController {
 
     private DPFPCapture capture;
     private DPFPEnrollment enrollment;
+    private boolean capturando = false;
+    private boolean duplicadoComprobado = false;
+    private final CompletableFuture<byte[]> plantilla = new CompletableFuture<>();
+    private static final String PROP_LIMITE_DUPLICADO = "huella.duplicado.limiteMs";
     private static Image huellaImage;
 
     @FXML
@@ -68,6 +78,19 @@ public class HuellaController {
         }
         DPFPFeatureSet features = extractFeatures(sample);
         if (features != null) {
+            if (!duplicadoComprobado) {
+                ResultadoCoincidencia comprobacion = buscarPropietario(sample);
+                if (comprobacion != null && comprobacion.isEncontrada()) {
+                    rechazarHuellaDuplicada(comprobacion.getHuella());
+                    return;
+                }
+                if (comprobacion == null || !comprobacion.isCompleta()) {
+                    // Sin una comprobación completa no se inscribe la huella: se vuelve a comprobar con la siguiente captura
+                    avisarComprobacionIncompleta();
+                    return;
+                }
+                duplicadoComprobado = true;
+            }
             try {
                 enrollment.addFeatures(features);
                 Image image = createImage(sample);
@@ -98,23 +121,92 @@ public class HuellaController {
     }
 
     /**
-     * Guarda la plantilla de huella en un archivo.
+     * Comprueba si la huella capturada ya pertenece a otro socio, comparándola con el índice de plantillas en memoria.
+     * La búsqueda se limita al tiempo definido en la configuración para no bloquear la inscripción, y usa el motor
+     * compartido del índice para aprovechar las plantillas que ya ha preparado la lectura de entradas y salidas.
      *
-     * @param template La plantilla de huella a guardar.
+     * @param sample La muestra de huella dactilar capturada.
+     * @return El resultado de la búsqueda, o {@code null} si no se pudo comprobar la huella.
      */
-    private void guardarPlantilla(DPFPTemplate template) {
+    private ResultadoCoincidencia buscarPropietario(DPFPSample sample) {
+        IndiceHuellas indice = IndiceHuellas.getInstance();
         try {
-            // Guardar la plantilla en un archivo
-            java.nio.file.Path path = java.nio.file.Paths.get("huellaTemplate.dat");
-            java.nio.file.Files.write(path, template.serialize());
+            DPFPFeatureSet features = indice.getMatcher().extraerCaracteristicas(sample, DPFPDataPurpose.DATA_PURPOSE_VERIFICATION);
+            indice.cargarSiNecesario();
+            ResultadoCoincidencia resultado = indice.getMotor().buscar(features, indice.obtenerHuellas(),
+                    ConfigLoader.getIntProperty(PROP_LIMITE_DUPLICADO, 200));
             if (LOGGER.isLoggable(Level.INFO)) {
-                LOGGER.info(String.format("Plantilla de huella guardada en: %s", path.toAbsolutePath()));
+                LOGGER.info(String.format("Comprobación de huella duplicada en %.2f ms (%d plantillas comparadas)", resultado.getTiempoMillis(), resultado.getCandidatasProbadas()));
             }
-        } catch (java.io.IOException e) {
-            LOGGER.log(Level.SEVERE, "Error al guardar la plantilla de huella", e);
+            if (!resultado.isCompleta()) {
+                LOGGER.warning("La comprobación de huella duplicada superó el tiempo límite y no revisó todas las huellas.");
+            }
+            return resultado;
+        } catch (DPFPImageQualityException e) {
+            LOGGER.log(Level.WARNING, "No se pudo comprobar si la huella está duplicada", e);
+            return null;
         }
     }
 
+    /**
+     * Informa de que la huella ya pertenece a otro socio y reinicia la inscripción para capturar otro dedo.
+     *
+     * @param propietario La huella del socio al que ya pertenece la huella capturada.
+     */
+    private void rechazarHuellaDuplicada(HuellaSocio propietario) {
+        enrollment.clear();
+        duplicadoComprobado = false;
+        String mensaje = String.format("La huella ya pertenece al socio %s - %s %s. Utilice otro dedo.",
+                propietario.getNumeroSocio(), propietario.getNombre(), propietario.getApellidos());
+        LOGGER.warning(mensaje);
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Huella Duplicada");
+        alert.setHeaderText(null);
+        alert.setContentText(mensaje);
+        alert.show();
+    }
+
+    /**
+     * Informa al operador de que no se ha podido comprobar si la huella pertenece a otro socio, por lo que la
+     * captura no se ha añadido a la inscripción y debe volver a colocar el dedo.
+     */
+    private void avisarComprobacionIncompleta() {
+        String mensaje = "No se ha podido comprobar si la huella ya pertenece a otro socio. Vuelva a colocar el dedo.";
+        LOGGER.warning(mensaje);
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Comprobación de Huella");
+        alert.setHeaderText(null);
+        alert.setContentText(mensaje);
+        alert.show();
+    }
+
+    /**
+     * Libera el lector al cerrar la ventana, tanto si la inscripción ha terminado como si se ha cancelado.
+     */
+    public void cerrar() {
+        detenerCaptura();
+    }
+
+    /**
+     * Entrega la plantilla de huella inscrita al flujo de alta del socio a través del canal de resultado.
+     *
+     * @param template La plantilla de huella inscrita.
+     */
+    private void guardarPlantilla(DPFPTemplate template) {
+        plantilla.complete(template.serialize());
+        LOGGER.info("Plantilla de huella entregada al alta del socio.");
+    }
+
+    /**
+     * Obtiene el canal por el que se entrega la plantilla de huella inscrita, serializada.
+     * El futuro se completa en cuanto la inscripción termina; si la ventana se cierra antes, no se completa.
+     *
+     * @return El futuro con los bytes de la plantilla inscrita.
+     */
+    public CompletableFuture<byte[]> getPlantilla() {
+        return plantilla;
+    }
+
     /**
      * Extrae las características de la huella dactilar.
      *
@@ -123,7 +215,7 @@ public class HuellaController {
      */
     private DPFPFeatureSet extractFeatures(DPFPSample sample) {
         try {
-            return DPFPGlobal.getFeatureExtractionFactory().createFeatureExtraction().createFeatureSet(sample, DPFPDataPurpose.DATA_PURPOSE_ENROLLMENT);
+            return IndiceHuellas.getInstance().getMatcher().extraerCaracteristicas(sample, DPFPDataPurpose.DATA_PURPOSE_ENROLLMENT);
         } catch (DPFPImageQualityException e) {
             LOGGER.log(Level.SEVERE, "Error al extraer características de la huella", e);
             return null;
@@ -149,6 +241,7 @@ public class HuellaController {
     void capturarHuella() {
         try {
             capture.startCapture();
+            capturando = true;
             LOGGER.info("Capturando huella...");
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al iniciar la captura de huella", e);
@@ -159,6 +252,10 @@ public class HuellaController {
      * Detiene la captura de huellas.
      */
     void detenerCaptura() {
+        if (!capturando) {
+            return;
+        }
+        capturando = false;
         try {
             capture.stopCapture();
             LOGGER.info("Deteniendo captura...");
@@ -5,8 +5,6 @@ import com.digitalpersona.onetouch.capture.DPFPCapture;
 import com.digitalpersona.onetouch.capture.event.DPFPDataAdapter;
 import com.digitalpersona.onetouch.capture.event.DPFPDataEvent;
 import com.digitalpersona.onetouch.processing.DPFPImageQualityException;
-import com.digitalpersona.onetouch.verification.DPFPVerification;
-import com.digitalpersona.onetouch.verification.DPFPVerificationResult;
 import io.github.palexdev.materialfx.controls.MFXIconWrapper;
 import io.github.palexdev.mfxcomponents.controls.buttons.MFXButton;
 import io.github.palexdev.mfxcomponents.controls.buttons.MFXIconButton;
@@ -40,21 +38,27 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.socialclub.socialclub.database.EmpleadoDAO;
 import org.socialclub.socialclub.database.RegistroEntradaDAO;
+import org.socialclub.socialclub.huella.IndiceHuellas;
+import org.socialclub.socialclub.huella.MetricasHuellas;
+import org.socialclub.socialclub.huella.OrdenCoincidencias;
+import org.socialclub.socialclub.huella.PipelineHuellas;
+import org.socialclub.socialclub.huella.ResultadoCoincidencia;
 import org.socialclub.socialclub.model.Empleado;
+import org.socialclub.socialclub.model.HuellaSocio;
 import org.socialclub.socialclub.model.RegistroEntrada;
 import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.util.ConfigLoader;
 import org.socialclub.socialclub.util.ImageUtils;
 import org.socialclub.socialclub.util.SalidaAutomaticaScheduler;
 import org.socialclub.socialclub.util.SessionManager;
 
 import javax.sql.rowset.serial.SerialBlob;
 import java.io.IOException;
-import java.sql.*;
+import java.sql.Blob;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -93,14 +97,18 @@ public class MainController {
     @FXML
     private AnchorPane pane;
 
-    private final DPFPVerification verificator = DPFPGlobal.getVerificationFactory().createVerification();
+    private final PipelineHuellas<DPFPSample, DPFPFeatureSet> pipelineHuellas = new PipelineHuellas<>(
+            this::capturarHuella, this::extractFeatures, this::identificarSocio, this::registrarEntradaSalida,
+            ConfigLoader.getIntProperty(PROP_CAPACIDAD_PIPELINE, PipelineHuellas.CAPACIDAD_DEFECTO));
     private boolean huellaControllerLanzado = false;
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private volatile boolean identificacionPreparada = false;
+    private final int prioritariasHuellas = ConfigLoader.getIntProperty(PROP_PRIORITARIAS_HUELLAS, OrdenCoincidencias.PRIORITARIAS_DEFECTO);
 
-    private static final String DB_URL = "jdbc:mysql://clubsocial.zapto.org/clubsocial";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "root";
-    private final Object lock = new Object();
+    private static final String PROP_SINCRONIZACION_HUELLAS = "huella.sincronizacion.segundos";
+    private static final String PROP_DIAS_HISTORIAL_HUELLAS = "huella.orden.diasHistorial";
+    private static final String PROP_PRIORITARIAS_HUELLAS = "huella.orden.prioritarias";
+    private static final String PROP_CAPACIDAD_PIPELINE = "huella.pipeline.capacidad";
+    private static final long PAUSA_ENTRE_CAPTURAS_MS = 1000;
 
     /**
      * Inicializa el controlador.
@@ -113,6 +121,7 @@ public class MainController {
         verificarEmpleadoLogueado();
         handleDashboardAction();
         iniciarLecturaContinuaHuella();
+        MetricasHuellas.getInstance().iniciarVolcadoDesdeConfiguracion();
     }
 
     /**
@@ -326,62 +335,38 @@ public class MainController {
 
     /**
      * Inicia la lectura continua de huellas.
+     * La captura, la extracción, la identificación y el registro se ejecutan como etapas independientes,
+     * de modo que el lector sigue capturando mientras se guarda el escaneo anterior.
      */
-private void iniciarLecturaContinuaHuella() {
+    private void iniciarLecturaContinuaHuella() {
         if (huellaControllerLanzado) {
             LOGGER.info("El HuellaController ya se ha lanzado. No se iniciará la lectura continua de huellas.");
             return;
         }
-
-        if (executorService.isShutdown()) {
-            executorService = Executors.newSingleThreadExecutor();
-        }
-
         huellaControllerLanzado = true;
-        executorService.submit(() -> {
-            while (huellaControllerLanzado) {
-                try {
-                    DPFPSample sample = capturarHuella();
-                    if (sample != null) {
-                        Platform.runLater(() -> registrarEntradaSalida(sample));
-                    }
-                    synchronized (lock) {
-                        try {
-                            lock.wait(1000);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            LOGGER.log(Level.INFO, "Lectura continua de huella interrumpida de forma controlada");
-                            break;  // Salir del bucle cuando se interrumpe
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error en la lectura continua de huella", e);
-                }
-            }
-            LOGGER.info("Hilo de lectura de huella finalizado");
-        });
+        pipelineHuellas.iniciar();
     }
+
     /**
      * Detiene la lectura continua de huellas.
      */
     private void detenerLecturaContinuaHuella() {
         huellaControllerLanzado = false;
-        synchronized (lock) {
-            lock.notifyAll();  // Notificar a todos los hilos en espera
-        }
-        executorService.shutdownNow();
+        pipelineHuellas.detener();
         LOGGER.info("Solicitud de detención de lectura de huella enviada");
     }
 
     /**
-     * Captura una huella dactilar.
+     * Captura una huella dactilar. Antes de cada captura se espera un momento
+     * para no leer dos veces el mismo dedo.
      *
-     * @return La muestra de huella capturada.
+     * @return La muestra de huella capturada, o {@code null} si no se pudo capturar.
+     * @throws InterruptedException Si se detiene la lectura mientras se espera la huella.
      */
-    private DPFPSample capturarHuella() {
+    private DPFPSample capturarHuella() throws InterruptedException {
+        Thread.sleep(PAUSA_ENTRE_CAPTURAS_MS);
         DPFPCapture capture = null;
-        final Object localLock = new Object();
-        final DPFPSample[] sample = {null};
+        CompletableFuture<DPFPSample> sample = new CompletableFuture<>();
 
         try {
             capture = DPFPGlobal.getCaptureFactory().createCapture();
@@ -389,32 +374,17 @@ private void iniciarLecturaContinuaHuella() {
             capture.addDataListener(new DPFPDataAdapter() {
                 @Override
                 public void dataAcquired(DPFPDataEvent e) {
-                    synchronized (localLock) {
-                        sample[0] = e.getSample();
-                        localLock.notifyAll();
-                    }
+                    sample.complete(e.getSample());
                 }
             });
 
             capture.startCapture();
             LOGGER.info("Capturando huella...");
 
-            synchronized (localLock) {
-                while (sample[0] == null) {
-                    try {
-                        localLock.wait();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        LOGGER.log(Level.SEVERE, "Captura de huella interrumpida");
-                        return null;
-                    }
-                }
-            }
-
-            capture.stopCapture();
+            DPFPSample capturada = sample.get();
             LOGGER.info("Captura de huella completada.");
-            return sample[0];
-        } catch (Exception e) {
+            return capturada;
+        } catch (ExecutionException | RuntimeException e) {
             LOGGER.log(Level.SEVERE, "Error al capturar la huella dactilar", e);
         } finally {
             if (capture != null) {
@@ -432,84 +402,99 @@ private void iniciarLecturaContinuaHuella() {
      * Extrae las características de una muestra de huella.
      *
      * @param sample La muestra de huella.
-     * @return El conjunto de características extraídas.
+     * @return El conjunto de características extraídas, o {@code null} si la calidad de la muestra no lo permite.
      */
     private DPFPFeatureSet extractFeatures(DPFPSample sample) {
         try {
-            return DPFPGlobal.getFeatureExtractionFactory().createFeatureExtraction().createFeatureSet(sample, DPFPDataPurpose.DATA_PURPOSE_VERIFICATION);
+            return IndiceHuellas.getInstance().getMatcher().extraerCaracteristicas(sample, DPFPDataPurpose.DATA_PURPOSE_VERIFICATION);
         } catch (DPFPImageQualityException e) {
+            MetricasHuellas.getInstance().registrarFalloCalidad();
             LOGGER.log(Level.SEVERE, "Error al extraer características de la huella", e);
+            mostrarAlerta(Alert.AlertType.WARNING, "Advertencia", "No se pudieron extraer características de la huella capturada.");
             return null;
         }
     }
 
     /**
-     * Registra la entrada o salida de un socio utilizando su huella dactilar.
+     * Busca el socio al que pertenece una huella en el índice de plantillas en memoria,
+     * probando primero a los socios con más probabilidad de fichar.
+     * La primera vez carga el índice y el orden de búsqueda.
      *
-     * @param sample La muestra de huella capturada.
+     * @param features Las características extraídas de la huella capturada.
+     * @return El resultado de la búsqueda.
      */
-    private void registrarEntradaSalida(DPFPSample sample) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            DPFPFeatureSet features = extractFeatures(sample);
-            if (features == null) {
-                mostrarAlerta(Alert.AlertType.WARNING, "Advertencia", "No se pudieron extraer características de la huella capturada.");
-                return;
-            }
-
-            String query = "SELECT numero_socio, nombre, apellidos, huella FROM socio";
-            try (PreparedStatement statement = connection.prepareStatement(query);
-                 ResultSet resultSet = statement.executeQuery()) {
-
-                while (resultSet.next()) {
-                    if (verificarHuella(resultSet, features)) {
-                        procesarRegistroEntradaSalida(resultSet);
-                        return;
-                    }
-                }
+    private ResultadoCoincidencia identificarSocio(DPFPFeatureSet features) {
+        prepararIdentificacion();
+        ResultadoCoincidencia resultado = IndiceHuellas.getInstance().getMotor().buscar(features,
+                OrdenCoincidencias.getInstance().ordenar(IndiceHuellas.getInstance().obtenerHuellas(), prioritariasHuellas));
+        MetricasHuellas.getInstance().registrarBusqueda(resultado);
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info(String.format("Búsqueda de huella completada en %.2f ms (%d plantillas comparadas)", resultado.getTiempoMillis(), resultado.getCandidatasProbadas()));
+        }
+        return resultado;
+    }
 
-                mostrarAlerta(Alert.AlertType.INFORMATION, "No Encontrado", "No se encontró ningún socio con la huella proporcionada.");
-            }
+    /**
+     * Carga el índice de huellas y el orden de búsqueda e inicia la sincronización periódica, si no se ha hecho ya.
+     */
+    private void prepararIdentificacion() {
+        if (identificacionPreparada) {
+            return;
+        }
+        try {
+            IndiceHuellas.getInstance().cargarSiNecesario();
+            OrdenCoincidencias.getInstance().cargar(ConfigLoader.getIntProperty(PROP_DIAS_HISTORIAL_HUELLAS, 90));
+            IndiceHuellas.getInstance().iniciarSincronizacion(ConfigLoader.getIntProperty(PROP_SINCRONIZACION_HUELLAS, 30));
+            identificacionPreparada = true;
         } catch (Exception e) {
-            mostrarAlerta(Alert.AlertType.ERROR, "Error", "Error al registrar la entrada/salida: " + e.getMessage());
-            LOGGER.log(Level.SEVERE, "Error al registrar la entrada/salida", e);
+            LOGGER.log(Level.SEVERE, "Error al cargar el índice de huellas", e);
         }
     }
 
     /**
-     * Verifica la huella dactilar contra la base de datos.
+     * Registra la entrada o salida del socio identificado por su huella dactilar.
+     * Solo se accede a la base de datos una vez identificado el socio.
      *
-     * @param resultSet El conjunto de resultados de la consulta.
-     * @param features  El conjunto de características extraídas.
-     * @return true si la huella es verificada, false en caso contrario.
-     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @param resultado El resultado de la búsqueda de la huella.
      */
-    private boolean verificarHuella(ResultSet resultSet, DPFPFeatureSet features) throws SQLException {
-        byte[] huellaGuardada = resultSet.getBytes("huella");
-        if (huellaGuardada != null) {
-            DPFPTemplate templateGuardada = DPFPGlobal.getTemplateFactory().createTemplate(huellaGuardada);
-            DPFPVerificationResult result = verificator.verify(features, templateGuardada);
-            return result.isVerified();
+    private void registrarEntradaSalida(ResultadoCoincidencia resultado) {
+        try {
+            if (resultado.isEncontrada()) {
+                procesarRegistroEntradaSalida(resultado.getHuella());
+                return;
+            }
+
+            mostrarAlerta(Alert.AlertType.INFORMATION, "No Encontrado", "No se encontró ningún socio con la huella proporcionada.");
+        } catch (Exception e) {
+            mostrarAlerta(Alert.AlertType.ERROR, "Error", "Error al registrar la entrada/salida: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Error al registrar la entrada/salida", e);
         }
-        return false;
     }
 
     /**
      * Procesa el registro de entrada o salida de un socio.
      *
-     * @param resultSet El conjunto de resultados de la consulta.
-     * @throws SQLException Si ocurre un error al acceder a la base de datos.
+     * @param huella La huella registrada del socio identificado.
      */
-    private void procesarRegistroEntradaSalida(ResultSet resultSet) throws SQLException {
-        String idSocio = resultSet.getString("numero_socio");
-        String nombreSocio = resultSet.getString("nombre");
-        String apellidosSocio = resultSet.getString("apellidos");
+    private void procesarRegistroEntradaSalida(HuellaSocio huella) {
+        String idSocio = huella.getNumeroSocio();
+        String nombreSocio = huella.getNombre();
+        String apellidosSocio = huella.getApellidos();
         LocalDate fechaActual = LocalDate.now();
         LocalTime horaActual = LocalTime.now();
+        long inicio = System.nanoTime();
 
         try (Session session = getSessionFactory().openSession()) {
             Transaction transaction = session.beginTransaction();
             try {
                 Socio socio = session.get(Socio.class, idSocio);
+                if (socio == null) {
+                    // El socio se eliminó desde otro puesto: se retira del índice
+                    IndiceHuellas.getInstance().eliminar(idSocio);
+                    transaction.commit();
+                    mostrarAlerta(Alert.AlertType.INFORMATION, "No Encontrado", "No se encontró ningún socio con la huella proporcionada.");
+                    return;
+                }
                 RegistroEntradaDAO registroEntradaDAO = new RegistroEntradaDAO();
                 RegistroEntrada registroEntrada = registroEntradaDAO.obtenerRegistroEntradaSinSalida(socio);
 
@@ -528,6 +513,8 @@ private void iniciarLecturaContinuaHuella() {
                 }
                 throw e;
             }
+        } finally {
+            MetricasHuellas.getInstance().registrarTiempoBaseDatos(System.nanoTime() - inicio);
         }
     }
 
@@ -631,10 +618,8 @@ private void iniciarLecturaContinuaHuella() {
      * <p>Este método se encarga de realizar una limpieza ordenada cuando la aplicación se cierra,
      * asegurando que todos los recursos se liberen adecuadamente:</p>
      * <ul>
-     *   <li>Detiene el proceso de lectura continua de huella dactilar</li>
-     *   <li>Intenta finalizar ordenadamente el servicio de ejecución ({@code ExecutorService})</li>
-     *   <li>Si la terminación no es posible en el tiempo establecido (2 segundos), registra una advertencia</li>
-     *   <li>Maneja adecuadamente la posible interrupción durante el proceso de espera</li>
+     *   <li>Detiene las etapas de lectura continua de huella dactilar, que se ejecutan en hilos virtuales</li>
+     *   <li>Libera los hilos del motor de coincidencias</li>
      * </ul>
      *
      * <p>Este método debe ser llamado antes de cerrar la ventana principal
@@ -643,16 +628,6 @@ private void iniciarLecturaContinuaHuella() {
      */
     public void onClose() {
         detenerLecturaContinuaHuella();
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdownNow();
-            try {
-                if (!executorService.awaitTermination(2, TimeUnit.SECONDS)) {
-                    LOGGER.warning("No se pudo terminar el executor service correctamente");
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                LOGGER.log(Level.WARNING, "Interrupción durante la espera de terminación del executor", e);
-            }
-        }
+        IndiceHuellas.getInstance().cerrarMotor();
     }
-}
\ No newline at end of file
+}
@@ -27,6 +27,7 @@ import javafx.util.Duration;
 import javafx.util.StringConverter;
 import javafx.util.converter.LocalTimeStringConverter;
 import org.socialclub.socialclub.database.RegistroEntradaDAO;
+import org.socialclub.socialclub.model.OcupacionSnapshot;
 import org.socialclub.socialclub.model.RegistroEntrada;
 import org.socialclub.socialclub.model.Socio;
 import org.socialclub.socialclub.util.Reportes;
@@ -222,12 +223,10 @@ private void configurarTabla() {
     }
 
     private void actualizarContadores() {
-        RegistroEntradaDAO registroDAO = new RegistroEntradaDAO();
-        int totalSocios = registroDAO.obtenerTotalSocios();
-        int sociosDentro = registroDAO.obtenerTotalSociosDentro();
+        OcupacionSnapshot ocupacion = new RegistroEntradaDAO().obtenerOcupacion();
 
-        lblTotalSocios.setText("Total de Socios: " + totalSocios);
-        lblSociosDentro.setText("Socios Dentro: " + sociosDentro);
+        lblTotalSocios.setText("Total de Socios: " + ocupacion.getTotalSocios());
+        lblSociosDentro.setText("Socios Dentro: " + ocupacion.getSociosDentro());
     }
 
     @FXML
@@ -30,8 +30,11 @@ import org.socialclub.socialclub.database.ReservaDAO;
 import org.socialclub.socialclub.database.SocioDAO;
 import org.socialclub.socialclub.model.Instalacion;
 import org.socialclub.socialclub.model.Reserva;
+import org.socialclub.socialclub.model.ResultadoReserva;
 import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.model.SocioResumen;
 import org.socialclub.socialclub.util.Reportes;
+import org.socialclub.socialclub.util.TablaPaginada;
 
 import java.io.IOException;
 import java.time.LocalDate;
@@ -77,6 +80,8 @@ public class ReservaController {
     @FXML
     private GridPane gridHorarios;
 
+    private TablaPaginada<Reserva> reservasPaginadas;
+
     /**
      * Inicializa los componentes de la interfaz gráfica de la aplicación.
      * Este método se llama cuando se inicia la aplicación.
@@ -103,13 +108,18 @@ public class ReservaController {
     }
 
     /**
-     * Carga los datos en la tabla para mostrar las reservas.
+     * Carga los datos en la tabla para mostrar las reservas. Solo se carga la primera página.
      */
     private void cargarDatosTabla() {
-        ReservaDAO reservaDAO = new ReservaDAO();
-        List<Reserva> reservas = reservaDAO.obtenerReservas();
-        ObservableList<Reserva> items = FXCollections.observableArrayList(reservas);
-        tableReservas.setItems(items);
+        if (reservasPaginadas == null) {
+            // Las reservas se cargan por páginas, de la más reciente a la más antigua, al desplazarse por la tabla
+            ReservaDAO reservaDAO = new ReservaDAO();
+            reservasPaginadas = new TablaPaginada<>(tableReservas, TablaPaginada.TAMANO_PAGINA_DEFECTO, (ultima, tamano) ->
+                    ultima == null
+                            ? reservaDAO.obtenerPaginaReservas(null, null, null, tamano)
+                            : reservaDAO.obtenerPaginaReservas(ultima.getFecha(), ultima.getHora(), ultima.getId(), tamano));
+        }
+        reservasPaginadas.recargar();
     }
 
     /**
@@ -121,10 +131,7 @@ public class ReservaController {
         configurarColumnaHora(colHora);
         configurarColumnaSocio(colNumSocio);
         configurarColumnaNombreSocio(colNombreSocio);
-
-        // Ordena la tabla por fecha de la reserva, de la más reciente a la más antigua
-        colFecha.setSortType(TableColumn.SortType.DESCENDING);
-        tableReservas.getSortOrder().add(colFecha);
+        // El orden, de la reserva más reciente a la más antigua, lo da la consulta paginada (TablaPaginada)
     }
 
     /**
@@ -225,20 +232,16 @@ public class ReservaController {
      */
     private void inicializarComboBoxSocios() {
         SocioDAO socioDAO = new SocioDAO();
-        List<Socio> sociosList = socioDAO.obtenerTodosSocios();
+        List<SocioResumen> sociosList = socioDAO.obtenerResumenSocios();
 
         // Filtrar socios mayores de edad
-        List<Socio> sociosMayoresEdad = sociosList.stream()
+        List<SocioResumen> sociosMayoresEdad = sociosList.stream()
                 .filter(socio -> Period.between(socio.getFechaNacimiento(), LocalDate.now()).getYears() >= 18)
                 .toList(); // Usa Stream.toList()
 
         ObservableList<String> items = FXCollections.observableArrayList();
-        for (Socio socio : sociosMayoresEdad) {
-            String displayText = String.format("%s - %s %s",
-                    socio.getNumeroSocio(),
-                    socio.getNombre(),
-                    socio.getApellidos());
-            items.add(displayText);
+        for (SocioResumen socio : sociosMayoresEdad) {
+            items.add(socio.getEtiqueta());
         }
 
         cmbSocio.setItems(items);
@@ -431,15 +434,24 @@ public class ReservaController {
                             .findFirst()
                             .orElseThrow(() -> new IllegalArgumentException("La instalación " + instalacion + " no existe."));
 
-                    // Guardar la reserva en la base de datos
+                    // Guardar la reserva en la base de datos; si otro puesto ya ha reservado la hora, se rechaza
                     ReservaDAO reservaDAO = new ReservaDAO();
-                    reservaDAO.guardarReserva(numeroSocio, inst, fecha, horaLocalTime);
-                    DialogoController.showInfoDialog((Stage) btnReservas.getScene().getWindow(), "Reserva Confirmada", event2 -> {
+                    ResultadoReserva resultado = reservaDAO.reservar(numeroSocio, inst.getId(), fecha, horaLocalTime);
+                    String aviso = switch (resultado.getEstado()) {
+                        case CONFIRMADA -> "Reserva Confirmada";
+                        case OCUPADA -> "La pista " + instalacion + " ya ha sido reservada el día " + fecha + " a las "
+                                + hora + " desde otro puesto. Por favor, elija otra hora.";
+                        case ERROR -> "No se ha podido guardar la reserva.";
+                    };
+                    DialogoController.showInfoDialog((Stage) btnReservas.getScene().getWindow(), aviso, event2 -> {
                     });
 
-                    // Actualizar los horarios disponibles
-                    mostrarHorasDisponibles();
-                    cargarDatosTabla();
+                    // Actualizar los horarios disponibles con las horas reservadas que devuelve la reserva
+                    actualizarInterfazHorasDisponibles(obtenerTodasLasHoras(inst.getId()), resultado.getHorasReservadas(),
+                            fecha, instalacion);
+                    if (resultado.isConfirmada()) {
+                        cargarDatosTabla();
+                    }
                 } catch (Exception ex) {
                     LOGGER.severe("Error al guardar la reserva: " + ex.getMessage());
                 }
@@ -512,7 +524,8 @@ public class ReservaController {
      */
     @FXML
     public void handleImprimirReporteReservas() {
-        List<Reserva> reservas = tableReservas.getItems();
+        // La tabla solo tiene las páginas cargadas: el reporte incluye todas las reservas
+        List<Reserva> reservas = new ReservaDAO().obtenerReservas();
 
         List<Map<String, Object>> reservasMap = new ArrayList<>();
         for (Reserva reserva : reservas) {
@@ -10,7 +10,8 @@ import org.socialclub.socialclub.util.ViewLoader;
 
 /**
  * Esta clase representa el controlador para la vista de ajustes en la aplicación Social Club.
- * Gestiona la funcionalidad relacionada con la adición de empleados, instalaciones y socios.
+ * Gestiona la funcionalidad relacionada con la adición de empleados, instalaciones y socios,
+ * y da acceso a las vistas de diagnóstico de las huellas y de la base de datos.
  */
 public class SettingsController {
 
@@ -25,6 +26,12 @@ public class SettingsController {
     @FXML
     private MFXButton btnAddSocio;
 
+    @FXML
+    private MFXButton btnDiagnostico;
+
+    @FXML
+    private MFXButton btnConsultas;
+
     @FXML
     private AnchorPane pane; // Asegúrate de que esta línea esté presente
 
@@ -35,6 +42,8 @@ public class SettingsController {
         btnAddEmpleado.setOnAction(e -> handleAddEmpleado());
         btnAddInstalacion.setOnAction(e -> handleAddInstalacion());
         btnAddSocio.setOnAction(e -> handleAddSocio());
+        btnDiagnostico.setOnAction(e -> handleDiagnostico());
+        btnConsultas.setOnAction(e -> handleConsultas());
     }
 
     /**
@@ -54,7 +63,23 @@ public class SettingsController {
     }
 
     /**
-     * Configura los iconos para los botones de añadir empleado, añadir instalación y añadir socio.
+     * Gestiona la acción de mostrar el diagnóstico.
+     * Carga la vista "diagnostico.fxml" en el panel de ancla especificado.
+     */
+    private void handleDiagnostico() {
+        ViewLoader.cargarVistaEnPanel(pane, "/View/diagnostico.fxml");
+    }
+
+    /**
+     * Gestiona la acción de mostrar el diagnóstico de la base de datos.
+     * Carga la vista "diagnosticoConsultas.fxml" en el panel de ancla especificado.
+     */
+    private void handleConsultas() {
+        ViewLoader.cargarVistaEnPanel(pane, "/View/diagnosticoConsultas.fxml");
+    }
+
+    /**
+     * Configura los iconos para los botones de añadir empleado, añadir instalación, añadir socio y de diagnóstico.
      * También aplica la clase CSS "transparent-button" a los botones.
      */
     private void configurarIconos() {
@@ -62,16 +87,22 @@ public class SettingsController {
         MFXFontIcon icon1 = new MFXFontIcon("fas-person-circle-plus", 24, Color.WHITE);
         MFXFontIcon icon2 = new MFXFontIcon("fas-person-swimming", 24, Color.WHITE);
         MFXFontIcon icon3 = new MFXFontIcon("fas-table-tennis-paddle-ball", 24, Color.WHITE);
+        MFXFontIcon icon4 = new MFXFontIcon("fas-gauge-high", 24, Color.WHITE);
+        MFXFontIcon icon5 = new MFXFontIcon("fas-database", 24, Color.WHITE);
 
         // Asignar iconos a los botones
         btnAddEmpleado.setGraphic(new MFXIconWrapper(icon1, 24));
         btnAddInstalacion.setGraphic(new MFXIconWrapper(icon3, 24));
         btnAddSocio.setGraphic(new MFXIconWrapper(icon2, 24));
+        btnDiagnostico.setGraphic(new MFXIconWrapper(icon4, 24));
+        btnConsultas.setGraphic(new MFXIconWrapper(icon5, 24));
 
         // Aplicar la clase CSS a los botones
         btnAddEmpleado.getStyleClass().add(TRANSPARENT_BUTTON_CLASS);
         btnAddInstalacion.getStyleClass().add(TRANSPARENT_BUTTON_CLASS);
         btnAddSocio.getStyleClass().add(TRANSPARENT_BUTTON_CLASS);
+        btnDiagnostico.getStyleClass().add(TRANSPARENT_BUTTON_CLASS);
+        btnConsultas.getStyleClass().add(TRANSPARENT_BUTTON_CLASS);
     }
 
     /**
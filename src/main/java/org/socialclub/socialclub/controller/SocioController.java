@@ -23,17 +23,21 @@ import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.socialclub.socialclub.database.AccesoAsincrono;
 import org.socialclub.socialclub.database.FamiliaDAO;
 import org.socialclub.socialclub.database.SocioDAO;
 import org.socialclub.socialclub.model.Familia;
+import org.socialclub.socialclub.model.RangoEdad;
 import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.model.SocioResumen;
 import org.socialclub.socialclub.util.Reportes;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.socialclub.socialclub.util.ConfigLoader.LOGGER;
 
@@ -88,15 +92,17 @@ public class SocioController {
     @FXML
     public MFXIconButton helpIcon;
     @FXML
-    private TableView<Socio> tablaSocio;
+    private TableView<SocioResumen> tablaSocio;
     @FXML
-    private TableColumn<Socio, String> colNumSocio;
+    private TableColumn<SocioResumen, String> colNumSocio;
     @FXML
-    private TableColumn<Socio, String> colNombre;
+    private TableColumn<SocioResumen, String> colNombre;
     @FXML
-    private TableColumn<Socio, String> colApellidos;
+    private TableColumn<SocioResumen, String> colApellidos;
     @FXML
     private ProgressIndicator progressIndicator;
+    // Texto original de cada opción de rango de edad, al que se añade el número de socios en cada recuento
+    private final Map<Toggle, String> textosRangoEdad = new HashMap<>();
 
     /**
      * Inicializa el controlador SocioController.
@@ -131,29 +137,14 @@ public class SocioController {
 
     /**
      * Filtra los socios según el texto ingresado en el campo de búsqueda.
+     * La búsqueda por número, nombre, apellidos, DNI, teléfono o email se hace en la base de datos.
      *
      * @param filtro El texto de filtro.
      */
     private void filtrarSocios(String filtro) {
         SocioDAO socioDAO = new SocioDAO();
-        List<Socio> sociosList = socioDAO.obtenerTodosSocios();
-        if (sociosList == null) {
-            sociosList = new ArrayList<>();
-        }
-
-        List<Socio> sociosFiltrados = new ArrayList<>();
-        for (Socio socio : sociosList) {
-            if ((socio.getNombre() != null && socio.getNombre().toLowerCase().contains(filtro.toLowerCase())) ||
-                    (socio.getApellidos() != null && socio.getApellidos().toLowerCase().contains(filtro.toLowerCase())) ||
-                    (socio.getDni() != null && socio.getDni().toLowerCase().contains(filtro.toLowerCase())) ||
-                    (socio.getTelefono() != null && socio.getTelefono().toLowerCase().contains(filtro.toLowerCase())) ||
-                    (socio.getEmail() != null && socio.getEmail().toLowerCase().contains(filtro.toLowerCase())) ||
-                    (socio.getNumeroSocio() != null && socio.getNumeroSocio().toLowerCase().contains(filtro.toLowerCase()))) {
-                sociosFiltrados.add(socio);
-            }
-        }
-
-        ObservableList<Socio> socios = FXCollections.observableArrayList(sociosFiltrados);
+        List<SocioResumen> sociosFiltrados = socioDAO.buscarResumenSocios(filtro);
+        ObservableList<SocioResumen> socios = FXCollections.observableArrayList(sociosFiltrados);
         tablaSocio.setItems(socios);
     }
 
@@ -164,14 +155,29 @@ public class SocioController {
      */
     private void cargarSociosPorRangoEdad(String rangoEdad) {
         SocioDAO socioDAO = new SocioDAO();
-        List<Socio> sociosList = socioDAO.obtenerSociosPorRangoEdad(rangoEdad);
-        if (sociosList == null) {
-            sociosList = new ArrayList<>();
-        }
-        ObservableList<Socio> socios = FXCollections.observableArrayList(sociosList);
+        List<SocioResumen> sociosList = socioDAO.obtenerResumenSociosPorRangoEdad(rangoEdad);
+        ObservableList<SocioResumen> socios = FXCollections.observableArrayList(sociosList);
         tablaSocio.setItems(socios);
     }
 
+    /**
+     * Añade a cada opción de rango de edad el número de socios del rango, obtenido con una única consulta.
+     * Se vuelve a calcular cada vez que se recarga la tabla de socios o se abre el filtro por rango de edad,
+     * de modo que los recuentos reflejan las altas y bajas y los socios que cambian de rango al cumplir años.
+     * La consulta se hace en segundo plano.
+     */
+    private void mostrarConteoRangosEdad() {
+        AccesoAsincrono.consultarYMostrar(new SocioDAO()::contarSociosPorRangoEdad, conteo -> {
+            for (Toggle opcion : rangoEdad.getToggles()) {
+                if (opcion instanceof Labeled etiqueta && opcion.getUserData() != null) {
+                    String texto = textosRangoEdad.computeIfAbsent(opcion, o -> etiqueta.getText());
+                    Long total = conteo.get(RangoEdad.desdeCodigo(opcion.getUserData().toString()));
+                    etiqueta.setText(total == null ? texto : texto + " (" + total + ")");
+                }
+            }
+        });
+    }
+
     /**
      * Carga los miembros de la familia seleccionada.
      *
@@ -182,11 +188,8 @@ public class SocioController {
         int idFamilia = Integer.parseInt(partes[0]);
 
         SocioDAO socioDAO = new SocioDAO();
-        List<Socio> sociosList = socioDAO.obtenerSociosPorFamilia(idFamilia);
-        if (sociosList == null) {
-            sociosList = new ArrayList<>();
-        }
-        ObservableList<Socio> socios = FXCollections.observableArrayList(sociosList);
+        List<SocioResumen> sociosList = socioDAO.obtenerResumenSociosPorFamilia(idFamilia);
+        ObservableList<SocioResumen> socios = FXCollections.observableArrayList(sociosList);
         tablaSocio.setItems(socios);
     }
 
@@ -208,6 +211,7 @@ public class SocioController {
                         containerFamilia.setVisible(false);
                         containerRangoEdad.setVisible(true);
                         containerBusqueda.setVisible(false);
+                        mostrarConteoRangosEdad();
                         break;
                     case 3:
                         containerFamilia.setVisible(false);
@@ -241,7 +245,7 @@ public class SocioController {
      * @param columna La columna a configurar.
      * @param campo   El campo de la columna.
      */
-    private void configurarColumna(TableColumn<Socio, String> columna, String campo) {
+    private void configurarColumna(TableColumn<SocioResumen, String> columna, String campo) {
         columna.setCellValueFactory(new PropertyValueFactory<>(campo));
         columna.setCellFactory(TextFieldTableCell.forTableColumn());
     }
@@ -251,20 +255,19 @@ public class SocioController {
      */
     private void cargarDatosTabla() {
         SocioDAO socioDAO = new SocioDAO();
-        List<Socio> sociosList = socioDAO.obtenerTodosSocios();
-        if (sociosList == null) {
-            sociosList = new ArrayList<>();
-        }
-        ObservableList<Socio> socios = FXCollections.observableArrayList(sociosList);
+        List<SocioResumen> sociosList = socioDAO.obtenerResumenSocios();
+        ObservableList<SocioResumen> socios = FXCollections.observableArrayList(sociosList);
         tablaSocio.setItems(socios);
+        mostrarConteoRangosEdad();
     }
 
     /**
-     * Muestra los detalles de un socio seleccionado.
+     * Muestra los detalles de un socio seleccionado. El socio completo se carga solo al seleccionarlo.
      *
-     * @param socio El socio seleccionado.
+     * @param seleccionado El socio seleccionado.
      */
-    private void mostrarDetallesSocio(Socio socio) {
+    private void mostrarDetallesSocio(SocioResumen seleccionado) {
+        Socio socio = seleccionado != null ? new SocioDAO().obtenerSocio(seleccionado.getNumeroSocio()) : null;
         if (socio == null) {
             // Limpiar los campos si no hay un socio seleccionado
             txtNumSocio.setText("");
@@ -290,8 +293,10 @@ public class SocioController {
         txtFechaAlta.setText(socio.getFechaAlta().toString());
         txtTitularidad.setText(String.valueOf(socio.getTitularidad()));
 
-        if (socio.getFoto() != null) {
-            Image image = new Image(new ByteArrayInputStream(socio.getFoto()));
+        // La foto no viene con el listado de socios: se carga solo la del socio seleccionado
+        byte[] foto = new SocioDAO().obtenerFoto(socio.getNumeroSocio());
+        if (foto != null) {
+            Image image = new Image(new ByteArrayInputStream(foto));
             imgPhoto.setImage(image);
         } else {
             InputStream imageStream = getClass().getResourceAsStream("/images/noimage.jpg");
@@ -325,12 +330,13 @@ public class SocioController {
      */
     public void handleImprimirCarnets() {
         progressIndicator.setVisible(true);
-        List<Socio> socios = new ArrayList<>(tablaSocio.getItems());
+        List<String> numerosSocio = tablaSocio.getItems().stream().map(SocioResumen::getNumeroSocio).toList();
 
         Task<Void> task = new Task<>() {
             @Override
             protected Void call() {
-                Reportes.imprimirCarnets(socios);
+                // Los carnets llevan la foto: se cargan los socios completos en segundo plano
+                Reportes.imprimirCarnets(new SocioDAO().obtenerSociosPorNumero(numerosSocio, true));
                 return null;
             }
 
@@ -369,12 +375,12 @@ public class SocioController {
     @FXML
     public void handleImprimirReporte(MouseEvent mouseEvent) {
         progressIndicator.setVisible(true);
-        List<Socio> socios = new ArrayList<>(tablaSocio.getItems());
+        List<String> numerosSocio = tablaSocio.getItems().stream().map(SocioResumen::getNumeroSocio).toList();
 
         Task<Void> task = new Task<>() {
             @Override
             protected Void call() {
-                Reportes.imprimirReporteSocios(socios);
+                Reportes.imprimirReporteSocios(new SocioDAO().obtenerSociosPorNumero(numerosSocio, false));
                 return null;
             }
 
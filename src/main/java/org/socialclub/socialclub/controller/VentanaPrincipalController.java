@@ -13,10 +13,13 @@ import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.socialclub.socialclub.huella.EscrituraHuellas;
+import org.socialclub.socialclub.huella.MetricasHuellas;
 import org.socialclub.socialclub.util.HibernateUtil;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -108,6 +111,10 @@ public class VentanaPrincipalController {
     private void handleCloseIconClick(MouseEvent event) {
         Stage primaryStage = (Stage) ((MFXFontIcon) event.getSource()).getScene().getWindow();
         DialogoController.showConfirmDialog(primaryStage, "¿Estas seguro?", event1 -> {
+            if (!EscrituraHuellas.getInstance().cerrar(5, TimeUnit.SECONDS)) {
+                logger.warning("No se pudieron guardar todas las huellas pendientes antes de cerrar");
+            }
+            MetricasHuellas.getInstance().detenerVolcado();
             HibernateUtil.shutdown();
             Platform.exit();
             System.exit(0);
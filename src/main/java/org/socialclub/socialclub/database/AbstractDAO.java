@@ -0,0 +1,167 @@
+package org.socialclub.socialclub.database;
+
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.socialclub.socialclub.util.HibernateUtil;
+import org.socialclub.socialclub.util.MetricasConsultas;
+
+import java.util.function.Function;
+
+/**
+ * Clase base de los DAO. Centraliza la apertura de la sesión, la transacción, la confirmación o
+ * reversión y el registro de errores, delegando en {@link TransactionTemplate}.
+ * Si el DAO se llama dentro de {@link TransactionTemplate#enLectura} o {@link TransactionTemplate#enTransaccion},
+ * reutiliza la sesión compartida en lugar de abrir una nueva.
+ * El tiempo de cada llamada se registra en {@link MetricasConsultas} con el nombre del método del DAO que la hace,
+ * al que también se atribuyen las consultas lentas que ejecute.
+ */
+public abstract class AbstractDAO {
+    /**
+     * Región de la caché de consultas para los datos de referencia (instalaciones, horarios, familias y roles).
+     */
+    protected static final String REGION_REFERENCIA = "referencia";
+
+    private static final StackWalker PILA = StackWalker.getInstance();
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Devuelve la factoría de sesiones con la que el DAO abre sus sesiones.
+     *
+     * @return la factoría de sesiones.
+     */
+    protected SessionFactory obtenerSessionFactory() {
+        return HibernateUtil.getSessionFactory();
+    }
+
+    /**
+     * Aplica a la consulta un grafo de entidad con nombre como grafo de carga: las asociaciones del grafo se
+     * obtienen con joins en la misma sentencia, en lugar de con una consulta adicional por cada fila.
+     *
+     * @param session     la sesión en la que se ejecuta la consulta.
+     * @param query       la consulta.
+     * @param nombreGrafo el nombre del grafo, declarado con {@link jakarta.persistence.NamedEntityGraph} en la entidad.
+     */
+    protected static void aplicarGrafo(Session session, Query<?> query, String nombreGrafo) {
+        query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, session.getEntityGraph(nombreGrafo));
+    }
+
+    /**
+     * Ejecuta una consulta en una sesión de solo lectura.
+     * Si la consulta falla, se registra el error y se devuelve el valor por defecto.
+     *
+     * @param consulta     la consulta a ejecutar.
+     * @param porDefecto   el valor que se devuelve si se produce un error.
+     * @param mensajeError el mensaje que se registra si se produce un error.
+     * @param <T>          el tipo del resultado.
+     * @return el resultado de la consulta, o {@code porDefecto} si se produce un error.
+     */
+    protected <T> T leer(Function<Session, T> consulta, T porDefecto, String mensajeError) {
+        try {
+            return medir(true, consulta);
+        } catch (RuntimeException e) {
+            logger.error(mensajeError, e);
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Ejecuta una operación de escritura en una transacción, que se deshace si la operación falla.
+     * Si la operación falla, se registra el error y se devuelve el valor por defecto.
+     *
+     * @param operacion    la operación a ejecutar.
+     * @param porDefecto   el valor que se devuelve si se produce un error.
+     * @param mensajeError el mensaje que se registra si se produce un error.
+     * @param <T>          el tipo del resultado.
+     * @return el resultado de la operación, o {@code porDefecto} si se produce un error.
+     */
+    protected <T> T escribir(Function<Session, T> operacion, T porDefecto, String mensajeError) {
+        try {
+            return medir(false, operacion);
+        } catch (RuntimeException e) {
+            logger.error(mensajeError, e);
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Ejecuta una operación de escritura en una transacción, que se deshace si la operación falla.
+     * A diferencia de {@link #escribir}, el error se propaga para que el DAO decida qué hacer con él según su causa.
+     *
+     * @param operacion la operación a ejecutar.
+     * @param <T>       el tipo del resultado.
+     * @return el resultado de la operación.
+     */
+    protected <T> T escribirPropagando(Function<Session, T> operacion) {
+        return medir(false, operacion);
+    }
+
+    /**
+     * Ejecuta la operación con {@link TransactionTemplate} y registra su tiempo con el nombre del método del DAO
+     * que llamó a {@link #leer}, {@link #escribir} o {@link #escribirPropagando}, si las métricas están activas
+     * ({@link MetricasConsultas#isActiva()}).
+     *
+     * @param soloLectura {@code true} para una sesión de solo lectura.
+     * @param operacion   la operación a ejecutar.
+     * @param <T>         el tipo del resultado.
+     * @return el resultado de la operación.
+     */
+    private <T> T medir(boolean soloLectura, Function<Session, T> operacion) {
+        MetricasConsultas metricas = MetricasConsultas.getInstance();
+        if (!metricas.isActiva()) {
+            // Sin métricas no se recorre la pila para obtener el nombre del método
+            return TransactionTemplate.ejecutar(obtenerSessionFactory(), soloLectura, operacion);
+        }
+        String metodo = getClass().getSimpleName() + "." + metodoLlamante();
+        String anterior = metricas.entrar(metodo);
+        long inicio = System.nanoTime();
+        try {
+            return TransactionTemplate.ejecutar(obtenerSessionFactory(), soloLectura, operacion);
+        } finally {
+            metricas.salir(metodo, anterior, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Obtiene el nombre del primer método de la pila que no pertenece a esta clase, es decir, el método del DAO.
+     * Si la llamada se hace desde una lambda, se devuelve el método que la contiene.
+     *
+     * @return el nombre del método.
+     */
+    private static String metodoLlamante() {
+        String nombre = PILA.walk(marcos -> marcos
+                .filter(marco -> !marco.getClassName().equals(AbstractDAO.class.getName()))
+                .findFirst()
+                .map(StackWalker.StackFrame::getMethodName)
+                .orElse("desconocido"));
+        // Las lambdas se compilan como "lambda$metodo$0"
+        if (nombre.startsWith("lambda$")) {
+            int fin = nombre.indexOf('$', "lambda$".length());
+            nombre = nombre.substring("lambda$".length(), fin > 0 ? fin : nombre.length());
+        }
+        return nombre;
+    }
+
+    /**
+     * Elimina de la caché de segundo nivel las entidades indicadas y las consultas de datos de referencia.
+     * Se utiliza después de las escrituras cuyos efectos la base de datos propaga a otras tablas
+     * (borrados en cascada, horarios generados) y que Hibernate no puede invalidar por sí mismo.
+     *
+     * @param entidades las clases de las entidades que se eliminan de la caché.
+     */
+    protected void invalidarCache(Class<?>... entidades) {
+        Cache cache = obtenerSessionFactory().getCache();
+        if (cache == null) {
+            return;
+        }
+        for (Class<?> entidad : entidades) {
+            cache.evictEntityData(entidad);
+        }
+        cache.evictQueryRegion(REGION_REFERENCIA);
+    }
+}
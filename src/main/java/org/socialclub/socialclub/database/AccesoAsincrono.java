@@ -0,0 +1,109 @@
+package org.socialclub.socialclub.database;
+
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.socialclub.socialclub.util.ConfigLoader;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fachada asíncrona sobre los DAO. Cada llamada se ejecuta en un hilo virtual, fuera del hilo de aplicación de JavaFX,
+ * y su resultado se devuelve en un {@link CompletableFuture}; así una base de datos lenta o inaccesible no bloquea
+ * la interfaz. Los resultados que se muestran en pantalla se entregan en el hilo de JavaFX con {@link Platform#runLater}.
+ * El número de llamadas simultáneas se limita para no agotar el pool de conexiones: las que exceden el límite
+ * esperan en su hilo virtual sin ocupar una conexión.
+ * <p>
+ * Ejemplo de uso desde un controlador:
+ * <pre>{@code
+ * AccesoAsincrono.consultarYMostrar(registroEntradaDAO::obtenerOcupacion,
+ *         ocupacion -> actualizarAforo(ocupacion.getSociosDentro()));
+ * }</pre>
+ */
+public final class AccesoAsincrono {
+    private static final Logger logger = LoggerFactory.getLogger(AccesoAsincrono.class);
+
+    /**
+     * Propiedad de configuración con el número máximo de llamadas simultáneas a la base de datos.
+     */
+    public static final String PROP_MAXIMO_SIMULTANEAS = "bd.asincrono.maximoSimultaneas";
+
+    /**
+     * Número máximo de llamadas simultáneas por defecto, por debajo del tamaño máximo del pool de conexiones.
+     */
+    public static final int MAXIMO_SIMULTANEAS_DEFECTO = 8;
+
+    /**
+     * Ejecutor que entrega las tareas al hilo de aplicación de JavaFX.
+     */
+    public static final Executor EN_PANTALLA = Platform::runLater;
+
+    private static final ExecutorService EJECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-", 0).factory());
+
+    private static final Semaphore PERMISOS = new Semaphore(Math.max(1,
+            ConfigLoader.getIntProperty(PROP_MAXIMO_SIMULTANEAS, MAXIMO_SIMULTANEAS_DEFECTO)));
+
+    /**
+     * Constructor privado para evitar la instanciación de la clase.
+     */
+    private AccesoAsincrono() {
+        throw new UnsupportedOperationException("Clase de utilidad");
+    }
+
+    /**
+     * Ejecuta una llamada a uno o varios DAO en un hilo virtual.
+     *
+     * @param llamada la llamada, por ejemplo {@code socioDAO::obtenerResumenSocios}.
+     * @param <T>     el tipo del resultado.
+     * @return un {@link CompletableFuture} que se completa con el resultado de la llamada, o de forma excepcional
+     * si la llamada lanza una excepción.
+     */
+    public static <T> CompletableFuture<T> consultar(Supplier<T> llamada) {
+        return CompletableFuture.supplyAsync(() -> {
+            PERMISOS.acquireUninterruptibly();
+            try {
+                return llamada.get();
+            } finally {
+                PERMISOS.release();
+            }
+        }, EJECUTOR);
+    }
+
+    /**
+     * Ejecuta una operación sin resultado, como una escritura, en un hilo virtual.
+     *
+     * @param operacion la operación.
+     * @return un {@link CompletableFuture} que se completa al terminar la operación.
+     */
+    public static CompletableFuture<Void> ejecutar(Runnable operacion) {
+        return consultar(() -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta una llamada a los DAO en un hilo virtual y entrega su resultado en el hilo de JavaFX.
+     * Si la llamada falla, el error se registra y no se llama a {@code enPantalla}.
+     *
+     * @param llamada    la llamada a los DAO.
+     * @param enPantalla la acción que actualiza la interfaz con el resultado; se ejecuta en el hilo de JavaFX.
+     * @param <T>        el tipo del resultado.
+     * @return un {@link CompletableFuture} que se completa después de actualizar la interfaz.
+     */
+    public static <T> CompletableFuture<Void> consultarYMostrar(Supplier<T> llamada, Consumer<? super T> enPantalla) {
+        return consultar(llamada)
+                .thenAcceptAsync(enPantalla, EN_PANTALLA)
+                .exceptionally(error -> {
+                    logger.error("Error en una llamada asíncrona a la base de datos", error);
+                    return null;
+                });
+    }
+}
@@ -23,7 +23,7 @@ import static org.socialclub.socialclub.util.HibernateUtil.getSessionFactory;
 /**
  * Data Access Object (DAO) para la entidad Empleado. Proporciona métodos para realizar operaciones CRUD en los registros de empleados.
  */
-public class EmpleadoDAO {
+public class EmpleadoDAO extends AbstractDAO {
     private static final Logger logger = LoggerFactory.getLogger(EmpleadoDAO.class);
     private static final String EMAIL_PARAM = "email";
 
@@ -95,18 +95,7 @@ public class EmpleadoDAO {
      * @return El empleado con el identificador especificado, o null si no se encuentra ninguno.
      */
     public Empleado obtenerEmpleadoPorId(Integer id) {
-        Session session = getSessionFactory().getCurrentSession();
-        Empleado empleado = null;
-        try {
-            session.beginTransaction();
-            empleado = session.get(Empleado.class, id);
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener empleado por id", e);
-        } finally {
-            session.close();
-        }
-        return empleado;
+        return leer(session -> session.get(Empleado.class, id), null, "Error al obtener empleado por id");
     }
 
     /**
@@ -117,19 +106,10 @@ public class EmpleadoDAO {
      * El valor de retorno es <code>null</code> en caso de error durante la operación.
      */
     public List<Empleado> obtenerTodosEmpleados() {
-        Session session = getSessionFactory().getCurrentSession();
-        List<Empleado> empleados = null;
-        try {
-            session.beginTransaction();
+        return leer(session -> {
             Query<Empleado> query = session.createQuery("from Empleado", Empleado.class);
-            empleados = query.getResultList();
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener todos los empleados", e);
-        } finally {
-            session.close();
-        }
-        return empleados;
+            return query.getResultList();
+        }, null, "Error al obtener todos los empleados");
     }
 
     /**
@@ -190,20 +170,11 @@ public class EmpleadoDAO {
      * Si se produce algún error durante la operación, se registrará un mensaje de error en el registro de la aplicación.
      */
     public Empleado obtenerEmpleadoPorEmail(String email) {
-        Session session = getSessionFactory().openSession();
-        Empleado empleado = null;
-        try {
-            session.beginTransaction();
+        return leer(session -> {
             Query<Empleado> query = session.createQuery("FROM Empleado WHERE email = :email", Empleado.class);
             query.setParameter(EMAIL_PARAM, email);
-            empleado = query.uniqueResult();
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener empleado por email", e);
-        } finally {
-            session.close();
-        }
-        return empleado;
+            return query.uniqueResult();
+        }, null, "Error al obtener empleado por email");
     }
 
     /**
@@ -215,21 +186,10 @@ public class EmpleadoDAO {
      * Si se produce algún error durante la operación, se registrará un mensaje de error en el registro de la aplicación.
      */
     public String obtenerNombreEmpleadoPorId(Integer id) {
-        Session session = getSessionFactory().openSession();
-        String nombre = null;
-        try {
-            session.beginTransaction();
+        return leer(session -> {
             Empleado empleado = session.get(Empleado.class, id);
-            if (empleado != null) {
-                nombre = empleado.getNombre();
-            }
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener nombre de empleado por id", e);
-        } finally {
-            session.close();
-        }
-        return nombre;
+            return empleado != null ? empleado.getNombre() : null;
+        }, null, "Error al obtener nombre de empleado por id");
     }
 
     /**
@@ -241,21 +201,12 @@ public class EmpleadoDAO {
      * Si se produce algún error durante la operación, se registrará un mensaje de error en el registro de la aplicación.
      */
     public boolean existeDni(String dni) {
-        Session session = getSessionFactory().openSession();
-        boolean existe = false;
-        try {
-            session.beginTransaction();
+        return leer(session -> {
             Query<Long> query = session.createQuery("SELECT COUNT(e) FROM Empleado e WHERE e.dni = :dni", Long.class);
             query.setParameter("dni", dni);
             Long count = query.uniqueResult();
-            existe = count > 0;
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al verificar si el DNI existe", e);
-        } finally {
-            session.close();
-        }
-        return existe;
+            return count > 0;
+        }, false, "Error al verificar si el DNI existe");
     }
 
     /**
@@ -267,20 +218,11 @@ public class EmpleadoDAO {
      * Si se produce algún error durante la operación, se registrará un mensaje de error en el registro de la aplicación.
      */
     public boolean existeEmail(String email) {
-        Session session = getSessionFactory().openSession();
-        boolean existe = false;
-        try {
-            session.beginTransaction();
+        return leer(session -> {
             Query<Long> query = session.createQuery("SELECT COUNT(e) FROM Empleado e WHERE e.email = :email", Long.class);
             query.setParameter(EMAIL_PARAM, email);
             Long count = query.uniqueResult();
-            existe = count > 0;
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al verificar si el email existe", e);
-        } finally {
-            session.close();
-        }
-        return existe;
+            return count > 0;
+        }, false, "Error al verificar si el email existe");
     }
 }
\ No newline at end of file
@@ -8,12 +8,13 @@ import org.slf4j.LoggerFactory;
 import org.socialclub.socialclub.model.Evento;
 import org.socialclub.socialclub.util.HibernateUtil;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Data Access Object (DAO) para administrar entidades {@link Evento} en la base de datos.
  */
-public class EventoDAO {
+public class EventoDAO extends AbstractDAO {
     private static final Logger logger = LoggerFactory.getLogger(EventoDAO.class);
 
     /**
@@ -41,21 +42,34 @@ public class EventoDAO {
      * @return Una lista de {@link Evento}.
      */
     public List<Evento> obtenerTodosEventos() {
-        List<Evento> eventos = null;
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+        return leer(session -> {
             Query<Evento> query = session.createQuery("from Evento", Evento.class);
-            eventos = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+            return query.getResultList();
+        }, null, "Error al obtener todos los eventos");
+    }
+
+    /**
+     * Obtiene una página de {@link Evento}, del más reciente al más antiguo según su ID.
+     * La página empieza después del evento indicado (paginación por clave).
+     *
+     * @param antesDeId El ID del último evento de la página anterior, o {@code null} para la primera página.
+     * @param tamano    El número máximo de eventos de la página.
+     * @return Una lista de {@link Evento}, vacía si no hay más eventos o si se produce un error.
+     */
+    public List<Evento> obtenerPaginaEventos(Integer antesDeId, int tamano) {
+        return leer(session -> {
+            Query<Evento> query;
+            if (antesDeId == null) {
+                query = session.createQuery("from Evento e order by e.id desc", Evento.class);
+            } else {
+                query = session.createQuery("from Evento e where e.id < :id order by e.id desc", Evento.class);
+                query.setParameter("id", antesDeId);
             }
-            logger.error("Error al obtener todos los eventos", e);
-        }
-        return eventos;
+            query.setMaxResults(tamano);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener la página de eventos");
     }
+
     /**
      * Elimina un {@link Evento} de la base de datos por su ID.
      *
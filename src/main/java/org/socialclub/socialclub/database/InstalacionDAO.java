@@ -5,6 +5,7 @@ import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.socialclub.socialclub.model.Horario;
 import org.socialclub.socialclub.model.Instalacion;
 
 import java.util.List;
@@ -15,7 +16,7 @@ import static org.socialclub.socialclub.util.HibernateUtil.getSessionFactory;
  * Objeto de Acceso a Datos (DAO) para administrar las entidades {@link Instalacion} en la base de datos.
  * Esta clase proporciona métodos para crear, actualizar, eliminar y recuperar instancias de {@link Instalacion}.
  */
-public class InstalacionDAO {
+public class InstalacionDAO extends AbstractDAO {
     private static final Logger logger = LoggerFactory.getLogger(InstalacionDAO.class);
 
     /**
@@ -29,6 +30,7 @@ public class InstalacionDAO {
             transaction = session.beginTransaction();
             session.persist(instalacion);
             transaction.commit();
+            invalidarCache(Instalacion.class, Horario.class);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -48,6 +50,7 @@ public class InstalacionDAO {
             transaction = session.beginTransaction();
             session.merge(instalacion);
             transaction.commit();
+            invalidarCache(Instalacion.class, Horario.class);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -69,6 +72,7 @@ public class InstalacionDAO {
             if (instalacion != null) {
                 session.remove(instalacion);
                 transaction.commit();
+                invalidarCache(Instalacion.class, Horario.class);
             }
         } catch (Exception e) {
             if (transaction != null) {
@@ -80,22 +84,15 @@ public class InstalacionDAO {
 
     /**
      * Recupera una lista de todas las instancias de {@link Instalacion} de la base de datos.
+     * El resultado se guarda en la caché de consultas hasta que se modifique alguna instalación.
      *
      * @return una lista de {@link Instalacion} instances.
      */
     public List<Instalacion> obtenerInstalaciones() {
-        Transaction transaction = null;
-        List<Instalacion> instalaciones = null;
-        try (Session session = getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+        return leer(session -> {
             Query<Instalacion> query = session.createQuery("from Instalacion", Instalacion.class);
-            instalaciones = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener las instalaciones", e);
-        }
-        return instalaciones;
+            query.setCacheable(true);
+            query.setCacheRegion(REGION_REFERENCIA);
+            return query.getResultList();
+        }, null, "Error al obtener las instalaciones");
     }}
\ No newline at end of file
@@ -3,14 +3,21 @@ package org.socialclub.socialclub.database;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.socialclub.socialclub.huella.OrdenCoincidencias;
+import org.socialclub.socialclub.model.OcupacionSnapshot;
 import org.socialclub.socialclub.model.RegistroEntrada;
 import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.model.SocioResumen;
+import org.socialclub.socialclub.model.VisitasSocio;
 import org.socialclub.socialclub.util.HibernateUtil;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,11 +28,32 @@ import static org.socialclub.socialclub.util.HibernateUtil.getSessionFactory;
  * Data Access Object (DAO) para administrar las entidades {@link RegistroEntrada} en la base de datos.
  * Esta clase proporciona métodos para crear, actualizar, recuperar y eliminar registros de {@link RegistroEntrada}.
  */
-public class RegistroEntradaDAO {
+public class RegistroEntradaDAO extends AbstractDAO {
     private static final Logger logger = LoggerFactory.getLogger(RegistroEntradaDAO.class);
 
+    /**
+     * Tiempo durante el que se reutiliza el estado de la ocupación.
+     */
+    public static final Duration TTL_OCUPACION = Duration.ofSeconds(3);
+
+    private static final String CONSULTA_OCUPACION =
+            "SELECT new org.socialclub.socialclub.model.OcupacionSnapshot(COUNT(s), " +
+                    "(SELECT COUNT(r) FROM RegistroEntrada r WHERE r.horaSalida IS NULL), " +
+                    "(SELECT e.id FROM RegistroEntrada e ORDER BY e.fecha DESC, e.horaEntrada DESC, e.id DESC LIMIT 1), " +
+                    "(SELECT x.id FROM RegistroEntrada x WHERE x.horaSalida IS NOT NULL " +
+                    "ORDER BY x.fecha DESC, x.horaSalida DESC, x.id DESC LIMIT 1)) " +
+                    "FROM Socio s";
+
+    // Estado de la ocupación compartido por todas las instancias (panel principal y registro)
+    private static volatile OcupacionSnapshot ocupacionCache;
+
     private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
 
+    @Override
+    protected SessionFactory obtenerSessionFactory() {
+        return sessionFactory;
+    }
+
     /**
      * Crea un nuevo registro de {@link RegistroEntrada} en la base de datos.
      *
@@ -37,6 +65,8 @@ public class RegistroEntradaDAO {
             transaction = session.beginTransaction();
             session.persist(registroEntrada);
             transaction.commit();
+            invalidarOcupacion();
+            OrdenCoincidencias.getInstance().registrarEntrada(registroEntrada);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -54,6 +84,10 @@ public class RegistroEntradaDAO {
             transaction = session.beginTransaction();
             session.merge(registroEntrada);
             transaction.commit();
+            invalidarOcupacion();
+            if (registroEntrada.getHoraSalida() != null) {
+                OrdenCoincidencias.getInstance().registrarSalida(registroEntrada);
+            }
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -68,22 +102,13 @@ public class RegistroEntradaDAO {
      * @param fecha La fecha para la que se van a recuperar los registros de {@link RegistroEntrada}.
      * @return Una lista de registros de {@link RegistroEntrada} que coinciden con la fecha dada.
      */
-public List<RegistroEntrada> obtenerRegistrosEntradaPorFecha(LocalDate fecha) {
-        Transaction transaction = null;
-        List<RegistroEntrada> registros = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+    public List<RegistroEntrada> obtenerRegistrosEntradaPorFecha(LocalDate fecha) {
+        return leer(session -> {
             Query<RegistroEntrada> query = session.createQuery("FROM RegistroEntrada WHERE fecha = :fecha", RegistroEntrada.class);
+            aplicarGrafo(session, query, RegistroEntrada.GRAFO_SOCIO);
             query.setParameter("fecha", fecha);
-            registros = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener los registros de entrada por fecha", e);
-        }
-        return registros;
+            return query.getResultList();
+        }, null, "Error al obtener los registros de entrada por fecha");
     }
     /**
      * Recupera el registro de {@link RegistroEntrada} más reciente para un determinado {@link Socio} sin una hora de salida correspondiente.
@@ -92,20 +117,12 @@ public List<RegistroEntrada> obtenerRegistrosEntradaPorFecha(LocalDate fecha) {
      * @return El registro de {@link RegistroEntrada} más reciente para el {@link Socio} dado sin una hora de salida correspondiente.
      */
     public RegistroEntrada obtenerRegistroEntradaSinSalida(Socio socio) {
-        Session session = getSessionFactory().openSession();
-        RegistroEntrada registroEntrada = null;
-        try {
-            session.beginTransaction();
+        return leer(session -> {
             Query<RegistroEntrada> query = session.createQuery("FROM RegistroEntrada WHERE numeroSocio.idSocio = :idSocio AND horaSalida IS NULL ORDER BY fecha DESC, horaEntrada DESC", RegistroEntrada.class);
+            aplicarGrafo(session, query, RegistroEntrada.GRAFO_SOCIO);
             query.setParameter("idSocio", socio.getIdSocio());
-            registroEntrada = query.setMaxResults(1).uniqueResult();
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener el registro de entrada sin hora de salida", e);
-        } finally {
-            session.close();
-        }
-        return registroEntrada;
+            return query.setMaxResults(1).uniqueResult();
+        }, null, "Error al obtener el registro de entrada sin hora de salida");
     }
 
     /**
@@ -114,22 +131,10 @@ public List<RegistroEntrada> obtenerRegistrosEntradaPorFecha(LocalDate fecha) {
      * @return El número total de registros de {@link Socio}.
      */
     public int obtenerTotalSocios() {
-        Session session = getSessionFactory().openSession();
-        int totalSocios = 0;
-        try {
-            session.beginTransaction();
+        return leer(session -> {
             String query = "SELECT COUNT(s) FROM Socio s";
-            totalSocios = (session.createQuery(query, Long.class).getSingleResult()).intValue();
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener el total de socios", e);
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
-            }
-        } finally {
-            session.close();
-        }
-        return totalSocios;
+            return session.createQuery(query, Long.class).getSingleResult().intValue();
+        }, 0, "Error al obtener el total de socios");
     }
 
     /**
@@ -138,44 +143,39 @@ public List<RegistroEntrada> obtenerRegistrosEntradaPorFecha(LocalDate fecha) {
      * @return El número de registros de {@link Socio} con una hora de entrada pero sin una hora de salida.
      */
     public int obtenerTotalSociosDentro() {
-        Session session = getSessionFactory().openSession();
-        Transaction transaction = null;
-        int sociosDentro = 0;
-        try {
-            transaction = session.beginTransaction();
+        return leer(session -> {
             String query = "SELECT COUNT(r) FROM RegistroEntrada r WHERE r.horaSalida IS NULL";
-            sociosDentro = session.createQuery(query, Long.class).getSingleResult().intValue();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener el total de socios dentro", e);
-        } finally {
-            session.close();
-        }
-        return sociosDentro;
+            return session.createQuery(query, Long.class).getSingleResult().intValue();
+        }, 0, "Error al obtener el total de socios dentro");
     }
     /**
      * Marca la hora de salida de todos los registros de {@link RegistroEntrada} sin una hora de salida correspondiente como medianoche.
+     * Se ejecuta con una única sentencia UPDATE, sin cargar los registros ni sus socios, para que la transacción
+     * bloquee la tabla el menor tiempo posible.
+     *
+     * @return el número de registros actualizados, o 0 si no había ninguno abierto o se produce un error.
      */
-    public void marcarSalidaAutomatica() {
+    public int marcarSalidaAutomatica() {
+        int actualizados = 0;
         Transaction transaction = null;
         try (Session session = getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
-            String query = "FROM RegistroEntrada WHERE horaSalida IS NULL";
-            List<RegistroEntrada> registros = session.createQuery(query, RegistroEntrada.class).getResultList();
-            for (RegistroEntrada registro : registros) {
-                registro.setHoraSalida(LocalTime.MIDNIGHT);
-                session.merge(registro);
-            }
+            MutationQuery update = session.createMutationQuery(
+                    "UPDATE RegistroEntrada r SET r.horaSalida = :horaSalida WHERE r.horaSalida IS NULL");
+            update.setParameter("horaSalida", LocalTime.MIDNIGHT);
+            actualizados = update.executeUpdate();
             transaction.commit();
+            invalidarOcupacion();
+            OrdenCoincidencias.getInstance().vaciarDentro();
+            logger.info("Salida automática marcada en {} registros", actualizados);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
             }
+            actualizados = 0;
             logger.error("Error al marcar la salida automática", e);
         }
+        return actualizados;
     }
 
     /**
@@ -184,23 +184,14 @@ public List<RegistroEntrada> obtenerRegistrosEntradaPorFecha(LocalDate fecha) {
      *
      * @return Una lista de {@link Socio}s que están fuera del club.
      */
-public List<Socio> obtenerSociosFuera() {
-        List<Socio> sociosFuera = new ArrayList<>();
-        Transaction transaction = null;
-        try (Session session = getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+    public List<Socio> obtenerSociosFuera() {
+        return leer(session -> {
             // Usando el Lenguaje de Consultas de Hibernate (HQL) para recuperar socios que no están presentes en el club
             String hql = "FROM Socio s WHERE s.numeroSocio NOT IN (SELECT r.numeroSocio.numeroSocio FROM RegistroEntrada r WHERE r.horaSalida IS NULL)";
             Query<Socio> query = session.createQuery(hql, Socio.class);
-            sociosFuera = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener los socios fuera", e);
-        }
-        return sociosFuera;
+            aplicarGrafo(session, query, Socio.GRAFO_FAMILIA);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener los socios fuera");
     }
     /**
      * Obtiene una lista de {@link Socio}s que actualmente están presentes en el club.
@@ -208,46 +199,59 @@ public List<Socio> obtenerSociosFuera() {
      *
      * @return Una lista de {@link Socio}s que están dentro del club.
      */
-public List<Socio> obtenerSociosDentro() {
-        List<Socio> sociosDentro = new ArrayList<>();
-        Transaction transaction = null;
-        try (Session session = getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+    public List<Socio> obtenerSociosDentro() {
+        return leer(session -> {
             // Utilizando el Lenguaje de Consultas de Hibernate (HQL) para recuperar socios que están presentes en el club
-            String hql = "SELECT r.numeroSocio FROM RegistroEntrada r WHERE r.horaSalida IS NULL";
+            // La consulta parte de Socio para poder cargar la familia de cada socio con el grafo
+            String hql = "FROM Socio s WHERE s.numeroSocio IN (SELECT r.numeroSocio.numeroSocio FROM RegistroEntrada r WHERE r.horaSalida IS NULL)";
             Query<Socio> query = session.createQuery(hql, Socio.class);
-            sociosDentro = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener los socios dentro", e);
-        }
-        return sociosDentro;
+            aplicarGrafo(session, query, Socio.GRAFO_FAMILIA);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener los socios dentro");
+    }
+    /**
+     * Obtiene el resumen de los socios que actualmente no están presentes en el club.
+     * Solo se recuperan las columnas necesarias para los selectores, sin cargar las entidades.
+     *
+     * @return Una lista de {@link SocioResumen} de los socios que están fuera del club.
+     */
+    public List<SocioResumen> obtenerResumenSociosFuera() {
+        return leer(session -> {
+            String hql = "select new org.socialclub.socialclub.model.SocioResumen(s.numeroSocio, s.nombre, s.apellidos, s.fechaNacimiento) " +
+                    "from Socio s where s.numeroSocio not in (select r.numeroSocio.numeroSocio from RegistroEntrada r where r.horaSalida is null)";
+            Query<SocioResumen> query = session.createQuery(hql, SocioResumen.class);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener los socios fuera");
     }
+
+    /**
+     * Obtiene el resumen de los socios que actualmente están presentes en el club.
+     * Solo se recuperan las columnas necesarias para los selectores, sin cargar las entidades.
+     *
+     * @return Una lista de {@link SocioResumen} de los socios que están dentro del club.
+     */
+    public List<SocioResumen> obtenerResumenSociosDentro() {
+        return leer(session -> {
+            String hql = "select new org.socialclub.socialclub.model.SocioResumen(s.numeroSocio, s.nombre, s.apellidos, s.fechaNacimiento) " +
+                    "from RegistroEntrada r join r.numeroSocio s where r.horaSalida is null";
+            Query<SocioResumen> query = session.createQuery(hql, SocioResumen.class);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener los socios dentro");
+    }
+
     /**
      * Obtiene un {@link Socio} de la base de datos según su número de socio.
      *
      * @param numeroSocio El número de socio del {@link Socio} que se va a recuperar.
      * @return El {@link Socio} con el número de socio dado, o {@code null} si no se encuentra ninguno.
      */
-public Socio obtenerSocioPorNumero(String numeroSocio) {
-        Socio socio = null;
-        Transaction transaction = null;
-        try (Session session = getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+    public Socio obtenerSocioPorNumero(String numeroSocio) {
+        return leer(session -> {
             Query<Socio> query = session.createQuery("FROM Socio WHERE numeroSocio = :numeroSocio", Socio.class);
+            aplicarGrafo(session, query, Socio.GRAFO_FAMILIA);
             query.setParameter("numeroSocio", numeroSocio);
-            socio = query.uniqueResult();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener el socio por número", e);
-        }
-        return socio;
+            return query.uniqueResult();
+        }, null, "Error al obtener el socio por número");
     }
     /**
      * Obtiene el registro de entrada más reciente de la base de datos.
@@ -255,19 +259,14 @@ public Socio obtenerSocioPorNumero(String numeroSocio) {
      * @return El registro de entrada más reciente, o {@code null} si no hay ninguno.
      */
     public RegistroEntrada obtenerUltimaEntrada() {
-        RegistroEntrada ultimaEntrada = null;
-        try (Session session = getSessionFactory().openSession()) {
-            session.beginTransaction();
+        return leer(session -> {
             Query<RegistroEntrada> query = session.createQuery(
                     "FROM RegistroEntrada ORDER BY fecha DESC, horaEntrada DESC",
                     RegistroEntrada.class
             );
-            ultimaEntrada = query.setMaxResults(1).uniqueResult();
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener la última entrada", e);
-        }
-        return ultimaEntrada;
+            aplicarGrafo(session, query, RegistroEntrada.GRAFO_SOCIO);
+            return query.setMaxResults(1).uniqueResult();
+        }, null, "Error al obtener la última entrada");
     }
 
     /**
@@ -276,48 +275,88 @@ public Socio obtenerSocioPorNumero(String numeroSocio) {
      * @return El registro de salida más reciente, o {@code null} si no hay ninguno.
      */
     public RegistroEntrada obtenerUltimaSalida() {
-        RegistroEntrada ultimaSalida = null;
-        try (Session session = getSessionFactory().openSession()) {
-            session.beginTransaction();
+        return leer(session -> {
             Query<RegistroEntrada> query = session.createQuery(
                     "FROM RegistroEntrada WHERE horaSalida IS NOT NULL ORDER BY fecha DESC, horaSalida DESC",
                     RegistroEntrada.class
             );
-            ultimaSalida = query.setMaxResults(1).uniqueResult();
-            session.getTransaction().commit();
-        } catch (Exception e) {
-            logger.error("Error al obtener la última salida", e);
-        }
-        return ultimaSalida;
+            aplicarGrafo(session, query, RegistroEntrada.GRAFO_SOCIO);
+            return query.setMaxResults(1).uniqueResult();
+        }, null, "Error al obtener la última salida");
+    }
+
+    /**
+     * Obtiene el historial de visitas de cada socio desde una fecha dada, agrupado por socio.
+     *
+     * @param desde La fecha a partir de la cual se tienen en cuenta los registros (inclusive).
+     * @return Una lista de {@link VisitasSocio} con la última visita y el número de visitas de cada socio.
+     * La lista está vacía si no hay registros o si se produce un error.
+     */
+    public List<VisitasSocio> obtenerVisitasDesde(LocalDate desde) {
+        return leer(session -> {
+            Query<VisitasSocio> query = session.createQuery(
+                    "SELECT new org.socialclub.socialclub.model.VisitasSocio(r.numeroSocio.numeroSocio, MAX(r.fecha), COUNT(r)) " +
+                            "FROM RegistroEntrada r WHERE r.fecha >= :desde GROUP BY r.numeroSocio.numeroSocio",
+                    VisitasSocio.class
+            );
+            query.setParameter("desde", desde);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener el historial de visitas");
     }
 
     /**
-     * Obtiene información completa de aforo con una sola consulta
+     * Obtiene los números de los socios que actualmente están dentro del club, sin cargar las entidades {@link Socio}.
+     *
+     * @return Una lista con los números de socio que tienen un {@link RegistroEntrada} sin hora de salida.
      */
-    public AforoInfo obtenerInfoAforo() {
-        int sociosDentro = obtenerTotalSociosDentro();
-        int totalSocios = obtenerTotalSocios();
-        return new AforoInfo(sociosDentro, totalSocios);
+    public List<String> obtenerNumerosSociosDentro() {
+        return leer(session -> {
+            Query<String> query = session.createQuery(
+                    "SELECT r.numeroSocio.numeroSocio FROM RegistroEntrada r WHERE r.horaSalida IS NULL", String.class);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener los números de los socios dentro");
     }
 
     /**
-     * Clase para retornar información de aforo en una sola llamada
+     * Obtiene un registro de entrada por su identificador.
+     *
+     * @param id El identificador del registro.
+     * @return El registro de entrada, o {@code null} si no existe o si se produce un error.
      */
-    public static class AforoInfo {
-        private final int sociosDentro;
-        private final int sociosFuera;
-        private final int totalSocios;
+    public RegistroEntrada obtenerRegistroEntrada(Integer id) {
+        return leer(session -> session.get(RegistroEntrada.class, id), null, "Error al obtener el registro de entrada");
+    }
 
-        public AforoInfo(int sociosDentro, int totalSocios) {
-            this.sociosDentro = sociosDentro;
-            this.totalSocios = totalSocios;
-            this.sociosFuera = totalSocios - sociosDentro;
+    /**
+     * Obtiene el estado de la ocupación del club: socios dentro, fuera y en total, y los identificadores del último
+     * registro de entrada y de salida. Todos los valores se obtienen con una única consulta.
+     * El resultado se comparte durante {@link #TTL_OCUPACION} entre todas las pantallas que lo consultan
+     * y se descarta al registrar una entrada o una salida desde este puesto.
+     *
+     * @return El estado de la ocupación. Si la consulta falla se devuelve el último estado obtenido o,
+     * si no hay ninguno, un estado vacío.
+     */
+    public OcupacionSnapshot obtenerOcupacion() {
+        OcupacionSnapshot actual = ocupacionCache;
+        if (actual != null && actual.getMomento().plus(TTL_OCUPACION).isAfter(LocalDateTime.now())) {
+            return actual;
+        }
+        OcupacionSnapshot nueva = leer(session -> {
+            Query<OcupacionSnapshot> query = session.createQuery(CONSULTA_OCUPACION, OcupacionSnapshot.class);
+            return query.getSingleResult();
+        }, null, "Error al obtener la ocupación");
+        if (nueva == null) {
+            return actual != null ? actual : new OcupacionSnapshot(0L, 0L, null, null);
         }
+        ocupacionCache = nueva;
+        return nueva;
+    }
 
-        // Getters
-        public int getSociosDentro() { return sociosDentro; }
-        public int getSociosFuera() { return sociosFuera; }
-        public int getTotalSocios() { return totalSocios; }
+    /**
+     * Descarta el estado de la ocupación compartido, de modo que la próxima consulta lo vuelva a obtener.
+     */
+    public static void invalidarOcupacion() {
+        ocupacionCache = null;
     }
 
 }
\ No newline at end of file
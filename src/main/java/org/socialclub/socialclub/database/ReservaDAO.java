@@ -2,80 +2,170 @@ package org.socialclub.socialclub.database;
 
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.socialclub.socialclub.model.Instalacion;
 import org.socialclub.socialclub.model.Reserva;
+import org.socialclub.socialclub.model.ResultadoReserva;
 import org.socialclub.socialclub.model.Socio;
-import org.socialclub.socialclub.util.HibernateUtil;
+import org.socialclub.socialclub.util.MigradorEsquema;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
 
 import static org.socialclub.socialclub.util.HibernateUtil.getSessionFactory;
 
 /**
  * Esta clase proporciona operaciones de acceso a datos para la entidad Reserva.
  */
-public class ReservaDAO {
+public class ReservaDAO extends AbstractDAO {
     private static final Logger logger = LoggerFactory.getLogger(ReservaDAO.class);
 
     /**
-     * Guarda una nueva reserva en la base de datos.
-     *
-     * @param numeroSocio El identificador único del socio que realiza la reserva.
-     * @param instalacion La Instalacion donde se realiza la reserva.
-     * @param fecha       La fecha de la reserva.
-     * @param hora        La hora de la reserva.
+     * Código SQLSTATE de violación de unicidad (H2 y el estándar SQL).
      */
-    public void guardarReserva(String numeroSocio, Instalacion instalacion, LocalDate fecha, LocalTime hora) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+    private static final String SQLSTATE_DUPLICADO = "23505";
 
-            Socio socio = session.get(Socio.class, numeroSocio);
-            if (socio == null) {
-                throw new IllegalArgumentException("El socio con número " + numeroSocio + " no existe.");
-            }
+    /**
+     * Código de error de MySQL para una clave duplicada.
+     */
+    private static final int ERROR_MYSQL_DUPLICADO = 1062;
 
-            Reserva reserva = new Reserva();
-            reserva.setNumeroSocio(socio);
-            reserva.setIdInstalacion(instalacion);
-            reserva.setFecha(fecha);
-            reserva.setHora(hora);
-            session.persist(reserva);
+    private final BooleanSupplier restriccionAplicada;
 
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+    /**
+     * Crea un DAO que confía en la restricción {@link Reserva#RESTRICCION_HORA_UNICA} cuando la migración que la crea
+     * consta como aplicada ({@link MigradorEsquema#VERSION_RESERVAS_UNICAS}).
+     */
+    public ReservaDAO() {
+        this(() -> MigradorEsquema.estaAplicada(MigradorEsquema.VERSION_RESERVAS_UNICAS));
+    }
+
+    /**
+     * Crea un DAO que consulta si la restricción de reservas únicas está aplicada mediante la función indicada.
+     *
+     * @param restriccionAplicada indica si la base de datos tiene la restricción {@link Reserva#RESTRICCION_HORA_UNICA}.
+     */
+    public ReservaDAO(BooleanSupplier restriccionAplicada) {
+        this.restriccionAplicada = restriccionAplicada;
+    }
+
+    /**
+     * Reserva una hora de una instalación insertando directamente la reserva, sin comprobar antes si está libre.
+     * La restricción {@link Reserva#RESTRICCION_HORA_UNICA} garantiza que, si dos puestos reservan la misma hora a la
+     * vez, solo una inserción tiene éxito; la otra se devuelve como hora ocupada.
+     * Mientras no conste que la migración que crea la restricción se ha aplicado (por ejemplo, porque ha fallado al
+     * haber reservas duplicadas), se comprueba antes de insertar que la hora esté libre, como protección parcial.
+     * En todos los casos el resultado incluye las horas reservadas de la instalación en la fecha, de modo que la vista
+     * puede actualizarse sin otra consulta; si la reserva se confirma se obtienen en la misma transacción.
+     *
+     * @param numeroSocio   El identificador único del socio que realiza la reserva.
+     * @param idInstalacion El identificador único de la instalación.
+     * @param fecha         La fecha de la reserva.
+     * @param hora          La hora de la reserva.
+     * @return El resultado de la reserva con las horas reservadas de la instalación en la fecha.
+     */
+    public ResultadoReserva reservar(String numeroSocio, int idInstalacion, LocalDate fecha, LocalTime hora) {
+        try {
+            return escribirPropagando(session -> {
+                if (!restriccionAplicada.getAsBoolean()) {
+                    List<LocalTime> horas = consultarHorasReservadas(session, idInstalacion, fecha);
+                    if (horas.contains(hora)) {
+                        logger.info("La instalación {} ya está reservada el {} a las {}", idInstalacion, fecha, hora);
+                        return new ResultadoReserva(ResultadoReserva.Estado.OCUPADA, horas);
+                    }
+                }
+                Reserva reserva = new Reserva();
+                reserva.setNumeroSocio(session.getReference(Socio.class, numeroSocio));
+                reserva.setIdInstalacion(session.getReference(Instalacion.class, idInstalacion));
+                reserva.setFecha(fecha);
+                reserva.setHora(hora);
+                session.persist(reserva);
+                // La inserción debe ejecutarse antes de leer las horas para que la restricción se compruebe aquí
+                session.flush();
+                return new ResultadoReserva(ResultadoReserva.Estado.CONFIRMADA,
+                        consultarHorasReservadas(session, idInstalacion, fecha));
+            });
+        } catch (RuntimeException e) {
+            if (esHoraYaReservada(e)) {
+                logger.info("La instalación {} ya está reservada el {} a las {}", idInstalacion, fecha, hora);
+                return new ResultadoReserva(ResultadoReserva.Estado.OCUPADA, obtenerHorasReservadas(idInstalacion, fecha));
             }
             logger.error("Error al guardar la reserva", e);
+            return new ResultadoReserva(ResultadoReserva.Estado.ERROR, obtenerHorasReservadas(idInstalacion, fecha));
         }
     }
 
+    /**
+     * Indica si el error se debe a que la hora ya estaba reservada, es decir, a la violación de la restricción
+     * {@link Reserva#RESTRICCION_HORA_UNICA}. Se recorre la cadena de causas porque Hibernate y el controlador JDBC
+     * envuelven el error original.
+     *
+     * @param error el error producido al guardar la reserva.
+     * @return {@code true} si el error es una clave duplicada.
+     */
+    private static boolean esHoraYaReservada(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null
+                    && violacion.getConstraintName().toLowerCase(Locale.ROOT).contains(Reserva.RESTRICCION_HORA_UNICA)) {
+                return true;
+            }
+            if (causa instanceof SQLException sql
+                    && (SQLSTATE_DUPLICADO.equals(sql.getSQLState()) || sql.getErrorCode() == ERROR_MYSQL_DUPLICADO)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Recupera todas las reservas de la base de datos.
      *
      * @return Una lista de objetos Reserva que representan todas las reservas.
      */
     public List<Reserva> obtenerReservas() {
-        List<Reserva> reservas = null;
-        Transaction transaction = null;
-        try (Session session = getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+        return leer(session -> {
             Query<Reserva> query = session.createQuery("from Reserva", Reserva.class);
-            reservas = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+            aplicarGrafo(session, query, Reserva.GRAFO_LISTADO);
+            return query.getResultList();
+        }, null, "Error al obtener las reservas");
+    }
+
+    /**
+     * Recupera una página de reservas, de la más reciente a la más antigua (por fecha, hora e identificador).
+     * La página empieza después de la reserva cuya clave se indica (paginación por clave), de modo que el coste
+     * no depende de cuántas páginas se hayan leído antes.
+     *
+     * @param fecha  La fecha de la última reserva de la página anterior, o {@code null} para la primera página.
+     * @param hora   La hora de la última reserva de la página anterior.
+     * @param id     El identificador de la última reserva de la página anterior.
+     * @param tamano El número máximo de reservas de la página.
+     * @return Una lista con las reservas de la página, vacía si no hay más reservas o si se produce un error.
+     */
+    public List<Reserva> obtenerPaginaReservas(LocalDate fecha, LocalTime hora, Integer id, int tamano) {
+        return leer(session -> {
+            Query<Reserva> query;
+            if (fecha == null) {
+                query = session.createQuery("from Reserva r order by r.fecha desc, r.hora desc, r.id desc", Reserva.class);
+            } else {
+                query = session.createQuery("from Reserva r where r.fecha < :fecha " +
+                        "or (r.fecha = :fecha and (r.hora < :hora or (r.hora = :hora and r.id < :id))) " +
+                        "order by r.fecha desc, r.hora desc, r.id desc", Reserva.class);
+                query.setParameter("fecha", fecha);
+                query.setParameter("hora", hora);
+                query.setParameter("id", id);
             }
-            logger.error("Error al obtener las reservas", e);
-        }
-        return reservas;
+            aplicarGrafo(session, query, Reserva.GRAFO_LISTADO);
+            query.setMaxResults(tamano);
+            return query.getResultList();
+        }, new ArrayList<>(), "Error al obtener la página de reservas");
     }
 
     /**
@@ -110,25 +200,26 @@ public class ReservaDAO {
      * @return Una lista de objetos LocalTime que representan las horas reservadas.
      */
     public List<LocalTime> obtenerHorasReservadas(int idInstalacion, LocalDate fecha) {
-        Transaction transaction = null;
-        List<LocalTime> horasReservadas = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            Query<LocalTime> query = session.createQuery(
-                    "select r.hora from Reserva r where r.idInstalacion.id = :idInstalacion and r.fecha = :fecha",
-                    LocalTime.class
-            );
-            query.setParameter("idInstalacion", idInstalacion);
-            query.setParameter("fecha", fecha);
-            horasReservadas = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener las horas reservadas", e);
-        }
-        return horasReservadas;
+        return leer(session -> consultarHorasReservadas(session, idInstalacion, fecha),
+                null, "Error al obtener las horas reservadas");
+    }
+
+    /**
+     * Consulta en la sesión indicada las horas reservadas de una instalación en una fecha.
+     *
+     * @param session       la sesión en la que se ejecuta la consulta.
+     * @param idInstalacion El identificador único de la instalación.
+     * @param fecha         La fecha de las reservas.
+     * @return Una lista con las horas reservadas.
+     */
+    private static List<LocalTime> consultarHorasReservadas(Session session, int idInstalacion, LocalDate fecha) {
+        Query<LocalTime> query = session.createQuery(
+                "select r.hora from Reserva r where r.idInstalacion.id = :idInstalacion and r.fecha = :fecha",
+                LocalTime.class
+        );
+        query.setParameter("idInstalacion", idInstalacion);
+        query.setParameter("fecha", fecha);
+        return query.getResultList();
     }
 
     /**
@@ -140,20 +231,11 @@ public class ReservaDAO {
      * El valor de retorno es null si se produce algún error durante la operación.
      */
     public List<Reserva> obtenerReservasPorFecha(LocalDate fecha) {
-        Transaction transaction = null;
-        List<Reserva> reservas = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
+        return leer(session -> {
             Query<Reserva> query = session.createQuery("from Reserva where fecha = :fecha", Reserva.class);
+            aplicarGrafo(session, query, Reserva.GRAFO_LISTADO);
             query.setParameter("fecha", fecha);
-            reservas = query.getResultList();
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            logger.error("Error al obtener las reservas por fecha", e);
-        }
-        return reservas;
+            return query.getResultList();
+        }, null, "Error al obtener las reservas por fecha");
     }
 }
\ No newline at end of file
@@ -3,21 +3,37 @@ package org.socialclub.socialclub.database;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.socialclub.socialclub.model.Empleado;
+import org.socialclub.socialclub.huella.IndiceHuellas;
 import org.socialclub.socialclub.model.Familia;
+import org.socialclub.socialclub.model.HuellaSocio;
+import org.socialclub.socialclub.model.RangoEdad;
 import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.model.SocioResumen;
 import org.socialclub.socialclub.util.HibernateUtil;
+import org.socialclub.socialclub.util.MigradorEsquema;
 
 import javax.sql.rowset.serial.SerialBlob;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import static org.socialclub.socialclub.util.HibernateUtil.getSessionFactory;
 
@@ -25,8 +41,38 @@ import static org.socialclub.socialclub.util.HibernateUtil.getSessionFactory;
  * Clase de Objetos de Acceso a Datos (DAO) para administrar entidades Socio en la base de datos.
  * Esta clase proporciona métodos para interactuar con la tabla Socio en la base de datos.
  */
-public class SocioDAO {
+public class SocioDAO extends AbstractDAO {
     private static final Logger logger = LoggerFactory.getLogger(SocioDAO.class);
+    private static final String SELECT_HUELLA =
+            "select new org.socialclub.socialclub.model.HuellaSocio(s.numeroSocio, s.idSocio, s.nombre, s.apellidos, s.huella) ";
+    private static final String SELECT_RESUMEN =
+            "select new org.socialclub.socialclub.model.SocioResumen(s.numeroSocio, s.nombre, s.apellidos, s.fechaNacimiento) ";
+    // Condición de los socios (con alias s) nacidos en el intervalo de un rango de edad; ver asignarRangoEdad
+    private static final String CONDICION_RANGO_EDAD = "s.fechaNacimiento between :desde and :hasta";
+    // La marca de modificación de la huella no está mapeada en Socio: la columna solo existe tras la migración
+    private static final String MARCAR_HUELLA =
+            "update socio set huella_actualizada = current_timestamp(6) where numero_socio = :numeroSocio";
+    private static final String SELECT_MARCAS_HUELLAS =
+            "select numero_socio, huella_actualizada from socio where huella is not null";
+
+    private final BooleanSupplier marcaHuellaAplicada;
+
+    /**
+     * Crea un DAO que usa la marca de modificación de las huellas cuando la migración que añade la columna
+     * consta como aplicada ({@link MigradorEsquema#VERSION_MARCA_HUELLA}).
+     */
+    public SocioDAO() {
+        this(() -> MigradorEsquema.estaAplicada(MigradorEsquema.VERSION_MARCA_HUELLA));
+    }
+
+    /**
+     * Crea un DAO que consulta si la columna de la marca de modificación de las huellas existe mediante la función indicada.
+     *
+     * @param marcaHuellaAplicada indica si la tabla socio tiene la columna {@code huella_actualizada}.
+     */
+    public SocioDAO(BooleanSupplier marcaHuellaAplicada) {
+        this.marcaHuellaAplicada = marcaHuellaAplicada;
+    }
 
     /**
      * Maneja el procesamiento de los datos de foto y huella del socio.
@@ -69,9 +115,10 @@ public class SocioDAO {
      * @param fechaAlta         La fecha de alta del socio en formato ISO 8601 (YYYY-MM-DD).
      * @param idEmpleado        El empleado que registra al socio.
      * @param contrasenia       La contraseña del socio.
+     * @return El número de socio que ha generado la base de datos, o {@code null} si no se ha podido guardar el socio.
      * @throws IllegalArgumentException Si alguno de los campos obligatorios (numFamilia, nombre, apellidos, dni, email) no está presente.
      */
-    public void guardarSocio(Familia numFamilia, String nombre, String apellidos, String telefono, String dni, String email, String fechaNacimiento, SerialBlob foto, SerialBlob huella, Socio.Titularidad titularidad, Byte dentroInstalacion, String fechaAlta, Empleado idEmpleado, String contrasenia) {
+    public String guardarSocio(Familia numFamilia, String nombre, String apellidos, String telefono, String dni, String email, String fechaNacimiento, SerialBlob foto, SerialBlob huella, Socio.Titularidad titularidad, Byte dentroInstalacion, String fechaAlta, Empleado idEmpleado, String contrasenia) {
         if (numFamilia == null || nombre == null || apellidos == null || dni == null || email == null) {
             throw new IllegalArgumentException("Todos los campos obligatorios deben estar presentes");
         }
@@ -105,7 +152,16 @@ public class SocioDAO {
             socio.setContrasenia(contrasenia);
             manejarImagenYHuella(socio, foto, huella); // Manejar la imagen y la huella
             session.persist(socio); // Guardar el socio
+            session.flush();
+            String numeroSocio = obtenerNumeroSocioInsertado(session, socio);
+            if (socio.getHuella() != null) {
+                marcarHuella(session, numeroSocio);
+            }
             transaction.commit();
+            if (socio.getHuella() != null) {
+                IndiceHuellas.getInstance().sincronizar(); // Incorporar la nueva huella al índice
+            }
+            return numeroSocio;
         } catch (Exception e) {
             if (transaction != null && transaction.isActive()) {
                 try {
@@ -114,7 +170,34 @@ public class SocioDAO {
                     logger.error("Error al hacer rollback", rollbackEx);
                 }
             }
+            logger.error("Error al guardar el socio", e);
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene el número del socio que se acaba de insertar en la transacción actual.
+     * La base de datos genera el número y el identificador del socio, así que se leen de la fila insertada:
+     * la de mayor identificador con los mismos datos de contacto, que en la propia transacción es la nueva.
+     *
+     * @param session La sesión en la que se ha insertado el socio.
+     * @param socio   El socio insertado.
+     * @return El número de socio generado.
+     * @throws IllegalStateException Si no se encuentra la fila insertada.
+     */
+    private static String obtenerNumeroSocioInsertado(Session session, Socio socio) {
+        Query<String> query = session.createQuery("select s.numeroSocio from Socio s where s.dni = :dni " +
+                "and s.nombre = :nombre and s.apellidos = :apellidos and s.email = :email order by s.idSocio desc", String.class);
+        query.setParameter("dni", socio.getDni());
+        query.setParameter("nombre", socio.getNombre());
+        query.setParameter("apellidos", socio.getApellidos());
+        query.setParameter("email", socio.getEmail());
+        query.setMaxResults(1);
+        String numeroSocio = query.uniqueResult();
+        if (numeroSocio == null) {
+            throw new IllegalStateException("No se encuentra el socio recién insertado");
         }
+        return numeroSocio;
     }
 
         /**
@@ -125,19 +208,28 @@ public class SocioDAO {
          * La lista no contiene valores nulos.
          */
         public List<Socio> obtenerTodosSocios () {
-            Session session = getSessionFactory().getCurrentSession();
-            List<Socio> socios = null;
-            try {
-                session.beginTransaction();
+            return leer(session -> {
                 Query<Socio> query = session.createQuery("from Socio", Socio.class);
-                socios = query.getResultList(); // Obtener la lista de socios
-                session.getTransaction().commit();
-            } catch (Exception e) {
-                logger.error("Error al obtener todos los socios", e);
-            } finally {
-                session.close(); // Cerrar la sesión
-            }
-            return socios;
+                return query.getResultList(); // Obtener la lista de socios
+            }, null, "Error al obtener todos los socios");
+        }
+
+        /**
+         * Obtiene una página de socios ordenados por su identificador.
+         * La página empieza después del socio indicado (paginación por clave), de modo que el coste
+         * no depende de cuántas páginas se hayan leído antes.
+         *
+         * @param despuesDeId El identificador del último socio de la página anterior; 0 para la primera página.
+         * @param tamano      El número máximo de socios de la página.
+         * @return Una lista de {@link Socio}, vacía si no hay más socios o si se produce un error.
+         */
+        public List<Socio> obtenerPaginaSocios (int despuesDeId, int tamano){
+            return leer(session -> {
+                Query<Socio> query = session.createQuery("from Socio s where s.idSocio > :idSocio order by s.idSocio", Socio.class);
+                query.setParameter("idSocio", despuesDeId);
+                query.setMaxResults(tamano);
+                return query.getResultList();
+            }, new ArrayList<>(), "Error al obtener la página de socios");
         }
 
         /**
@@ -151,8 +243,10 @@ public class SocioDAO {
             Transaction transaction = null;
             try (Session session = HibernateUtil.getSessionFactory().openSession()) {
                 transaction = session.beginTransaction();
-                session.merge(socio); // Actualizar el socio
+                Socio actualizado = session.merge(socio); // Actualizar el socio
                 transaction.commit();
+                // La huella se carga bajo demanda: se lee de la copia gestionada, con la sesión todavía abierta
+                IndiceHuellas.getInstance().actualizar(actualizado);
             } catch (Exception e) {
                 if (transaction != null) {
                     transaction.rollback(); // Hacer rollback en caso de error
@@ -176,6 +270,7 @@ public class SocioDAO {
                     session.remove(socio); // Eliminar el socio
                 }
                 transaction.commit();
+                IndiceHuellas.getInstance().eliminar(numSocio);
             } catch (Exception e) {
                 if (transaction != null) {
                     transaction.rollback(); // Hacer rollback en caso de error
@@ -192,21 +287,12 @@ public class SocioDAO {
          * @throws HibernateException Si se produce un error durante la interacción con la base de datos.
          */
         public boolean existeDni (String dni){
-            Session session = getSessionFactory().openSession();
-            boolean existe = false;
-            try {
-                session.beginTransaction();
+            return leer(session -> {
                 Query<Long> query = session.createQuery("SELECT COUNT(e) FROM Socio e WHERE e.dni = :dni", Long.class);
                 query.setParameter("dni", dni);
                 Long count = query.uniqueResult();
-                existe = count > 0; // Verificar si el DNI existe
-                session.getTransaction().commit();
-            } catch (Exception e) {
-                logger.error("Error al verificar si el DNI existe", e);
-            } finally {
-                session.close(); // Cerrar la sesión
-            }
-            return existe;
+                return count > 0; // Verificar si el DNI existe
+            }, false, "Error al verificar si el DNI existe");
         }
 
         /**
@@ -219,20 +305,11 @@ public class SocioDAO {
          * @throws HibernateException Si se produce un error durante la interacción con la base de datos.
          */
         public List<Socio> obtenerSociosPorFamilia ( int idFamilia){
-            Session session = getSessionFactory().getCurrentSession();
-            List<Socio> socios = null;
-            try {
-                session.beginTransaction();
+            return leer(session -> {
                 Query<Socio> query = session.createQuery("from Socio where numFamilia.id = :idFamilia", Socio.class);
                 query.setParameter("idFamilia", idFamilia);
-                socios = query.getResultList(); // Obtener la lista de socios por familia
-                session.getTransaction().commit();
-            } catch (Exception e) {
-                logger.error("Error al obtener los socios por familia", e);
-            } finally {
-                session.close(); // Cerrar la sesión
-            }
-            return socios;
+                return query.getResultList(); // Obtener la lista de socios por familia
+            }, null, "Error al obtener los socios por familia");
         }
 
         /**
@@ -247,38 +324,315 @@ public class SocioDAO {
          * @throws HibernateException       Si se produce un error durante la interacción con la base de datos.
          */
         public List<Socio> obtenerSociosPorRangoEdad (String rangoEdad){
-            Session session = getSessionFactory().getCurrentSession();
-            List<Socio> socios = null;
-            try {
-                session.beginTransaction();
-                String queryStr;
-                switch (rangoEdad) {
-                    case "bebe":
-                        queryStr = "from Socio where year(current_date()) - year(fechaNacimiento) < 3";
-                        break;
-                    case "niño":
-                        queryStr = "from Socio where year(current_date()) - year(fechaNacimiento) >= 3 and year(current_date()) - year(fechaNacimiento) < 12";
-                        break;
-                    case "adolescente":
-                        queryStr = "from Socio where year(current_date()) - year(fechaNacimiento) >= 12 and year(current_date()) - year(fechaNacimiento) < 18";
-                        break;
-                    case "adulto":
-                        queryStr = "from Socio where year(current_date()) - year(fechaNacimiento) >= 18 and year(current_date()) - year(fechaNacimiento) < 65";
-                        break;
-                    case "abuelo":
-                        queryStr = "from Socio where year(current_date()) - year(fechaNacimiento) >= 65";
-                        break;
-                    default:
-                        throw new IllegalArgumentException("Rango de edad no válido: " + rangoEdad);
+            return leer(session -> {
+                Query<Socio> query = session.createQuery("from Socio s where " + CONDICION_RANGO_EDAD, Socio.class);
+                asignarRangoEdad(query, RangoEdad.desdeCodigo(rangoEdad), LocalDate.now());
+                return query.getResultList(); // Obtener la lista de socios por rango de edad
+            }, null, "Error al obtener los socios por rango de edad");
+        }
+
+        /**
+         * Cuenta los socios de cada rango de edad con una única consulta de agregación sobre la fecha de nacimiento.
+         *
+         * @return El número de socios de cada rango de edad, en el orden de {@link RangoEdad}; todos los rangos
+         * aparecen aunque no tengan socios. El mapa está vacío si se produce un error.
+         */
+        public Map<RangoEdad, Long> contarSociosPorRangoEdad () {
+            return leer(session -> {
+                StringBuilder hql = new StringBuilder("select ");
+                for (RangoEdad rango : RangoEdad.values()) {
+                    if (rango.ordinal() > 0) {
+                        hql.append(", ");
+                    }
+                    hql.append("sum(case when s.fechaNacimiento between :desde").append(rango.ordinal())
+                            .append(" and :hasta").append(rango.ordinal()).append(" then 1 else 0 end)");
+                }
+                hql.append(" from Socio s");
+                Query<Object[]> query = session.createQuery(hql.toString(), Object[].class);
+                LocalDate hoy = LocalDate.now();
+                for (RangoEdad rango : RangoEdad.values()) {
+                    query.setParameter("desde" + rango.ordinal(), rango.desde(hoy));
+                    query.setParameter("hasta" + rango.ordinal(), rango.hasta(hoy));
+                }
+                Object[] totales = query.getSingleResult();
+                Map<RangoEdad, Long> conteo = new EnumMap<>(RangoEdad.class);
+                for (RangoEdad rango : RangoEdad.values()) {
+                    // La suma es nula si no hay ningún socio
+                    Object total = totales[rango.ordinal()];
+                    conteo.put(rango, total == null ? 0L : ((Number) total).longValue());
                 }
-                Query<Socio> query = session.createQuery(queryStr, Socio.class);
-                socios = query.getResultList(); // Obtener la lista de socios por rango de edad
-                session.getTransaction().commit();
+                return conteo;
+            }, new EnumMap<>(RangoEdad.class), "Error al contar los socios por rango de edad");
+        }
+
+        /**
+         * Asigna a una consulta con la condición {@link #CONDICION_RANGO_EDAD} las fechas de nacimiento
+         * que delimitan el rango de edad en la fecha indicada.
+         *
+         * @param query     La consulta.
+         * @param rangoEdad El rango de edad.
+         * @param hoy       La fecha en la que se calcula la edad.
+         */
+        private static void asignarRangoEdad (Query<?> query, RangoEdad rangoEdad, LocalDate hoy){
+            query.setParameter("desde", rangoEdad.desde(hoy));
+            query.setParameter("hasta", rangoEdad.hasta(hoy));
+        }
+
+        /**
+         * Guarda la plantilla de huella de un socio identificado por su número de socio.
+         * Se utiliza para la escritura diferida de las huellas inscritas, una vez dado de alta el socio.
+         * Si la actualización afecta a más de un socio, se deshace y no se guarda nada.
+         *
+         * @param numeroSocio El número del socio, tal y como lo devuelve {@link #guardarSocio}.
+         * @param huella      La plantilla de huella serializada.
+         * @return La huella guardada, o {@code null} si no existe ningún socio con ese número o se produce un error.
+         */
+        public HuellaSocio guardarHuella (String numeroSocio, byte[] huella){
+            HuellaSocio guardada = null;
+            Transaction transaction = null;
+            try (Session session = getSessionFactory().openSession()) {
+                transaction = session.beginTransaction();
+                int actualizados = session.createMutationQuery("update Socio s set s.huella = :huella where s.numeroSocio = :numeroSocio")
+                        .setParameter("huella", huella)
+                        .setParameter("numeroSocio", numeroSocio)
+                        .executeUpdate();
+                if (actualizados > 1) {
+                    throw new IllegalStateException("La huella del socio " + numeroSocio + " ha modificado " + actualizados + " filas");
+                }
+                if (actualizados == 1) {
+                    marcarHuella(session, numeroSocio);
+                    guardada = session.createQuery(SELECT_HUELLA + "from Socio s where s.numeroSocio = :numeroSocio", HuellaSocio.class)
+                            .setParameter("numeroSocio", numeroSocio)
+                            .uniqueResult();
+                }
+                transaction.commit();
             } catch (Exception e) {
-                logger.error("Error al obtener los socios por rango de edad", e);
-            } finally {
-                session.close(); // Cerrar la sesión
+                if (transaction != null) {
+                    transaction.rollback(); // Hacer rollback en caso de error
+                }
+                logger.error("Error al guardar la huella del socio", e);
             }
-            return socios;
+            return guardada;
         }
-    }
\ No newline at end of file
+
+        /**
+         * Obtiene las plantillas de huella de los socios cuyo identificador es mayor que el indicado.
+         * Solo se recuperan las columnas necesarias para la identificación, sin cargar la entidad completa.
+         *
+         * @param idSocio El identificador a partir del cual se recuperan las huellas (exclusivo). Con 0 se recuperan todas.
+         * @return Una lista de objetos {@link HuellaSocio} ordenada por identificador de socio, vacía si no hay huellas
+         * registradas, o {@code null} si se produce un error, para no confundirlo con que no haya huellas.
+         */
+        public List<HuellaSocio> obtenerHuellasDesde (int idSocio){
+            return leer(session -> {
+                Query<HuellaSocio> query = session.createQuery(
+                        SELECT_HUELLA + "from Socio s where s.huella is not null and s.idSocio > :idSocio order by s.idSocio", HuellaSocio.class);
+                query.setParameter("idSocio", idSocio);
+                return query.getResultList(); // Obtener las huellas de los socios
+            }, null, "Error al obtener las huellas de los socios");
+        }
+
+        /**
+         * Obtiene las plantillas de huella de los socios indicados que tienen huella.
+         *
+         * @param numerosSocio Los números de los socios.
+         * @return Una lista de objetos {@link HuellaSocio}, o {@code null} si se produce un error.
+         */
+        public List<HuellaSocio> obtenerHuellas (Collection<String> numerosSocio){
+            if (numerosSocio.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return leer(session -> {
+                Query<HuellaSocio> query = session.createQuery(
+                        SELECT_HUELLA + "from Socio s where s.huella is not null and s.numeroSocio in :numeros", HuellaSocio.class);
+                query.setParameter("numeros", numerosSocio);
+                return query.getResultList();
+            }, null, "Error al obtener las huellas de los socios");
+        }
+
+        /**
+         * Obtiene, sin cargar las plantillas, la marca de la última modificación de la huella de cada socio que tiene huella.
+         * Permite detectar las huellas añadidas, modificadas o eliminadas desde otro puesto sin transferir las plantillas.
+         * Mientras no consta que la columna de la marca existe, todas las marcas son {@code null}: se detectan las huellas
+         * añadidas y eliminadas, pero no las modificadas.
+         *
+         * @return Un mapa con la marca de cada número de socio; la marca es {@code null} si la huella se guardó antes de
+         * existir la columna. Devuelve {@code null} si se produce un error, para no confundirlo con que no haya huellas.
+         */
+        public Map<String, LocalDateTime> obtenerMarcasHuellas (){
+            if (!marcaHuellaAplicada.getAsBoolean()) {
+                return leer(session -> {
+                    Query<String> query = session.createQuery(
+                            "select s.numeroSocio from Socio s where s.huella is not null", String.class);
+                    Map<String, LocalDateTime> marcas = new HashMap<>();
+                    for (String numeroSocio : query.getResultList()) {
+                        marcas.put(numeroSocio, null);
+                    }
+                    return marcas;
+                }, null, "Error al obtener los socios con huella");
+            }
+            return leer(session -> {
+                NativeQuery<Object[]> query = session.createNativeQuery(SELECT_MARCAS_HUELLAS, Object[].class);
+                Map<String, LocalDateTime> marcas = new HashMap<>();
+                for (Object[] fila : query.getResultList()) {
+                    marcas.put((String) fila[0], aFechaHora(fila[1]));
+                }
+                return marcas;
+            }, null, "Error al obtener las marcas de las huellas");
+        }
+
+        /**
+         * Actualiza la marca de modificación de la huella de un socio, si la columna existe.
+         *
+         * @param session     La sesión con la transacción en la que se ha guardado la huella.
+         * @param numeroSocio El número del socio.
+         */
+        private void marcarHuella (Session session, String numeroSocio){
+            if (!marcaHuellaAplicada.getAsBoolean()) {
+                return;
+            }
+            MutationQuery query = session.createNativeMutationQuery(MARCAR_HUELLA);
+            query.setParameter("numeroSocio", numeroSocio);
+            query.executeUpdate();
+        }
+
+        /**
+         * Convierte el valor de una columna de fecha y hora leído con una consulta nativa, que según el controlador
+         * JDBC puede llegar como {@link Timestamp} o como {@link LocalDateTime}.
+         *
+         * @param valor El valor leído.
+         * @return La fecha y hora, o {@code null} si el valor es {@code null}.
+         */
+        private static LocalDateTime aFechaHora (Object valor){
+            if (valor instanceof Timestamp timestamp) {
+                return timestamp.toLocalDateTime();
+            }
+            return (LocalDateTime) valor;
+        }
+
+        /**
+         * Obtiene la foto de un socio. La foto no se carga con el socio, para que los listados solo
+         * transfieran las columnas de texto; se recupera con esta consulta cuando se va a mostrar.
+         *
+         * @param numeroSocio El número del socio.
+         * @return La foto del socio, o {@code null} si no tiene foto, no existe o se produce un error.
+         */
+        public byte[] obtenerFoto (String numeroSocio){
+            return leer(session -> {
+                Query<byte[]> query = session.createQuery(
+                        "select s.foto from Socio s where s.numeroSocio = :numeroSocio", byte[].class);
+                query.setParameter("numeroSocio", numeroSocio);
+                return query.uniqueResult();
+            }, null, "Error al obtener la foto del socio");
+        }
+
+        /**
+         * Obtiene el resumen (número, nombre, apellidos y fecha de nacimiento) de todos los socios.
+         * Solo se recuperan esas columnas, sin cargar las entidades, para las listas y los selectores de socios.
+         *
+         * @return Una lista de {@link SocioResumen}, vacía si no hay socios o si se produce un error.
+         */
+        public List<SocioResumen> obtenerResumenSocios (){
+            return leer(session -> {
+                Query<SocioResumen> query = session.createQuery(SELECT_RESUMEN + "from Socio s", SocioResumen.class);
+                return query.getResultList();
+            }, new ArrayList<>(), "Error al obtener el resumen de los socios");
+        }
+
+        /**
+         * Obtiene el resumen de los socios que pertenecen a una familia.
+         *
+         * @param idFamilia El identificador de la familia.
+         * @return Una lista de {@link SocioResumen}, vacía si no hay socios en la familia o si se produce un error.
+         */
+        public List<SocioResumen> obtenerResumenSociosPorFamilia (int idFamilia){
+            return leer(session -> {
+                Query<SocioResumen> query = session.createQuery(
+                        SELECT_RESUMEN + "from Socio s where s.numFamilia.id = :idFamilia", SocioResumen.class);
+                query.setParameter("idFamilia", idFamilia);
+                return query.getResultList();
+            }, new ArrayList<>(), "Error al obtener el resumen de los socios por familia");
+        }
+
+        /**
+         * Obtiene el resumen de los socios que pertenecen a un rango de edad.
+         *
+         * @param rangoEdad El rango de edad: "bebe", "niño", "adolescente", "adulto" o "abuelo".
+         * @return Una lista de {@link SocioResumen}, vacía si el rango no es válido o si se produce un error.
+         */
+        public List<SocioResumen> obtenerResumenSociosPorRangoEdad (String rangoEdad){
+            return leer(session -> {
+                Query<SocioResumen> query = session.createQuery(
+                        SELECT_RESUMEN + "from Socio s where " + CONDICION_RANGO_EDAD, SocioResumen.class);
+                asignarRangoEdad(query, RangoEdad.desdeCodigo(rangoEdad), LocalDate.now());
+                return query.getResultList();
+            }, new ArrayList<>(), "Error al obtener el resumen de los socios por rango de edad");
+        }
+
+        /**
+         * Busca los socios cuyo número, nombre, apellidos, DNI, teléfono o email contienen el texto indicado,
+         * sin distinguir mayúsculas de minúsculas. La búsqueda se hace en la base de datos.
+         *
+         * @param filtro El texto a buscar.
+         * @return Una lista de {@link SocioResumen}, vacía si no hay coincidencias o si se produce un error.
+         */
+        public List<SocioResumen> buscarResumenSocios (String filtro){
+            return leer(session -> {
+                Query<SocioResumen> query = session.createQuery(SELECT_RESUMEN + "from Socio s where " +
+                        "lower(s.numeroSocio) like :filtro or lower(s.nombre) like :filtro or lower(s.apellidos) like :filtro or " +
+                        "lower(s.dni) like :filtro or lower(s.telefono) like :filtro or lower(s.email) like :filtro", SocioResumen.class);
+                query.setParameter("filtro", "%" + filtro.toLowerCase() + "%");
+                return query.getResultList();
+            }, new ArrayList<>(), "Error al buscar socios");
+        }
+
+        /**
+         * Obtiene un socio completo por su número de socio, sin la foto ni la huella.
+         *
+         * @param numeroSocio El número del socio.
+         * @return El {@link Socio}, o {@code null} si no existe o si se produce un error.
+         */
+        public Socio obtenerSocio (String numeroSocio){
+            return leer(session -> session.get(Socio.class, numeroSocio), null, "Error al obtener el socio");
+        }
+
+        /**
+         * Obtiene los socios completos con los números indicados, en el mismo orden, para imprimir carnets o reportes.
+         * Las fotos se obtienen con una consulta explícita y se asignan a los socios después de separarlos de la sesión,
+         * de modo que se pueden leer sin sesión abierta y no se carga la foto de cada socio con una consulta distinta.
+         *
+         * @param numerosSocio Los números de los socios.
+         * @param conFoto      Si se debe cargar también la foto de cada socio.
+         * @return Una lista de {@link Socio}, vacía si no se encuentra ninguno o si se produce un error.
+         */
+        public List<Socio> obtenerSociosPorNumero (List<String> numerosSocio, boolean conFoto){
+            if (numerosSocio.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return leer(session -> {
+                Query<Socio> query = session.createQuery("from Socio s where s.numeroSocio in :numeros", Socio.class);
+                query.setParameter("numeros", numerosSocio);
+                List<Socio> socios = new ArrayList<>(query.getResultList());
+                if (conFoto) {
+                    Query<Object[]> fotos = session.createQuery(
+                            "select s.numeroSocio, s.foto from Socio s where s.numeroSocio in :numeros and s.foto is not null", Object[].class);
+                    fotos.setParameter("numeros", numerosSocio);
+                    Map<String, byte[]> fotoPorNumero = new HashMap<>();
+                    for (Object[] fila : fotos.getResultList()) {
+                        fotoPorNumero.put((String) fila[0], (byte[]) fila[1]);
+                    }
+                    for (Socio socio : socios) {
+                        // Separado de la sesión, asignar la foto no es una modificación que deba guardarse
+                        session.detach(socio);
+                        socio.setFoto(fotoPorNumero.get(socio.getNumeroSocio()));
+                    }
+                }
+                Map<String, Integer> posiciones = new HashMap<>();
+                for (int i = 0; i < numerosSocio.size(); i++) {
+                    posiciones.putIfAbsent(numerosSocio.get(i), i);
+                }
+                socios.sort(Comparator.comparingInt(socio -> posiciones.getOrDefault(socio.getNumeroSocio(), Integer.MAX_VALUE)));
+                return socios;
+            }, new ArrayList<>(), "Error al obtener los socios por número");
+        }
+    }
@@ -0,0 +1,124 @@
+package org.socialclub.socialclub.database;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.socialclub.socialclub.util.HibernateUtil;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta operaciones de base de datos dentro de una sesión y una transacción de Hibernate.
+ * <p>
+ * Las lecturas se ejecutan en sesiones de solo lectura con {@link FlushMode#MANUAL}: Hibernate no guarda
+ * las instantáneas para detectar cambios en las entidades cargadas ni sincroniza la sesión antes de cada consulta.
+ * <p>
+ * Con {@link #enLectura(Supplier)} y {@link #enTransaccion(Supplier)} varias llamadas a los DAO comparten
+ * la misma sesión y transacción: mientras se ejecuta el bloque, la sesión queda asociada al hilo actual
+ * y los métodos de {@link AbstractDAO} la reutilizan en lugar de abrir una nueva.
+ */
+public final class TransactionTemplate {
+
+    private static final ThreadLocal<Session> SESION_ACTUAL = new ThreadLocal<>();
+
+    private TransactionTemplate() {
+        throw new UnsupportedOperationException("Clase de utilidad");
+    }
+
+    /**
+     * Ejecuta un bloque de lecturas en una única sesión de solo lectura compartida por todos los DAO que se llamen dentro.
+     *
+     * @param trabajo el bloque a ejecutar.
+     * @param <T>     el tipo del resultado.
+     * @return el resultado del bloque.
+     */
+    public static <T> T enLectura(Supplier<T> trabajo) {
+        return ejecutar(HibernateUtil.getSessionFactory(), true, session -> trabajo.get());
+    }
+
+    /**
+     * Ejecuta un bloque de lecturas sin resultado en una única sesión de solo lectura compartida por todos los DAO
+     * que se llamen dentro.
+     *
+     * @param trabajo el bloque a ejecutar.
+     */
+    public static void enLectura(Runnable trabajo) {
+        ejecutar(HibernateUtil.getSessionFactory(), true, session -> {
+            trabajo.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta un bloque en una única sesión y transacción de lectura y escritura compartida por todos los DAO
+     * que se llamen dentro. Si el bloque lanza una excepción se deshace la transacción completa.
+     *
+     * @param trabajo el bloque a ejecutar.
+     * @param <T>     el tipo del resultado.
+     * @return el resultado del bloque.
+     */
+    public static <T> T enTransaccion(Supplier<T> trabajo) {
+        return ejecutar(HibernateUtil.getSessionFactory(), false, session -> trabajo.get());
+    }
+
+    /**
+     * Indica si el hilo actual está dentro de un bloque con sesión compartida.
+     *
+     * @return {@code true} si hay una sesión asociada al hilo actual.
+     */
+    public static boolean haySesionCompartida() {
+        return SESION_ACTUAL.get() != null;
+    }
+
+    /**
+     * Ejecuta una operación con la sesión asociada al hilo actual o, si no la hay, en una sesión y transacción nuevas
+     * que se confirman al terminar y se deshacen si la operación lanza una excepción.
+     *
+     * @param sessionFactory la factoría con la que se abre la sesión si no hay una compartida.
+     * @param soloLectura    {@code true} para abrir la sesión en modo de solo lectura.
+     * @param operacion      la operación a ejecutar.
+     * @param <T>            el tipo del resultado.
+     * @return el resultado de la operación.
+     * @throws IllegalStateException si se intenta escribir dentro de un bloque de solo lectura.
+     */
+    static <T> T ejecutar(SessionFactory sessionFactory, boolean soloLectura, Function<Session, T> operacion) {
+        Session compartida = SESION_ACTUAL.get();
+        if (compartida != null) {
+            if (!soloLectura && compartida.isDefaultReadOnly()) {
+                throw new IllegalStateException("No se puede escribir dentro de un bloque de solo lectura");
+            }
+            try {
+                return operacion.apply(compartida);
+            } catch (RuntimeException e) {
+                // El error se puede capturar más arriba: se impide que el bloque confirme una escritura a medias
+                if (!compartida.isDefaultReadOnly()) {
+                    compartida.getTransaction().markRollbackOnly();
+                }
+                throw e;
+            }
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            if (soloLectura) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            Transaction transaction = session.beginTransaction();
+            SESION_ACTUAL.set(session);
+            try {
+                T resultado = operacion.apply(session);
+                transaction.commit();
+                return resultado;
+            } catch (RuntimeException e) {
+                if (transaction != null) {
+                    transaction.rollback();
+                }
+                throw e;
+            } finally {
+                SESION_ACTUAL.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.socialclub.socialclub.huella;
+
+import org.socialclub.socialclub.model.HuellaSocio;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de plantillas ya preparadas por un {@link FingerprintMatcher}, indexada por número de socio.
+ * Evita reconstruir la plantilla a partir de sus bytes en cada búsqueda. Las entradas se invalidan
+ * desde {@link IndiceHuellas} cuando {@code SocioDAO} guarda, actualiza o elimina un socio.
+ * Esta clase utiliza el patrón Singleton.
+ */
+public class CachePlantillas {
+
+    private final Map<String, PlantillaCacheada> plantillas = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor privado para evitar la instanciación desde fuera de la clase.
+     */
+    private CachePlantillas() {
+    }
+
+    /**
+     * Una clase anidada estática para mantener la única instancia de CachePlantillas.
+     */
+    private static class CachePlantillasHolder {
+        private static final CachePlantillas INSTANCE = new CachePlantillas();
+    }
+
+    /**
+     * Devuelve la única instancia de CachePlantillas.
+     *
+     * @return la única instancia de CachePlantillas.
+     */
+    public static CachePlantillas getInstance() {
+        return CachePlantillasHolder.INSTANCE;
+    }
+
+    /**
+     * Obtiene la plantilla preparada de una huella, construyéndola si no está en caché
+     * o si la entrada en caché se creó a partir de otros bytes o con otro comparador.
+     *
+     * @param huella  la huella del socio.
+     * @param matcher el comparador que prepara la plantilla.
+     * @param <P>     el tipo de la plantilla preparada.
+     * @return la plantilla preparada.
+     */
+    @SuppressWarnings("unchecked")
+    public <P> P obtener(HuellaSocio huella, FingerprintMatcher<?, P> matcher) {
+        PlantillaCacheada cacheada = plantillas.get(huella.getNumeroSocio());
+        if (cacheada != null && cacheada.origen == huella.getPlantilla() && cacheada.matcher == matcher) {
+            return (P) cacheada.plantilla;
+        }
+        P plantilla = matcher.prepararPlantilla(huella.getPlantilla());
+        plantillas.put(huella.getNumeroSocio(), new PlantillaCacheada(huella.getPlantilla(), matcher, plantilla));
+        return plantilla;
+    }
+
+    /**
+     * Elimina de la caché la plantilla de un socio.
+     *
+     * @param numeroSocio el número del socio.
+     */
+    public void invalidar(String numeroSocio) {
+        if (numeroSocio != null) {
+            plantillas.remove(numeroSocio);
+        }
+    }
+
+    /**
+     * Elimina todas las plantillas de la caché.
+     */
+    public void limpiar() {
+        plantillas.clear();
+    }
+
+    /**
+     * Devuelve el número de plantillas en caché.
+     *
+     * @return el número de plantillas en caché.
+     */
+    public int tamanio() {
+        return plantillas.size();
+    }
+
+    /**
+     * Plantilla preparada junto con los bytes y el comparador a partir de los que se construyó.
+     */
+    private static class PlantillaCacheada {
+        private final byte[] origen;
+        private final FingerprintMatcher<?, ?> matcher;
+        private final Object plantilla;
+
+        private PlantillaCacheada(byte[] origen, FingerprintMatcher<?, ?> matcher, Object plantilla) {
+            this.origen = origen;
+            this.matcher = matcher;
+            this.plantilla = plantilla;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.socialclub.socialclub.huella;
+
+import com.digitalpersona.onetouch.DPFPDataPurpose;
+import com.digitalpersona.onetouch.DPFPFeatureSet;
+import com.digitalpersona.onetouch.DPFPGlobal;
+import com.digitalpersona.onetouch.DPFPSample;
+import com.digitalpersona.onetouch.DPFPTemplate;
+import com.digitalpersona.onetouch.processing.DPFPImageQualityException;
+import com.digitalpersona.onetouch.verification.DPFPVerification;
+
+/**
+ * Implementación de {@link FingerprintMatcher} basada en el SDK DigitalPersona One Touch.
+ * Cada hilo utiliza su propia instancia de {@link DPFPVerification}.
+ */
+public class DigitalPersonaMatcher implements FingerprintMatcher<DPFPFeatureSet, DPFPTemplate> {
+
+    private final ThreadLocal<DPFPVerification> verificadores =
+            ThreadLocal.withInitial(() -> DPFPGlobal.getVerificationFactory().createVerification());
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DPFPTemplate prepararPlantilla(byte[] plantilla) {
+        return DPFPGlobal.getTemplateFactory().createTemplate(plantilla);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean verificar(DPFPFeatureSet caracteristicas, DPFPTemplate plantilla) {
+        return verificadores.get().verify(caracteristicas, plantilla).isVerified();
+    }
+
+    /**
+     * Extrae las características de una muestra capturada por el lector.
+     *
+     * @param muestra   la muestra de huella capturada.
+     * @param proposito el propósito de la extracción (verificación o inscripción).
+     * @return las características extraídas.
+     * @throws DPFPImageQualityException si la calidad de la muestra no permite extraer características.
+     */
+    public DPFPFeatureSet extraerCaracteristicas(DPFPSample muestra, DPFPDataPurpose proposito) throws DPFPImageQualityException {
+        return DPFPGlobal.getFeatureExtractionFactory().createFeatureExtraction().createFeatureSet(muestra, proposito);
+    }
+}
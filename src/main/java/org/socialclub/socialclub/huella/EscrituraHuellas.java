@@ -0,0 +1,111 @@
+package org.socialclub.socialclub.huella;
+
+import org.socialclub.socialclub.database.SocioDAO;
+import org.socialclub.socialclub.model.HuellaSocio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Escritura diferida (write-behind) de las plantillas de huella inscritas en {@code socio.huella}.
+ * Las escrituras se encolan en un único hilo en segundo plano, de modo que el alta del socio no espera
+ * a guardar la plantilla y las escrituras se aplican en el orden en que se inscribieron.
+ * Esta clase utiliza el patrón Singleton.
+ */
+public class EscrituraHuellas {
+    private static final Logger LOGGER = Logger.getLogger(EscrituraHuellas.class.getName());
+
+    private static final int MAX_INTENTOS = 3;
+    private static final long ESPERA_REINTENTO_MS = 1_000;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "escritura-huellas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Constructor privado para evitar la instanciación desde fuera de la clase.
+     */
+    private EscrituraHuellas() {
+    }
+
+    /**
+     * Una clase anidada estática para mantener la única instancia de EscrituraHuellas.
+     */
+    private static class EscrituraHuellasHolder {
+        private static final EscrituraHuellas INSTANCE = new EscrituraHuellas();
+    }
+
+    /**
+     * Devuelve la única instancia de EscrituraHuellas.
+     *
+     * @return la única instancia de EscrituraHuellas.
+     */
+    public static EscrituraHuellas getInstance() {
+        return EscrituraHuellasHolder.INSTANCE;
+    }
+
+    /**
+     * Encola la escritura de la plantilla de huella de un socio. Si la escritura falla se reintenta
+     * hasta {@value #MAX_INTENTOS} veces.
+     *
+     * @param numeroSocio el número del socio dado de alta.
+     * @param plantilla   la plantilla de huella serializada.
+     * @return un futuro que se completa con {@code true} si la plantilla se guardó, o {@code false} en caso contrario.
+     */
+    public CompletableFuture<Boolean> programar(String numeroSocio, byte[] plantilla) {
+        return CompletableFuture.supplyAsync(() -> escribir(numeroSocio, plantilla), executor);
+    }
+
+    /**
+     * Espera a que terminen las escrituras pendientes y detiene el hilo de escritura.
+     * Debe llamarse antes de cerrar la SessionFactory para no perder plantillas.
+     *
+     * @param timeout el tiempo máximo de espera.
+     * @param unidad  la unidad del tiempo de espera.
+     * @return {@code true} si todas las escrituras terminaron, {@code false} si se agotó el tiempo.
+     */
+    public boolean cerrar(long timeout, TimeUnit unidad) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout, unidad);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Guarda la plantilla de huella, reintentando si la escritura falla.
+     *
+     * @param numeroSocio el número del socio.
+     * @param plantilla   la plantilla de huella serializada.
+     * @return {@code true} si la plantilla se guardó, {@code false} en caso contrario.
+     */
+    private boolean escribir(String numeroSocio, byte[] plantilla) {
+        SocioDAO socioDAO = new SocioDAO();
+        for (int intento = 1; intento <= MAX_INTENTOS; intento++) {
+            HuellaSocio guardada = socioDAO.guardarHuella(numeroSocio, plantilla);
+            if (guardada != null) {
+                IndiceHuellas.getInstance().agregar(guardada);
+                return true;
+            }
+            LOGGER.warning(String.format("No se pudo guardar la huella del socio %s (intento %d de %d)", numeroSocio, intento, MAX_INTENTOS));
+            if (intento < MAX_INTENTOS) {
+                try {
+                    Thread.sleep(ESPERA_REINTENTO_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        LOGGER.log(Level.SEVERE, "Se descarta la huella del socio {0}", numeroSocio);
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package org.socialclub.socialclub.huella;
+
+/**
+ * Abstracción del algoritmo de comparación de huellas utilizado por el {@link MotorCoincidencias}.
+ * Permite sustituir el SDK de DigitalPersona por una implementación sin lector,
+ * por ejemplo para medir el rendimiento de la identificación en una máquina de integración.
+ * Las implementaciones deben poder usarse desde varios hilos a la vez.
+ *
+ * @param <C> el tipo de las características extraídas de la huella capturada.
+ * @param <P> el tipo de la plantilla preparada para la comparación.
+ */
+public interface FingerprintMatcher<C, P> {
+
+    /**
+     * Construye la plantilla preparada para la comparación a partir de sus bytes serializados.
+     * El resultado se guarda en {@link CachePlantillas}, por lo que debe ser inmutable.
+     *
+     * @param plantilla la plantilla serializada tal y como se guarda en {@code socio.huella}.
+     * @return la plantilla preparada.
+     */
+    P prepararPlantilla(byte[] plantilla);
+
+    /**
+     * Compara las características de una huella capturada con una plantilla.
+     *
+     * @param caracteristicas las características de la huella capturada.
+     * @param plantilla       la plantilla preparada.
+     * @return {@code true} si la huella pertenece a la plantilla, {@code false} en caso contrario.
+     */
+    boolean verificar(C caracteristicas, P plantilla);
+}
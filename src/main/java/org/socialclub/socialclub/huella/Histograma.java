@@ -0,0 +1,132 @@
+package org.socialclub.socialclub.huella;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de las últimas muestras registradas de una métrica.
+ * Guarda las muestras en un buffer circular de tamaño fijo, de modo que los percentiles reflejan
+ * el comportamiento reciente y permiten detectar degradaciones; el número total de muestras
+ * y el máximo se acumulan desde el último reinicio.
+ */
+public class Histograma {
+
+    /**
+     * Número de muestras recientes que se conservan por defecto.
+     */
+    public static final int CAPACIDAD_DEFECTO = 2048;
+
+    private final String nombre;
+    private final long[] muestras;
+    private int siguiente;
+    private int ocupadas;
+    private long total;
+    private long maximo;
+
+    /**
+     * Crea un histograma con la capacidad por defecto.
+     *
+     * @param nombre el nombre de la métrica.
+     */
+    public Histograma(String nombre) {
+        this(nombre, CAPACIDAD_DEFECTO);
+    }
+
+    /**
+     * Crea un histograma.
+     *
+     * @param nombre    el nombre de la métrica.
+     * @param capacidad el número de muestras recientes que se conservan.
+     */
+    public Histograma(String nombre, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad del histograma debe ser positiva");
+        }
+        this.nombre = nombre;
+        this.muestras = new long[capacidad];
+    }
+
+    /**
+     * Registra una muestra.
+     *
+     * @param valor el valor de la muestra.
+     */
+    public synchronized void registrar(long valor) {
+        muestras[siguiente] = valor;
+        siguiente = (siguiente + 1) % muestras.length;
+        if (ocupadas < muestras.length) {
+            ocupadas++;
+        }
+        total++;
+        maximo = Math.max(maximo, valor);
+    }
+
+    /**
+     * Calcula un percentil sobre las muestras recientes (método del rango más cercano).
+     *
+     * @param percentil el percentil, entre 0 y 100.
+     * @return el valor del percentil, o 0 si no hay muestras.
+     */
+    public long percentil(double percentil) {
+        return percentiles(percentil)[0];
+    }
+
+    /**
+     * Calcula varios percentiles sobre la misma copia de las muestras recientes.
+     *
+     * @param percentiles los percentiles, entre 0 y 100.
+     * @return los valores de los percentiles en el mismo orden, o ceros si no hay muestras.
+     */
+    public long[] percentiles(double... percentiles) {
+        long[] ordenadas;
+        synchronized (this) {
+            ordenadas = Arrays.copyOf(muestras, ocupadas);
+        }
+        long[] valores = new long[percentiles.length];
+        if (ordenadas.length == 0) {
+            return valores;
+        }
+        Arrays.sort(ordenadas);
+        for (int i = 0; i < percentiles.length; i++) {
+            int rango = (int) Math.ceil(percentiles[i] / 100.0 * ordenadas.length);
+            valores[i] = ordenadas[Math.min(Math.max(rango, 1), ordenadas.length) - 1];
+        }
+        return valores;
+    }
+
+    /**
+     * Obtiene el nombre de la métrica.
+     *
+     * @return el nombre de la métrica.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene el número total de muestras registradas desde el último reinicio.
+     *
+     * @return el número total de muestras.
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtiene el valor máximo registrado desde el último reinicio.
+     *
+     * @return el valor máximo, o 0 si no hay muestras.
+     */
+    public synchronized long getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Descarta todas las muestras.
+     */
+    public synchronized void reiniciar() {
+        siguiente = 0;
+        ocupadas = 0;
+        total = 0;
+        maximo = 0;
+    }
+}
@@ -0,0 +1,296 @@
+package org.socialclub.socialclub.huella;
+
+import com.digitalpersona.onetouch.DPFPFeatureSet;
+import com.digitalpersona.onetouch.DPFPTemplate;
+import org.socialclub.socialclub.database.SocioDAO;
+import org.socialclub.socialclub.model.HuellaSocio;
+import org.socialclub.socialclub.model.Socio;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Índice residente en memoria con las plantillas de huella de todos los socios.
+ * Se carga una única vez desde la base de datos y se mantiene sincronizado con las escrituras de {@link SocioDAO},
+ * de forma que la identificación de una huella no necesita acceder a la base de datos hasta conocer el socio.
+ * Los cambios realizados desde otros puestos se incorporan mediante una sincronización periódica que compara
+ * la marca de modificación de cada huella ({@link SocioDAO#obtenerMarcasHuellas()}): se vuelven a leer las huellas
+ * nuevas o modificadas y se eliminan las de los socios que ya no tienen huella, invalidando sus plantillas preparadas.
+ * También mantiene el comparador y el motor de coincidencias del lector, compartidos por la lectura de entradas
+ * y salidas y por la comprobación de huellas duplicadas en el alta, para que ambos usen las mismas plantillas
+ * preparadas de {@link CachePlantillas}.
+ * Esta clase utiliza el patrón Singleton.
+ */
+public class IndiceHuellas {
+    private static final Logger LOGGER = Logger.getLogger(IndiceHuellas.class.getName());
+
+    private final Map<String, HuellaSocio> huellas = new ConcurrentHashMap<>();
+    private volatile boolean cargado = false;
+    /**
+     * Indica que la última carga desde la base de datos ha fallado, de modo que la siguiente sincronización la repite.
+     */
+    private volatile boolean cargaPendiente = false;
+    /**
+     * Marca de modificación conocida de cada huella leída de la base de datos. Las huellas sin marca en la base de datos
+     * y las escritas desde este puesto, cuya marca aún no se ha leído, se registran con {@link #SIN_MARCA}.
+     */
+    private final Map<String, LocalDateTime> marcas = new ConcurrentHashMap<>();
+    private static final LocalDateTime SIN_MARCA = LocalDateTime.MIN;
+    private ScheduledExecutorService sincronizador;
+    private final DigitalPersonaMatcher matcher = new DigitalPersonaMatcher();
+    private MotorCoincidencias<DPFPFeatureSet, DPFPTemplate> motor;
+
+    /**
+     * Constructor privado para evitar la instanciación desde fuera de la clase.
+     */
+    private IndiceHuellas() {
+    }
+
+    /**
+     * Una clase anidada estática para mantener la única instancia de IndiceHuellas.
+     */
+    private static class IndiceHuellasHolder {
+        private static final IndiceHuellas INSTANCE = new IndiceHuellas();
+    }
+
+    /**
+     * Devuelve la única instancia de IndiceHuellas.
+     *
+     * @return la única instancia de IndiceHuellas.
+     */
+    public static IndiceHuellas getInstance() {
+        return IndiceHuellasHolder.INSTANCE;
+    }
+
+    /**
+     * Devuelve el comparador del lector DigitalPersona con el que se preparan las plantillas del índice.
+     *
+     * @return el comparador de huellas.
+     */
+    public DigitalPersonaMatcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Devuelve el motor de coincidencias compartido, creándolo con los parámetros de configuración la primera vez.
+     * {@link CachePlantillas} solo reutiliza una plantilla preparada con el mismo comparador, así que quien busque
+     * en el índice debe usar este motor en lugar de crear el suyo.
+     *
+     * @return el motor de coincidencias.
+     */
+    public synchronized MotorCoincidencias<DPFPFeatureSet, DPFPTemplate> getMotor() {
+        if (motor == null) {
+            motor = MotorCoincidencias.desdeConfiguracion(matcher);
+        }
+        return motor;
+    }
+
+    /**
+     * Detiene el motor de coincidencias compartido, si se ha creado. Si se vuelve a solicitar, se crea otro
+     * con el mismo comparador, de modo que las plantillas en caché siguen siendo válidas.
+     */
+    public synchronized void cerrarMotor() {
+        if (motor != null) {
+            motor.cerrar();
+            motor = null;
+        }
+    }
+
+    /**
+     * Carga todas las plantillas de huella desde la base de datos, sustituyendo el contenido actual del índice.
+     * Si falla la lectura, el índice conserva su contenido y, si no estaba cargado, sigue sin cargar: la siguiente
+     * sincronización vuelve a intentar la carga.
+     */
+    public void cargar() {
+        SocioDAO socioDAO = new SocioDAO();
+        // Las marcas se leen antes que las huellas: si una huella cambia entre ambas lecturas, su marca queda
+        // anticuada y la siguiente sincronización la vuelve a leer
+        Map<String, LocalDateTime> actuales = socioDAO.obtenerMarcasHuellas();
+        List<HuellaSocio> leidas = actuales != null ? socioDAO.obtenerHuellasDesde(0) : null;
+        synchronized (this) {
+            if (leidas == null) {
+                cargaPendiente = true;
+                LOGGER.warning("No se ha podido cargar el índice de huellas; se reintentará en la próxima sincronización");
+                return;
+            }
+            cargar(leidas);
+            actuales.forEach((numeroSocio, marca) -> marcas.put(numeroSocio, marca == null ? SIN_MARCA : marca));
+        }
+    }
+
+    /**
+     * Sustituye el contenido del índice por las huellas indicadas, sin acceder a la base de datos.
+     *
+     * @param cargadas las huellas con las que se carga el índice.
+     */
+    public synchronized void cargar(List<HuellaSocio> cargadas) {
+        huellas.clear();
+        marcas.clear();
+        CachePlantillas.getInstance().limpiar();
+        for (HuellaSocio huella : cargadas) {
+            huellas.put(huella.getNumeroSocio(), huella);
+        }
+        cargado = true;
+        cargaPendiente = false;
+        LOGGER.info(String.format("Índice de huellas cargado con %d plantillas", huellas.size()));
+    }
+
+    /**
+     * Carga el índice si todavía no se ha cargado.
+     */
+    public void cargarSiNecesario() {
+        if (!cargado) {
+            cargar();
+        }
+    }
+
+    /**
+     * Sincroniza el índice con la base de datos comparando la marca de modificación de cada huella.
+     * Elimina las huellas de los socios borrados o que ya no tienen huella y vuelve a leer las nuevas o modificadas,
+     * invalidando en ambos casos sus plantillas preparadas. Solo se eliminan las huellas leídas de la base de datos,
+     * de modo que las cargadas con {@link #cargar(List)} se conservan.
+     * Si el índice aún no se ha cargado no hace nada, ya que la carga inicial incluirá todos los cambios,
+     * salvo que la carga haya fallado: entonces la vuelve a intentar.
+     */
+    public synchronized void sincronizar() {
+        if (!cargado) {
+            if (cargaPendiente) {
+                cargar();
+            }
+            return;
+        }
+        try {
+            SocioDAO socioDAO = new SocioDAO();
+            Map<String, LocalDateTime> actuales = socioDAO.obtenerMarcasHuellas();
+            if (actuales == null) {
+                return; // Error de lectura: no se puede distinguir una huella borrada de una consulta fallida
+            }
+            int eliminadas = 0;
+            for (String numeroSocio : new ArrayList<>(marcas.keySet())) {
+                if (!actuales.containsKey(numeroSocio)) {
+                    eliminar(numeroSocio);
+                    eliminadas++;
+                }
+            }
+            Set<String> modificadas = new HashSet<>();
+            actuales.forEach((numeroSocio, marca) -> {
+                LocalDateTime conocida = marcas.get(numeroSocio);
+                if (conocida == null || !conocida.equals(marca == null ? SIN_MARCA : marca)) {
+                    modificadas.add(numeroSocio);
+                }
+            });
+            if (modificadas.isEmpty()) {
+                if (eliminadas > 0) {
+                    LOGGER.info(String.format("Índice de huellas sincronizado: %d eliminadas", eliminadas));
+                }
+                return;
+            }
+            List<HuellaSocio> leidas = socioDAO.obtenerHuellas(modificadas);
+            if (leidas == null) {
+                return;
+            }
+            for (HuellaSocio huella : leidas) {
+                CachePlantillas.getInstance().invalidar(huella.getNumeroSocio());
+                huellas.put(huella.getNumeroSocio(), huella);
+                LocalDateTime marca = actuales.get(huella.getNumeroSocio());
+                marcas.put(huella.getNumeroSocio(), marca == null ? SIN_MARCA : marca);
+            }
+            LOGGER.info(String.format("Índice de huellas sincronizado: %d nuevas o modificadas, %d eliminadas",
+                    leidas.size(), eliminadas));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error al sincronizar el índice de huellas", e);
+        }
+    }
+
+    /**
+     * Inicia la sincronización periódica del índice, de modo que las huellas registradas, modificadas o eliminadas
+     * desde otro puesto se reflejen sin reiniciar la aplicación. Si ya está iniciada no hace nada.
+     *
+     * @param periodoSegundos el intervalo entre sincronizaciones, en segundos.
+     */
+    public synchronized void iniciarSincronizacion(long periodoSegundos) {
+        if (sincronizador != null || periodoSegundos <= 0) {
+            return;
+        }
+        sincronizador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "sincronizacion-huellas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        sincronizador.scheduleWithFixedDelay(this::sincronizar, periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Actualiza la entrada de un socio en el índice. Si el socio no tiene huella se elimina del índice.
+     *
+     * @param socio el socio actualizado.
+     */
+    public void actualizar(Socio socio) {
+        if (socio == null || socio.getNumeroSocio() == null) {
+            return;
+        }
+        CachePlantillas.getInstance().invalidar(socio.getNumeroSocio());
+        if (socio.getHuella() == null) {
+            eliminar(socio.getNumeroSocio());
+        } else {
+            huellas.put(socio.getNumeroSocio(), new HuellaSocio(socio.getNumeroSocio(), socio.getIdSocio(), socio.getNombre(), socio.getApellidos(), socio.getHuella()));
+            marcas.put(socio.getNumeroSocio(), SIN_MARCA);
+        }
+    }
+
+    /**
+     * Añade o sustituye la huella de un socio en el índice, si ya está cargado.
+     * La huella queda registrada sin marca, de modo que la siguiente sincronización lee una vez su marca real.
+     *
+     * @param huella la huella del socio.
+     */
+    public void agregar(HuellaSocio huella) {
+        if (!cargado || huella == null) {
+            return;
+        }
+        CachePlantillas.getInstance().invalidar(huella.getNumeroSocio());
+        huellas.put(huella.getNumeroSocio(), huella);
+        marcas.put(huella.getNumeroSocio(), SIN_MARCA);
+    }
+
+    /**
+     * Elimina la entrada de un socio del índice.
+     *
+     * @param numeroSocio el número del socio a eliminar.
+     */
+    public void eliminar(String numeroSocio) {
+        if (numeroSocio != null) {
+            huellas.remove(numeroSocio);
+            marcas.remove(numeroSocio);
+            CachePlantillas.getInstance().invalidar(numeroSocio);
+        }
+    }
+
+    /**
+     * Devuelve una copia de las huellas registradas en el índice.
+     *
+     * @return la lista de huellas registradas.
+     */
+    public List<HuellaSocio> obtenerHuellas() {
+        return new ArrayList<>(huellas.values());
+    }
+
+    /**
+     * Devuelve el número de huellas registradas en el índice.
+     *
+     * @return el número de huellas registradas.
+     */
+    public int tamanio() {
+        return huellas.size();
+    }
+}
@@ -0,0 +1,346 @@
+package org.socialclub.socialclub.huella;
+
+import org.socialclub.socialclub.util.ConfigLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Métricas de la lectura de huellas: histogramas del tiempo de búsqueda, de las plantillas comparadas
+ * y del tiempo de acceso a la base de datos al registrar la entrada o salida, y contadores de búsquedas,
+ * huellas no encontradas, búsquedas abandonadas por tiempo y fallos de calidad de la muestra.
+ * Las métricas se consultan desde la vista de diagnóstico y se vuelcan periódicamente a un archivo local.
+ * Esta clase utiliza el patrón Singleton.
+ */
+public class MetricasHuellas {
+    private static final Logger LOGGER = Logger.getLogger(MetricasHuellas.class.getName());
+
+    /**
+     * Propiedad de configuración con la ruta del archivo de métricas.
+     */
+    public static final String PROP_ARCHIVO = "huella.metricas.archivo";
+
+    /**
+     * Propiedad de configuración con el intervalo de volcado del archivo de métricas, en segundos (0 = no se vuelca).
+     */
+    public static final String PROP_INTERVALO = "huella.metricas.segundos";
+
+    /**
+     * Ruta por defecto del archivo de métricas.
+     */
+    public static final String ARCHIVO_DEFECTO = "metricas/huellas.properties";
+
+    private static final int INTERVALO_DEFECTO = 60;
+
+    private static final double NANOS_POR_MILLI = 1_000_000.0;
+
+    private final Histograma tiempoCoincidencia = new Histograma("Tiempo de búsqueda (ms)");
+    private final Histograma candidatasProbadas = new Histograma("Plantillas comparadas");
+    private final Histograma tiempoBaseDatos = new Histograma("Tiempo de base de datos (ms)");
+    private final LongAdder busquedas = new LongAdder();
+    private final LongAdder sinCoincidencia = new LongAdder();
+    private final LongAdder busquedasIncompletas = new LongAdder();
+    private final LongAdder fallosCalidad = new LongAdder();
+
+    private ScheduledExecutorService volcado;
+    private Path archivoVolcado;
+
+    /**
+     * Constructor privado para evitar la instanciación desde fuera de la clase.
+     */
+    private MetricasHuellas() {
+    }
+
+    /**
+     * Una clase anidada estática para mantener la única instancia de MetricasHuellas.
+     */
+    private static class MetricasHuellasHolder {
+        private static final MetricasHuellas INSTANCE = new MetricasHuellas();
+    }
+
+    /**
+     * Devuelve la única instancia de MetricasHuellas.
+     *
+     * @return la única instancia de MetricasHuellas.
+     */
+    public static MetricasHuellas getInstance() {
+        return MetricasHuellasHolder.INSTANCE;
+    }
+
+    /**
+     * Registra el resultado de una búsqueda de huella.
+     *
+     * @param resultado el resultado de la búsqueda.
+     */
+    public void registrarBusqueda(ResultadoCoincidencia resultado) {
+        busquedas.increment();
+        tiempoCoincidencia.registrar(resultado.getTiempoNanos());
+        candidatasProbadas.registrar(resultado.getCandidatasProbadas());
+        if (!resultado.isEncontrada()) {
+            sinCoincidencia.increment();
+        }
+        if (!resultado.isCompleta()) {
+            busquedasIncompletas.increment();
+        }
+    }
+
+    /**
+     * Registra el tiempo empleado en la base de datos al registrar una entrada o salida.
+     *
+     * @param nanos el tiempo empleado, en nanosegundos.
+     */
+    public void registrarTiempoBaseDatos(long nanos) {
+        tiempoBaseDatos.registrar(nanos);
+    }
+
+    /**
+     * Registra una muestra de huella cuya calidad no permitió extraer características.
+     */
+    public void registrarFalloCalidad() {
+        fallosCalidad.increment();
+    }
+
+    /**
+     * Obtiene el resumen de los histogramas, con los tiempos ya convertidos a milisegundos.
+     *
+     * @return los resúmenes del tiempo de búsqueda, de las plantillas comparadas y del tiempo de base de datos.
+     */
+    public List<Resumen> resumenes() {
+        return List.of(
+                new Resumen(tiempoCoincidencia, NANOS_POR_MILLI),
+                new Resumen(candidatasProbadas, 1),
+                new Resumen(tiempoBaseDatos, NANOS_POR_MILLI));
+    }
+
+    /**
+     * Obtiene el número de búsquedas realizadas.
+     *
+     * @return el número de búsquedas.
+     */
+    public long getBusquedas() {
+        return busquedas.sum();
+    }
+
+    /**
+     * Obtiene el número de búsquedas que no identificaron a ningún socio.
+     *
+     * @return el número de huellas no encontradas.
+     */
+    public long getSinCoincidencia() {
+        return sinCoincidencia.sum();
+    }
+
+    /**
+     * Obtiene el número de búsquedas abandonadas por superar el tiempo límite.
+     *
+     * @return el número de búsquedas incompletas.
+     */
+    public long getBusquedasIncompletas() {
+        return busquedasIncompletas.sum();
+    }
+
+    /**
+     * Obtiene el número de muestras descartadas por su calidad.
+     *
+     * @return el número de fallos de calidad.
+     */
+    public long getFallosCalidad() {
+        return fallosCalidad.sum();
+    }
+
+    /**
+     * Descarta todas las métricas acumuladas.
+     */
+    public void reiniciar() {
+        tiempoCoincidencia.reiniciar();
+        candidatasProbadas.reiniciar();
+        tiempoBaseDatos.reiniciar();
+        busquedas.reset();
+        sinCoincidencia.reset();
+        busquedasIncompletas.reset();
+        fallosCalidad.reset();
+    }
+
+    /**
+     * Escribe las métricas actuales en un archivo con formato de propiedades.
+     * El archivo se escribe primero en un temporal y después se reemplaza, para no dejarlo a medias.
+     *
+     * @param archivo la ruta del archivo de métricas.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public void escribir(Path archivo) throws IOException {
+        StringBuilder contenido = new StringBuilder();
+        contenido.append("# Metricas de huella - ").append(LocalDateTime.now()).append(System.lineSeparator());
+        anadir(contenido, "busquedas", getBusquedas());
+        anadir(contenido, "sinCoincidencia", getSinCoincidencia());
+        anadir(contenido, "busquedasIncompletas", getBusquedasIncompletas());
+        anadir(contenido, "fallosCalidad", getFallosCalidad());
+        List<Resumen> resumenes = resumenes();
+        anadir(contenido, "coincidencia.ms", resumenes.get(0));
+        anadir(contenido, "candidatas", resumenes.get(1));
+        anadir(contenido, "baseDatos.ms", resumenes.get(2));
+
+        Path absoluto = archivo.toAbsolutePath();
+        if (absoluto.getParent() != null) {
+            Files.createDirectories(absoluto.getParent());
+        }
+        Path temporal = absoluto.resolveSibling(absoluto.getFileName() + ".tmp");
+        Files.writeString(temporal, contenido, StandardCharsets.UTF_8);
+        Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void anadir(StringBuilder contenido, String clave, long valor) {
+        contenido.append(clave).append('=').append(valor).append(System.lineSeparator());
+    }
+
+    private static void anadir(StringBuilder contenido, String prefijo, Resumen resumen) {
+        anadir(contenido, prefijo + ".muestras", resumen.getMuestras());
+        contenido.append(String.format(Locale.ROOT, "%1$s.p50=%2$.3f%6$s%1$s.p95=%3$.3f%6$s%1$s.p99=%4$.3f%6$s%1$s.max=%5$.3f%6$s",
+                prefijo, resumen.getP50(), resumen.getP95(), resumen.getP99(), resumen.getMaximo(), System.lineSeparator()));
+    }
+
+    /**
+     * Inicia el volcado periódico de las métricas con el archivo y el intervalo definidos en el archivo de configuración.
+     */
+    public void iniciarVolcadoDesdeConfiguracion() {
+        String archivo = ConfigLoader.getProperty(PROP_ARCHIVO);
+        iniciarVolcado(Path.of(archivo == null || archivo.isBlank() ? ARCHIVO_DEFECTO : archivo.trim()),
+                ConfigLoader.getIntProperty(PROP_INTERVALO, INTERVALO_DEFECTO));
+    }
+
+    /**
+     * Inicia el volcado periódico de las métricas al archivo indicado. Si ya estaba iniciado no hace nada.
+     *
+     * @param archivo  la ruta del archivo de métricas.
+     * @param segundos el intervalo entre volcados, en segundos; si es menor o igual que 0 no se inicia.
+     */
+    public synchronized void iniciarVolcado(Path archivo, long segundos) {
+        if (volcado != null || segundos <= 0) {
+            return;
+        }
+        volcado = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "volcado-metricas-huellas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        archivoVolcado = archivo;
+        volcado.scheduleAtFixedRate(() -> volcar(archivo), segundos, segundos, TimeUnit.SECONDS);
+        LOGGER.info(() -> "Volcado de métricas de huella cada " + segundos + " s en " + archivo.toAbsolutePath());
+    }
+
+    /**
+     * Detiene el volcado periódico de las métricas y escribe un último volcado con los valores finales.
+     */
+    public synchronized void detenerVolcado() {
+        if (volcado != null) {
+            volcado.shutdownNow();
+            volcado = null;
+            volcar(archivoVolcado);
+        }
+    }
+
+    /**
+     * Obtiene el archivo en el que se vuelcan periódicamente las métricas.
+     *
+     * @return la ruta del archivo de métricas, o {@code null} si el volcado no está iniciado.
+     */
+    public synchronized Path getArchivoVolcado() {
+        return volcado != null ? archivoVolcado : null;
+    }
+
+    private void volcar(Path archivo) {
+        try {
+            escribir(archivo);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo escribir el archivo de métricas de huella", e);
+        }
+    }
+
+    /**
+     * Resumen de un histograma: número de muestras, percentiles 50, 95 y 99 y máximo.
+     */
+    public static class Resumen {
+        private final String nombre;
+        private final long muestras;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double maximo;
+
+        private Resumen(Histograma histograma, double divisor) {
+            long[] percentiles = histograma.percentiles(50, 95, 99);
+            this.nombre = histograma.getNombre();
+            this.muestras = histograma.getTotal();
+            this.p50 = percentiles[0] / divisor;
+            this.p95 = percentiles[1] / divisor;
+            this.p99 = percentiles[2] / divisor;
+            this.maximo = histograma.getMaximo() / divisor;
+        }
+
+        /**
+         * Obtiene el nombre del histograma.
+         *
+         * @return el nombre.
+         */
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * Obtiene el número de muestras registradas.
+         *
+         * @return el número de muestras.
+         */
+        public long getMuestras() {
+            return muestras;
+        }
+
+        /**
+         * Obtiene la mediana.
+         *
+         * @return el percentil 50.
+         */
+        public double getP50() {
+            return p50;
+        }
+
+        /**
+         * Obtiene el percentil 95.
+         *
+         * @return el percentil 95.
+         */
+        public double getP95() {
+            return p95;
+        }
+
+        /**
+         * Obtiene el percentil 99.
+         *
+         * @return el percentil 99.
+         */
+        public double getP99() {
+            return p99;
+        }
+
+        /**
+         * Obtiene el valor máximo registrado.
+         *
+         * @return el máximo.
+         */
+        public double getMaximo() {
+            return maximo;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.socialclub.socialclub.huella;
+
+import com.digitalpersona.onetouch.DPFPFeatureSet;
+import com.digitalpersona.onetouch.DPFPTemplate;
+import org.socialclub.socialclub.model.HuellaSocio;
+import org.socialclub.socialclub.util.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Motor de identificación de huellas que reparte las plantillas candidatas en lotes
+ * y los compara en paralelo sobre un {@link ForkJoinPool}.
+ * En cuanto un lote verifica la huella, el resto de lotes abandona la búsqueda.
+ * La comparación se delega en un {@link FingerprintMatcher} y las plantillas se obtienen
+ * ya preparadas de {@link CachePlantillas}.
+ *
+ * @param <C> el tipo de las características extraídas de la huella capturada.
+ * @param <P> el tipo de la plantilla preparada para la comparación.
+ */
+public class MotorCoincidencias<C, P> {
+    private static final Logger LOGGER = Logger.getLogger(MotorCoincidencias.class.getName());
+
+    /**
+     * Propiedad de configuración con el número de hilos de verificación (0 = un hilo por núcleo).
+     */
+    public static final String PROP_PARALELISMO = "huella.coincidencia.paralelismo";
+
+    /**
+     * Propiedad de configuración con el número de plantillas por lote.
+     */
+    public static final String PROP_TAMANIO_LOTE = "huella.coincidencia.tamanioLote";
+
+    private static final int TAMANIO_LOTE_DEFECTO = 256;
+
+    private final int paralelismo;
+    private final int tamanioLote;
+    private final FingerprintMatcher<C, P> matcher;
+    private final ForkJoinPool pool;
+    private final LongSupplier reloj;
+
+    /**
+     * Crea un motor de coincidencias.
+     *
+     * @param matcher     el comparador de huellas.
+     * @param paralelismo el número de hilos de verificación; si es menor o igual que 0 se usa un hilo por núcleo.
+     * @param tamanioLote el número de plantillas que compara cada tarea; si es menor o igual que 0 se usa el valor por defecto.
+     */
+    public MotorCoincidencias(FingerprintMatcher<C, P> matcher, int paralelismo, int tamanioLote) {
+        this(matcher, paralelismo, tamanioLote, System::nanoTime);
+    }
+
+    /**
+     * Crea un motor de coincidencias que mide el tiempo y el límite de las búsquedas con el reloj indicado,
+     * por ejemplo para comprobar el límite de tiempo en las pruebas sin depender de la velocidad de la máquina.
+     *
+     * @param matcher     el comparador de huellas.
+     * @param paralelismo el número de hilos de verificación; si es menor o igual que 0 se usa un hilo por núcleo.
+     * @param tamanioLote el número de plantillas que compara cada tarea; si es menor o igual que 0 se usa el valor por defecto.
+     * @param reloj       el reloj, en nanosegundos, con la misma semántica que {@link System#nanoTime()}.
+     */
+    public MotorCoincidencias(FingerprintMatcher<C, P> matcher, int paralelismo, int tamanioLote, LongSupplier reloj) {
+        this.matcher = matcher;
+        this.reloj = reloj;
+        this.paralelismo = paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors();
+        this.tamanioLote = tamanioLote > 0 ? tamanioLote : TAMANIO_LOTE_DEFECTO;
+        // Modo asíncrono (FIFO) para que los lotes se procesen en el orden en que se envían
+        this.pool = new ForkJoinPool(this.paralelismo, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * Crea un motor de coincidencias para el lector DigitalPersona con los parámetros definidos en el archivo de configuración.
+     *
+     * @return el motor de coincidencias configurado.
+     */
+    public static MotorCoincidencias<DPFPFeatureSet, DPFPTemplate> desdeConfiguracion() {
+        return desdeConfiguracion(new DigitalPersonaMatcher());
+    }
+
+    /**
+     * Crea un motor de coincidencias con el comparador indicado y los parámetros definidos en el archivo de configuración.
+     *
+     * @param matcher el comparador de huellas.
+     * @param <C>     el tipo de las características extraídas de la huella capturada.
+     * @param <P>     el tipo de la plantilla preparada para la comparación.
+     * @return el motor de coincidencias configurado.
+     */
+    public static <C, P> MotorCoincidencias<C, P> desdeConfiguracion(FingerprintMatcher<C, P> matcher) {
+        return new MotorCoincidencias<>(matcher,
+                ConfigLoader.getIntProperty(PROP_PARALELISMO, 0),
+                ConfigLoader.getIntProperty(PROP_TAMANIO_LOTE, TAMANIO_LOTE_DEFECTO));
+    }
+
+    /**
+     * Busca el socio al que pertenece una huella entre las plantillas candidatas.
+     * Si las candidatas caben en un único lote la búsqueda se realiza en el hilo que llama.
+     *
+     * @param caracteristicas las características extraídas de la huella capturada.
+     * @param candidatas      las plantillas de huella entre las que se busca.
+     * @return el resultado de la búsqueda, con el socio identificado y el tiempo empleado.
+     */
+    public ResultadoCoincidencia buscar(C caracteristicas, List<HuellaSocio> candidatas) {
+        return buscar(caracteristicas, candidatas, 0);
+    }
+
+    /**
+     * Busca el socio al que pertenece una huella entre las plantillas candidatas, abandonando la búsqueda
+     * si no termina en el tiempo indicado. En ese caso el resultado no es completo
+     * ({@link ResultadoCoincidencia#isCompleta()}) y solo se han comparado parte de las plantillas.
+     *
+     * @param caracteristicas las características extraídas de la huella capturada.
+     * @param candidatas      las plantillas de huella entre las que se busca.
+     * @param limiteMillis    el tiempo máximo de búsqueda en milisegundos, o 0 para no limitarlo.
+     * @return el resultado de la búsqueda, con el socio identificado y el tiempo empleado.
+     */
+    public ResultadoCoincidencia buscar(C caracteristicas, List<HuellaSocio> candidatas, long limiteMillis) {
+        long inicio = reloj.getAsLong();
+        EstadoBusqueda estado = new EstadoBusqueda(limiteMillis > 0 ? inicio + TimeUnit.MILLISECONDS.toNanos(limiteMillis) : null);
+        HuellaSocio encontrada;
+        if (paralelismo == 1 || candidatas.size() <= tamanioLote) {
+            encontrada = buscarEnLote(caracteristicas, candidatas, estado, null);
+        } else {
+            encontrada = buscarEnParalelo(caracteristicas, candidatas, estado);
+        }
+        boolean completa = encontrada != null || !estado.agotada;
+        return new ResultadoCoincidencia(encontrada, reloj.getAsLong() - inicio, estado.probadas.get(), completa);
+    }
+
+    /**
+     * Reparte las candidatas en lotes y los compara en paralelo, devolviendo la primera coincidencia encontrada.
+     *
+     * @param caracteristicas las características extraídas de la huella capturada.
+     * @param candidatas      las plantillas de huella entre las que se busca.
+     * @param estado          el estado compartido de la búsqueda.
+     * @return la huella del socio identificado, o {@code null} si no hay coincidencia.
+     */
+    private HuellaSocio buscarEnParalelo(C caracteristicas, List<HuellaSocio> candidatas, EstadoBusqueda estado) {
+        CompletableFuture<HuellaSocio> resultado = new CompletableFuture<>();
+        int numLotes = (candidatas.size() + tamanioLote - 1) / tamanioLote;
+        AtomicInteger pendientes = new AtomicInteger(numLotes);
+        List<ForkJoinTask<?>> tareas = new ArrayList<>(numLotes);
+
+        for (int desde = 0; desde < candidatas.size(); desde += tamanioLote) {
+            List<HuellaSocio> lote = candidatas.subList(desde, Math.min(desde + tamanioLote, candidatas.size()));
+            tareas.add(pool.submit(() -> {
+                try {
+                    HuellaSocio encontrada = buscarEnLote(caracteristicas, lote, estado, resultado);
+                    if (encontrada != null) {
+                        resultado.complete(encontrada);
+                    }
+                } catch (Exception e) {
+                    LOGGER.log(Level.SEVERE, "Error al comparar un lote de huellas", e);
+                } finally {
+                    if (pendientes.decrementAndGet() == 0) {
+                        resultado.complete(null);
+                    }
+                }
+            }));
+        }
+
+        try {
+            if (estado.limiteNanos == null) {
+                return resultado.get();
+            }
+            // Los lotes que aún no han empezado no comprueban el límite, así que se espera como mucho hasta él
+            return resultado.get(Math.max(0, estado.limiteNanos - reloj.getAsLong()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            estado.agotada = true;
+            resultado.complete(null);
+            return resultado.getNow(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado.complete(null);
+            return null;
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.SEVERE, "Error en la búsqueda paralela de huellas", e);
+            return null;
+        } finally {
+            tareas.forEach(tarea -> tarea.cancel(false));
+        }
+    }
+
+    /**
+     * Compara secuencialmente la huella con un lote de plantillas.
+     *
+     * @param caracteristicas las características extraídas de la huella capturada.
+     * @param lote            las plantillas a comparar.
+     * @param estado          el estado compartido de la búsqueda.
+     * @param cancelacion     futuro cuya finalización indica que la búsqueda debe abandonarse, o {@code null}.
+     * @return la huella del socio identificado, o {@code null} si no hay coincidencia en el lote.
+     */
+    private HuellaSocio buscarEnLote(C caracteristicas, List<HuellaSocio> lote, EstadoBusqueda estado, CompletableFuture<?> cancelacion) {
+        for (HuellaSocio huella : lote) {
+            if (cancelacion != null && cancelacion.isDone()) {
+                return null;
+            }
+            if (estado.limiteNanos != null && reloj.getAsLong() - estado.limiteNanos >= 0) {
+                estado.agotada = true;
+                return null;
+            }
+            if (huella.getPlantilla() == null) {
+                continue;
+            }
+            estado.probadas.incrementAndGet();
+            P plantilla = CachePlantillas.getInstance().obtener(huella, matcher);
+            if (matcher.verificar(caracteristicas, plantilla)) {
+                return huella;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene el comparador de huellas utilizado por el motor.
+     *
+     * @return el comparador de huellas.
+     */
+    public FingerprintMatcher<C, P> getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Obtiene el número de hilos de verificación.
+     *
+     * @return el número de hilos de verificación.
+     */
+    public int getParalelismo() {
+        return paralelismo;
+    }
+
+    /**
+     * Obtiene el número de plantillas por lote.
+     *
+     * @return el número de plantillas por lote.
+     */
+    public int getTamanioLote() {
+        return tamanioLote;
+    }
+
+    /**
+     * Detiene el pool de verificación. Debe llamarse cuando el motor deja de utilizarse.
+     */
+    public void cerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Estado compartido por los lotes de una misma búsqueda.
+     */
+    private static class EstadoBusqueda {
+        private final AtomicInteger probadas = new AtomicInteger();
+        private final Long limiteNanos;
+        private volatile boolean agotada;
+
+        private EstadoBusqueda(Long limiteNanos) {
+            this.limiteNanos = limiteNanos;
+        }
+    }
+}
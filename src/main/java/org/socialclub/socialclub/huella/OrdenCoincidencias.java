@@ -0,0 +1,243 @@
+package org.socialclub.socialclub.huella;
+
+import org.socialclub.socialclub.database.RegistroEntradaDAO;
+import org.socialclub.socialclub.model.HuellaSocio;
+import org.socialclub.socialclub.model.RegistroEntrada;
+import org.socialclub.socialclub.model.VisitasSocio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Estrategia de orden para el {@link MotorCoincidencias} basada en el historial de {@code registro_entrada}.
+ * Las plantillas se comparan en este orden: primero los socios que están dentro (probablemente fichan la salida),
+ * después los que han venido recientemente (los más recientes y frecuentes antes) y por último el resto.
+ * El orden se mantiene de forma incremental a medida que {@link RegistroEntradaDAO} registra entradas y salidas.
+ * Esta clase utiliza el patrón Singleton.
+ */
+public class OrdenCoincidencias {
+    private static final Logger LOGGER = Logger.getLogger(OrdenCoincidencias.class.getName());
+
+    /**
+     * Número de socios con prioridad que se colocan delante por defecto.
+     */
+    public static final int PRIORITARIAS_DEFECTO = 256;
+
+    /**
+     * Orden de prioridad: primero los que están dentro, después la visita más reciente, después más visitas y,
+     * a igualdad, la posición original para que el resultado sea estable.
+     */
+    private static final Comparator<Candidata> ORDEN_CANDIDATAS = Comparator
+            .comparingInt((Candidata c) -> c.dentro ? 0 : 1)
+            .thenComparing((Candidata c) -> c.visitas.ultimaVisita, Comparator.reverseOrder())
+            .thenComparing((Candidata c) -> c.visitas.total, Comparator.reverseOrder())
+            .thenComparingInt(c -> c.posicion);
+
+    private final Set<String> sociosDentro = ConcurrentHashMap.newKeySet();
+    private final Map<String, Visitas> visitas = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor privado para evitar la instanciación desde fuera de la clase.
+     */
+    private OrdenCoincidencias() {
+    }
+
+    /**
+     * Una clase anidada estática para mantener la única instancia de OrdenCoincidencias.
+     */
+    private static class OrdenCoincidenciasHolder {
+        private static final OrdenCoincidencias INSTANCE = new OrdenCoincidencias();
+    }
+
+    /**
+     * Devuelve la única instancia de OrdenCoincidencias.
+     *
+     * @return la única instancia de OrdenCoincidencias.
+     */
+    public static OrdenCoincidencias getInstance() {
+        return OrdenCoincidenciasHolder.INSTANCE;
+    }
+
+    /**
+     * Carga desde la base de datos los socios que están dentro y el historial de visitas de los últimos días.
+     *
+     * @param diasHistorial el número de días de historial que se tienen en cuenta.
+     */
+    public synchronized void cargar(int diasHistorial) {
+        try {
+            RegistroEntradaDAO registroEntradaDAO = new RegistroEntradaDAO();
+            List<VisitasSocio> historial = registroEntradaDAO.obtenerVisitasDesde(LocalDate.now().minusDays(diasHistorial));
+            List<String> dentro = registroEntradaDAO.obtenerNumerosSociosDentro();
+            visitas.clear();
+            for (VisitasSocio visita : historial) {
+                visitas.put(visita.getNumeroSocio(), new Visitas(visita.getUltimaVisita(), visita.getVisitas()));
+            }
+            sociosDentro.clear();
+            sociosDentro.addAll(dentro);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error al cargar el historial de visitas para ordenar las huellas", e);
+        }
+    }
+
+    /**
+     * Registra la entrada de un socio.
+     *
+     * @param registroEntrada el registro de entrada creado.
+     */
+    public void registrarEntrada(RegistroEntrada registroEntrada) {
+        String numeroSocio = obtenerNumeroSocio(registroEntrada);
+        if (numeroSocio != null) {
+            sociosDentro.add(numeroSocio);
+            LocalDate fecha = registroEntrada.getFecha() != null ? registroEntrada.getFecha() : LocalDate.now();
+            visitas.merge(numeroSocio, new Visitas(fecha, 1), Visitas::acumular);
+        }
+    }
+
+    /**
+     * Registra la salida de un socio.
+     *
+     * @param registroEntrada el registro de entrada con la hora de salida establecida.
+     */
+    public void registrarSalida(RegistroEntrada registroEntrada) {
+        String numeroSocio = obtenerNumeroSocio(registroEntrada);
+        if (numeroSocio != null) {
+            sociosDentro.remove(numeroSocio);
+        }
+    }
+
+    /**
+     * Marca a todos los socios como fuera del club, por ejemplo tras la salida automática de medianoche.
+     */
+    public void vaciarDentro() {
+        sociosDentro.clear();
+    }
+
+    /**
+     * Devuelve las huellas ordenadas según la prioridad de comparación, colocando delante como mucho
+     * {@link #PRIORITARIAS_DEFECTO} socios con prioridad.
+     *
+     * @param huellas las huellas a ordenar.
+     * @return una nueva lista con las huellas ordenadas.
+     * @see #ordenar(List, int)
+     */
+    public List<HuellaSocio> ordenar(List<HuellaSocio> huellas) {
+        return ordenar(huellas, PRIORITARIAS_DEFECTO);
+    }
+
+    /**
+     * Devuelve las huellas con los socios más prioritarios delante: los {@code prioritarias} mejores entre los que
+     * están dentro o tienen historial, en orden de prioridad, seguidos del resto en el orden en que se reciben.
+     * Los mejores se seleccionan con un montículo acotado, de modo que cada escaneo cuesta
+     * O(n log k) en lugar de ordenar todas las plantillas.
+     *
+     * @param huellas      las huellas a ordenar.
+     * @param prioritarias el número máximo de socios que se colocan delante.
+     * @return una nueva lista con las huellas ordenadas.
+     */
+    public List<HuellaSocio> ordenar(List<HuellaSocio> huellas, int prioritarias) {
+        if (prioritarias <= 0) {
+            return new ArrayList<>(huellas);
+        }
+        // La cabeza del montículo es la peor de las seleccionadas, la que se descarta al encontrar una mejor
+        PriorityQueue<Candidata> mejores = new PriorityQueue<>(Math.min(prioritarias, huellas.size()) + 1,
+                ORDEN_CANDIDATAS.reversed());
+        for (int i = 0; i < huellas.size(); i++) {
+            HuellaSocio huella = huellas.get(i);
+            boolean dentro = sociosDentro.contains(huella.getNumeroSocio());
+            Visitas visita = visitaDe(huella);
+            if (!dentro && visita == Visitas.NINGUNA) {
+                continue;
+            }
+            Candidata candidata = new Candidata(huella, i, dentro, visita);
+            if (mejores.size() < prioritarias) {
+                mejores.add(candidata);
+            } else if (ORDEN_CANDIDATAS.compare(candidata, mejores.peek()) < 0) {
+                mejores.poll();
+                mejores.add(candidata);
+            }
+        }
+
+        List<Candidata> seleccionadas = new ArrayList<>(mejores);
+        seleccionadas.sort(ORDEN_CANDIDATAS);
+        boolean[] colocadas = new boolean[huellas.size()];
+        List<HuellaSocio> ordenadas = new ArrayList<>(huellas.size());
+        for (Candidata candidata : seleccionadas) {
+            ordenadas.add(candidata.huella);
+            colocadas[candidata.posicion] = true;
+        }
+        for (int i = 0; i < huellas.size(); i++) {
+            if (!colocadas[i]) {
+                ordenadas.add(huellas.get(i));
+            }
+        }
+        return ordenadas;
+    }
+
+    /**
+     * Obtiene el historial de visitas de una huella, o un historial vacío si el socio no tiene visitas.
+     *
+     * @param huella la huella del socio.
+     * @return el historial de visitas del socio.
+     */
+    private Visitas visitaDe(HuellaSocio huella) {
+        return visitas.getOrDefault(huella.getNumeroSocio(), Visitas.NINGUNA);
+    }
+
+    /**
+     * Obtiene el número de socio de un registro de entrada.
+     *
+     * @param registroEntrada el registro de entrada.
+     * @return el número de socio, o {@code null} si el registro no tiene socio.
+     */
+    private String obtenerNumeroSocio(RegistroEntrada registroEntrada) {
+        if (registroEntrada == null || registroEntrada.getNumeroSocio() == null) {
+            return null;
+        }
+        return registroEntrada.getNumeroSocio().getNumeroSocio();
+    }
+
+    /**
+     * Huella candidata a colocarse delante, con su posición original y los datos de prioridad ya resueltos.
+     */
+    private static class Candidata {
+        private final HuellaSocio huella;
+        private final int posicion;
+        private final boolean dentro;
+        private final Visitas visitas;
+
+        private Candidata(HuellaSocio huella, int posicion, boolean dentro, Visitas visitas) {
+            this.huella = huella;
+            this.posicion = posicion;
+            this.dentro = dentro;
+            this.visitas = visitas;
+        }
+    }
+
+    /**
+     * Última visita y número total de visitas de un socio.
+     */
+    private static class Visitas {
+        private static final Visitas NINGUNA = new Visitas(LocalDate.MIN, 0);
+
+        private final LocalDate ultimaVisita;
+        private final long total;
+
+        private Visitas(LocalDate ultimaVisita, long total) {
+            this.ultimaVisita = ultimaVisita;
+            this.total = total;
+        }
+
+        private static Visitas acumular(Visitas anterior, Visitas nueva) {
+            LocalDate ultima = anterior.ultimaVisita.isAfter(nueva.ultimaVisita) ? anterior.ultimaVisita : nueva.ultimaVisita;
+            return new Visitas(ultima, anterior.total + nueva.total);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.socialclub.socialclub.huella;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lectura continua de huellas organizada como una cadena de etapas (captura, extracción, coincidencia y registro),
+ * cada una en su propio hilo virtual y conectadas por colas acotadas.
+ * Mientras una etapa lenta (por ejemplo, la escritura en base de datos) procesa un escaneo, el lector sigue capturando;
+ * si las colas se llenan, la etapa anterior se bloquea hasta que haya hueco, de modo que la memoria no crece sin límite.
+ * Cada etapa mide su tiempo de proceso, y cada escaneo su tiempo total desde la captura.
+ *
+ * @param <M> el tipo de la muestra capturada por el lector.
+ * @param <C> el tipo de las características extraídas de la muestra.
+ */
+public class PipelineHuellas<M, C> {
+    private static final Logger LOGGER = Logger.getLogger(PipelineHuellas.class.getName());
+
+    /**
+     * Capacidad por defecto de cada cola entre etapas.
+     */
+    public static final int CAPACIDAD_DEFECTO = 4;
+
+    /**
+     * Etapas del procesamiento de un escaneo. {@link #ESCANEO} mide el tiempo total desde la captura hasta el registro.
+     */
+    public enum Etapa {
+        CAPTURA, EXTRACCION, COINCIDENCIA, REGISTRO, ESCANEO
+    }
+
+    /**
+     * Origen de las muestras: bloquea hasta que el lector entrega una muestra.
+     *
+     * @param <M> el tipo de la muestra.
+     */
+    @FunctionalInterface
+    public interface Captura<M> {
+        /**
+         * Espera a que se capture una muestra.
+         *
+         * @return la muestra capturada, o {@code null} si no se pudo capturar.
+         * @throws InterruptedException si el hilo se interrumpe mientras espera.
+         */
+        M capturar() throws InterruptedException;
+    }
+
+    private final Captura<M> captura;
+    private final Function<M, C> extraccion;
+    private final Function<C, ResultadoCoincidencia> coincidencia;
+    private final Consumer<ResultadoCoincidencia> registro;
+    private final BlockingQueue<Escaneo<M>> muestras;
+    private final BlockingQueue<Escaneo<C>> caracteristicas;
+    private final BlockingQueue<Escaneo<ResultadoCoincidencia>> coincidencias;
+    private final Map<Etapa, TiempoEtapa> tiempos = new EnumMap<>(Etapa.class);
+    private final List<Thread> hilos = new ArrayList<>();
+    private volatile boolean activo = false;
+    private volatile int generacion = 0;
+
+    /**
+     * Crea una cadena de lectura continua.
+     * Las funciones de extracción y coincidencia pueden devolver {@code null} para descartar el escaneo.
+     *
+     * @param captura      el origen de las muestras.
+     * @param extraccion   la extracción de características de una muestra.
+     * @param coincidencia la búsqueda del socio al que pertenecen las características.
+     * @param registro     el registro de la entrada o salida a partir del resultado de la búsqueda.
+     * @param capacidad    la capacidad de cada cola entre etapas.
+     */
+    public PipelineHuellas(Captura<M> captura, Function<M, C> extraccion, Function<C, ResultadoCoincidencia> coincidencia,
+                           Consumer<ResultadoCoincidencia> registro, int capacidad) {
+        int capacidadColas = capacidad > 0 ? capacidad : CAPACIDAD_DEFECTO;
+        this.captura = captura;
+        this.extraccion = extraccion;
+        this.coincidencia = coincidencia;
+        this.registro = registro;
+        this.muestras = new ArrayBlockingQueue<>(capacidadColas);
+        this.caracteristicas = new ArrayBlockingQueue<>(capacidadColas);
+        this.coincidencias = new ArrayBlockingQueue<>(capacidadColas);
+        for (Etapa etapa : Etapa.values()) {
+            tiempos.put(etapa, new TiempoEtapa());
+        }
+    }
+
+    /**
+     * Arranca los hilos de todas las etapas. Si ya está en marcha no hace nada.
+     */
+    public synchronized void iniciar() {
+        if (activo) {
+            return;
+        }
+        activo = true;
+        // Los hilos de una ejecución anterior que sigan terminando su escaneo no deben seguir tomando elementos
+        int actual = ++generacion;
+        hilos.add(Thread.ofVirtual().name("huella-captura").start(() -> capturar(actual)));
+        hilos.add(Thread.ofVirtual().name("huella-extraccion").start(() -> procesar(actual, Etapa.EXTRACCION, muestras, extraccion, caracteristicas)));
+        hilos.add(Thread.ofVirtual().name("huella-coincidencia").start(() -> procesar(actual, Etapa.COINCIDENCIA, caracteristicas, coincidencia, coincidencias)));
+        hilos.add(Thread.ofVirtual().name("huella-registro").start(() -> procesar(actual, Etapa.REGISTRO, coincidencias, resultado -> {
+            registro.accept(resultado);
+            return null;
+        }, null)));
+        LOGGER.info("Lectura continua de huellas iniciada");
+    }
+
+    /**
+     * Detiene todas las etapas y descarta los escaneos pendientes.
+     */
+    public synchronized void detener() {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        hilos.forEach(Thread::interrupt);
+        hilos.clear();
+        muestras.clear();
+        caracteristicas.clear();
+        coincidencias.clear();
+        LOGGER.info("Lectura continua de huellas detenida");
+    }
+
+    /**
+     * Indica si la cadena está en marcha.
+     *
+     * @return {@code true} si está en marcha, {@code false} en caso contrario.
+     */
+    public boolean isActivo() {
+        return activo;
+    }
+
+    /**
+     * Devuelve el número de escaneos procesados por una etapa.
+     *
+     * @param etapa la etapa.
+     * @return el número de escaneos procesados.
+     */
+    public long getProcesados(Etapa etapa) {
+        return tiempos.get(etapa).procesados.sum();
+    }
+
+    /**
+     * Devuelve el tiempo medio de proceso de una etapa, en milisegundos.
+     * Para {@link Etapa#CAPTURA} es el tiempo que el lector ha esperado a que hubiera hueco en la cola.
+     *
+     * @param etapa la etapa.
+     * @return el tiempo medio en milisegundos, o 0 si aún no ha procesado ningún escaneo.
+     */
+    public double getTiempoMedioMillis(Etapa etapa) {
+        TiempoEtapa tiempo = tiempos.get(etapa);
+        long procesados = tiempo.procesados.sum();
+        return procesados == 0 ? 0 : tiempo.totalNanos.sum() / (procesados * 1_000_000.0);
+    }
+
+    /**
+     * Devuelve el tiempo máximo de proceso de una etapa, en milisegundos.
+     *
+     * @param etapa la etapa.
+     * @return el tiempo máximo en milisegundos.
+     */
+    public double getTiempoMaximoMillis(Etapa etapa) {
+        return tiempos.get(etapa).maximoNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Bucle de la etapa de captura: entrega cada muestra a la cola de extracción,
+     * esperando si la cola está llena.
+     *
+     * @param ejecucion la generación de la ejecución a la que pertenece el hilo.
+     */
+    private void capturar(int ejecucion) {
+        while (vigente(ejecucion)) {
+            try {
+                M muestra = captura.capturar();
+                if (muestra == null) {
+                    continue;
+                }
+                Escaneo<M> escaneo = new Escaneo<>(muestra, System.nanoTime());
+                long inicio = System.nanoTime();
+                muestras.put(escaneo);
+                // El escaneo ya pertenece a la etapa siguiente, así que la espera solo se acumula en las estadísticas
+                registrarTiempo(Etapa.CAPTURA, inicio);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error en la captura de huella", e);
+            }
+        }
+    }
+
+    /**
+     * Bucle de una etapa de proceso: toma escaneos de la cola de entrada, los procesa
+     * y entrega el resultado a la cola de salida.
+     *
+     * @param ejecucion la generación de la ejecución a la que pertenece el hilo.
+     * @param etapa     la etapa.
+     * @param entrada   la cola de entrada.
+     * @param funcion   el proceso de la etapa; si devuelve {@code null} el escaneo se descarta.
+     * @param salida    la cola de salida, o {@code null} si es la última etapa.
+     * @param <E>       el tipo de entrada de la etapa.
+     * @param <S>       el tipo de salida de la etapa.
+     */
+    private <E, S> void procesar(int ejecucion, Etapa etapa, BlockingQueue<Escaneo<E>> entrada, Function<E, S> funcion, BlockingQueue<Escaneo<S>> salida) {
+        while (vigente(ejecucion)) {
+            try {
+                Escaneo<E> escaneo = entrada.take();
+                long inicio = System.nanoTime();
+                S resultado = funcion.apply(escaneo.valor);
+                escaneo.duraciones.put(etapa, registrarTiempo(etapa, inicio));
+                if (resultado != null && salida != null) {
+                    salida.put(escaneo.con(resultado));
+                } else if (salida == null) {
+                    finalizar(escaneo);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, String.format("Error en la etapa %s de la lectura de huellas", etapa), e);
+            }
+        }
+    }
+
+    /**
+     * Indica si un hilo de la ejecución indicada debe seguir procesando.
+     *
+     * @param ejecucion la generación de la ejecución a la que pertenece el hilo.
+     * @return {@code true} si la cadena está en marcha y no se ha reiniciado desde entonces.
+     */
+    private boolean vigente(int ejecucion) {
+        return activo && generacion == ejecucion;
+    }
+
+    /**
+     * Registra el tiempo total de un escaneo que ha completado todas las etapas.
+     *
+     * @param escaneo el escaneo completado.
+     */
+    private void finalizar(Escaneo<?> escaneo) {
+        long total = registrarTiempo(Etapa.ESCANEO, escaneo.inicioNanos);
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info(String.format("Escaneo procesado en %.2f ms (extracción %.2f ms, coincidencia %.2f ms, registro %.2f ms)",
+                    total / 1_000_000.0, escaneo.millis(Etapa.EXTRACCION), escaneo.millis(Etapa.COINCIDENCIA), escaneo.millis(Etapa.REGISTRO)));
+        }
+    }
+
+    /**
+     * Acumula el tiempo transcurrido desde el inicio indicado en las estadísticas de una etapa.
+     *
+     * @param etapa       la etapa.
+     * @param inicioNanos el instante de inicio, según {@link System#nanoTime()}.
+     * @return el tiempo transcurrido en nanosegundos.
+     */
+    private long registrarTiempo(Etapa etapa, long inicioNanos) {
+        long duracion = System.nanoTime() - inicioNanos;
+        TiempoEtapa tiempo = tiempos.get(etapa);
+        tiempo.procesados.increment();
+        tiempo.totalNanos.add(duracion);
+        tiempo.maximoNanos.accumulateAndGet(duracion, Math::max);
+        return duracion;
+    }
+
+    /**
+     * Un escaneo en tránsito entre etapas, con el valor producido por la última etapa
+     * y los tiempos de cada etapa por la que ha pasado.
+     *
+     * @param <T> el tipo del valor.
+     */
+    private static class Escaneo<T> {
+        private final T valor;
+        private final long inicioNanos;
+        private final Map<Etapa, Long> duraciones;
+
+        private Escaneo(T valor, long inicioNanos) {
+            this(valor, inicioNanos, new EnumMap<>(Etapa.class));
+        }
+
+        private Escaneo(T valor, long inicioNanos, Map<Etapa, Long> duraciones) {
+            this.valor = valor;
+            this.inicioNanos = inicioNanos;
+            this.duraciones = duraciones;
+        }
+
+        private <S> Escaneo<S> con(S nuevoValor) {
+            return new Escaneo<>(nuevoValor, inicioNanos, duraciones);
+        }
+
+        private double millis(Etapa etapa) {
+            return duraciones.getOrDefault(etapa, 0L) / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Estadísticas acumuladas de una etapa.
+     */
+    private static class TiempoEtapa {
+        private final LongAdder procesados = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maximoNanos = new AtomicLong();
+    }
+}
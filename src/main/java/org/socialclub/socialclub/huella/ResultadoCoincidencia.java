@@ -0,0 +1,95 @@
+package org.socialclub.socialclub.huella;
+
+import org.socialclub.socialclub.model.HuellaSocio;
+
+/**
+ * Resultado de una búsqueda de huella en el {@link MotorCoincidencias}.
+ * Contiene el socio identificado (si lo hay), el tiempo empleado, el número de plantillas comparadas
+ * y si la búsqueda llegó a terminar antes del tiempo límite.
+ */
+public class ResultadoCoincidencia {
+    private final HuellaSocio huella;
+    private final long tiempoNanos;
+    private final int candidatasProbadas;
+    private final boolean completa;
+
+    /**
+     * Crea un nuevo resultado de búsqueda completa.
+     *
+     * @param huella             la huella del socio identificado, o {@code null} si no hubo coincidencia.
+     * @param tiempoNanos        el tiempo empleado en la búsqueda, en nanosegundos.
+     * @param candidatasProbadas el número de plantillas comparadas.
+     */
+    public ResultadoCoincidencia(HuellaSocio huella, long tiempoNanos, int candidatasProbadas) {
+        this(huella, tiempoNanos, candidatasProbadas, true);
+    }
+
+    /**
+     * Crea un nuevo resultado de búsqueda.
+     *
+     * @param huella             la huella del socio identificado, o {@code null} si no hubo coincidencia.
+     * @param tiempoNanos        el tiempo empleado en la búsqueda, en nanosegundos.
+     * @param candidatasProbadas el número de plantillas comparadas.
+     * @param completa           {@code false} si la búsqueda se abandonó por superar el tiempo límite sin coincidencia.
+     */
+    public ResultadoCoincidencia(HuellaSocio huella, long tiempoNanos, int candidatasProbadas, boolean completa) {
+        this.huella = huella;
+        this.tiempoNanos = tiempoNanos;
+        this.candidatasProbadas = candidatasProbadas;
+        this.completa = completa;
+    }
+
+    /**
+     * Indica si la búsqueda identificó a un socio.
+     *
+     * @return {@code true} si hubo coincidencia, {@code false} en caso contrario.
+     */
+    public boolean isEncontrada() {
+        return huella != null;
+    }
+
+    /**
+     * Obtiene la huella del socio identificado.
+     *
+     * @return la huella del socio identificado, o {@code null} si no hubo coincidencia.
+     */
+    public HuellaSocio getHuella() {
+        return huella;
+    }
+
+    /**
+     * Obtiene el tiempo empleado en la búsqueda, en nanosegundos.
+     *
+     * @return el tiempo empleado en nanosegundos.
+     */
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    /**
+     * Obtiene el tiempo empleado en la búsqueda, en milisegundos.
+     *
+     * @return el tiempo empleado en milisegundos.
+     */
+    public double getTiempoMillis() {
+        return tiempoNanos / 1_000_000.0;
+    }
+
+    /**
+     * Obtiene el número de plantillas comparadas durante la búsqueda.
+     *
+     * @return el número de plantillas comparadas.
+     */
+    public int getCandidatasProbadas() {
+        return candidatasProbadas;
+    }
+
+    /**
+     * Indica si la búsqueda terminó: encontró al socio o comparó todas las plantillas antes del tiempo límite.
+     *
+     * @return {@code true} si la búsqueda es completa, {@code false} si se abandonó por tiempo.
+     */
+    public boolean isCompleta() {
+        return completa;
+    }
+}
@@ -0,0 +1,98 @@
+package org.socialclub.socialclub.huella;
+
+/**
+ * Implementación determinista de {@link FingerprintMatcher} que no necesita lector ni SDK.
+ * Trabaja sobre las plantillas sintéticas de {@link SyntheticTemplateGenerator}: dos huellas coinciden
+ * cuando la distancia de Hamming entre sus bits no supera un umbral.
+ * Se utiliza para pruebas de carga y benchmarks del motor de coincidencias.
+ */
+public class SyntheticMatcher implements FingerprintMatcher<long[], long[]> {
+
+    /**
+     * Umbral por defecto: un 10 % de los bits de una plantilla sintética.
+     */
+    public static final int UMBRAL_BITS_DEFECTO = SyntheticTemplateGenerator.TAMANIO_PLANTILLA * 8 / 10;
+
+    private final int umbralBits;
+    private final int rondas;
+
+    /**
+     * Crea un comparador sintético con el umbral por defecto y una sola comparación por plantilla.
+     */
+    public SyntheticMatcher() {
+        this(UMBRAL_BITS_DEFECTO, 1);
+    }
+
+    /**
+     * Crea un comparador sintético.
+     *
+     * @param umbralBits el número máximo de bits distintos para considerar que dos huellas coinciden.
+     * @param rondas     el número de veces que se repite cada comparación, para simular el coste del algoritmo real.
+     */
+    public SyntheticMatcher(int umbralBits, int rondas) {
+        this.umbralBits = umbralBits;
+        this.rondas = Math.max(1, rondas);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long[] prepararPlantilla(byte[] plantilla) {
+        return empaquetar(plantilla);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean verificar(long[] caracteristicas, long[] plantilla) {
+        if (caracteristicas.length != plantilla.length) {
+            return false;
+        }
+        long distancia = 0;
+        for (int ronda = 0; ronda < rondas; ronda++) {
+            distancia += distancia(caracteristicas, plantilla);
+        }
+        return distancia <= (long) umbralBits * rondas;
+    }
+
+    /**
+     * Obtiene las características de una muestra sintética, listas para {@link #verificar(long[], long[])}.
+     *
+     * @param muestra la muestra sintética.
+     * @return las características de la muestra.
+     */
+    public long[] extraerCaracteristicas(byte[] muestra) {
+        return empaquetar(muestra);
+    }
+
+    /**
+     * Calcula la distancia de Hamming entre dos vectores de bits.
+     *
+     * @param a el primer vector.
+     * @param b el segundo vector.
+     * @return el número de bits distintos.
+     */
+    private static int distancia(long[] a, long[] b) {
+        int distancia = 0;
+        for (int i = 0; i < a.length; i++) {
+            distancia += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distancia;
+    }
+
+    /**
+     * Empaqueta un array de bytes en un array de longs para comparar 64 bits a la vez.
+     *
+     * @param bytes los bytes a empaquetar.
+     * @return los bytes empaquetados.
+     */
+    private static long[] empaquetar(byte[] bytes) {
+        long[] palabras = new long[(bytes.length + 7) / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            palabras[i >> 3] |= (bytes[i] & 0xFFL) << ((i & 7) * 8);
+        }
+        return palabras;
+    }
+}
@@ -0,0 +1,110 @@
+package org.socialclub.socialclub.huella;
+
+import org.socialclub.socialclub.model.HuellaSocio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generador determinista de plantillas y muestras de huella sintéticas para {@link SyntheticMatcher}.
+ * Con la misma semilla genera siempre los mismos socios, lo que permite medir la latencia de identificación
+ * con miles de socios en cualquier máquina y comparar resultados entre ejecuciones.
+ */
+public class SyntheticTemplateGenerator {
+
+    /**
+     * Tamaño en bytes de cada plantilla sintética.
+     */
+    public static final int TAMANIO_PLANTILLA = 256;
+
+    /**
+     * Número de bits que se alteran en una muestra respecto a su plantilla, para simular el ruido del lector.
+     */
+    private static final int BITS_RUIDO = 32;
+
+    private final long semilla;
+
+    /**
+     * Crea un generador con la semilla indicada.
+     *
+     * @param semilla la semilla de generación.
+     */
+    public SyntheticTemplateGenerator(long semilla) {
+        this.semilla = semilla;
+    }
+
+    /**
+     * Genera la plantilla sintética del socio con el índice dado.
+     *
+     * @param indice el índice del socio.
+     * @return la plantilla serializada.
+     */
+    public byte[] plantilla(int indice) {
+        byte[] plantilla = new byte[TAMANIO_PLANTILLA];
+        SplittableRandom random = new SplittableRandom(semilla ^ (indice * 0x9E3779B97F4A7C15L));
+        for (int i = 0; i < plantilla.length; i++) {
+            plantilla[i] = (byte) random.nextInt(256);
+        }
+        return plantilla;
+    }
+
+    /**
+     * Genera una muestra del socio con el índice dado: su plantilla con algunos bits alterados.
+     *
+     * @param indice el índice del socio.
+     * @return la muestra sintética.
+     */
+    public byte[] muestra(int indice) {
+        byte[] muestra = plantilla(indice);
+        SplittableRandom random = new SplittableRandom(~semilla + indice);
+        for (int i = 0; i < BITS_RUIDO; i++) {
+            int bit = random.nextInt(muestra.length * 8);
+            muestra[bit >> 3] ^= (byte) (1 << (bit & 7));
+        }
+        return muestra;
+    }
+
+    /**
+     * Genera una muestra que no pertenece a ningún socio generado.
+     *
+     * @return la muestra sintética desconocida.
+     */
+    public byte[] muestraDesconocida() {
+        return new SyntheticTemplateGenerator(~semilla).plantilla(-1);
+    }
+
+    /**
+     * Obtiene el número de socio sintético correspondiente a un índice.
+     *
+     * @param indice el índice del socio.
+     * @return el número de socio.
+     */
+    public String numeroSocio(int indice) {
+        return String.format("SINT-%06d", indice);
+    }
+
+    /**
+     * Genera una lista de socios sintéticos con sus plantillas.
+     *
+     * @param cantidad el número de socios a generar.
+     * @return la lista de huellas de los socios generados.
+     */
+    public List<HuellaSocio> generarSocios(int cantidad) {
+        List<HuellaSocio> socios = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            socios.add(new HuellaSocio(numeroSocio(i), i + 1, "Socio", "Sintético " + i, plantilla(i)));
+        }
+        return socios;
+    }
+
+    /**
+     * Sustituye el contenido del índice de huellas por socios sintéticos.
+     *
+     * @param indice   el índice a sembrar.
+     * @param cantidad el número de socios a generar.
+     */
+    public void sembrar(IndiceHuellas indice, int cantidad) {
+        indice.cargar(generarSocios(cantidad));
+    }
+}
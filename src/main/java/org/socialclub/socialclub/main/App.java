@@ -8,6 +8,7 @@ import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import org.socialclub.socialclub.util.ConfigLoader;
+import org.socialclub.socialclub.util.MigradorEsquema;
 
 import java.io.IOException;
 
@@ -26,6 +27,10 @@ public class App extends Application {
      * @param args Argumentos de la línea de comandos.
      */
     public static void main(String[] args) {
+        // Aplicar las migraciones pendientes del esquema sin retrasar la ventana de inicio de sesión
+        Thread migraciones = new Thread(MigradorEsquema::migrarAlArrancar, "migraciones-esquema");
+        migraciones.setDaemon(true);
+        migraciones.start();
         // Iniciar la aplicación JavaFX
         launch(args);
 
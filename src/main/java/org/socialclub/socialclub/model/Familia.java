@@ -1,6 +1,8 @@
 package org.socialclub.socialclub.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -13,6 +15,8 @@ import java.util.Set;
      */
     @SuppressWarnings("ALL")
     @Entity
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "familia")
     @Table(name = "familia", schema = "clubsocial")
     public class Familia {
         /**
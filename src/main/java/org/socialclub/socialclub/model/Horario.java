@@ -2,6 +2,8 @@ package org.socialclub.socialclub.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -13,6 +15,8 @@ import java.time.LocalTime;
  */
 @SuppressWarnings("ALL")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "horario")
 @Table(name = "horarios", schema = "clubsocial", indexes = {
         @Index(name = "id_instalacion", columnList = "id_instalacion")
 })
@@ -0,0 +1,76 @@
+package org.socialclub.socialclub.model;
+
+/**
+ * Representa la plantilla de huella de un socio junto con los datos mínimos necesarios
+ * para identificarlo en el control de acceso.
+ * No es una entidad: se obtiene mediante una proyección sobre {@link Socio} y se mantiene en memoria.
+ */
+public class HuellaSocio {
+    private final String numeroSocio;
+    private final Integer idSocio;
+    private final String nombre;
+    private final String apellidos;
+    private final byte[] plantilla;
+
+    /**
+     * Crea una nueva huella de socio.
+     *
+     * @param numeroSocio el número de socio.
+     * @param idSocio     el identificador del socio.
+     * @param nombre      el nombre del socio.
+     * @param apellidos   los apellidos del socio.
+     * @param plantilla   la plantilla de huella serializada.
+     */
+    public HuellaSocio(String numeroSocio, Integer idSocio, String nombre, String apellidos, byte[] plantilla) {
+        this.numeroSocio = numeroSocio;
+        this.idSocio = idSocio;
+        this.nombre = nombre;
+        this.apellidos = apellidos;
+        this.plantilla = plantilla;
+    }
+
+    /**
+     * Obtiene el número de socio.
+     *
+     * @return el número de socio.
+     */
+    public String getNumeroSocio() {
+        return numeroSocio;
+    }
+
+    /**
+     * Obtiene el identificador del socio.
+     *
+     * @return el identificador del socio.
+     */
+    public Integer getIdSocio() {
+        return idSocio;
+    }
+
+    /**
+     * Obtiene el nombre del socio.
+     *
+     * @return el nombre del socio.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene los apellidos del socio.
+     *
+     * @return los apellidos del socio.
+     */
+    public String getApellidos() {
+        return apellidos;
+    }
+
+    /**
+     * Obtiene la plantilla de huella serializada.
+     *
+     * @return la plantilla de huella serializada.
+     */
+    public byte[] getPlantilla() {
+        return plantilla;
+    }
+}
@@ -1,6 +1,8 @@
 package org.socialclub.socialclub.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -12,6 +14,8 @@ import java.time.LocalTime;
  */
 @SuppressWarnings("ALL")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "instalacion")
 @Table(name = "instalacion", schema = "clubsocial")
 public class Instalacion {
     /**
@@ -0,0 +1,86 @@
+package org.socialclub.socialclub.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de la ocupación del club en un instante: socios dentro, fuera y en total, y los identificadores
+ * del último registro de entrada y de salida.
+ * No es una entidad: se obtiene con una única consulta de proyección sobre {@link Socio} y {@link RegistroEntrada},
+ * de modo que todos los valores son coherentes entre sí.
+ */
+public class OcupacionSnapshot {
+    private final int totalSocios;
+    private final int sociosDentro;
+    private final Integer idUltimaEntrada;
+    private final Integer idUltimaSalida;
+    private final LocalDateTime momento = LocalDateTime.now();
+
+    /**
+     * Crea un nuevo estado de ocupación.
+     *
+     * @param totalSocios     el número total de socios.
+     * @param sociosDentro    el número de socios con un registro de entrada sin hora de salida.
+     * @param idUltimaEntrada el identificador del registro de entrada más reciente, o {@code null} si no hay ninguno.
+     * @param idUltimaSalida  el identificador del registro con la salida más reciente, o {@code null} si no hay ninguno.
+     */
+    public OcupacionSnapshot(Long totalSocios, Long sociosDentro, Integer idUltimaEntrada, Integer idUltimaSalida) {
+        this.totalSocios = totalSocios == null ? 0 : totalSocios.intValue();
+        this.sociosDentro = sociosDentro == null ? 0 : sociosDentro.intValue();
+        this.idUltimaEntrada = idUltimaEntrada;
+        this.idUltimaSalida = idUltimaSalida;
+    }
+
+    /**
+     * Obtiene el número total de socios.
+     *
+     * @return el número total de socios.
+     */
+    public int getTotalSocios() {
+        return totalSocios;
+    }
+
+    /**
+     * Obtiene el número de socios que están dentro del club.
+     *
+     * @return el número de socios dentro.
+     */
+    public int getSociosDentro() {
+        return sociosDentro;
+    }
+
+    /**
+     * Obtiene el número de socios que están fuera del club.
+     *
+     * @return el número de socios fuera.
+     */
+    public int getSociosFuera() {
+        return totalSocios - sociosDentro;
+    }
+
+    /**
+     * Obtiene el identificador del registro de entrada más reciente.
+     *
+     * @return el identificador, o {@code null} si no hay ningún registro.
+     */
+    public Integer getIdUltimaEntrada() {
+        return idUltimaEntrada;
+    }
+
+    /**
+     * Obtiene el identificador del registro con la salida más reciente.
+     *
+     * @return el identificador, o {@code null} si no hay ninguna salida registrada.
+     */
+    public Integer getIdUltimaSalida() {
+        return idUltimaSalida;
+    }
+
+    /**
+     * Obtiene el momento en que se consultó la ocupación.
+     *
+     * @return la fecha y hora de la consulta.
+     */
+    public LocalDateTime getMomento() {
+        return momento;
+    }
+}
@@ -0,0 +1,79 @@
+package org.socialclub.socialclub.model;
+
+import java.time.LocalDate;
+
+/**
+ * Rangos de edad en los que se agrupan los socios.
+ * Cada rango se traduce a un intervalo de fechas de nacimiento, de modo que las consultas filtran con
+ * {@code fechaNacimiento between :desde and :hasta} y pueden usar el índice de la columna en lugar de
+ * calcular la edad de cada fila.
+ */
+public enum RangoEdad {
+    BEBE("bebe", 0, 3),
+    NINO("niño", 3, 12),
+    ADOLESCENTE("adolescente", 12, 18),
+    ADULTO("adulto", 18, 65),
+    ABUELO("abuelo", 65, null);
+
+    /**
+     * Fecha mínima que admite una columna DATE de MySQL; es el límite inferior del rango sin edad máxima.
+     */
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1000, 1, 1);
+
+    private final String codigo;
+    private final int edadMinima;
+    private final Integer edadMaxima;
+
+    RangoEdad(String codigo, int edadMinima, Integer edadMaxima) {
+        this.codigo = codigo;
+        this.edadMinima = edadMinima;
+        this.edadMaxima = edadMaxima;
+    }
+
+    /**
+     * Obtiene el rango de edad a partir de su código ("bebe", "niño", "adolescente", "adulto" o "abuelo").
+     *
+     * @param codigo el código del rango.
+     * @return el rango de edad.
+     * @throws IllegalArgumentException si el código no corresponde a ningún rango.
+     */
+    public static RangoEdad desdeCodigo(String codigo) {
+        for (RangoEdad rango : values()) {
+            if (rango.codigo.equals(codigo)) {
+                return rango;
+            }
+        }
+        throw new IllegalArgumentException("Rango de edad no válido: " + codigo);
+    }
+
+    /**
+     * Obtiene el código del rango, que es el que usan las vistas.
+     *
+     * @return el código del rango.
+     */
+    public String getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Obtiene la primera fecha de nacimiento (inclusive) de los socios del rango en la fecha indicada:
+     * el día siguiente a aquel en que se cumple la edad máxima.
+     *
+     * @param hoy la fecha en la que se calcula la edad.
+     * @return la fecha de nacimiento más antigua del rango.
+     */
+    public LocalDate desde(LocalDate hoy) {
+        return edadMaxima == null ? FECHA_MINIMA : hoy.minusYears(edadMaxima).plusDays(1);
+    }
+
+    /**
+     * Obtiene la última fecha de nacimiento (inclusive) de los socios del rango en la fecha indicada:
+     * el día en que se cumple la edad mínima.
+     *
+     * @param hoy la fecha en la que se calcula la edad.
+     * @return la fecha de nacimiento más reciente del rango.
+     */
+    public LocalDate hasta(LocalDate hoy) {
+        return hoy.minusYears(edadMinima);
+    }
+}
@@ -13,7 +13,16 @@ import java.time.LocalTime;
 @SuppressWarnings("ALL")
 @Entity
 @Table(name = "registro_entrada", schema = "clubsocial")
+@NamedEntityGraph(name = RegistroEntrada.GRAFO_SOCIO,
+        attributeNodes = @NamedAttributeNode(value = "numeroSocio", subgraph = "socio"),
+        subgraphs = @NamedSubgraph(name = "socio", attributeNodes = @NamedAttributeNode("numFamilia")))
 public class RegistroEntrada {
+    /**
+     * Grafo que carga el registro junto con su socio y la familia del socio en la misma consulta,
+     * para los listados que muestran los datos del socio de cada registro.
+     */
+    public static final String GRAFO_SOCIO = "RegistroEntrada.socio";
+
     /**
      * Identificador único del registro de entrada.
      */
@@ -12,8 +12,26 @@ import java.time.LocalTime;
  */
 @SuppressWarnings("ALL")
 @Entity
-@Table(name = "reserva", schema = "clubsocial")
+@Table(name = "reserva", schema = "clubsocial", uniqueConstraints = @UniqueConstraint(
+        name = Reserva.RESTRICCION_HORA_UNICA, columnNames = {"id_instalacion", "fecha", "hora"}))
+@NamedEntityGraph(name = Reserva.GRAFO_LISTADO,
+        attributeNodes = {
+                @NamedAttributeNode("idInstalacion"),
+                @NamedAttributeNode(value = "numeroSocio", subgraph = "socio")
+        },
+        subgraphs = @NamedSubgraph(name = "socio", attributeNodes = @NamedAttributeNode("numFamilia")))
 public class Reserva {
+    /**
+     * Grafo que carga la reserva junto con su instalación, su socio y la familia del socio en la misma consulta,
+     * para los listados que muestran el nombre de la instalación y del socio de cada reserva.
+     */
+    public static final String GRAFO_LISTADO = "Reserva.listado";
+
+    /**
+     * Restricción de unicidad que impide reservar dos veces la misma instalación a la misma fecha y hora.
+     */
+    public static final String RESTRICCION_HORA_UNICA = "uk_reserva_instalacion_fecha_hora";
+
     /**
      * Identificador único de la reserva.
      */
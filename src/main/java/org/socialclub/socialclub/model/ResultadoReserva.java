@@ -0,0 +1,73 @@
+package org.socialclub.socialclub.model;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Resultado de un intento de reserva: si se ha confirmado, si otro puesto había reservado ya la hora o si se ha
+ * producido un error, junto con las horas reservadas de la instalación en esa fecha después del intento.
+ * No es una entidad: la devuelve {@link org.socialclub.socialclub.database.ReservaDAO#reservar} para que la vista
+ * se actualice sin volver a consultar la disponibilidad.
+ */
+public class ResultadoReserva {
+
+    /**
+     * Estados posibles de un intento de reserva.
+     */
+    public enum Estado {
+        /**
+         * La reserva se ha guardado.
+         */
+        CONFIRMADA,
+        /**
+         * La hora ya estaba reservada y no se ha guardado nada.
+         */
+        OCUPADA,
+        /**
+         * La reserva no se ha guardado por un error distinto de una hora ya reservada.
+         */
+        ERROR
+    }
+
+    private final Estado estado;
+    private final List<LocalTime> horasReservadas;
+
+    /**
+     * Crea un nuevo resultado de reserva.
+     *
+     * @param estado          el estado del intento de reserva.
+     * @param horasReservadas las horas reservadas de la instalación en la fecha de la reserva, o {@code null} si no
+     *                        se han podido obtener.
+     */
+    public ResultadoReserva(Estado estado, List<LocalTime> horasReservadas) {
+        this.estado = estado;
+        this.horasReservadas = horasReservadas == null ? List.of() : List.copyOf(horasReservadas);
+    }
+
+    /**
+     * Obtiene el estado del intento de reserva.
+     *
+     * @return el estado.
+     */
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Indica si la reserva se ha guardado.
+     *
+     * @return {@code true} si la reserva está confirmada.
+     */
+    public boolean isConfirmada() {
+        return estado == Estado.CONFIRMADA;
+    }
+
+    /**
+     * Obtiene las horas reservadas de la instalación en la fecha de la reserva después del intento.
+     *
+     * @return las horas reservadas, vacía si no hay ninguna o no se han podido obtener.
+     */
+    public List<LocalTime> getHorasReservadas() {
+        return horasReservadas;
+    }
+}
@@ -1,12 +1,16 @@
 package org.socialclub.socialclub.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Representa un rol en el sistema del club social.
  */
 @SuppressWarnings("ALL")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "rol")
 @Table(name = "rol", schema = "clubsocial")
 public class Rol {
     /**
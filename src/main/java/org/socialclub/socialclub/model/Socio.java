@@ -2,6 +2,7 @@ package org.socialclub.socialclub.model;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.LazyGroup;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.UuidGenerator;
@@ -19,7 +20,13 @@ import java.time.LocalDate;
 @SuppressWarnings("ALL")
 @Entity
 @Table(name = "socio", schema = "clubsocial")
+@NamedEntityGraph(name = Socio.GRAFO_FAMILIA, attributeNodes = @NamedAttributeNode("numFamilia"))
 public class Socio {
+    /**
+     * Grafo que carga el socio junto con su familia en la misma consulta.
+     */
+    public static final String GRAFO_FAMILIA = "Socio.familia";
+
     private static final Logger logger = LoggerFactory.getLogger(Socio.class);
 
     /**
@@ -90,13 +97,20 @@ public class Socio {
 
     /**
      * Foto del socio en formato byte array.
+     * Se carga bajo demanda, junto con la huella, la primera vez que se accede a ella dentro de una sesión;
+     * fuera de la sesión debe obtenerse con {@code SocioDAO.obtenerFoto}.
      */
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("media")
     @Column(name = "foto")
     private byte[] foto;
 
     /**
      * Huella del socio en formato byte array.
+     * Se carga bajo demanda, junto con la foto; el control de acceso la obtiene mediante {@link HuellaSocio}.
      */
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("media")
     @Column(name = "huella")
     private byte[] huella;
 
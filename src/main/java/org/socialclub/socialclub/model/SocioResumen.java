@@ -0,0 +1,76 @@
+package org.socialclub.socialclub.model;
+
+import java.time.LocalDate;
+
+/**
+ * Datos mínimos de un socio para mostrarlo en listas y selectores.
+ * No es una entidad: se obtiene mediante una proyección sobre {@link Socio}, sin cargar la entidad completa
+ * ni sus columnas binarias, y no se guarda en el contexto de persistencia.
+ */
+public class SocioResumen {
+    private final String numeroSocio;
+    private final String nombre;
+    private final String apellidos;
+    private final LocalDate fechaNacimiento;
+
+    /**
+     * Crea un nuevo resumen de socio.
+     *
+     * @param numeroSocio     el número de socio.
+     * @param nombre          el nombre del socio.
+     * @param apellidos       los apellidos del socio.
+     * @param fechaNacimiento la fecha de nacimiento del socio.
+     */
+    public SocioResumen(String numeroSocio, String nombre, String apellidos, LocalDate fechaNacimiento) {
+        this.numeroSocio = numeroSocio;
+        this.nombre = nombre;
+        this.apellidos = apellidos;
+        this.fechaNacimiento = fechaNacimiento;
+    }
+
+    /**
+     * Obtiene el número de socio.
+     *
+     * @return el número de socio.
+     */
+    public String getNumeroSocio() {
+        return numeroSocio;
+    }
+
+    /**
+     * Obtiene el nombre del socio.
+     *
+     * @return el nombre del socio.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene los apellidos del socio.
+     *
+     * @return los apellidos del socio.
+     */
+    public String getApellidos() {
+        return apellidos;
+    }
+
+    /**
+     * Obtiene la fecha de nacimiento del socio.
+     *
+     * @return la fecha de nacimiento del socio.
+     */
+    public LocalDate getFechaNacimiento() {
+        return fechaNacimiento;
+    }
+
+    /**
+     * Obtiene el texto con el que se muestra el socio en los selectores, con el formato
+     * {@code numero - nombre apellidos}.
+     *
+     * @return el texto del socio.
+     */
+    public String getEtiqueta() {
+        return numeroSocio + " - " + nombre + " " + apellidos;
+    }
+}
@@ -0,0 +1,53 @@
+package org.socialclub.socialclub.model;
+
+import java.time.LocalDate;
+
+/**
+ * Resumen del historial de visitas de un socio obtenido a partir de {@link RegistroEntrada}.
+ * No es una entidad: se obtiene mediante una proyección agrupada por socio.
+ */
+public class VisitasSocio {
+    private final String numeroSocio;
+    private final LocalDate ultimaVisita;
+    private final long visitas;
+
+    /**
+     * Crea un nuevo resumen de visitas.
+     *
+     * @param numeroSocio  el número de socio.
+     * @param ultimaVisita la fecha de la última visita.
+     * @param visitas      el número de visitas registradas.
+     */
+    public VisitasSocio(String numeroSocio, LocalDate ultimaVisita, Long visitas) {
+        this.numeroSocio = numeroSocio;
+        this.ultimaVisita = ultimaVisita;
+        this.visitas = visitas != null ? visitas : 0L;
+    }
+
+    /**
+     * Obtiene el número de socio.
+     *
+     * @return el número de socio.
+     */
+    public String getNumeroSocio() {
+        return numeroSocio;
+    }
+
+    /**
+     * Obtiene la fecha de la última visita.
+     *
+     * @return la fecha de la última visita.
+     */
+    public LocalDate getUltimaVisita() {
+        return ultimaVisita;
+    }
+
+    /**
+     * Obtiene el número de visitas registradas.
+     *
+     * @return el número de visitas registradas.
+     */
+    public long getVisitas() {
+        return visitas;
+    }
+}
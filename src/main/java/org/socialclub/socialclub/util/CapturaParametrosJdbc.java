@@ -0,0 +1,156 @@
+package org.socialclub.socialclub.util;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Envuelve el origen de datos de Hibernate para recordar los parámetros de la última sentencia ejecutada en cada hilo.
+ * Hibernate no comunica los parámetros al notificar la ejecución de una consulta, así que {@link MetricasConsultas}
+ * los obtiene de aquí al registrar una consulta lenta. Los valores solo se convierten a texto cuando se consultan,
+ * y entonces se ocultan los que no deben acabar en el log ni en el archivo de métricas: los binarios (fotos y huellas)
+ * se sustituyen por su tamaño, los DNI/NIE y los correos electrónicos por una marca, y los textos largos se recortan.
+ */
+public final class CapturaParametrosJdbc {
+
+    private static final ThreadLocal<Map<Integer, Object>> ULTIMOS_PARAMETROS = new ThreadLocal<>();
+
+    /**
+     * Longitud máxima con la que se muestra un parámetro de texto.
+     */
+    private static final int LONGITUD_MAXIMA = 64;
+
+    private static final Pattern DNI = Pattern.compile("[XYZxyz]?\\d{7,8}[A-Za-z]");
+
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    /**
+     * Constructor privado para evitar la instanciación de la clase.
+     */
+    private CapturaParametrosJdbc() {
+        throw new UnsupportedOperationException("Clase de utilidad");
+    }
+
+    /**
+     * Envuelve un origen de datos para que las sentencias preparadas de sus conexiones recuerden sus parámetros.
+     *
+     * @param dataSource el origen de datos.
+     * @return el origen de datos envuelto.
+     */
+    public static DataSource envolver(DataSource dataSource) {
+        return envolver(DataSource.class, dataSource, null);
+    }
+
+    /**
+     * Obtiene los parámetros de la última sentencia preparada ejecutada en el hilo actual.
+     *
+     * @return los parámetros por posición, por ejemplo "{1=2024-06-01, 2=SOC-0001, 3=<dni>, 4=byte[1632]}",
+     * o "{}" si no hay ninguno.
+     */
+    public static String ultimosParametros() {
+        Map<Integer, Object> parametros = ULTIMOS_PARAMETROS.get();
+        if (parametros == null) {
+            return "{}";
+        }
+        StringJoiner texto = new StringJoiner(", ", "{", "}");
+        parametros.forEach((posicion, valor) -> texto.add(posicion + "=" + describir(valor)));
+        return texto.toString();
+    }
+
+    /**
+     * Convierte un parámetro en el texto que se muestra, ocultando los datos binarios y personales.
+     *
+     * @param valor el valor del parámetro.
+     * @return el texto del parámetro.
+     */
+    private static String describir(Object valor) {
+        if (valor == null) {
+            return "null";
+        }
+        if (valor instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        if (valor instanceof Blob || valor instanceof Clob || valor instanceof InputStream || valor instanceof Reader) {
+            return "<" + (valor instanceof Blob ? "Blob" : valor instanceof Clob ? "Clob" : "flujo") + ">";
+        }
+        String texto = valor.toString();
+        if (DNI.matcher(texto).matches()) {
+            return "<dni>";
+        }
+        if (EMAIL.matcher(texto).matches()) {
+            return "<email>";
+        }
+        return texto.length() > LONGITUD_MAXIMA ? texto.substring(0, LONGITUD_MAXIMA) + "..." : texto;
+    }
+
+    private static <T> T envolver(Class<T> tipo, T destino, Map<Integer, Object> parametros) {
+        return tipo.cast(Proxy.newProxyInstance(CapturaParametrosJdbc.class.getClassLoader(), new Class<?>[]{tipo},
+                new Intermediario(destino, parametros)));
+    }
+
+    /**
+     * Reenvía todas las llamadas al objeto JDBC real: envuelve las conexiones que devuelve el origen de datos y las
+     * sentencias preparadas que devuelven las conexiones, y en estas últimas anota los parámetros asignados.
+     */
+    private static final class Intermediario implements InvocationHandler {
+        private final Object destino;
+        private final Map<Integer, Object> parametros;
+
+        Intermediario(Object destino, Map<Integer, Object> parametros) {
+            this.destino = destino;
+            this.parametros = parametros;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nombre = metodo.getName();
+            if ("equals".equals(nombre) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (parametros != null) {
+                anotar(nombre, args);
+            }
+            Object resultado;
+            try {
+                resultado = metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (destino instanceof DataSource && resultado instanceof Connection conexion) {
+                return envolver(Connection.class, conexion, null);
+            }
+            if (destino instanceof Connection && nombre.startsWith("prepare")) {
+                if (resultado instanceof CallableStatement llamada) {
+                    return envolver(CallableStatement.class, llamada, new TreeMap<>());
+                }
+                if (resultado instanceof PreparedStatement sentencia) {
+                    return envolver(PreparedStatement.class, sentencia, new TreeMap<>());
+                }
+            }
+            return resultado;
+        }
+
+        private void anotar(String nombre, Object[] args) {
+            if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer posicion) {
+                parametros.put(posicion, "setNull".equals(nombre) ? null : args[1]);
+            } else if ("clearParameters".equals(nombre)) {
+                parametros.clear();
+            } else if (nombre.startsWith("execute")) {
+                ULTIMOS_PARAMETROS.set(new TreeMap<>(parametros));
+            }
+        }
+    }
+}
@@ -44,6 +44,27 @@ public class ConfigLoader {
     }
 
 
+    /**
+     * Obtiene el valor entero de la propiedad con la clave dada.
+     *
+     * @param key          La clave de la propiedad que se desea obtener.
+     * @param valorDefecto El valor que se devuelve si la propiedad no existe o no es un número válido.
+     * @return El valor entero de la propiedad, o {@code valorDefecto} si no existe o no es válido.
+     */
+    public static int getIntProperty(String key, int valorDefecto) {
+        String valor = properties.getProperty(key);
+        if (valor == null || valor.isBlank()) {
+            return valorDefecto;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valor no numérico para la propiedad " + key + ": " + valor);
+            return valorDefecto;
+        }
+    }
+
+
     /**
      * Obtiene la ruta de la vista principal de la aplicación.
      * La ruta se obtiene de la propiedad "main.view.path" del archivo de configuración.
@@ -0,0 +1,32 @@
+package org.socialclub.socialclub.util;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Estadísticas de Hibernate que, además de acumular los contadores habituales, notifican cada consulta HQL
+ * ejecutada a {@link MetricasConsultas} para registrar las consultas lentas.
+ * Se instala en {@link HibernateUtil} mediante la propiedad "hibernate.stats.factory"; solo reciben las consultas
+ * si las estadísticas están activadas ("hibernate.generate_statistics").
+ * Hibernate no ofrece otro punto de extensión que reciba el tiempo y las filas de cada consulta, por lo que se
+ * extiende {@link StatisticsImpl}, que es interna; {@code EstadisticasHibernateTest} comprueba que el método
+ * sobrescrito no cambia al actualizar Hibernate.
+ */
+public class EstadisticasHibernate extends StatisticsImpl {
+
+    /**
+     * Crea las estadísticas de la factoría de sesiones y las asocia a las métricas de consultas.
+     *
+     * @param sessionFactory la factoría de sesiones.
+     */
+    public EstadisticasHibernate(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+        MetricasConsultas.getInstance().setEstadisticas(this);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        MetricasConsultas.getInstance().registrarConsulta(hql, rows, time);
+    }
+}
@@ -1,19 +1,51 @@
 package org.socialclub.socialclub.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.spi.StatisticsFactory;
+
+import javax.sql.DataSource;
+import java.util.Properties;
 
 /**
  * Clase de utilidad para administrar instancias de SessionFactory de Hibernate.
  * Esta clase está diseñada como singleton, proporcionando un punto de acceso único a la SessionFactory.
- * También proporciona un método para cerrar la SessionFactory cuando la aplicación se está apagando.
+ * Las conexiones se obtienen de un pool ({@link HikariDataSource}) compartido por Hibernate y por cualquier
+ * acceso JDBC directo, de modo que no se abre una conexión nueva con la base de datos remota en cada operación.
+ * Las estadísticas de Hibernate se recogen con {@link EstadisticasHibernate}, que registra las consultas lentas
+ * en {@link MetricasConsultas}.
+ * También proporciona un método para cerrar la SessionFactory y el pool cuando la aplicación se está apagando.
  */
 public class HibernateUtil {
 
     /**
-     * Instancia de SessionFactory estática que se inicializa de manera perezosa.
+     * Prefijo de las propiedades del sistema que sobrescriben las de "hibernate.cfg.xml".
      */
-    private static final SessionFactory sessionFactory = buildSessionFactory();
+    private static final String PREFIJO_PROPIEDADES = "hibernate.";
+
+    /**
+     * Prefijo de las propiedades de "hibernate.cfg.xml" que configuran el pool de conexiones.
+     */
+    private static final String PREFIJO_POOL = "hibernate.hikari.";
+
+    /**
+     * Pool de conexiones compartido.
+     */
+    private static final HikariDataSource dataSource;
+
+    /**
+     * Instancia de SessionFactory estática que se inicializa al cargar la clase.
+     */
+    private static final SessionFactory sessionFactory;
+
+    static {
+        Configuration configuration = crearConfiguracion();
+        dataSource = buildDataSource(configuration.getProperties());
+        sessionFactory = buildSessionFactory(configuration, dataSource);
+    }
 
     /**
      * Constructor privado para evitar la instanciación de la clase.
@@ -24,14 +56,82 @@ public class HibernateUtil {
     }
 
     /**
-     * Construye e inicializa una instancia de SessionFactory utilizando el archivo de configuración "hibernate.cfg.xml".
+     * Carga la configuración del archivo "hibernate.cfg.xml" y le aplica el perfil de base de datos seleccionado
+     * ({@link PerfilBaseDatos#actual()}), por ejemplo el embebido para ejecutar las pruebas sin conexión.
+     * Las propiedades del sistema que empiezan por "hibernate." sobrescriben las del archivo y las del perfil, lo que
+     * permite ajustar cualquier propiedad sin modificar la configuración.
      *
+     * @return La configuración de Hibernate.
+     * @throws ExceptionInInitializerError Si no se puede leer el archivo de configuración.
+     */
+    private static Configuration crearConfiguracion() {
+        try {
+            Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+            PerfilBaseDatos.actual().aplicar(configuration);
+            for (String nombre : System.getProperties().stringPropertyNames()) {
+                if (nombre.startsWith(PREFIJO_PROPIEDADES)) {
+                    configuration.setProperty(nombre, System.getProperty(nombre));
+                }
+            }
+            return configuration;
+        } catch (Exception ex) {
+            throw new ExceptionInInitializerError("Error al leer la configuración de Hibernate." + ex);
+        }
+    }
+
+    /**
+     * Construye el pool de conexiones a partir de las propiedades de conexión de Hibernate
+     * ("hibernate.connection.*") y de las propiedades del pool ("hibernate.hikari.*"), como
+     * el tamaño mínimo y máximo, la validación de conexiones inactivas o la detección de fugas.
+     *
+     * @param propiedades Las propiedades de la configuración de Hibernate.
+     * @return El pool de conexiones inicializado.
+     * @throws ExceptionInInitializerError Si no se puede crear el pool.
+     */
+    private static HikariDataSource buildDataSource(Properties propiedades) {
+        try {
+            Properties propiedadesPool = new Properties();
+            for (String nombre : propiedades.stringPropertyNames()) {
+                if (nombre.startsWith(PREFIJO_POOL)) {
+                    propiedadesPool.setProperty(nombre.substring(PREFIJO_POOL.length()), propiedades.getProperty(nombre));
+                }
+            }
+            HikariConfig config = new HikariConfig(propiedadesPool);
+            config.setJdbcUrl(propiedades.getProperty(AvailableSettings.URL));
+            config.setUsername(propiedades.getProperty(AvailableSettings.USER));
+            config.setPassword(propiedades.getProperty(AvailableSettings.PASS));
+            String driver = propiedades.getProperty(AvailableSettings.DRIVER);
+            if (driver != null) {
+                config.setDriverClassName(driver);
+            }
+            return new HikariDataSource(config);
+        } catch (Exception ex) {
+            throw new ExceptionInInitializerError("Error en la creación del pool de conexiones." + ex);
+        }
+    }
+
+    /**
+     * Construye e inicializa una instancia de SessionFactory que obtiene sus conexiones del pool.
+     * Si el registro de consultas lentas está activo, las conexiones se envuelven con {@link CapturaParametrosJdbc}
+     * para conocer los parámetros de las consultas lentas; si no, se usan las del pool directamente.
+     *
+     * @param configuration La configuración de Hibernate.
+     * @param dataSource    El pool de conexiones.
      * @return La instancia de SessionFactory inicializada.
      * @throws ExceptionInInitializerError Si se produce un error durante la creación de la SessionFactory.
      */
-    private static SessionFactory buildSessionFactory() {
+    private static SessionFactory buildSessionFactory(Configuration configuration, DataSource dataSource) {
         try {
-            return new Configuration().configure("hibernate.cfg.xml").buildSessionFactory();
+            Properties propiedades = configuration.getProperties();
+            // La conexión la gestiona el pool: Hibernate no debe abrir conexiones propias
+            propiedades.remove(AvailableSettings.URL);
+            propiedades.remove(AvailableSettings.USER);
+            propiedades.remove(AvailableSettings.PASS);
+            propiedades.remove(AvailableSettings.DRIVER);
+            propiedades.put(AvailableSettings.DATASOURCE, MetricasConsultas.getInstance().isActiva()
+                    ? CapturaParametrosJdbc.envolver(dataSource) : dataSource);
+            propiedades.put(AvailableSettings.STATS_BUILDER, (StatisticsFactory) EstadisticasHibernate::new);
+            return configuration.buildSessionFactory();
         } catch (Exception ex) {
             throw new ExceptionInInitializerError("Error en la creación inicial de la SessionFactory." + ex);
         }
@@ -47,10 +147,22 @@ public class HibernateUtil {
     }
 
     /**
-     * Cierra la instancia de SessionFactory cuando la aplicación se está apagando.
+     * Devuelve el pool de conexiones compartido con Hibernate.
+     * Cualquier acceso JDBC directo debe obtener sus conexiones de aquí y cerrarlas al terminar
+     * para devolverlas al pool.
+     *
+     * @return El pool de conexiones.
+     */
+    public static DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Cierra la instancia de SessionFactory y el pool de conexiones cuando la aplicación se está apagando.
      * Este método debe llamarse al final del ciclo de vida de la aplicación.
      */
     public static void shutdown() {
         getSessionFactory().close();
+        dataSource.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,480 @@
+package org.socialclub.socialclub.util;
+
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.socialclub.socialclub.huella.Histograma;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Métricas de acceso a la base de datos: tiempo de cada método de los DAO y registro de las consultas lentas.
+ * <p>
+ * {@code AbstractDAO} mide cada llamada a un método de un DAO. Las consultas HQL las notifica Hibernate a través de
+ * {@link EstadisticasHibernate}: las que tardan al menos el umbral configurado ({@value #PROP_UMBRAL}) se registran
+ * en el log con el método del DAO que las ejecutó, los parámetros enviados a la base de datos, el número de filas
+ * y el tiempo empleado, y se conservan las últimas para la vista de diagnóstico.
+ * Las métricas, junto con las estadísticas de Hibernate, se pueden guardar en un archivo con {@link #escribir(Path)}.
+ * Esta clase utiliza el patrón Singleton.
+ */
+public class MetricasConsultas {
+    private static final Logger LOGGER = Logger.getLogger(MetricasConsultas.class.getName());
+
+    /**
+     * Propiedad de configuración con el tiempo, en milisegundos, a partir del cual una consulta se considera lenta
+     * (0 = no se registran). Con 0 tampoco se miden los métodos de los DAO ni se capturan los parámetros de las
+     * sentencias, para no añadir ningún coste a cada acceso a la base de datos.
+     */
+    public static final String PROP_UMBRAL = "bd.consultasLentas.umbralMs";
+
+    /**
+     * Propiedad de configuración con la ruta del archivo en el que se guardan las métricas.
+     */
+    public static final String PROP_ARCHIVO = "bd.metricas.archivo";
+
+    /**
+     * Ruta por defecto del archivo de métricas.
+     */
+    public static final String ARCHIVO_DEFECTO = "metricas/consultas.txt";
+
+    /**
+     * Número de consultas lentas recientes que se conservan.
+     */
+    public static final int MAXIMO_CONSULTAS_LENTAS = 100;
+
+    private static final int UMBRAL_DEFECTO = 500;
+
+    private static final int MUESTRAS_POR_METODO = 512;
+
+    private static final int MAXIMO_CONSULTAS_ARCHIVO = 20;
+
+    private static final double NANOS_POR_MILLI = 1_000_000.0;
+
+    private static final ThreadLocal<String> METODO_ACTUAL = new ThreadLocal<>();
+
+    private final Map<String, TiemposMetodo> tiemposPorMetodo = new ConcurrentHashMap<>();
+    private final Deque<ConsultaLenta> consultasLentas = new ArrayDeque<>();
+    private final LongAdder totalConsultasLentas = new LongAdder();
+    private volatile long umbralMs = ConfigLoader.getIntProperty(PROP_UMBRAL, UMBRAL_DEFECTO);
+    private volatile Statistics estadisticas;
+
+    /**
+     * Constructor privado para evitar la instanciación desde fuera de la clase.
+     */
+    private MetricasConsultas() {
+    }
+
+    /**
+     * Una clase anidada estática para mantener la única instancia de MetricasConsultas.
+     */
+    private static class MetricasConsultasHolder {
+        private static final MetricasConsultas INSTANCE = new MetricasConsultas();
+    }
+
+    /**
+     * Devuelve la única instancia de MetricasConsultas.
+     *
+     * @return la única instancia de MetricasConsultas.
+     */
+    public static MetricasConsultas getInstance() {
+        return MetricasConsultasHolder.INSTANCE;
+    }
+
+    /**
+     * Indica que el hilo actual empieza a ejecutar un método de un DAO, para atribuirle las consultas lentas.
+     *
+     * @param metodo el método, con el formato "SocioDAO.obtenerSocios".
+     * @return el método que se estaba ejecutando antes en el hilo, que debe pasarse a {@link #salir}.
+     */
+    public String entrar(String metodo) {
+        String anterior = METODO_ACTUAL.get();
+        METODO_ACTUAL.set(metodo);
+        return anterior;
+    }
+
+    /**
+     * Registra el tiempo de una llamada a un método de un DAO y restaura el método que se estaba ejecutando antes.
+     *
+     * @param metodo   el método que termina.
+     * @param anterior el valor devuelto por {@link #entrar}.
+     * @param nanos    el tiempo empleado, en nanosegundos.
+     */
+    public void salir(String metodo, String anterior, long nanos) {
+        if (anterior == null) {
+            METODO_ACTUAL.remove();
+        } else {
+            METODO_ACTUAL.set(anterior);
+        }
+        tiemposPorMetodo.computeIfAbsent(metodo, TiemposMetodo::new).registrar(nanos);
+    }
+
+    /**
+     * Registra la ejecución de una consulta HQL. Si su tiempo alcanza el umbral, la registra como consulta lenta
+     * con el método del DAO en curso y los últimos parámetros enviados a la base de datos desde el hilo actual.
+     *
+     * @param hql          la consulta.
+     * @param filas        el número de filas obtenidas.
+     * @param milisegundos el tiempo empleado, en milisegundos.
+     */
+    public void registrarConsulta(String hql, int filas, long milisegundos) {
+        long umbral = umbralMs;
+        if (umbral <= 0 || milisegundos < umbral) {
+            return;
+        }
+        ConsultaLenta consulta = new ConsultaLenta(METODO_ACTUAL.get(), hql,
+                CapturaParametrosJdbc.ultimosParametros(), filas, milisegundos);
+        totalConsultasLentas.increment();
+        synchronized (consultasLentas) {
+            if (consultasLentas.size() == MAXIMO_CONSULTAS_LENTAS) {
+                consultasLentas.removeLast();
+            }
+            consultasLentas.addFirst(consulta);
+        }
+        LOGGER.warning(() -> "Consulta lenta (" + milisegundos + " ms, " + filas + " filas) en "
+                + consulta.getMetodo() + ": " + hql + " parámetros " + consulta.getParametros());
+    }
+
+    /**
+     * Obtiene el tiempo a partir del cual una consulta se considera lenta.
+     *
+     * @return el umbral en milisegundos; 0 si no se registran las consultas lentas.
+     */
+    public long getUmbralMs() {
+        return umbralMs;
+    }
+
+    /**
+     * Indica si las métricas están activas, es decir, si el umbral de consultas lentas es mayor que 0.
+     *
+     * @return {@code true} si se miden los métodos de los DAO y se registran las consultas lentas.
+     */
+    public boolean isActiva() {
+        return umbralMs > 0;
+    }
+
+    /**
+     * Establece el tiempo a partir del cual una consulta se considera lenta.
+     *
+     * @param umbralMs el umbral en milisegundos; 0 para no registrar las consultas lentas. Los parámetros solo se
+     *                 capturan si el umbral era mayor que 0 al crear la factoría de sesiones.
+     */
+    public void setUmbralMs(long umbralMs) {
+        this.umbralMs = umbralMs;
+    }
+
+    /**
+     * Establece las estadísticas de Hibernate que se incluyen en el archivo de métricas.
+     *
+     * @param estadisticas las estadísticas de la factoría de sesiones.
+     */
+    void setEstadisticas(Statistics estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    /**
+     * Obtiene el resumen de los tiempos de cada método de los DAO, ordenado por tiempo total de mayor a menor.
+     *
+     * @return los resúmenes por método.
+     */
+    public List<ResumenMetodo> resumenesPorMetodo() {
+        List<ResumenMetodo> resumenes = new ArrayList<>();
+        for (TiemposMetodo tiempos : tiemposPorMetodo.values()) {
+            resumenes.add(new ResumenMetodo(tiempos));
+        }
+        resumenes.sort(Comparator.comparingDouble(ResumenMetodo::getTotal).reversed());
+        return resumenes;
+    }
+
+    /**
+     * Obtiene las consultas lentas recientes, de la más reciente a la más antigua.
+     *
+     * @return las consultas lentas.
+     */
+    public List<ConsultaLenta> getConsultasLentas() {
+        synchronized (consultasLentas) {
+            return List.copyOf(consultasLentas);
+        }
+    }
+
+    /**
+     * Obtiene el número de consultas lentas registradas desde el último reinicio.
+     *
+     * @return el número de consultas lentas.
+     */
+    public long getTotalConsultasLentas() {
+        return totalConsultasLentas.sum();
+    }
+
+    /**
+     * Descarta todas las métricas acumuladas y las estadísticas de Hibernate.
+     */
+    public void reiniciar() {
+        tiemposPorMetodo.clear();
+        synchronized (consultasLentas) {
+            consultasLentas.clear();
+        }
+        totalConsultasLentas.reset();
+        Statistics actuales = estadisticas;
+        if (actuales != null) {
+            actuales.clear();
+        }
+    }
+
+    /**
+     * Obtiene la ruta del archivo de métricas definida en el archivo de configuración.
+     *
+     * @return la ruta del archivo de métricas.
+     */
+    public static Path archivoDesdeConfiguracion() {
+        String archivo = ConfigLoader.getProperty(PROP_ARCHIVO);
+        return Path.of(archivo == null || archivo.isBlank() ? ARCHIVO_DEFECTO : archivo.trim());
+    }
+
+    /**
+     * Escribe en un archivo de texto las estadísticas de Hibernate, los tiempos de cada método de los DAO,
+     * las consultas HQL más costosas y las consultas lentas recientes.
+     * El archivo se escribe primero en un temporal y después se reemplaza, para no dejarlo a medias.
+     *
+     * @param archivo la ruta del archivo de métricas.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public void escribir(Path archivo) throws IOException {
+        String salto = System.lineSeparator();
+        StringBuilder contenido = new StringBuilder();
+        contenido.append("# Metricas de base de datos - ").append(LocalDateTime.now()).append(salto);
+        contenido.append("umbralConsultasLentas.ms=").append(umbralMs).append(salto);
+        contenido.append("consultasLentas=").append(getTotalConsultasLentas()).append(salto);
+
+        Statistics actuales = estadisticas;
+        if (actuales != null && actuales.isStatisticsEnabled()) {
+            contenido.append(salto).append("## Estadisticas de Hibernate").append(salto);
+            contenido.append("sentencias=").append(actuales.getPrepareStatementCount()).append(salto);
+            contenido.append("consultas=").append(actuales.getQueryExecutionCount()).append(salto);
+            contenido.append("consultaMasLenta.ms=").append(actuales.getQueryExecutionMaxTime())
+                    .append(' ').append(actuales.getQueryExecutionMaxTimeQueryString()).append(salto);
+            contenido.append("entidadesCargadas=").append(actuales.getEntityLoadCount()).append(salto);
+            contenido.append("cacheSegundoNivel.aciertos=").append(actuales.getSecondLevelCacheHitCount()).append(salto);
+            contenido.append("cacheSegundoNivel.fallos=").append(actuales.getSecondLevelCacheMissCount()).append(salto);
+            contenido.append("conexiones=").append(actuales.getConnectCount()).append(salto);
+            contenido.append("transacciones=").append(actuales.getTransactionCount()).append(salto);
+
+            contenido.append(salto).append("## Consultas HQL por tiempo total (ejecuciones, media ms, max ms, filas)").append(salto);
+            List<String> consultas = new ArrayList<>(List.of(actuales.getQueries()));
+            consultas.sort(Comparator.comparingLong((String hql) -> tiempoTotal(actuales.getQueryStatistics(hql))).reversed());
+            for (String hql : consultas.subList(0, Math.min(MAXIMO_CONSULTAS_ARCHIVO, consultas.size()))) {
+                QueryStatistics consulta = actuales.getQueryStatistics(hql);
+                contenido.append(String.format(Locale.ROOT, "%d\t%d\t%d\t%d\t%s%s", consulta.getExecutionCount(),
+                        consulta.getExecutionAvgTime(), consulta.getExecutionMaxTime(), consulta.getExecutionRowCount(),
+                        hql, salto));
+            }
+        }
+
+        contenido.append(salto).append("## Metodos de los DAO (llamadas, media ms, p95 ms, max ms, total ms)").append(salto);
+        for (ResumenMetodo resumen : resumenesPorMetodo()) {
+            contenido.append(String.format(Locale.ROOT, "%s\t%d\t%.3f\t%.3f\t%.3f\t%.3f%s", resumen.getMetodo(),
+                    resumen.getLlamadas(), resumen.getMedia(), resumen.getP95(), resumen.getMaximo(), resumen.getTotal(),
+                    salto));
+        }
+
+        contenido.append(salto).append("## Consultas lentas recientes (momento, metodo, ms, filas, consulta, parametros)").append(salto);
+        for (ConsultaLenta consulta : getConsultasLentas()) {
+            contenido.append(consulta.getMomento()).append('\t').append(consulta.getMetodo()).append('\t')
+                    .append(consulta.getMilisegundos()).append('\t').append(consulta.getFilas()).append('\t')
+                    .append(consulta.getHql()).append('\t').append(consulta.getParametros()).append(salto);
+        }
+
+        Path absoluto = archivo.toAbsolutePath();
+        if (absoluto.getParent() != null) {
+            Files.createDirectories(absoluto.getParent());
+        }
+        Path temporal = absoluto.resolveSibling(absoluto.getFileName() + ".tmp");
+        Files.writeString(temporal, contenido, StandardCharsets.UTF_8);
+        Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long tiempoTotal(QueryStatistics consulta) {
+        return consulta.getExecutionCount() * consulta.getExecutionAvgTime();
+    }
+
+    /**
+     * Tiempos acumulados de un método de un DAO.
+     */
+    private static class TiemposMetodo {
+        private final String metodo;
+        private final Histograma histograma;
+        private final LongAdder totalNanos = new LongAdder();
+
+        TiemposMetodo(String metodo) {
+            this.metodo = metodo;
+            this.histograma = new Histograma(metodo, MUESTRAS_POR_METODO);
+        }
+
+        void registrar(long nanos) {
+            histograma.registrar(nanos);
+            totalNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Resumen de los tiempos de un método de un DAO, en milisegundos.
+     */
+    public static class ResumenMetodo {
+        private final String metodo;
+        private final long llamadas;
+        private final double media;
+        private final double p95;
+        private final double maximo;
+        private final double total;
+
+        private ResumenMetodo(TiemposMetodo tiempos) {
+            this.metodo = tiempos.metodo;
+            this.llamadas = tiempos.histograma.getTotal();
+            this.total = tiempos.totalNanos.sum() / NANOS_POR_MILLI;
+            this.media = llamadas == 0 ? 0 : total / llamadas;
+            this.p95 = tiempos.histograma.percentil(95) / NANOS_POR_MILLI;
+            this.maximo = tiempos.histograma.getMaximo() / NANOS_POR_MILLI;
+        }
+
+        /**
+         * Obtiene el método del DAO.
+         *
+         * @return el nombre del método.
+         */
+        public String getMetodo() {
+            return metodo;
+        }
+
+        /**
+         * Obtiene el número de llamadas medidas.
+         *
+         * @return el número de llamadas.
+         */
+        public long getLlamadas() {
+            return llamadas;
+        }
+
+        /**
+         * Obtiene el tiempo medio por llamada.
+         *
+         * @return la media en milisegundos.
+         */
+        public double getMedia() {
+            return media;
+        }
+
+        /**
+         * Obtiene el percentil 95 del tiempo por llamada.
+         *
+         * @return el percentil 95 en milisegundos.
+         */
+        public double getP95() {
+            return p95;
+        }
+
+        /**
+         * Obtiene el tiempo máximo de una llamada.
+         *
+         * @return el máximo en milisegundos.
+         */
+        public double getMaximo() {
+            return maximo;
+        }
+
+        /**
+         * Obtiene el tiempo acumulado de todas las llamadas.
+         *
+         * @return el total en milisegundos.
+         */
+        public double getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Consulta cuyo tiempo de ejecución alcanzó el umbral de consultas lentas.
+     */
+    public static class ConsultaLenta {
+        private final LocalDateTime momento = LocalDateTime.now();
+        private final String metodo;
+        private final String hql;
+        private final String parametros;
+        private final int filas;
+        private final long milisegundos;
+
+        private ConsultaLenta(String metodo, String hql, String parametros, int filas, long milisegundos) {
+            this.metodo = metodo == null ? "(fuera de un DAO)" : metodo;
+            this.hql = hql;
+            this.parametros = parametros;
+            this.filas = filas;
+            this.milisegundos = milisegundos;
+        }
+
+        /**
+         * Obtiene el momento en que se registró la consulta.
+         *
+         * @return la fecha y hora.
+         */
+        public LocalDateTime getMomento() {
+            return momento;
+        }
+
+        /**
+         * Obtiene el método del DAO que ejecutó la consulta.
+         *
+         * @return el nombre del método, o un texto indicativo si se ejecutó fuera de un DAO.
+         */
+        public String getMetodo() {
+            return metodo;
+        }
+
+        /**
+         * Obtiene la consulta ejecutada.
+         *
+         * @return el texto de la consulta.
+         */
+        public String getHql() {
+            return hql;
+        }
+
+        /**
+         * Obtiene los parámetros de la consulta, con los datos binarios y personales enmascarados.
+         *
+         * @return los parámetros.
+         */
+        public String getParametros() {
+            return parametros;
+        }
+
+        /**
+         * Obtiene el número de filas devueltas.
+         *
+         * @return el número de filas.
+         */
+        public int getFilas() {
+            return filas;
+        }
+
+        /**
+         * Obtiene el tiempo de ejecución.
+         *
+         * @return el tiempo en milisegundos.
+         */
+        public long getMilisegundos() {
+            return milisegundos;
+        }
+    }
+}
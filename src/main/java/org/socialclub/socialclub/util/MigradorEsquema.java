@@ -0,0 +1,610 @@
+package org.socialclub.socialclub.util;
+
+import org.socialclub.socialclub.model.Reserva;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Aplica al arrancar la aplicación las migraciones versionadas del esquema que todavía no se han aplicado
+ * y registra cada versión aplicada en la tabla {@value #TABLA_VERSIONES}.
+ * Las migraciones crean los índices que necesitan las consultas más frecuentes de los DAO y las columnas que
+ * añaden las nuevas versiones de la aplicación; una columna solo se añade si la tabla no la tiene ya. Un índice solo se
+ * crea si la tabla no tiene ya otro que empiece por las mismas columnas, de modo que una base de datos con los
+ * índices creados a mano no acaba con índices duplicados. Los índices únicos, que además impiden filas duplicadas,
+ * solo se omiten si ya existe otro índice único sobre las mismas columnas, y eliminan el índice no único al que
+ * sustituyen para que la tabla no mantenga dos índices sobre las mismas columnas.
+ * Después de migrar se obtiene el plan de ejecución ({@code EXPLAIN}) de esas consultas para comprobar que
+ * el servidor usa el índice esperado; los planes se pueden consultar con {@link #getPlanes()}.
+ * Las conexiones se obtienen del pool compartido con Hibernate ({@link HibernateUtil#getDataSource()}).
+ * En MySQL, varios puestos que arrancan a la vez se coordinan con el bloqueo con nombre {@value #BLOQUEO}
+ * ({@code GET_LOCK}), de modo que solo uno aplica las migraciones y los demás las encuentran ya registradas.
+ * H2 no tiene bloqueos con nombre; el perfil embebido lo usa un único proceso, así que se migra sin bloqueo.
+ */
+public class MigradorEsquema {
+    private static final Logger LOGGER = Logger.getLogger(MigradorEsquema.class.getName());
+
+    /**
+     * Propiedad de configuración que desactiva las migraciones al arrancar ({@code false}).
+     */
+    public static final String PROP_ACTIVAS = "bd.migraciones.activas";
+
+    /**
+     * Tabla en la que se registran las versiones aplicadas.
+     */
+    public static final String TABLA_VERSIONES = "version_esquema";
+
+    /**
+     * Versión que crea la restricción {@link Reserva#RESTRICCION_HORA_UNICA}.
+     */
+    public static final int VERSION_RESERVAS_UNICAS = 3;
+
+    /**
+     * Versión que añade la columna {@code socio.huella_actualizada}, con la marca de modificación de las huellas.
+     */
+    public static final int VERSION_MARCA_HUELLA = 4;
+
+    /**
+     * Versiones que este proceso ha comprobado que están aplicadas en la base de datos de la aplicación.
+     */
+    private static final Set<Integer> VERSIONES_CONFIRMADAS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Nombre del bloqueo de MySQL que serializa las migraciones de varios procesos.
+     */
+    public static final String BLOQUEO = "clubsocial_migraciones";
+
+    /**
+     * Segundos que se espera el bloqueo de migraciones antes de desistir.
+     */
+    private static final int ESPERA_BLOQUEO_SEGUNDOS = 60;
+
+    private static final String CREAR_TABLA_VERSIONES = "CREATE TABLE IF NOT EXISTS " + TABLA_VERSIONES + " (" +
+            "version INT NOT NULL PRIMARY KEY, " +
+            "descripcion VARCHAR(200) NOT NULL, " +
+            "fecha_aplicacion TIMESTAMP NOT NULL)";
+
+    private static final List<Migracion> MIGRACIONES = List.of(
+            new Migracion(1, "Índices de las consultas más frecuentes", List.of(
+                    // Socios dentro del club y salida automática a medianoche (hora_salida IS NULL)
+                    new Indice("registro_entrada", "idx_registro_entrada_salida", "hora_salida", "numero_socio"),
+                    // Registros por fecha y visitas recientes por socio
+                    new Indice("registro_entrada", "idx_registro_entrada_fecha", "fecha", "numero_socio"),
+                    // Horas reservadas de una instalación en una fecha
+                    new Indice("reserva", "idx_reserva_instalacion_fecha", "id_instalacion", "fecha", "hora"),
+                    // Paginación por clave de la tabla de reservas
+                    new Indice("reserva", "idx_reserva_fecha_hora", "fecha", "hora", "id_reserva"),
+                    new Indice("socio", "idx_socio_dni", "dni"),
+                    new Indice("empleado", "idx_empleado_email", "email"))),
+            new Migracion(2, "Índice de la fecha de nacimiento de los socios", List.of(
+                    // Filtros y recuentos por rango de edad (fechaNacimiento between :desde and :hasta)
+                    new Indice("socio", "idx_socio_fecha_nacimiento", "fecha_nacimiento"))),
+            new Migracion(VERSION_RESERVAS_UNICAS, "Reservas únicas por instalación, fecha y hora", List.of(
+                    // Dos puestos no pueden reservar la misma hora: la base de datos rechaza la segunda reserva.
+                    // Si ya hay reservas duplicadas la migración falla y se registra en el log hasta que se eliminen,
+                    // sin impedir las siguientes; mientras tanto ReservaDAO comprueba la disponibilidad antes de insertar.
+                    // Sustituye al índice no único de la versión 1, que tiene las mismas columnas
+                    Indice.unico("reserva", Reserva.RESTRICCION_HORA_UNICA, "id_instalacion", "fecha", "hora")
+                            .sustituyendo("idx_reserva_instalacion_fecha"))).independiente(),
+            new Migracion(VERSION_MARCA_HUELLA, "Marca de modificación de la huella de los socios", List.of(
+                    // IndiceHuellas compara esta marca para sincronizar las huellas modificadas o eliminadas en otro puesto.
+                    // La entidad Socio no la mapea: SocioDAO solo la usa una vez confirmada esta versión
+                    new Columna("socio", "huella_actualizada", "DATETIME(6) NULL")))
+    );
+
+    private static final List<ConsultaVerificada> CONSULTAS_VERIFICADAS = List.of(
+            new ConsultaVerificada("Socios dentro del club",
+                    "SELECT COUNT(*) FROM registro_entrada WHERE hora_salida IS NULL", "registro_entrada", "hora_salida"),
+            new ConsultaVerificada("Registros de entrada por fecha",
+                    "SELECT numero_socio FROM registro_entrada WHERE fecha = CURRENT_DATE", "registro_entrada", "fecha"),
+            new ConsultaVerificada("Horas reservadas de una instalación",
+                    "SELECT hora FROM reserva WHERE id_instalacion = 1 AND fecha = CURRENT_DATE", "reserva", "id_instalacion"),
+            new ConsultaVerificada("Página de reservas",
+                    "SELECT id_reserva FROM reserva ORDER BY fecha DESC, hora DESC, id_reserva DESC LIMIT 100", "reserva", "fecha"),
+            new ConsultaVerificada("Socio por DNI",
+                    "SELECT COUNT(*) FROM socio WHERE dni = '00000000A'", "socio", "dni"),
+            new ConsultaVerificada("Socios por rango de edad",
+                    "SELECT numero_socio FROM socio WHERE fecha_nacimiento BETWEEN CURRENT_DATE - INTERVAL 12 YEAR AND CURRENT_DATE - INTERVAL 3 YEAR",
+                    "socio", "fecha_nacimiento"),
+            new ConsultaVerificada("Empleado por email",
+                    "SELECT id_empleado FROM empleado WHERE email = 'a@a.es'", "empleado", "email")
+    );
+
+    private final DataSource dataSource;
+    private volatile List<PlanConsulta> planes = Collections.emptyList();
+
+    /**
+     * Crea un migrador que obtiene sus conexiones del origen de datos indicado.
+     *
+     * @param dataSource el origen de datos.
+     */
+    public MigradorEsquema(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Clase interna estática que contiene la instancia única del migrador.
+     */
+    private static class Holder {
+        private static final MigradorEsquema INSTANCE = new MigradorEsquema(HibernateUtil.getDataSource());
+    }
+
+    /**
+     * Obtiene la instancia del migrador que usa el pool de conexiones de la aplicación.
+     *
+     * @return La instancia única de MigradorEsquema.
+     */
+    public static MigradorEsquema getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Aplica las migraciones pendientes y verifica los planes de ejecución, salvo que estén desactivadas en la
+     * configuración. Un error no impide arrancar la aplicación: las consultas siguen funcionando sin los índices.
+     */
+    public static void migrarAlArrancar() {
+        if ("false".equalsIgnoreCase(ConfigLoader.getProperty(PROP_ACTIVAS))) {
+            LOGGER.info("Migraciones del esquema desactivadas");
+            return;
+        }
+        try {
+            MigradorEsquema migrador = getInstance();
+            migrador.migrar();
+            migrador.verificarPlanes();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error al migrar el esquema de la base de datos", e);
+        }
+    }
+
+    /**
+     * Aplica, en orden de versión, las migraciones que no figuran en la tabla de versiones.
+     * Cada migración se registra al terminar de aplicarse; si falla, las siguientes no se aplican, salvo que sea
+     * independiente: entonces se continúa con las siguientes y el error se lanza al terminar.
+     * Las versiones aplicadas se leen después de obtener el bloqueo de migraciones, para no repetir las que otro
+     * proceso acaba de aplicar.
+     *
+     * @return el número de migraciones aplicadas.
+     * @throws SQLException si no se obtiene el bloqueo de migraciones o falla la creación de un índice o de una
+     *                      columna o el registro de la versión.
+     */
+    public int migrar() throws SQLException {
+        try (Connection conexion = dataSource.getConnection()) {
+            boolean bloqueado = bloquear(conexion);
+            try {
+                return migrar(conexion);
+            } finally {
+                if (bloqueado) {
+                    desbloquear(conexion);
+                }
+            }
+        }
+    }
+
+    private int migrar(Connection conexion) throws SQLException {
+        try (Statement statement = conexion.createStatement()) {
+            statement.execute(CREAR_TABLA_VERSIONES);
+        }
+        Set<Integer> aplicadas = obtenerVersionesAplicadas(conexion);
+        VERSIONES_CONFIRMADAS.addAll(aplicadas);
+        int total = 0;
+        SQLException error = null;
+        for (Migracion migracion : MIGRACIONES) {
+            if (aplicadas.contains(migracion.version)) {
+                continue;
+            }
+            try {
+                for (Paso paso : migracion.pasos) {
+                    paso.aplicar(conexion);
+                }
+            } catch (SQLException e) {
+                if (!migracion.independiente) {
+                    throw e;
+                }
+                LOGGER.log(Level.SEVERE, "Migración " + migracion.version + " no aplicada: " + migracion.descripcion, e);
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+                continue;
+            }
+            registrarVersion(conexion, migracion);
+            VERSIONES_CONFIRMADAS.add(migracion.version);
+            LOGGER.info("Migración " + migracion.version + " aplicada: " + migracion.descripcion);
+            total++;
+        }
+        if (error != null) {
+            throw error;
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el bloqueo de migraciones si la base de datos es MySQL, esperando como máximo
+     * {@value #ESPERA_BLOQUEO_SEGUNDOS} segundos a que lo libere otro proceso.
+     *
+     * @return {@code true} si se ha obtenido el bloqueo; {@code false} si la base de datos no tiene bloqueos con nombre.
+     * @throws SQLException si el bloqueo no se obtiene en el tiempo de espera.
+     */
+    private static boolean bloquear(Connection conexion) throws SQLException {
+        String producto = conexion.getMetaData().getDatabaseProductName();
+        if (producto == null || !producto.toLowerCase(Locale.ROOT).contains("mysql")) {
+            return false;
+        }
+        try (PreparedStatement statement = conexion.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, BLOQUEO);
+            statement.setInt(2, ESPERA_BLOQUEO_SEGUNDOS);
+            try (ResultSet rs = statement.executeQuery()) {
+                // GET_LOCK devuelve 1 si obtiene el bloqueo, 0 si se agota la espera y NULL si hay un error
+                if (rs.next() && rs.getInt(1) == 1) {
+                    return true;
+                }
+            }
+        }
+        throw new SQLException("No se ha obtenido el bloqueo de migraciones " + BLOQUEO + " en " +
+                ESPERA_BLOQUEO_SEGUNDOS + " s: otro proceso está migrando el esquema");
+    }
+
+    /**
+     * Libera el bloqueo de migraciones antes de devolver la conexión al pool, ya que el bloqueo pertenece a la
+     * sesión de la conexión y no a la transacción.
+     */
+    private static void desbloquear(Connection conexion) {
+        try (PreparedStatement statement = conexion.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, BLOQUEO);
+            statement.executeQuery().close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "No se ha podido liberar el bloqueo de migraciones " + BLOQUEO, e);
+        }
+    }
+
+    /**
+     * Indica si este proceso ha comprobado que la versión está aplicada en la base de datos de la aplicación.
+     * Devuelve {@code false} mientras no ha terminado la migración al arrancar, si ha fallado antes de aplicar la
+     * versión o si las migraciones están desactivadas, ya que entonces no se sabe si el esquema la incluye.
+     *
+     * @param version la versión del esquema.
+     * @return {@code true} si la versión está aplicada.
+     */
+    public static boolean estaAplicada(int version) {
+        return VERSIONES_CONFIRMADAS.contains(version);
+    }
+
+    /**
+     * Obtiene el plan de ejecución de las consultas más frecuentes y comprueba si usan un índice que empieza por
+     * la columna esperada. Las consultas que no lo usan se registran como advertencia.
+     *
+     * @return los planes obtenidos.
+     * @throws SQLException si no se puede obtener una conexión.
+     */
+    public List<PlanConsulta> verificarPlanes() throws SQLException {
+        List<PlanConsulta> resultado = new ArrayList<>();
+        try (Connection conexion = dataSource.getConnection()) {
+            for (ConsultaVerificada consulta : CONSULTAS_VERIFICADAS) {
+                Set<String> indicesValidos = obtenerIndicesPorColumna(conexion, consulta.tabla, consulta.columna);
+                String plan;
+                String indiceUsado = null;
+                try (Statement statement = conexion.createStatement();
+                     ResultSet rs = statement.executeQuery("EXPLAIN " + consulta.sql)) {
+                    StringBuilder texto = new StringBuilder();
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    while (rs.next()) {
+                        if (!texto.isEmpty()) {
+                            texto.append('\n');
+                        }
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            String valor = rs.getString(i);
+                            String columna = metaData.getColumnLabel(i);
+                            if (valor == null) {
+                                continue;
+                            }
+                            if ("key".equalsIgnoreCase(columna) && indicesValidos.contains(valor.toLowerCase(Locale.ROOT))) {
+                                indiceUsado = valor;
+                            }
+                            texto.append(columna).append('=').append(valor).append(' ');
+                        }
+                    }
+                    plan = texto.toString().trim();
+                } catch (SQLException e) {
+                    plan = "Error al obtener el plan: " + e.getMessage();
+                }
+                if (indiceUsado == null) {
+                    LOGGER.warning("La consulta \"" + consulta.descripcion + "\" no usa un índice sobre " +
+                            consulta.tabla + "." + consulta.columna + ": " + plan);
+                }
+                resultado.add(new PlanConsulta(consulta.descripcion, consulta.sql, plan, indiceUsado));
+            }
+        }
+        planes = Collections.unmodifiableList(resultado);
+        return planes;
+    }
+
+    /**
+     * Obtiene los planes de ejecución de la última verificación.
+     *
+     * @return los planes verificados, o una lista vacía si todavía no se han verificado.
+     */
+    public List<PlanConsulta> getPlanes() {
+        return planes;
+    }
+
+    private Set<Integer> obtenerVersionesAplicadas(Connection conexion) throws SQLException {
+        Set<Integer> versiones = new HashSet<>();
+        try (Statement statement = conexion.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version FROM " + TABLA_VERSIONES)) {
+            while (rs.next()) {
+                versiones.add(rs.getInt(1));
+            }
+        }
+        return versiones;
+    }
+
+    private static void crearIndiceSiFalta(Connection conexion, Indice indice) throws SQLException {
+        List<String> columnas = Arrays.asList(indice.columnas);
+        Set<String> unicos = new HashSet<>();
+        Map<String, List<String>> existentes = obtenerIndices(conexion, indice.tabla, unicos);
+        boolean cubierto = false;
+        for (Map.Entry<String, List<String>> existente : existentes.entrySet()) {
+            List<String> columnasExistentes = existente.getValue();
+            cubierto = indice.unico
+                    ? unicos.contains(existente.getKey()) && new HashSet<>(columnasExistentes).equals(new HashSet<>(columnas))
+                    : columnasExistentes.size() >= columnas.size()
+                    && columnasExistentes.subList(0, columnas.size()).equals(columnas);
+            if (cubierto) {
+                LOGGER.fine("La tabla " + indice.tabla + " ya tiene el índice " + existente.getKey() + " sobre " + columnas);
+                break;
+            }
+        }
+        try (Statement statement = conexion.createStatement()) {
+            if (!cubierto) {
+                statement.execute("CREATE " + (indice.unico ? "UNIQUE " : "") + "INDEX " + indice.nombre + " ON " + indice.tabla +
+                        " (" + String.join(", ", indice.columnas) + ")");
+            }
+            // El índice sustituido solo se elimina cuando ya existe el que lo sustituye
+            if (indice.sustituye != null && existentes.containsKey(indice.sustituye.toLowerCase(Locale.ROOT))
+                    && !unicos.contains(indice.sustituye.toLowerCase(Locale.ROOT))) {
+                statement.execute("ALTER TABLE " + indice.tabla + " DROP INDEX " + indice.sustituye);
+            }
+        }
+    }
+
+    /**
+     * Obtiene los nombres (en minúsculas) de los índices de la tabla cuya primera columna es la indicada.
+     */
+    private Set<String> obtenerIndicesPorColumna(Connection conexion, String tabla, String columna) throws SQLException {
+        Set<String> indices = new HashSet<>();
+        for (Map.Entry<String, List<String>> indice : obtenerIndices(conexion, tabla).entrySet()) {
+            if (indice.getValue().get(0).equals(columna.toLowerCase(Locale.ROOT))) {
+                indices.add(indice.getKey());
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Obtiene los índices de la tabla con sus columnas en orden, con los nombres en minúsculas.
+     */
+    private static Map<String, List<String>> obtenerIndices(Connection conexion, String tabla) throws SQLException {
+        return obtenerIndices(conexion, tabla, new HashSet<>());
+    }
+
+    /**
+     * Obtiene los índices de la tabla con sus columnas en orden, con los nombres en minúsculas, y añade a
+     * {@code unicos} los nombres de los que son únicos.
+     */
+    private static Map<String, List<String>> obtenerIndices(Connection conexion, String tabla, Set<String> unicos) throws SQLException {
+        Map<String, TreeMap<Short, String>> columnasPorIndice = new HashMap<>();
+        try (ResultSet rs = conexion.getMetaData().getIndexInfo(conexion.getCatalog(), null, tabla, false, true)) {
+            while (rs.next()) {
+                String nombre = rs.getString("INDEX_NAME");
+                String columna = rs.getString("COLUMN_NAME");
+                if (nombre != null && columna != null) {
+                    if (!rs.getBoolean("NON_UNIQUE")) {
+                        unicos.add(nombre.toLowerCase(Locale.ROOT));
+                    }
+                    columnasPorIndice.computeIfAbsent(nombre.toLowerCase(Locale.ROOT), k -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), columna.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        Map<String, List<String>> indices = new HashMap<>();
+        columnasPorIndice.forEach((nombre, columnas) -> indices.put(nombre, new ArrayList<>(columnas.values())));
+        return indices;
+    }
+
+    /**
+     * Añade la columna a la tabla si todavía no existe.
+     */
+    private static void crearColumnaSiFalta(Connection conexion, Columna columna) throws SQLException {
+        try (ResultSet rs = conexion.getMetaData().getColumns(conexion.getCatalog(), null, columna.tabla, columna.nombre)) {
+            if (rs.next()) {
+                LOGGER.fine("La tabla " + columna.tabla + " ya tiene la columna " + columna.nombre);
+                return;
+            }
+        }
+        try (Statement statement = conexion.createStatement()) {
+            statement.execute("ALTER TABLE " + columna.tabla + " ADD COLUMN " + columna.nombre + " " + columna.definicion);
+        }
+    }
+
+    private void registrarVersion(Connection conexion, Migracion migracion) throws SQLException {
+        try (PreparedStatement statement = conexion.prepareStatement(
+                "INSERT INTO " + TABLA_VERSIONES + " (version, descripcion, fecha_aplicacion) VALUES (?, ?, ?)")) {
+            statement.setInt(1, migracion.version);
+            statement.setString(2, migracion.descripcion);
+            statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Plan de ejecución de una de las consultas verificadas.
+     */
+    public static final class PlanConsulta {
+        private final String descripcion;
+        private final String sql;
+        private final String plan;
+        private final String indiceUsado;
+
+        PlanConsulta(String descripcion, String sql, String plan, String indiceUsado) {
+            this.descripcion = descripcion;
+            this.sql = sql;
+            this.plan = plan;
+            this.indiceUsado = indiceUsado;
+        }
+
+        /**
+         * @return la descripción de la consulta.
+         */
+        public String getDescripcion() {
+            return descripcion;
+        }
+
+        /**
+         * @return la sentencia SQL de la que se obtuvo el plan.
+         */
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return el resultado de {@code EXPLAIN}, con una línea por fila.
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+        /**
+         * @return el índice esperado que usa la consulta, o {@code null} si no usa ninguno.
+         */
+        public String getIndiceUsado() {
+            return indiceUsado;
+        }
+
+        /**
+         * @return {@code true} si la consulta usa un índice que empieza por la columna esperada.
+         */
+        public boolean usaIndice() {
+            return indiceUsado != null;
+        }
+    }
+
+    /**
+     * Migración del esquema: un número de versión y los pasos que aplica.
+     */
+    private static final class Migracion {
+        private final int version;
+        private final String descripcion;
+        private final List<Paso> pasos;
+        private boolean independiente;
+
+        private Migracion(int version, String descripcion, List<Paso> pasos) {
+            this.version = version;
+            this.descripcion = descripcion;
+            this.pasos = pasos;
+        }
+
+        /**
+         * Indica que las migraciones siguientes no dependen de esta, de modo que se aplican aunque esta falle.
+         */
+        private Migracion independiente() {
+            this.independiente = true;
+            return this;
+        }
+    }
+
+    /**
+     * Cambio del esquema que forma parte de una migración. Debe poder aplicarse sobre una base de datos que ya lo
+     * tenga, sin repetirlo.
+     */
+    private interface Paso {
+        void aplicar(Connection conexion) throws SQLException;
+    }
+
+    private static final class Indice implements Paso {
+        private final String tabla;
+        private final String nombre;
+        private final boolean unico;
+        private final String[] columnas;
+        private String sustituye;
+
+        private Indice(String tabla, String nombre, String... columnas) {
+            this(tabla, nombre, false, columnas);
+        }
+
+        private Indice(String tabla, String nombre, boolean unico, String... columnas) {
+            this.tabla = tabla;
+            this.nombre = nombre;
+            this.unico = unico;
+            this.columnas = columnas;
+        }
+
+        private static Indice unico(String tabla, String nombre, String... columnas) {
+            return new Indice(tabla, nombre, true, columnas);
+        }
+
+        /**
+         * Indica el índice no único que se elimina una vez creado este, por tener las mismas columnas.
+         */
+        private Indice sustituyendo(String nombreSustituido) {
+            this.sustituye = nombreSustituido;
+            return this;
+        }
+
+        @Override
+        public void aplicar(Connection conexion) throws SQLException {
+            crearIndiceSiFalta(conexion, this);
+        }
+    }
+
+    private static final class Columna implements Paso {
+        private final String tabla;
+        private final String nombre;
+        private final String definicion;
+
+        private Columna(String tabla, String nombre, String definicion) {
+            this.tabla = tabla;
+            this.nombre = nombre;
+            this.definicion = definicion;
+        }
+
+        @Override
+        public void aplicar(Connection conexion) throws SQLException {
+            crearColumnaSiFalta(conexion, this);
+        }
+    }
+
+    private static final class ConsultaVerificada {
+        private final String descripcion;
+        private final String sql;
+        private final String tabla;
+        private final String columna;
+
+        private ConsultaVerificada(String descripcion, String sql, String tabla, String columna) {
+            this.descripcion = descripcion;
+            this.sql = sql;
+            this.tabla = tabla;
+            this.columna = columna;
+        }
+    }
+}
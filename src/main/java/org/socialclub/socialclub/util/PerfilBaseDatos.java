@@ -0,0 +1,115 @@
+package org.socialclub.socialclub.util;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Perfiles de base de datos con los que puede arrancar {@link HibernateUtil}.
+ * El perfil se elige con la propiedad del sistema {@value #PROPIEDAD} o, si no está definida, con la variable de
+ * entorno {@value #VARIABLE_ENTORNO}; sin ninguna de las dos se usa el servidor de "hibernate.cfg.xml".
+ * <p>
+ * El perfil embebido usa las mismas entidades contra una base de datos H2 en memoria, en modo MySQL: el esquema se
+ * genera a partir de las entidades y se cargan los datos de ejemplo de {@value #DATOS_EMBEBIDOS}. Así las pruebas de
+ * integración y los benchmarks se pueden ejecutar de forma repetible sin conexión con el servidor. Por ejemplo:
+ * <pre>{@code
+ * CLUBSOCIAL_BD_PERFIL=embebida gradle run
+ * }</pre>
+ */
+public enum PerfilBaseDatos {
+    /**
+     * Servidor MySQL configurado en "hibernate.cfg.xml".
+     */
+    REMOTA("remota", Map.of()),
+
+    /**
+     * Base de datos H2 en memoria, en modo MySQL, con el esquema y los datos de ejemplo generados al arrancar.
+     */
+    EMBEBIDA("embebida", Map.of(
+            AvailableSettings.URL, "jdbc:h2:mem:clubsocial;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+                    + "INIT=CREATE SCHEMA IF NOT EXISTS clubsocial\\;SET SCHEMA clubsocial",
+            AvailableSettings.DRIVER, "org.h2.Driver",
+            AvailableSettings.USER, "sa",
+            AvailableSettings.PASS, "",
+            AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect",
+            AvailableSettings.HBM2DDL_AUTO, "create",
+            AvailableSettings.HBM2DDL_IMPORT_FILES, PerfilBaseDatos.DATOS_EMBEBIDOS,
+            AvailableSettings.HBM2DDL_CHARSET_NAME, "UTF-8",
+            // Las sentencias del script ocupan varias líneas y terminan en ';'
+            AvailableSettings.HBM2DDL_IMPORT_FILES_SQL_EXTRACTOR,
+            "org.hibernate.tool.schema.internal.script.MultiLineSqlScriptExtractor"));
+
+    /**
+     * Propiedad del sistema con el código del perfil ("remota" o "embebida").
+     */
+    public static final String PROPIEDAD = "clubsocial.bd.perfil";
+
+    /**
+     * Variable de entorno con el código del perfil, que se consulta si no está definida la propiedad del sistema.
+     */
+    public static final String VARIABLE_ENTORNO = "CLUBSOCIAL_BD_PERFIL";
+
+    /**
+     * Script con los datos de ejemplo de la base de datos embebida.
+     */
+    public static final String DATOS_EMBEBIDOS = "/db/datos-embebidos.sql";
+
+    private final String codigo;
+    private final Map<String, String> propiedades;
+
+    PerfilBaseDatos(String codigo, Map<String, String> propiedades) {
+        this.codigo = codigo;
+        this.propiedades = propiedades;
+    }
+
+    /**
+     * Obtiene el perfil seleccionado con la propiedad del sistema o la variable de entorno.
+     *
+     * @return el perfil seleccionado, o {@link #REMOTA} si no se ha seleccionado ninguno.
+     * @throws IllegalArgumentException si el código seleccionado no corresponde a ningún perfil.
+     */
+    public static PerfilBaseDatos actual() {
+        String codigo = System.getProperty(PROPIEDAD);
+        if (codigo == null || codigo.isBlank()) {
+            codigo = System.getenv(VARIABLE_ENTORNO);
+        }
+        return codigo == null || codigo.isBlank() ? REMOTA : desdeCodigo(codigo);
+    }
+
+    /**
+     * Obtiene el perfil a partir de su código, sin distinguir mayúsculas de minúsculas.
+     *
+     * @param codigo el código del perfil.
+     * @return el perfil.
+     * @throws IllegalArgumentException si el código no corresponde a ningún perfil.
+     */
+    public static PerfilBaseDatos desdeCodigo(String codigo) {
+        String normalizado = codigo.trim().toLowerCase(Locale.ROOT);
+        for (PerfilBaseDatos perfil : values()) {
+            if (perfil.codigo.equals(normalizado)) {
+                return perfil;
+            }
+        }
+        throw new IllegalArgumentException("Perfil de base de datos no válido: " + codigo);
+    }
+
+    /**
+     * Obtiene el código del perfil.
+     *
+     * @return el código del perfil.
+     */
+    public String getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Aplica a la configuración de Hibernate las propiedades del perfil, que sustituyen a las del archivo.
+     *
+     * @param configuration la configuración leída de "hibernate.cfg.xml".
+     */
+    public void aplicar(Configuration configuration) {
+        propiedades.forEach(configuration::setProperty);
+    }
+}
@@ -0,0 +1,128 @@
+package org.socialclub.socialclub.util;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Modelo de una {@link TableView} que carga sus filas por páginas a medida que el usuario se desplaza hasta el final.
+ * Cada página se pide al DAO a partir del último elemento cargado (paginación por clave), de modo que el coste
+ * de la primera carga y la memoria ocupada no dependen del tamaño total de la tabla en la base de datos.
+ * Las filas se muestran en el orden en que las devuelve el DAO, así que se desactiva la ordenación por columnas:
+ * ordenar solo las páginas cargadas mostraría un orden incorrecto y las páginas siguientes se añadirían sin ordenar.
+ *
+ * @param <T> el tipo de las filas de la tabla.
+ */
+public class TablaPaginada<T> {
+    /**
+     * Número de filas por página por defecto.
+     */
+    public static final int TAMANO_PAGINA_DEFECTO = 100;
+
+    // Posición de desplazamiento (0 a 1) a partir de la cual se carga la siguiente página
+    private static final double UMBRAL_DESPLAZAMIENTO = 0.9;
+
+    private final TableView<T> tabla;
+    private final int tamanoPagina;
+    private final BiFunction<T, Integer, List<T>> cargador;
+    private final ObservableList<T> elementos = FXCollections.observableArrayList();
+
+    private T ultimo;
+    private boolean hayMas = true;
+    private boolean cargando;
+    private boolean desplazamientoEnganchado;
+
+    /**
+     * Crea el modelo paginado, lo asigna a la tabla y desactiva la ordenación de sus columnas.
+     * No carga ninguna página hasta llamar a {@link #recargar()}.
+     *
+     * @param tabla        la tabla que muestra las filas.
+     * @param tamanoPagina el número de filas que se piden en cada página.
+     * @param cargador     la función que devuelve la página siguiente al elemento indicado (o la primera página si es
+     *                     {@code null}), con como máximo el número de filas indicado.
+     */
+    public TablaPaginada(TableView<T> tabla, int tamanoPagina, BiFunction<T, Integer, List<T>> cargador) {
+        this.tabla = tabla;
+        this.tamanoPagina = tamanoPagina;
+        this.cargador = cargador;
+        tabla.setItems(elementos);
+        tabla.getSortOrder().clear();
+        desactivarOrdenacion(tabla.getColumns());
+        tabla.getColumns().addListener((ListChangeListener<TableColumn<T, ?>>) cambio -> {
+            while (cambio.next()) {
+                desactivarOrdenacion(cambio.getAddedSubList());
+            }
+        });
+        if (tabla.getSkin() != null) {
+            engancharDesplazamiento();
+        }
+        tabla.skinProperty().addListener((obs, anterior, nueva) -> engancharDesplazamiento());
+    }
+
+    /**
+     * Descarta las filas cargadas y vuelve a cargar la primera página.
+     */
+    public void recargar() {
+        elementos.clear();
+        ultimo = null;
+        hayMas = true;
+        cargarSiguientePagina();
+    }
+
+    /**
+     * Carga la página siguiente a la última cargada, si quedan filas por cargar.
+     */
+    public void cargarSiguientePagina() {
+        if (cargando || !hayMas) {
+            return;
+        }
+        cargando = true;
+        try {
+            List<T> pagina = cargador.apply(ultimo, tamanoPagina);
+            if (pagina == null || pagina.isEmpty()) {
+                hayMas = false;
+                return;
+            }
+            // La clave de la siguiente página es la última fila recibida
+            ultimo = pagina.get(pagina.size() - 1);
+            hayMas = pagina.size() >= tamanoPagina;
+            elementos.addAll(pagina);
+        } finally {
+            cargando = false;
+        }
+    }
+
+    /**
+     * Indica si quedan filas por cargar en la base de datos.
+     *
+     * @return {@code true} si la última página recibida estaba completa.
+     */
+    public boolean hayMas() {
+        return hayMas;
+    }
+
+    private static void desactivarOrdenacion(List<? extends TableColumn<?, ?>> columnas) {
+        for (TableColumn<?, ?> columna : columnas) {
+            columna.setSortable(false);
+            desactivarOrdenacion(columna.getColumns());
+        }
+    }
+
+    private void engancharDesplazamiento() {
+        if (desplazamientoEnganchado || !(tabla.lookup(".virtual-flow") instanceof VirtualFlow<?> flujo)) {
+            return;
+        }
+        desplazamientoEnganchado = true;
+        flujo.positionProperty().addListener((obs, anterior, posicion) -> {
+            if (posicion.doubleValue() >= UMBRAL_DESPLAZAMIENTO) {
+                cargarSiguientePagina();
+            }
+        });
+    }
+}
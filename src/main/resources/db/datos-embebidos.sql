@@ -0,0 +1,69 @@
+-- Datos de ejemplo de la base de datos embebida (perfil "embebida" de PerfilBaseDatos).
+-- Hibernate ejecuta este script después de crear el esquema a partir de las entidades.
+-- Las fechas son relativas al día de arranque para que los listados del día tengan siempre datos.
+
+-- En el servidor, el número y el identificador del socio los genera la base de datos
+ALTER TABLE clubsocial.socio ALTER COLUMN numero_socio SET DEFAULT CAST(RANDOM_UUID() AS VARCHAR(200));
+CREATE SEQUENCE clubsocial.socio_id_socio_seq START WITH 100;
+ALTER TABLE clubsocial.socio ALTER COLUMN id_socio SET DEFAULT NEXT VALUE FOR clubsocial.socio_id_socio_seq;
+
+INSERT INTO clubsocial.rol (id, nombre_rol, descripcion) VALUES
+    (1, 'ADMIN', 'Administrador'),
+    (2, 'EMPLEADO', 'Empleado de recepción');
+
+-- El empleado 1 es el que usa el inicio de sesión "admin"
+INSERT INTO clubsocial.empleado (id, nombre, apellidos, dni, telefono, domicilio, fecha_nacimiento, email, rol) VALUES
+    (1, 'Admin', 'Club Social', '00000000T', '600000000', 'Club', DATE '1980-01-01', 'admin@club.local', 1),
+    (2, 'Recepción', 'Club Social', '00000001R', '600000001', 'Club', DATE '1990-06-15', 'recepcion@club.local', 2);
+
+INSERT INTO clubsocial.familia (num_familia, nombre_titular, apellidos_titular, id_empleado, numero_miembros) VALUES
+    (1, 'Ana', 'García López', 1, 3),
+    (2, 'Luis', 'Martín Ruiz', 1, 2),
+    (3, 'Carmen', 'Sánchez Gil', 2, 1);
+
+INSERT INTO clubsocial.socio (numero_socio, id_socio, num_familia, nombre, apellidos, telefono, dni, email,
+                              fecha_nacimiento, dentro_instalacion, fecha_alta, id_empleado, titularidad) VALUES
+    ('SOC-0001', 1, 1, 'Ana', 'García López', '611000001', '11111111H', 'ana@club.local',
+     CURRENT_DATE - INTERVAL '45' YEAR, 1, CURRENT_DATE - INTERVAL '400' DAY, 1, 'TITULAR'),
+    ('SOC-0002', 2, 1, 'Pedro', 'Pérez Díaz', '611000002', '22222222J', NULL,
+     CURRENT_DATE - INTERVAL '47' YEAR, 0, CURRENT_DATE - INTERVAL '400' DAY, 1, 'COTITULAR'),
+    ('SOC-0003', 3, 1, 'Lucía', 'Pérez García', '611000003', NULL, NULL,
+     CURRENT_DATE - INTERVAL '8' YEAR, 1, CURRENT_DATE - INTERVAL '400' DAY, 1, 'NORMAL'),
+    ('SOC-0004', 4, 2, 'Luis', 'Martín Ruiz', '611000004', '44444444A', 'luis@club.local',
+     CURRENT_DATE - INTERVAL '70' YEAR, 0, CURRENT_DATE - INTERVAL '120' DAY, 2, 'TITULAR'),
+    ('SOC-0005', 5, 2, 'Marta', 'Martín Ruiz', '611000005', NULL, NULL,
+     CURRENT_DATE - INTERVAL '15' YEAR, 0, CURRENT_DATE - INTERVAL '120' DAY, 2, 'NORMAL'),
+    ('SOC-0006', 6, 3, 'Carmen', 'Sánchez Gil', '611000006', '66666666Q', 'carmen@club.local',
+     CURRENT_DATE - INTERVAL '30' YEAR, 0, CURRENT_DATE - INTERVAL '10' DAY, 2, 'TITULAR');
+
+INSERT INTO clubsocial.instalacion (id, tipo, nombre, capacidad, precio_alquiler, duracion, hora_ini, hora_fin,
+                                    disponibilidad, id_empleado) VALUES
+    (1, 'Pista', 'Pádel 1', 4, 10.00, 60, TIME '09:00:00', TIME '21:00:00', 1, 1),
+    (2, 'Pista', 'Tenis 1', 4, 12.00, 60, TIME '09:00:00', TIME '21:00:00', 1, 1),
+    (3, 'Sala', 'Salón social', 40, 50.00, 120, TIME '10:00:00', TIME '22:00:00', 1, 1);
+
+INSERT INTO clubsocial.horarios (id, id_instalacion, hora_inicio, hora_fin, disponible) VALUES
+    (1, 1, TIME '09:00:00', TIME '14:00:00', 1),
+    (2, 1, TIME '16:00:00', TIME '21:00:00', 1),
+    (3, 2, TIME '09:00:00', TIME '21:00:00', 1),
+    (4, 3, TIME '10:00:00', TIME '22:00:00', 1);
+
+INSERT INTO clubsocial.evento (nombre, fecha) VALUES
+    ('Torneo de pádel', CURRENT_DATE + INTERVAL '7' DAY),
+    ('Cena de socios', CURRENT_DATE + INTERVAL '30' DAY);
+
+-- Registros cerrados de días anteriores y de hoy; los socios 1 y 3 están dentro (registro sin hora de salida)
+INSERT INTO clubsocial.registro_entrada (fecha, numero_socio, hora_entrada, hora_salida, id_empleado) VALUES
+    (CURRENT_DATE - INTERVAL '2' DAY, 'SOC-0001', TIME '10:00:00', TIME '12:30:00', 1),
+    (CURRENT_DATE - INTERVAL '2' DAY, 'SOC-0004', TIME '11:15:00', TIME '13:00:00', 2),
+    (CURRENT_DATE - INTERVAL '1' DAY, 'SOC-0002', TIME '17:00:00', TIME '20:45:00', 1),
+    (CURRENT_DATE - INTERVAL '1' DAY, 'SOC-0006', TIME '18:30:00', TIME '19:30:00', 2),
+    (CURRENT_DATE, 'SOC-0005', TIME '08:30:00', TIME '09:15:00', 1),
+    (CURRENT_DATE, 'SOC-0001', TIME '09:00:00', NULL, 1),
+    (CURRENT_DATE, 'SOC-0003', TIME '09:05:00', NULL, 1);
+
+INSERT INTO clubsocial.reserva (fecha, hora, id_instalacion, numero_socio, id_empleado) VALUES
+    (CURRENT_DATE, TIME '10:00:00', 1, 'SOC-0001', 1),
+    (CURRENT_DATE, TIME '18:00:00', 2, 'SOC-0004', 2),
+    (CURRENT_DATE + INTERVAL '1' DAY, TIME '11:00:00', 1, 'SOC-0006', 2),
+    (CURRENT_DATE + INTERVAL '2' DAY, TIME '20:00:00', 3, 'SOC-0002', 1);
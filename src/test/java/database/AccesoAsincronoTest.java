@@ -0,0 +1,59 @@
+package database;
+
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.database.AccesoAsincrono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para AccesoAsincrono.
+ */
+class AccesoAsincronoTest {
+
+    /**
+     * Prueba que la llamada se ejecuta en un hilo virtual distinto del que la solicita.
+     */
+    @Test
+    void testConsultarEnHiloVirtual() throws Exception {
+        Thread llamante = Thread.currentThread();
+
+        CompletableFuture<Thread> hilo = AccesoAsincrono.consultar(Thread::currentThread);
+
+        Thread ejecutor = hilo.get(5, TimeUnit.SECONDS);
+        assertNotSame(llamante, ejecutor);
+        assertTrue(ejecutor.isVirtual());
+    }
+
+    /**
+     * Prueba que una excepción de la llamada completa el resultado de forma excepcional.
+     */
+    @Test
+    void testConsultarConError() {
+        CompletableFuture<Integer> resultado = AccesoAsincrono.consultar(() -> {
+            throw new IllegalStateException("Sin conexión");
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    /**
+     * Prueba que las operaciones sin resultado también se ejecutan en segundo plano.
+     */
+    @Test
+    void testEjecutar() throws Exception {
+        int[] llamadas = {0};
+
+        AccesoAsincrono.ejecutar(() -> llamadas[0]++).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, llamadas[0]);
+    }
+}
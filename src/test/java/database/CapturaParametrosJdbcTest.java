@@ -0,0 +1,69 @@
+package database;
+
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.util.CapturaParametrosJdbc;
+
+import javax.sql.DataSource;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de prueba para CapturaParametrosJdbc.
+ */
+class CapturaParametrosJdbcTest {
+
+    /**
+     * Ejecuta una sentencia preparada a través del origen de datos envuelto con los parámetros indicados.
+     *
+     * @param valores los valores de los parámetros, por posición a partir de 1.
+     */
+    private static void ejecutar(Object... valores) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection conexion = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(conexion);
+        when(conexion.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+
+        PreparedStatement sentencia = CapturaParametrosJdbc.envolver(dataSource).getConnection().prepareStatement("SELECT 1");
+        for (int i = 0; i < valores.length; i++) {
+            sentencia.setObject(i + 1, valores[i]);
+        }
+        sentencia.executeQuery();
+    }
+
+    /**
+     * Prueba que los parámetros habituales se muestran tal cual.
+     */
+    @Test
+    void testParametrosVisibles() throws SQLException {
+        ejecutar(LocalDate.of(2024, 6, 1), "SOC-0001", 3);
+
+        assertEquals("{1=2024-06-01, 2=SOC-0001, 3=3}", CapturaParametrosJdbc.ultimosParametros());
+    }
+
+    /**
+     * Prueba que los binarios se sustituyen por su tamaño o su tipo, sin mostrar su contenido.
+     */
+    @Test
+    void testOcultaBinarios() throws SQLException {
+        ejecutar(new byte[1632], mock(Blob.class), null);
+
+        assertEquals("{1=byte[1632], 2=<Blob>, 3=null}", CapturaParametrosJdbc.ultimosParametros());
+    }
+
+    /**
+     * Prueba que los DNI/NIE y los correos electrónicos no se muestran y que los textos largos se recortan.
+     */
+    @Test
+    void testOcultaDatosPersonales() throws SQLException {
+        ejecutar("12345678Z", "X1234567L", "socio@correo.es", "a".repeat(100));
+
+        assertEquals("{1=<dni>, 2=<dni>, 3=<email>, 4=" + "a".repeat(64) + "...}",
+                CapturaParametrosJdbc.ultimosParametros());
+    }
+}
@@ -0,0 +1,43 @@
+package database;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.util.EstadisticasHibernate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Clase de prueba para EstadisticasHibernate.
+ * {@link StatisticsImpl} es una clase interna de Hibernate: estas pruebas fallan al actualizar Hibernate si cambia
+ * el método que se sobrescribe, en lugar de dejar de registrar las consultas lentas sin avisar.
+ */
+class EstadisticasHibernateTest {
+
+    /**
+     * Prueba que Hibernate sigue notificando las consultas con el método que sobrescribe EstadisticasHibernate.
+     */
+    @Test
+    void testSobrescribeQueryExecuted() throws NoSuchMethodException {
+        Method original = StatisticsImpl.class.getMethod("queryExecuted", String.class, int.class, long.class);
+        Method sobrescrito = EstadisticasHibernate.class.getMethod("queryExecuted", String.class, int.class, long.class);
+
+        assertFalse(Modifier.isFinal(original.getModifiers()), "queryExecuted ya no se puede sobrescribir");
+        assertEquals(void.class, original.getReturnType());
+        assertEquals(EstadisticasHibernate.class, sobrescrito.getDeclaringClass());
+    }
+
+    /**
+     * Prueba que StatisticsImpl conserva el constructor que usa la factoría de estadísticas de HibernateUtil.
+     */
+    @Test
+    void testConstructorDeStatisticsImpl() {
+        assertDoesNotThrow(() -> StatisticsImpl.class.getConstructor(SessionFactoryImplementor.class));
+        assertDoesNotThrow(() -> EstadisticasHibernate.class.getConstructor(SessionFactoryImplementor.class));
+    }
+}
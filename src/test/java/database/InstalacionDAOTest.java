@@ -1,5 +1,6 @@
 package database;
 
+import org.hibernate.Cache;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
@@ -11,6 +12,7 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.socialclub.socialclub.database.InstalacionDAO;
+import org.socialclub.socialclub.model.Horario;
 import org.socialclub.socialclub.model.Instalacion;
 import org.socialclub.socialclub.util.HibernateUtil;
 
@@ -131,6 +133,24 @@ class InstalacionDAOTest {
 
         assertNotNull(instalaciones, "La lista de instalaciones no debería ser nula");
         assertEquals(1, instalaciones.size(), "La lista de instalaciones debería tener un tamaño de 1");
+        verify(query).setCacheable(true);
+        verify(query).setCacheRegion("referencia");
+    }
+
+    /**
+     * Prueba que al actualizar una instalación se eliminan de la caché las instalaciones, los horarios
+     * y las consultas de datos de referencia.
+     */
+    @Test
+    void testUpdateInstalacionInvalidaCache() {
+        Cache cache = mock(Cache.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        instalacionDAO.updateInstalacion(crearInstalacionMock());
+
+        verify(cache).evictEntityData(Instalacion.class);
+        verify(cache).evictEntityData(Horario.class);
+        verify(cache).evictQueryRegion("referencia");
     }
 
 }
\ No newline at end of file
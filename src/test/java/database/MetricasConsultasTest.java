@@ -0,0 +1,124 @@
+package database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.socialclub.socialclub.util.MetricasConsultas;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para MetricasConsultas.
+ */
+class MetricasConsultasTest {
+
+    private final MetricasConsultas metricas = MetricasConsultas.getInstance();
+    private long umbralOriginal;
+
+    @BeforeEach
+    void setUp() {
+        umbralOriginal = metricas.getUmbralMs();
+        metricas.setUmbralMs(100);
+        metricas.reiniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        metricas.setUmbralMs(umbralOriginal);
+        metricas.reiniciar();
+    }
+
+    /**
+     * Prueba que los tiempos se acumulan por método y que los métodos se ordenan por tiempo total.
+     */
+    @Test
+    void testTiemposPorMetodo() {
+        metricas.salir("SocioDAO.obtenerSocios", metricas.entrar("SocioDAO.obtenerSocios"), 2_000_000);
+        metricas.salir("SocioDAO.obtenerSocios", metricas.entrar("SocioDAO.obtenerSocios"), 4_000_000);
+        metricas.salir("ReservaDAO.obtenerReservas", metricas.entrar("ReservaDAO.obtenerReservas"), 10_000_000);
+
+        List<MetricasConsultas.ResumenMetodo> resumenes = metricas.resumenesPorMetodo();
+
+        assertEquals(2, resumenes.size());
+        assertEquals("ReservaDAO.obtenerReservas", resumenes.get(0).getMetodo());
+        MetricasConsultas.ResumenMetodo socios = resumenes.get(1);
+        assertEquals(2, socios.getLlamadas());
+        assertEquals(3.0, socios.getMedia(), 1e-9);
+        assertEquals(4.0, socios.getMaximo(), 1e-9);
+        assertEquals(6.0, socios.getTotal(), 1e-9);
+    }
+
+    /**
+     * Prueba que solo las consultas que alcanzan el umbral se registran, atribuidas al método del DAO en curso.
+     */
+    @Test
+    void testConsultasLentas() {
+        String anterior = metricas.entrar("RegistroEntradaDAO.obtenerRegistrosEntradaPorFecha");
+        metricas.registrarConsulta("FROM RegistroEntrada r WHERE r.fecha = :fecha", 3, 99);
+        metricas.registrarConsulta("FROM RegistroEntrada r WHERE r.fecha = :fecha", 1200, 350);
+        metricas.salir("RegistroEntradaDAO.obtenerRegistrosEntradaPorFecha", anterior, 1_000_000);
+
+        List<MetricasConsultas.ConsultaLenta> lentas = metricas.getConsultasLentas();
+
+        assertEquals(1, metricas.getTotalConsultasLentas());
+        assertEquals(1, lentas.size());
+        assertEquals("RegistroEntradaDAO.obtenerRegistrosEntradaPorFecha", lentas.get(0).getMetodo());
+        assertEquals(1200, lentas.get(0).getFilas());
+        assertEquals(350, lentas.get(0).getMilisegundos());
+    }
+
+    /**
+     * Prueba que con el umbral a 0 las métricas están desactivadas y no se registran consultas lentas.
+     */
+    @Test
+    void testDesactivadas() {
+        metricas.setUmbralMs(0);
+
+        metricas.registrarConsulta("FROM Socio", 10, 5_000);
+
+        assertFalse(metricas.isActiva());
+        assertEquals(0, metricas.getTotalConsultasLentas());
+    }
+
+    /**
+     * Prueba que al salir del método más externo el hilo deja de tener un método en curso.
+     */
+    @Test
+    void testEntrarYSalirAnidados() {
+        String exterior = metricas.entrar("SocioDAO.obtenerSocios");
+        String interior = metricas.entrar("FamiliaDAO.obtenerFamilias");
+        metricas.salir("FamiliaDAO.obtenerFamilias", interior, 1);
+        metricas.salir("SocioDAO.obtenerSocios", exterior, 1);
+
+        assertEquals("SocioDAO.obtenerSocios", interior);
+        assertNull(exterior);
+        metricas.registrarConsulta("FROM Socio", 1, 500);
+        assertEquals("(fuera de un DAO)", metricas.getConsultasLentas().get(0).getMetodo());
+    }
+
+    /**
+     * Prueba que el archivo de métricas incluye los métodos y las consultas lentas.
+     */
+    @Test
+    void testEscribir(@TempDir Path directorio) throws Exception {
+        metricas.salir("SocioDAO.obtenerSocios", metricas.entrar("SocioDAO.obtenerSocios"), 2_000_000);
+        metricas.registrarConsulta("FROM Socio s WHERE s.dni = :dni", 1, 800);
+        Path archivo = directorio.resolve("metricas/consultas.txt");
+
+        metricas.escribir(archivo);
+
+        String contenido = Files.readString(archivo, StandardCharsets.UTF_8);
+        assertTrue(contenido.contains("SocioDAO.obtenerSocios"));
+        assertTrue(contenido.contains("FROM Socio s WHERE s.dni = :dni"));
+        assertTrue(contenido.contains("consultasLentas=1"));
+    }
+}
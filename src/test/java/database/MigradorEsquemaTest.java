@@ -0,0 +1,227 @@
+package database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.socialclub.socialclub.util.MigradorEsquema;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de prueba para MigradorEsquema.
+ */
+class MigradorEsquemaTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection conexion;
+    @Mock
+    private Statement statement;
+    @Mock
+    private PreparedStatement insertVersion;
+    @Mock
+    private DatabaseMetaData metaData;
+    @Mock
+    private ResultSet versiones;
+    @Mock
+    private ResultSet indices;
+    @Mock
+    private ResultSet columnas;
+
+    private MigradorEsquema migrador;
+
+    /**
+     * Configura el entorno de prueba antes de cada prueba.
+     */
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(dataSource.getConnection()).thenReturn(conexion);
+        when(conexion.createStatement()).thenReturn(statement);
+        when(conexion.prepareStatement(startsWith("INSERT INTO " + MigradorEsquema.TABLA_VERSIONES))).thenReturn(insertVersion);
+        when(conexion.getMetaData()).thenReturn(metaData);
+        when(statement.executeQuery("SELECT version FROM " + MigradorEsquema.TABLA_VERSIONES)).thenReturn(versiones);
+        when(metaData.getIndexInfo(any(), any(), anyString(), eq(false), eq(true))).thenReturn(indices);
+        when(metaData.getColumns(any(), any(), anyString(), anyString())).thenReturn(columnas);
+        migrador = new MigradorEsquema(dataSource);
+    }
+
+    /**
+     * Prueba que una base de datos sin migrar recibe los índices y registra la versión aplicada.
+     */
+    @Test
+    void testMigrarEsquemaNuevo() throws SQLException {
+        when(versiones.next()).thenReturn(false);
+        when(indices.next()).thenReturn(false);
+
+        int aplicadas = migrador.migrar();
+
+        assertEquals(4, aplicadas);
+        verify(statement).execute(startsWith("CREATE TABLE IF NOT EXISTS " + MigradorEsquema.TABLA_VERSIONES));
+        verify(statement).execute("CREATE INDEX idx_registro_entrada_salida ON registro_entrada (hora_salida, numero_socio)");
+        verify(statement).execute("CREATE INDEX idx_reserva_instalacion_fecha ON reserva (id_instalacion, fecha, hora)");
+        verify(statement).execute("CREATE INDEX idx_socio_fecha_nacimiento ON socio (fecha_nacimiento)");
+        verify(statement, times(7)).execute(startsWith("CREATE INDEX"));
+        verify(statement).execute("CREATE UNIQUE INDEX uk_reserva_instalacion_fecha_hora ON reserva (id_instalacion, fecha, hora)");
+        verify(insertVersion).setInt(1, 1);
+        verify(insertVersion).setInt(1, 2);
+        verify(statement).execute("ALTER TABLE socio ADD COLUMN huella_actualizada DATETIME(6) NULL");
+        verify(insertVersion).setInt(1, 3);
+        verify(insertVersion).setInt(1, 4);
+        verify(insertVersion, times(4)).executeUpdate();
+        verify(conexion).close();
+    }
+
+    /**
+     * Prueba que no se crea un índice si la tabla ya tiene otro que empieza por las mismas columnas.
+     */
+    @Test
+    void testNoDuplicaIndicesExistentes() throws SQLException {
+        when(versiones.next()).thenReturn(false);
+        when(indices.next()).thenReturn(true, true, false);
+        when(indices.getString("INDEX_NAME")).thenReturn("idx_salida");
+        when(indices.getString("COLUMN_NAME")).thenReturn("hora_salida", "numero_socio");
+        when(indices.getShort("ORDINAL_POSITION")).thenReturn((short) 1, (short) 2);
+
+        migrador.migrar();
+
+        verify(statement, never()).execute("CREATE INDEX idx_registro_entrada_salida ON registro_entrada (hora_salida, numero_socio)");
+        verify(statement, times(6)).execute(startsWith("CREATE INDEX"));
+    }
+
+    /**
+     * Prueba que en MySQL las migraciones se aplican con el bloqueo con nombre y que este se libera al terminar.
+     */
+    @Test
+    void testMigrarConBloqueoMySql() throws SQLException {
+        PreparedStatement bloqueo = mock(PreparedStatement.class);
+        PreparedStatement liberacion = mock(PreparedStatement.class);
+        ResultSet resultadoBloqueo = mock(ResultSet.class);
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        when(conexion.prepareStatement("SELECT GET_LOCK(?, ?)")).thenReturn(bloqueo);
+        when(conexion.prepareStatement("SELECT RELEASE_LOCK(?)")).thenReturn(liberacion);
+        when(bloqueo.executeQuery()).thenReturn(resultadoBloqueo);
+        when(liberacion.executeQuery()).thenReturn(mock(ResultSet.class));
+        when(resultadoBloqueo.next()).thenReturn(true);
+        when(resultadoBloqueo.getInt(1)).thenReturn(1);
+
+        assertEquals(4, migrador.migrar());
+
+        verify(bloqueo).setString(1, MigradorEsquema.BLOQUEO);
+        verify(liberacion).setString(1, MigradorEsquema.BLOQUEO);
+        verify(liberacion).executeQuery();
+    }
+
+    /**
+     * Prueba que, si otro proceso mantiene el bloqueo de migraciones, no se aplica ninguna migración.
+     */
+    @Test
+    void testBloqueoOcupado() throws SQLException {
+        PreparedStatement bloqueo = mock(PreparedStatement.class);
+        ResultSet resultadoBloqueo = mock(ResultSet.class);
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        when(conexion.prepareStatement("SELECT GET_LOCK(?, ?)")).thenReturn(bloqueo);
+        when(bloqueo.executeQuery()).thenReturn(resultadoBloqueo);
+        when(resultadoBloqueo.next()).thenReturn(true);
+        when(resultadoBloqueo.getInt(1)).thenReturn(0);
+
+        assertThrows(SQLException.class, () -> migrador.migrar());
+
+        verify(statement, never()).execute(anyString());
+        verify(conexion, never()).prepareStatement("SELECT RELEASE_LOCK(?)");
+        verify(conexion).close();
+    }
+
+    /**
+     * Prueba que las versiones ya aplicadas no se vuelven a aplicar.
+     */
+    @Test
+    void testVersionYaAplicada() throws SQLException {
+        when(versiones.next()).thenReturn(true, true, true, true, false);
+        when(versiones.getInt(1)).thenReturn(1, 2, 3, 4);
+
+        int aplicadas = migrador.migrar();
+
+        assertEquals(0, aplicadas);
+        verify(statement, never()).execute(startsWith("CREATE INDEX"));
+        verify(statement, never()).execute(startsWith("CREATE UNIQUE INDEX"));
+        verify(statement, never()).execute(startsWith("ALTER TABLE"));
+        verify(insertVersion, never()).executeUpdate();
+    }
+
+    /**
+     * Prueba que no se añade una columna que la tabla ya tiene, aunque la versión no esté registrada.
+     */
+    @Test
+    void testNoDuplicaColumnasExistentes() throws SQLException {
+        when(versiones.next()).thenReturn(true, true, true, false);
+        when(versiones.getInt(1)).thenReturn(1, 2, 3);
+        when(columnas.next()).thenReturn(true);
+
+        int aplicadas = migrador.migrar();
+
+        assertEquals(1, aplicadas);
+        verify(statement, never()).execute(startsWith("ALTER TABLE"));
+        verify(insertVersion).setInt(1, 4);
+    }
+
+    /**
+     * Prueba que un índice no único sobre las mismas columnas no impide crear la restricción de unicidad
+     * y que se elimina una vez creada, para no mantener dos índices sobre las mismas columnas.
+     */
+    @Test
+    void testIndiceUnicoSustituyeUnoNoUnico() throws SQLException {
+        when(versiones.next()).thenReturn(true, true, false);
+        when(versiones.getInt(1)).thenReturn(1, 2);
+        when(indices.next()).thenReturn(true, true, true, false);
+        when(indices.getString("INDEX_NAME")).thenReturn("idx_reserva_instalacion_fecha");
+        when(indices.getString("COLUMN_NAME")).thenReturn("id_instalacion", "fecha", "hora");
+        when(indices.getShort("ORDINAL_POSITION")).thenReturn((short) 1, (short) 2, (short) 3);
+        when(indices.getBoolean("NON_UNIQUE")).thenReturn(true);
+
+        int aplicadas = migrador.migrar();
+
+        assertEquals(2, aplicadas);
+        verify(statement).execute("CREATE UNIQUE INDEX uk_reserva_instalacion_fecha_hora ON reserva (id_instalacion, fecha, hora)");
+        verify(statement).execute("ALTER TABLE reserva DROP INDEX idx_reserva_instalacion_fecha");
+        verify(insertVersion).setInt(1, 3);
+        assertTrue(MigradorEsquema.estaAplicada(MigradorEsquema.VERSION_RESERVAS_UNICAS));
+    }
+
+    /**
+     * Prueba que, si la restricción de unicidad no se puede crear, el índice no único se conserva y la versión
+     * no se registra, pero las migraciones siguientes se aplican.
+     */
+    @Test
+    void testIndiceUnicoFallidoConservaElNoUnico() throws SQLException {
+        when(versiones.next()).thenReturn(true, true, false);
+        when(versiones.getInt(1)).thenReturn(1, 2);
+        when(indices.next()).thenReturn(true, true, true, false);
+        when(indices.getString("INDEX_NAME")).thenReturn("idx_reserva_instalacion_fecha");
+        when(indices.getString("COLUMN_NAME")).thenReturn("id_instalacion", "fecha", "hora");
+        when(indices.getShort("ORDINAL_POSITION")).thenReturn((short) 1, (short) 2, (short) 3);
+        when(indices.getBoolean("NON_UNIQUE")).thenReturn(true);
+        when(statement.execute(startsWith("CREATE UNIQUE INDEX"))).thenThrow(new SQLException("Duplicate entry", "23000", 1062));
+
+        assertThrows(SQLException.class, () -> migrador.migrar());
+
+        verify(statement, never()).execute(startsWith("ALTER TABLE reserva DROP INDEX"));
+        verify(insertVersion, never()).setInt(1, 3);
+        verify(statement).execute("ALTER TABLE socio ADD COLUMN huella_actualizada DATETIME(6) NULL");
+        verify(insertVersion).setInt(1, 4);
+        assertTrue(MigradorEsquema.estaAplicada(MigradorEsquema.VERSION_MARCA_HUELLA));
+    }
+}
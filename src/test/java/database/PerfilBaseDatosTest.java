@@ -0,0 +1,70 @@
+package database;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.util.PerfilBaseDatos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para PerfilBaseDatos.
+ */
+class PerfilBaseDatosTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(PerfilBaseDatos.PROPIEDAD);
+    }
+
+    /**
+     * Prueba que la propiedad del sistema selecciona el perfil, sin distinguir mayúsculas.
+     */
+    @Test
+    void testActualDesdePropiedad() {
+        System.setProperty(PerfilBaseDatos.PROPIEDAD, " Embebida ");
+
+        assertEquals(PerfilBaseDatos.EMBEBIDA, PerfilBaseDatos.actual());
+    }
+
+    /**
+     * Prueba que un código desconocido se rechaza en lugar de conectar con el servidor remoto.
+     */
+    @Test
+    void testCodigoNoValido() {
+        assertThrows(IllegalArgumentException.class, () -> PerfilBaseDatos.desdeCodigo("produccion"));
+    }
+
+    /**
+     * Prueba que el perfil embebido sustituye la conexión de "hibernate.cfg.xml" y carga los datos de ejemplo.
+     */
+    @Test
+    void testAplicarPerfilEmbebido() {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(AvailableSettings.URL, "jdbc:mysql://servidor/clubsocial");
+
+        PerfilBaseDatos.EMBEBIDA.aplicar(configuration);
+
+        assertTrue(configuration.getProperty(AvailableSettings.URL).startsWith("jdbc:h2:mem:clubsocial"));
+        assertEquals("org.h2.Driver", configuration.getProperty(AvailableSettings.DRIVER));
+        assertEquals(PerfilBaseDatos.DATOS_EMBEBIDOS, configuration.getProperty(AvailableSettings.HBM2DDL_IMPORT_FILES));
+        assertNotNull(getClass().getResource(PerfilBaseDatos.DATOS_EMBEBIDOS));
+    }
+
+    /**
+     * Prueba que el perfil remoto no modifica la configuración.
+     */
+    @Test
+    void testAplicarPerfilRemoto() {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(AvailableSettings.URL, "jdbc:mysql://servidor/clubsocial");
+
+        PerfilBaseDatos.REMOTA.aplicar(configuration);
+
+        assertEquals("jdbc:mysql://servidor/clubsocial", configuration.getProperty(AvailableSettings.URL));
+    }
+}
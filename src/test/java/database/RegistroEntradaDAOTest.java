@@ -3,6 +3,7 @@ package database;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
 import org.hibernate.query.Query;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,8 +12,10 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.socialclub.socialclub.database.RegistroEntradaDAO;
+import org.socialclub.socialclub.model.OcupacionSnapshot;
 import org.socialclub.socialclub.model.RegistroEntrada;
 import org.socialclub.socialclub.model.Socio;
+import org.socialclub.socialclub.model.SocioResumen;
 import org.socialclub.socialclub.util.HibernateUtil;
 
 import java.time.LocalDate;
@@ -21,6 +24,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 class RegistroEntradaDAOTest {
@@ -37,6 +41,14 @@ class RegistroEntradaDAOTest {
     private Query<Socio> socioQuery;
     @Mock
     private Query<Long> queryLong;
+    @Mock
+    private Query<String> queryString;
+    @Mock
+    private Query<SocioResumen> queryResumen;
+    @Mock
+    private MutationQuery mutationQuery;
+    @Mock
+    private Query<OcupacionSnapshot> queryOcupacion;
 
     private RegistroEntradaDAO registroEntradaDAO;
     private MockedStatic<HibernateUtil> mockedHibernateUtil;
@@ -122,13 +134,15 @@ class RegistroEntradaDAOTest {
    }
     @Test
     void testMarcarSalidaAutomatica() {
-        List<RegistroEntrada> registrosMock = List.of(crearRegistroEntradaMock());
-        when(session.createQuery("FROM RegistroEntrada WHERE horaSalida IS NULL", RegistroEntrada.class)).thenReturn(query);
-        when(query.getResultList()).thenReturn(registrosMock);
+        when(session.createMutationQuery("UPDATE RegistroEntrada r SET r.horaSalida = :horaSalida WHERE r.horaSalida IS NULL")).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(3);
 
-        registroEntradaDAO.marcarSalidaAutomatica();
+        int actualizados = registroEntradaDAO.marcarSalidaAutomatica();
 
-        verify(session, times(1)).merge(any(RegistroEntrada.class));
+        assertEquals(3, actualizados);
+        verify(mutationQuery).setParameter("horaSalida", LocalTime.MIDNIGHT);
+        verify(session, never()).createQuery(anyString(), eq(RegistroEntrada.class));
+        verify(session, never()).merge(any(RegistroEntrada.class));
         verify(transaction, times(1)).commit();
     }
 
@@ -147,7 +161,7 @@ class RegistroEntradaDAOTest {
     @Test
     void testObtenerSociosDentro() {
         List<Socio> sociosMock = List.of(crearSocioMock());
-        when(session.createQuery("SELECT r.numeroSocio FROM RegistroEntrada r WHERE r.horaSalida IS NULL", Socio.class)).thenReturn(socioQuery);
+        when(session.createQuery("FROM Socio s WHERE s.numeroSocio IN (SELECT r.numeroSocio.numeroSocio FROM RegistroEntrada r WHERE r.horaSalida IS NULL)", Socio.class)).thenReturn(socioQuery);
         when(socioQuery.getResultList()).thenReturn(sociosMock);
 
         List<Socio> socios = registroEntradaDAO.obtenerSociosDentro();
@@ -156,6 +170,19 @@ class RegistroEntradaDAOTest {
         assertEquals(1, socios.size(), "La lista de socios debería tener un tamaño de 1");
     }
 
+    @Test
+    void testObtenerResumenSociosDentro() {
+        SocioResumen resumen = new SocioResumen("S001", "Juan", "Pérez", LocalDate.of(1990, 1, 1));
+        when(session.createQuery(anyString(), eq(SocioResumen.class))).thenReturn(queryResumen);
+        when(queryResumen.getResultList()).thenReturn(List.of(resumen));
+
+        List<SocioResumen> socios = registroEntradaDAO.obtenerResumenSociosDentro();
+
+        assertEquals(1, socios.size(), "La lista de socios debería tener un tamaño de 1");
+        assertEquals("S001 - Juan Pérez", socios.get(0).getEtiqueta());
+        verify(session, never()).createQuery(anyString(), eq(Socio.class));
+    }
+
     @Test
     void testObtenerSocioPorNumero() {
         Socio socioMock = crearSocioMock();
@@ -168,5 +195,36 @@ class RegistroEntradaDAOTest {
         assertEquals("12345", socio.getNumeroSocio(), "El número de socio debería ser 12345");
     }
 
+    @Test
+    void testObtenerNumerosSociosDentro() {
+        when(session.createQuery("SELECT r.numeroSocio.numeroSocio FROM RegistroEntrada r WHERE r.horaSalida IS NULL", String.class)).thenReturn(queryString);
+        when(queryString.getResultList()).thenReturn(List.of("12345"));
+
+        List<String> numeros = registroEntradaDAO.obtenerNumerosSociosDentro();
+
+        assertEquals(List.of("12345"), numeros, "Debería devolver el número del socio dentro");
+        verify(transaction, times(1)).commit();
+    }
 
-}
\ No newline at end of file
+    @Test
+    void testObtenerOcupacionCompartida() {
+        RegistroEntradaDAO.invalidarOcupacion();
+        when(session.createQuery(startsWith("SELECT new org.socialclub.socialclub.model.OcupacionSnapshot"), eq(OcupacionSnapshot.class)))
+                .thenReturn(queryOcupacion);
+        when(queryOcupacion.getSingleResult()).thenReturn(new OcupacionSnapshot(100L, 30L, 7, 5));
+
+        OcupacionSnapshot ocupacion = registroEntradaDAO.obtenerOcupacion();
+        OcupacionSnapshot compartida = new RegistroEntradaDAO().obtenerOcupacion();
+
+        assertEquals(30, ocupacion.getSociosDentro());
+        assertEquals(70, ocupacion.getSociosFuera());
+        assertEquals(7, ocupacion.getIdUltimaEntrada());
+        assertSame(ocupacion, compartida, "Dentro del TTL se debería reutilizar el mismo estado");
+        verify(sessionFactory, times(1)).openSession();
+
+        registroEntradaDAO.crearRegistroEntrada(crearRegistroEntradaMock());
+        registroEntradaDAO.obtenerOcupacion();
+
+        verify(queryOcupacion, times(2)).getSingleResult();
+    }
+}
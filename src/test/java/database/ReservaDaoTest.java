@@ -3,6 +3,7 @@ package database;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.query.Query;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,15 +14,18 @@ import org.mockito.MockitoAnnotations;
 import org.socialclub.socialclub.database.ReservaDAO;
 import org.socialclub.socialclub.model.Instalacion;
 import org.socialclub.socialclub.model.Reserva;
+import org.socialclub.socialclub.model.ResultadoReserva;
 import org.socialclub.socialclub.model.Socio;
 import org.socialclub.socialclub.util.HibernateUtil;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -52,7 +56,7 @@ class ReservaDaoTest {
         mockedHibernateUtil.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
         when(sessionFactory.openSession()).thenReturn(session);
         when(session.beginTransaction()).thenReturn(transaction);
-        reservaDAO = new ReservaDAO();
+        reservaDAO = new ReservaDAO(() -> true);
     }
 
     /**
@@ -113,6 +117,26 @@ class ReservaDaoTest {
         assertEquals(1, reservas.size(), "La lista de reservas debería tener un tamaño de 1");
     }
 
+    /**
+     * Prueba para obtener una página de reservas a partir de la última reserva de la página anterior.
+     * Verifica que se filtra por la clave de la reserva y se limita el número de filas.
+     */
+    @Test
+    void testObtenerPaginaReservasSiguiente() {
+        LocalDate fecha = LocalDate.of(2024, 5, 1);
+        LocalTime hora = LocalTime.of(10, 0);
+        when(session.createQuery(contains("r.fecha < :fecha"), eq(Reserva.class))).thenReturn(reservaQuery);
+        when(reservaQuery.getResultList()).thenReturn(List.of(crearReservaMock()));
+
+        List<Reserva> reservas = reservaDAO.obtenerPaginaReservas(fecha, hora, 7, 50);
+
+        assertEquals(1, reservas.size(), "La página debería tener una reserva");
+        verify(reservaQuery).setParameter("fecha", fecha);
+        verify(reservaQuery).setParameter("hora", hora);
+        verify(reservaQuery).setParameter("id", 7);
+        verify(reservaQuery).setMaxResults(50);
+    }
+
     /**
      * Prueba para eliminar una reserva.
      * Verifica que la reserva se elimine correctamente.
@@ -146,4 +170,98 @@ class ReservaDaoTest {
         assertNotNull(horasReservadas, "La lista de horas reservadas no debería ser nula");
         assertEquals(1, horasReservadas.size(), "La lista de horas reservadas debería tener un tamaño de 1");
     }
-}
\ No newline at end of file
+
+    /**
+     * Prueba para reservar una hora libre.
+     * Verifica que se inserta la reserva, se confirma la transacción y se devuelven las horas reservadas.
+     */
+    @Test
+    void testReservarConfirmada() {
+        LocalDate fecha = LocalDate.of(2024, 6, 1);
+        LocalTime hora = LocalTime.of(10, 0);
+        Query<LocalTime> queryMock = mock(Query.class);
+        when(session.createQuery("select r.hora from Reserva r where r.idInstalacion.id = :idInstalacion and r.fecha = :fecha", LocalTime.class)).thenReturn(queryMock);
+        when(queryMock.getResultList()).thenReturn(List.of(hora));
+
+        ResultadoReserva resultado = reservaDAO.reservar("SOC-0001", 1, fecha, hora);
+
+        assertEquals(ResultadoReserva.Estado.CONFIRMADA, resultado.getEstado(), "La reserva debería estar confirmada");
+        assertEquals(List.of(hora), resultado.getHorasReservadas(), "Se deberían devolver las horas reservadas");
+        verify(session, times(1)).persist(any(Reserva.class));
+        verify(session, times(1)).flush();
+        verify(transaction, times(1)).commit();
+    }
+
+    /**
+     * Prueba para reservar una hora que otro puesto ya ha reservado.
+     * Verifica que la clave duplicada se devuelve como hora ocupada, se deshace la transacción y se devuelven
+     * las horas reservadas actuales.
+     */
+    @Test
+    void testReservarHoraOcupada() {
+        LocalDate fecha = LocalDate.of(2024, 6, 1);
+        LocalTime hora = LocalTime.of(10, 0);
+        doThrow(new ConstraintViolationException("Duplicate entry",
+                new SQLException("Duplicate entry", "23000", 1062), Reserva.RESTRICCION_HORA_UNICA))
+                .when(session).persist(any(Reserva.class));
+        Query<LocalTime> queryMock = mock(Query.class);
+        when(session.createQuery("select r.hora from Reserva r where r.idInstalacion.id = :idInstalacion and r.fecha = :fecha", LocalTime.class)).thenReturn(queryMock);
+        when(queryMock.getResultList()).thenReturn(List.of(hora));
+
+        ResultadoReserva resultado = reservaDAO.reservar("SOC-0001", 1, fecha, hora);
+
+        assertEquals(ResultadoReserva.Estado.OCUPADA, resultado.getEstado(), "La hora debería estar ocupada");
+        assertEquals(List.of(hora), resultado.getHorasReservadas(), "Se deberían devolver las horas reservadas");
+        verify(transaction, times(1)).rollback();
+        verify(transaction, never()).commit();
+    }
+
+    /**
+     * Prueba para una reserva que falla por un error distinto de una hora ya reservada.
+     * Verifica que el resultado es un error y no una hora ocupada.
+     */
+    @Test
+    void testReservarError() {
+        doThrow(new IllegalStateException("Conexión perdida")).when(session).persist(any(Reserva.class));
+
+        ResultadoReserva resultado = reservaDAO.reservar("SOC-0001", 1, LocalDate.of(2024, 6, 1), LocalTime.of(10, 0));
+
+        assertEquals(ResultadoReserva.Estado.ERROR, resultado.getEstado(), "La reserva debería fallar con un error");
+        assertTrue(resultado.getHorasReservadas().isEmpty(), "Sin horas reservadas la lista debería estar vacía");
+    }
+
+    /**
+     * Prueba que, sin la restricción de reservas únicas, una hora ya reservada no se vuelve a insertar.
+     */
+    @Test
+    void testReservarSinRestriccionHoraOcupada() {
+        LocalDate fecha = LocalDate.of(2024, 6, 1);
+        LocalTime hora = LocalTime.of(10, 0);
+        Query<LocalTime> queryMock = mock(Query.class);
+        when(session.createQuery("select r.hora from Reserva r where r.idInstalacion.id = :idInstalacion and r.fecha = :fecha", LocalTime.class)).thenReturn(queryMock);
+        when(queryMock.getResultList()).thenReturn(List.of(hora));
+
+        ResultadoReserva resultado = new ReservaDAO(() -> false).reservar("SOC-0001", 1, fecha, hora);
+
+        assertEquals(ResultadoReserva.Estado.OCUPADA, resultado.getEstado(), "La hora debería estar ocupada");
+        assertEquals(List.of(hora), resultado.getHorasReservadas(), "Se deberían devolver las horas reservadas");
+        verify(session, never()).persist(any(Reserva.class));
+    }
+
+    /**
+     * Prueba que, sin la restricción de reservas únicas, una hora libre se reserva después de comprobarla.
+     */
+    @Test
+    void testReservarSinRestriccionHoraLibre() {
+        LocalDate fecha = LocalDate.of(2024, 6, 1);
+        Query<LocalTime> queryMock = mock(Query.class);
+        when(session.createQuery("select r.hora from Reserva r where r.idInstalacion.id = :idInstalacion and r.fecha = :fecha", LocalTime.class)).thenReturn(queryMock);
+        when(queryMock.getResultList()).thenReturn(List.of(LocalTime.of(9, 0)));
+
+        ResultadoReserva resultado = new ReservaDAO(() -> false).reservar("SOC-0001", 1, fecha, LocalTime.of(10, 0));
+
+        assertEquals(ResultadoReserva.Estado.CONFIRMADA, resultado.getEstado(), "La reserva debería estar confirmada");
+        verify(session, times(1)).persist(any(Reserva.class));
+        verify(transaction, times(1)).commit();
+    }
+}
@@ -3,6 +3,8 @@ package database;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.Query;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +14,18 @@ import org.mockito.MockitoAnnotations;
 import org.socialclub.socialclub.database.SocioDAO;
 import org.socialclub.socialclub.model.Empleado;
 import org.socialclub.socialclub.model.Familia;
+import org.socialclub.socialclub.model.HuellaSocio;
+import org.socialclub.socialclub.model.RangoEdad;
 import org.socialclub.socialclub.model.Socio;
 import org.socialclub.socialclub.util.HibernateUtil;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -36,6 +45,27 @@ class SocioDaoTest {
     @Mock
     private SessionFactory sessionFactory;
 
+    @Mock
+    private MutationQuery mutationQuery;
+
+    @Mock
+    private MutationQuery marcaQuery;
+
+    @Mock
+    private Query<HuellaSocio> queryHuella;
+
+    @Mock
+    private Query<String> queryNumeroSocio;
+
+    @Mock
+    private Query<byte[]> queryFoto;
+
+    @Mock
+    private Query<Socio> querySocios;
+
+    @Mock
+    private Query<Object[]> queryConteo;
+
 
     private AutoCloseable closeable;
     private SocioDAO socioDAO;
@@ -47,11 +77,14 @@ class SocioDaoTest {
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
-        socioDAO = new SocioDAO();
+        socioDAO = new SocioDAO(() -> false);
 
         when(sessionFactory.openSession()).thenReturn(session);
         when(session.beginTransaction()).thenReturn(hibernateTransaction);
         when(sessionFactory.getCurrentSession()).thenReturn(session);
+        when(session.createNativeMutationQuery(anyString())).thenReturn(marcaQuery);
+        when(session.createQuery(startsWith("select s.numeroSocio from Socio s"), eq(String.class))).thenReturn(queryNumeroSocio);
+        when(queryNumeroSocio.uniqueResult()).thenReturn("S001");
     }
 
     /**
@@ -80,13 +113,15 @@ class SocioDaoTest {
             Empleado empleado = new Empleado();
             empleado.setId(1);
 
-            socioDAO.guardarSocio(familia, "Nombre", "Apellidos", "123456789", "12345678A",
+            String numeroSocio = socioDAO.guardarSocio(familia, "Nombre", "Apellidos", "123456789", "12345678A",
                     "correo@example.com", "2000-01-01", null, null,
                     Socio.Titularidad.TITULAR, (byte) 0, LocalDate.now().toString(), empleado, "contraseña");
 
+            assertEquals("S001", numeroSocio);
             verify(session).beginTransaction();
             verify(session).persist(any(Familia.class));
             verify(session).persist(any(Socio.class));
+            verify(queryNumeroSocio).setParameter("dni", "12345678A");
             verify(hibernateTransaction).commit();
         }
     }
@@ -163,4 +198,220 @@ class SocioDaoTest {
             verify(hibernateTransaction).commit();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifica que, si el alta del socio falla, no se devuelve ningún número de socio
+     * y la transacción se deshace, para que no se programe la escritura de su huella.
+     */
+    @Test
+    void testGuardarSocioFallido() {
+        when(session.get(eq(Familia.class), anyInt())).thenReturn(null);
+        when(hibernateTransaction.isActive()).thenReturn(true);
+        doThrow(new IllegalStateException("Error de inserción")).when(session).persist(any(Socio.class));
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            Familia familia = new Familia();
+            familia.setId(1);
+
+            String numeroSocio = socioDAO.guardarSocio(familia, "Nombre", "Apellidos", "123456789", "12345678A",
+                    "correo@example.com", "2000-01-01", null, null,
+                    Socio.Titularidad.TITULAR, (byte) 0, LocalDate.now().toString(), new Empleado(), "contraseña");
+
+            assertNull(numeroSocio);
+            verify(hibernateTransaction).rollback();
+            verify(hibernateTransaction, never()).commit();
+        }
+    }
+
+    /**
+     * Verifica el guardado diferido de la huella de un socio existente.
+     * Debe actualizar la huella y su marca de modificación por número de socio y devolver la proyección del socio
+     * para el índice de huellas.
+     */
+    @Test
+    void testGuardarHuella() {
+        socioDAO = new SocioDAO(() -> true);
+        byte[] plantilla = {1, 2, 3};
+        HuellaSocio huella = new HuellaSocio("S001", 1, "Juan", "Pérez", plantilla);
+        when(session.createMutationQuery(anyString())).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter(anyString(), any())).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(1);
+        when(session.createQuery(anyString(), eq(HuellaSocio.class))).thenReturn(queryHuella);
+        when(queryHuella.setParameter(anyString(), any())).thenReturn(queryHuella);
+        when(queryHuella.uniqueResult()).thenReturn(huella);
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            HuellaSocio resultado = socioDAO.guardarHuella("S001", plantilla);
+
+            assertSame(huella, resultado);
+            verify(session).createMutationQuery("update Socio s set s.huella = :huella where s.numeroSocio = :numeroSocio");
+            verify(mutationQuery).setParameter("numeroSocio", "S001");
+            verify(session).createNativeMutationQuery(
+                    "update socio set huella_actualizada = current_timestamp(6) where numero_socio = :numeroSocio");
+            verify(marcaQuery).setParameter("numeroSocio", "S001");
+            verify(marcaQuery).executeUpdate();
+            verify(hibernateTransaction).commit();
+        }
+    }
+
+    /**
+     * Verifica que, mientras no consta la migración de la marca de modificación, la huella se guarda sin tocar
+     * la columna de la marca.
+     */
+    @Test
+    void testGuardarHuellaSinColumnaMarca() {
+        byte[] plantilla = {1, 2, 3};
+        HuellaSocio huella = new HuellaSocio("S001", 1, "Juan", "Pérez", plantilla);
+        when(session.createMutationQuery(anyString())).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter(anyString(), any())).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(1);
+        when(session.createQuery(anyString(), eq(HuellaSocio.class))).thenReturn(queryHuella);
+        when(queryHuella.setParameter(anyString(), any())).thenReturn(queryHuella);
+        when(queryHuella.uniqueResult()).thenReturn(huella);
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            HuellaSocio resultado = socioDAO.guardarHuella("S001", plantilla);
+
+            assertSame(huella, resultado);
+            verify(session, never()).createNativeMutationQuery(anyString());
+            verify(hibernateTransaction).commit();
+        }
+    }
+
+    /**
+     * Verifica que la huella no se guarda si la actualización afecta a más de un socio.
+     */
+    @Test
+    void testGuardarHuellaVariasFilas() {
+        when(session.createMutationQuery(anyString())).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter(anyString(), any())).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(2);
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            HuellaSocio resultado = socioDAO.guardarHuella("S001", new byte[]{1});
+
+            assertNull(resultado);
+            verify(hibernateTransaction).rollback();
+            verify(hibernateTransaction, never()).commit();
+        }
+    }
+
+    /**
+     * Verifica que no se devuelve ninguna huella cuando no existe un socio con el número indicado.
+     */
+    @Test
+    void testGuardarHuellaSocioInexistente() {
+        when(session.createMutationQuery(anyString())).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter(anyString(), any())).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(0);
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            HuellaSocio resultado = socioDAO.guardarHuella("S999", new byte[]{1});
+
+            assertNull(resultado);
+            verify(session, never()).createQuery(anyString(), eq(HuellaSocio.class));
+            verify(hibernateTransaction).commit();
+        }
+    }
+
+    /**
+     * Verifica que la foto del socio se obtiene con una consulta propia en una sesión de solo lectura.
+     */
+    @Test
+    void testObtenerFoto() {
+        byte[] foto = {1, 2, 3};
+        when(session.createQuery("select s.foto from Socio s where s.numeroSocio = :numeroSocio", byte[].class)).thenReturn(queryFoto);
+        when(queryFoto.uniqueResult()).thenReturn(foto);
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            byte[] resultado = socioDAO.obtenerFoto("S001");
+
+            assertSame(foto, resultado);
+            verify(queryFoto).setParameter("numeroSocio", "S001");
+            verify(session).setDefaultReadOnly(true);
+        }
+    }
+
+    /**
+     * Verifica que las fotos de los carnets se obtienen con una única consulta y se asignan a los socios separados
+     * de la sesión, en el orden de los números pedidos.
+     */
+    @Test
+    void testObtenerSociosPorNumeroConFoto() {
+        byte[] foto = {1, 2, 3};
+        Socio primero = new Socio();
+        primero.setNumeroSocio("S001");
+        Socio segundo = new Socio();
+        segundo.setNumeroSocio("S002");
+        when(session.createQuery("from Socio s where s.numeroSocio in :numeros", Socio.class)).thenReturn(querySocios);
+        when(querySocios.getResultList()).thenReturn(List.of(primero, segundo));
+        when(session.createQuery(startsWith("select s.numeroSocio, s.foto from Socio s"), eq(Object[].class))).thenReturn(queryConteo);
+        when(queryConteo.getResultList()).thenReturn(List.<Object[]>of(new Object[]{"S002", foto}));
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            List<Socio> socios = socioDAO.obtenerSociosPorNumero(List.of("S002", "S001"), true);
+
+            assertEquals(List.of(segundo, primero), socios);
+            assertSame(foto, segundo.getFoto());
+            assertNull(primero.getFoto());
+            verify(session).detach(primero);
+            verify(session).detach(segundo);
+        }
+    }
+
+    /**
+     * Verifica que el rango de edad se traduce a un intervalo de fechas de nacimiento.
+     */
+    @Test
+    void testObtenerSociosPorRangoEdad() {
+        when(session.createQuery("from Socio s where s.fechaNacimiento between :desde and :hasta", Socio.class)).thenReturn(querySocios);
+        when(querySocios.getResultList()).thenReturn(List.of(new Socio()));
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            List<Socio> socios = socioDAO.obtenerSociosPorRangoEdad("adolescente");
+
+            LocalDate hoy = LocalDate.now();
+            assertEquals(1, socios.size());
+            verify(querySocios).setParameter("desde", hoy.minusYears(18).plusDays(1));
+            verify(querySocios).setParameter("hasta", hoy.minusYears(12));
+        }
+    }
+
+    /**
+     * Verifica que los socios de todos los rangos de edad se cuentan con una única consulta.
+     */
+    @Test
+    void testContarSociosPorRangoEdad() {
+        when(session.createQuery(anyString(), eq(Object[].class))).thenReturn(queryConteo);
+        when(queryConteo.getSingleResult()).thenReturn(new Object[]{2L, 5L, null, 40L, 3L});
+
+        try (MockedStatic<HibernateUtil> mockedStatic = mockStatic(HibernateUtil.class)) {
+            mockedStatic.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+
+            Map<RangoEdad, Long> conteo = socioDAO.contarSociosPorRangoEdad();
+
+            assertEquals(5, conteo.size());
+            assertEquals(2L, conteo.get(RangoEdad.BEBE));
+            assertEquals(0L, conteo.get(RangoEdad.ADOLESCENTE));
+            assertEquals(3L, conteo.get(RangoEdad.ABUELO));
+            verify(session, times(1)).createQuery(anyString(), eq(Object[].class));
+            verify(queryConteo).setParameter("hasta0", LocalDate.now());
+        }
+    }
+}
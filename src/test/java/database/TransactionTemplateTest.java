@@ -0,0 +1,117 @@
+package database;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.MockitoAnnotations;
+import org.socialclub.socialclub.database.RegistroEntradaDAO;
+import org.socialclub.socialclub.database.TransactionTemplate;
+import org.socialclub.socialclub.util.HibernateUtil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de prueba para TransactionTemplate.
+ */
+class TransactionTemplateTest {
+
+    private static final String TOTAL_SOCIOS = "SELECT COUNT(s) FROM Socio s";
+    private static final String TOTAL_DENTRO = "SELECT COUNT(r) FROM RegistroEntrada r WHERE r.horaSalida IS NULL";
+
+    @Mock
+    private SessionFactory sessionFactory;
+    @Mock
+    private Session session;
+    @Mock
+    private Transaction transaction;
+    @Mock
+    private Query<Long> queryTotal;
+    @Mock
+    private Query<Long> queryDentro;
+
+    private MockedStatic<HibernateUtil> mockedHibernateUtil;
+
+    /**
+     * Configura el entorno de prueba antes de cada prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockedHibernateUtil = mockStatic(HibernateUtil.class);
+        mockedHibernateUtil.when(HibernateUtil::getSessionFactory).thenReturn(sessionFactory);
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createQuery(TOTAL_SOCIOS, Long.class)).thenReturn(queryTotal);
+        when(session.createQuery(TOTAL_DENTRO, Long.class)).thenReturn(queryDentro);
+        when(queryTotal.getSingleResult()).thenReturn(100L);
+        when(queryDentro.getSingleResult()).thenReturn(30L);
+    }
+
+    /**
+     * Limpia el entorno de prueba después de cada prueba.
+     */
+    @AfterEach
+    void tearDown() {
+        if (mockedHibernateUtil != null) {
+            mockedHibernateUtil.close();
+        }
+    }
+
+    /**
+     * Prueba que las lecturas de un DAO se ejecutan en una sesión de solo lectura sin sincronización automática.
+     */
+    @Test
+    void testLecturaEnSesionSoloLectura() {
+        int total = new RegistroEntradaDAO().obtenerTotalSocios();
+
+        assertEquals(100, total);
+        verify(session).setDefaultReadOnly(true);
+        verify(session).setHibernateFlushMode(FlushMode.MANUAL);
+        verify(transaction).commit();
+        verify(session).close();
+    }
+
+    /**
+     * Prueba que varias llamadas a los DAO dentro de un bloque comparten una única sesión y transacción.
+     */
+    @Test
+    void testBloqueCompartido() {
+        RegistroEntradaDAO registroEntradaDAO = new RegistroEntradaDAO();
+
+        int sociosFuera = TransactionTemplate.enLectura(() -> {
+            assertTrue(TransactionTemplate.haySesionCompartida());
+            return registroEntradaDAO.obtenerTotalSocios() - registroEntradaDAO.obtenerTotalSociosDentro();
+        });
+
+        assertEquals(70, sociosFuera);
+        assertFalse(TransactionTemplate.haySesionCompartida());
+        verify(sessionFactory, times(1)).openSession();
+        verify(session, times(1)).beginTransaction();
+        verify(transaction, times(1)).commit();
+        verify(session, times(1)).close();
+    }
+
+    /**
+     * Prueba que no se puede abrir una transacción de escritura dentro de un bloque de solo lectura.
+     */
+    @Test
+    void testEscrituraDentroDeLecturaNoPermitida() {
+        when(session.isDefaultReadOnly()).thenReturn(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> TransactionTemplate.enLectura(() -> TransactionTemplate.enTransaccion(() -> 1)));
+        verify(transaction).rollback();
+        verify(transaction, never()).commit();
+    }
+}
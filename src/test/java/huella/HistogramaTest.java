@@ -0,0 +1,62 @@
+package huella;
+
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.huella.Histograma;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Clase de prueba para Histograma.
+ */
+class HistogramaTest {
+
+    /**
+     * Prueba los percentiles sobre las muestras 1..100.
+     */
+    @Test
+    void testPercentiles() {
+        Histograma histograma = new Histograma("prueba");
+        for (int i = 100; i >= 1; i--) {
+            histograma.registrar(i);
+        }
+
+        assertArrayEquals(new long[]{50, 95, 99}, histograma.percentiles(50, 95, 99));
+        assertEquals(100, histograma.percentil(100));
+        assertEquals(100, histograma.getTotal());
+        assertEquals(100, histograma.getMaximo());
+    }
+
+    /**
+     * Prueba que los percentiles solo tienen en cuenta las muestras más recientes.
+     */
+    @Test
+    void testConservaSoloMuestrasRecientes() {
+        Histograma histograma = new Histograma("prueba", 10);
+        for (int i = 0; i < 10; i++) {
+            histograma.registrar(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histograma.registrar(5);
+        }
+
+        assertEquals(5, histograma.percentil(99));
+        assertEquals(20, histograma.getTotal());
+        assertEquals(1_000, histograma.getMaximo());
+    }
+
+    /**
+     * Prueba que un histograma vacío o reiniciado devuelve ceros.
+     */
+    @Test
+    void testSinMuestras() {
+        Histograma histograma = new Histograma("prueba");
+        assertEquals(0, histograma.percentil(50));
+
+        histograma.registrar(7);
+        histograma.reiniciar();
+
+        assertArrayEquals(new long[]{0, 0}, histograma.percentiles(50, 99));
+        assertEquals(0, histograma.getTotal());
+    }
+}
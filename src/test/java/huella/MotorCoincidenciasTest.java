@@ -0,0 +1,140 @@
+package huella;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.huella.FingerprintMatcher;
+import org.socialclub.socialclub.huella.MotorCoincidencias;
+import org.socialclub.socialclub.huella.ResultadoCoincidencia;
+import org.socialclub.socialclub.huella.SyntheticMatcher;
+import org.socialclub.socialclub.huella.SyntheticTemplateGenerator;
+import org.socialclub.socialclub.model.HuellaSocio;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para MotorCoincidencias con el comparador sintético.
+ */
+class MotorCoincidenciasTest {
+
+    private final SyntheticTemplateGenerator generador = new SyntheticTemplateGenerator(42L);
+    private final SyntheticMatcher matcher = new SyntheticMatcher();
+    private MotorCoincidencias<long[], long[]> motor;
+
+    @BeforeEach
+    void setUp() {
+        motor = new MotorCoincidencias<>(matcher, 4, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        motor.cerrar();
+    }
+
+    /**
+     * Prueba que se identifica al socio correcto entre mil socios.
+     */
+    @Test
+    void testBuscarEntreMilSocios() {
+        List<HuellaSocio> socios = generador.generarSocios(1_000);
+
+        ResultadoCoincidencia resultado = motor.buscar(matcher.extraerCaracteristicas(generador.muestra(731)), socios);
+
+        assertTrue(resultado.isEncontrada());
+        assertEquals(generador.numeroSocio(731), resultado.getHuella().getNumeroSocio());
+    }
+
+    /**
+     * Prueba que se identifica al socio correcto entre diez mil socios.
+     */
+    @Test
+    void testBuscarEntreDiezMilSocios() {
+        List<HuellaSocio> socios = generador.generarSocios(10_000);
+
+        ResultadoCoincidencia resultado = motor.buscar(matcher.extraerCaracteristicas(generador.muestra(9_876)), socios);
+
+        assertTrue(resultado.isEncontrada());
+        assertEquals(generador.numeroSocio(9_876), resultado.getHuella().getNumeroSocio());
+    }
+
+    /**
+     * Prueba que una huella desconocida no coincide con ningún socio y se prueban todas las plantillas.
+     */
+    @Test
+    void testBuscarHuellaDesconocida() {
+        List<HuellaSocio> socios = generador.generarSocios(1_000);
+
+        ResultadoCoincidencia resultado = motor.buscar(matcher.extraerCaracteristicas(generador.muestraDesconocida()), socios);
+
+        assertFalse(resultado.isEncontrada());
+        assertEquals(socios.size(), resultado.getCandidatasProbadas());
+    }
+
+    /**
+     * Prueba que la comprobación de huella duplicada encuentra al propietario entre veinte mil socios dentro del tiempo límite.
+     * El tiempo lo marca un reloj que avanza un microsegundo por comparación, así que el resultado no depende de la máquina.
+     */
+    @Test
+    void testBuscarDuplicadoConLimite() {
+        AtomicLong reloj = new AtomicLong();
+        MotorCoincidencias<long[], long[]> motorConReloj = new MotorCoincidencias<>(matcherConReloj(reloj, TimeUnit.MICROSECONDS.toNanos(1)), 1, 256, reloj::get);
+        List<HuellaSocio> socios = generador.generarSocios(20_000);
+        try {
+            ResultadoCoincidencia resultado = motorConReloj.buscar(matcher.extraerCaracteristicas(generador.muestra(19_500)), socios, 200);
+
+            assertTrue(resultado.isEncontrada());
+            assertTrue(resultado.isCompleta());
+            assertEquals(generador.numeroSocio(19_500), resultado.getHuella().getNumeroSocio());
+        } finally {
+            motorConReloj.cerrar();
+        }
+    }
+
+    /**
+     * Prueba que la búsqueda se abandona al superar el tiempo límite y el resultado queda marcado como incompleto.
+     * Cada comparación avanza el reloj un milisegundo, así que con un límite de 5 ms se comparan exactamente 5 plantillas.
+     */
+    @Test
+    void testBuscarSuperaLimite() {
+        AtomicLong reloj = new AtomicLong();
+        MotorCoincidencias<long[], long[]> motorConReloj = new MotorCoincidencias<>(matcherConReloj(reloj, TimeUnit.MILLISECONDS.toNanos(1)), 1, 256, reloj::get);
+        List<HuellaSocio> socios = generador.generarSocios(10_000);
+        try {
+            ResultadoCoincidencia resultado = motorConReloj.buscar(matcher.extraerCaracteristicas(generador.muestraDesconocida()), socios, 5);
+
+            assertFalse(resultado.isEncontrada());
+            assertFalse(resultado.isCompleta());
+            assertEquals(5, resultado.getCandidatasProbadas());
+        } finally {
+            motorConReloj.cerrar();
+        }
+    }
+
+    /**
+     * Crea un comparador sintético que avanza el reloj de la prueba en cada comparación.
+     *
+     * @param reloj               el reloj de la prueba, en nanosegundos.
+     * @param nanosPorComparacion el tiempo que avanza el reloj en cada comparación.
+     * @return el comparador.
+     */
+    private FingerprintMatcher<long[], long[]> matcherConReloj(AtomicLong reloj, long nanosPorComparacion) {
+        return new FingerprintMatcher<>() {
+            @Override
+            public long[] prepararPlantilla(byte[] plantilla) {
+                return matcher.prepararPlantilla(plantilla);
+            }
+
+            @Override
+            public boolean verificar(long[] caracteristicas, long[] plantilla) {
+                reloj.addAndGet(nanosPorComparacion);
+                return matcher.verificar(caracteristicas, plantilla);
+            }
+        };
+    }
+}
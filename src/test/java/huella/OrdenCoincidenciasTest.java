@@ -0,0 +1,98 @@
+package huella;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.huella.OrdenCoincidencias;
+import org.socialclub.socialclub.model.HuellaSocio;
+import org.socialclub.socialclub.model.RegistroEntrada;
+import org.socialclub.socialclub.model.Socio;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Clase de prueba para OrdenCoincidencias.
+ */
+class OrdenCoincidenciasTest {
+
+    private final OrdenCoincidencias orden = OrdenCoincidencias.getInstance();
+
+    @AfterEach
+    void tearDown() {
+        orden.vaciarDentro();
+    }
+
+    /**
+     * Prueba que solo se adelantan los socios más prioritarios y el resto conserva el orden recibido.
+     */
+    @Test
+    void testOrdenarAdelantaSoloLosMasPrioritarios() {
+        List<HuellaSocio> huellas = huellas("ORD-A", 10);
+        LocalDate hoy = LocalDate.now();
+        entrar("ORD-A-7", hoy.minusDays(3));
+        salir("ORD-A-7");
+        entrar("ORD-A-2", hoy.minusDays(1));
+        salir("ORD-A-2");
+        entrar("ORD-A-5", hoy.minusDays(2));
+        salir("ORD-A-5");
+        entrar("ORD-A-9", hoy);
+
+        List<HuellaSocio> ordenadas = orden.ordenar(huellas, 3);
+
+        assertEquals(List.of("ORD-A-9", "ORD-A-2", "ORD-A-5", "ORD-A-0", "ORD-A-1", "ORD-A-3", "ORD-A-4",
+                "ORD-A-6", "ORD-A-7", "ORD-A-8"), numeros(ordenadas));
+    }
+
+    /**
+     * Prueba que, con suficiente hueco, el resultado coincide con ordenar toda la lista y es estable.
+     */
+    @Test
+    void testOrdenarCoincideConElOrdenCompleto() {
+        List<HuellaSocio> huellas = huellas("ORD-B", 6);
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        entrar("ORD-B-4", ayer);
+        salir("ORD-B-4");
+        entrar("ORD-B-1", ayer);
+        salir("ORD-B-1");
+        entrar("ORD-B-3", ayer);
+
+        assertEquals(List.of("ORD-B-3", "ORD-B-1", "ORD-B-4", "ORD-B-0", "ORD-B-2", "ORD-B-5"),
+                numeros(orden.ordenar(huellas, 100)));
+        assertEquals(numeros(huellas), numeros(orden.ordenar(huellas, 0)));
+    }
+
+    private List<HuellaSocio> huellas(String prefijo, int total) {
+        List<HuellaSocio> huellas = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            huellas.add(new HuellaSocio(prefijo + "-" + i, i, "Nombre", "Apellidos", new byte[0]));
+        }
+        return huellas;
+    }
+
+    private void entrar(String numeroSocio, LocalDate fecha) {
+        orden.registrarEntrada(registro(numeroSocio, fecha));
+    }
+
+    private void salir(String numeroSocio) {
+        RegistroEntrada registro = registro(numeroSocio, LocalDate.now());
+        registro.setHoraSalida(LocalTime.now());
+        orden.registrarSalida(registro);
+    }
+
+    private RegistroEntrada registro(String numeroSocio, LocalDate fecha) {
+        Socio socio = new Socio();
+        socio.setNumeroSocio(numeroSocio);
+        RegistroEntrada registro = new RegistroEntrada();
+        registro.setNumeroSocio(socio);
+        registro.setFecha(fecha);
+        return registro;
+    }
+
+    private List<String> numeros(List<HuellaSocio> huellas) {
+        return huellas.stream().map(HuellaSocio::getNumeroSocio).toList();
+    }
+}
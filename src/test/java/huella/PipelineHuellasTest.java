@@ -0,0 +1,118 @@
+package huella;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.socialclub.socialclub.huella.PipelineHuellas;
+import org.socialclub.socialclub.huella.ResultadoCoincidencia;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clase de prueba para PipelineHuellas.
+ */
+class PipelineHuellasTest {
+
+    private static final int CAPACIDAD = 2;
+
+    private PipelineHuellas<Integer, Integer> pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.detener();
+        }
+    }
+
+    /**
+     * Prueba que cada muestra capturada atraviesa todas las etapas y llega al registro.
+     */
+    @Test
+    void testProcesaTodasLasMuestras() throws InterruptedException {
+        BlockingQueue<Integer> lector = new LinkedBlockingQueue<>();
+        BlockingQueue<Long> registrados = new LinkedBlockingQueue<>();
+        pipeline = new PipelineHuellas<>(lector::take, muestra -> muestra * 10,
+                caracteristicas -> new ResultadoCoincidencia(null, caracteristicas, 1),
+                resultado -> registrados.add(resultado.getTiempoNanos()), CAPACIDAD);
+
+        pipeline.iniciar();
+        for (int i = 1; i <= 5; i++) {
+            lector.put(i);
+        }
+
+        for (long esperado = 10; esperado <= 50; esperado += 10) {
+            assertEquals(esperado, registrados.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Prueba que una muestra descartada en la extracción no llega a la búsqueda.
+     */
+    @Test
+    void testDescartaMuestrasSinCaracteristicas() throws InterruptedException {
+        BlockingQueue<Integer> lector = new LinkedBlockingQueue<>();
+        CountDownLatch registrados = new CountDownLatch(1);
+        AtomicInteger buscadas = new AtomicInteger();
+        pipeline = new PipelineHuellas<>(lector::take, muestra -> muestra < 0 ? null : muestra,
+                caracteristicas -> {
+                    buscadas.incrementAndGet();
+                    return new ResultadoCoincidencia(null, 0, 0);
+                },
+                resultado -> registrados.countDown(), CAPACIDAD);
+
+        pipeline.iniciar();
+        lector.put(-1);
+        lector.put(1);
+
+        assertTrue(registrados.await(5, TimeUnit.SECONDS));
+        assertEquals(1, buscadas.get());
+        assertEquals(2, pipeline.getProcesados(PipelineHuellas.Etapa.EXTRACCION));
+    }
+
+    /**
+     * Prueba que, con el registro bloqueado, el lector deja de capturar cuando se llenan las colas
+     * y vuelve a capturar al desbloquearse el registro.
+     */
+    @Test
+    void testBackpressureConRegistroBloqueado() throws InterruptedException {
+        // Tres colas llenas, un escaneo en cada etapa de proceso y uno esperando hueco en la captura
+        int limite = 3 * CAPACIDAD + 4;
+        AtomicInteger capturadas = new AtomicInteger();
+        CountDownLatch saturada = new CountDownLatch(limite);
+        CountDownLatch excedida = new CountDownLatch(1);
+        CountDownLatch desbloqueo = new CountDownLatch(1);
+        pipeline = new PipelineHuellas<>(() -> {
+            int capturada = capturadas.incrementAndGet();
+            if (capturada > limite) {
+                excedida.countDown();
+            }
+            saturada.countDown();
+            return capturada;
+        }, muestra -> muestra,
+                caracteristicas -> new ResultadoCoincidencia(null, 0, 0),
+                resultado -> {
+                    try {
+                        desbloqueo.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, CAPACIDAD);
+
+        pipeline.iniciar();
+
+        assertTrue(saturada.await(5, TimeUnit.SECONDS), "Las colas deberían llenarse");
+        assertFalse(excedida.await(200, TimeUnit.MILLISECONDS), "El lector no debería capturar con las colas llenas");
+        assertEquals(limite, capturadas.get());
+
+        desbloqueo.countDown();
+
+        assertTrue(excedida.await(5, TimeUnit.SECONDS), "El lector debería reanudarse al desbloquear el registro");
+    }
+}